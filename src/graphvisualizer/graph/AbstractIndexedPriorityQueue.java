@@ -0,0 +1,95 @@
+package graphvisualizer.graph;
+
+/**
+ * A base class for {@link IndexedPriorityQueue} implementations, providing the methods of the
+ * {@link PriorityQueue} and {@link AdaptablePriorityQueue} interfaces on top of the id-based ones.
+ * Subclasses only deal with ids and primitive keys.
+ */
+public abstract class AbstractIndexedPriorityQueue implements IndexedPriorityQueue {
+    /**
+     * An entry over an id. It reads the current key of its id while the id is queued, and the key it
+     * was created with otherwise.
+     */
+    private final class IdEntry implements Entry<Long, Integer> {
+        private final int id;
+        private final long key;
+
+        IdEntry(int id, long key) {
+            this.id = id;
+            this.key = key;
+        }
+
+        @Override
+        public Long getKey() {
+            return contains(id) ? key(id) : key;
+        }
+
+        @Override
+        public Integer getValue() {
+            return id;
+        }
+
+        private AbstractIndexedPriorityQueue owner() {
+            return AbstractIndexedPriorityQueue.this;
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean insertOrDecreaseKey(int id, long key) {
+        if (!contains(id)) {
+            insert(id, key);
+            return true;
+        }
+        if (key >= key(id)) return false;
+        decreaseKey(id, key);
+        return true;
+    }
+
+    /*
+    The methods of the PriorityQueue and AdaptablePriorityQueue interfaces, where the value of an
+    entry is its id. They allocate their entries and box their keys.
+     */
+    @Override
+    public Entry<Long, Integer> insert(Long key, Integer value) throws IllegalArgumentException {
+        if (key == null || value == null) throw new IllegalArgumentException("Incompatible key");
+        insert(value.intValue(), key.longValue());
+        return new IdEntry(value, key);
+    }
+
+    @Override
+    public Entry<Long, Integer> min() {
+        return isEmpty() ? null : new IdEntry(minId(), minKey());
+    }
+
+    @Override
+    public Entry<Long, Integer> removeMin() {
+        if (isEmpty()) return null;
+        Entry<Long, Integer> entry = new IdEntry(minId(), minKey());
+        removeMinId();
+        return entry;
+    }
+
+    @Override
+    public void remove(Entry<Long, Integer> entry) throws IllegalArgumentException {
+        remove(validate(entry));
+    }
+
+    @Override
+    public void replaceKey(Entry<Long, Integer> entry, Long key) throws IllegalArgumentException {
+        if (key == null) throw new IllegalArgumentException("Incompatible key");
+        changeKey(validate(entry), key);
+    }
+
+    /* validate that entry is an entry of this queue whose id is queued and return the id */
+    protected int validate(Entry<Long, Integer> entry) throws IllegalArgumentException {
+        if (!(entry instanceof AbstractIndexedPriorityQueue.IdEntry)) throw new IllegalArgumentException("Invalid Entry");
+        IdEntry idEntry = (IdEntry) entry;
+        if (idEntry.owner() != this || !contains(idEntry.id)) throw new IllegalArgumentException("Invalid Entry");
+        return idEntry.id;
+    }
+}
@@ -0,0 +1,174 @@
+package graphvisualizer.graph;
+
+import java.util.Arrays;
+
+/**
+ * A base class for monotone {@link IndexedPriorityQueue}s that keep their ids in buckets. Each
+ * bucket is a doubly linked list threaded through arrays indexed by id, so moving an id to another
+ * bucket when its key changes is O(1) and allocates nothing. Subclasses decide which bucket a key
+ * belongs to and how to find the bucket of the minimum. Keys must not be smaller than
+ * {@link #last}, the last minimum found, except in an empty queue.
+ */
+abstract class AbstractMonotoneQueue extends AbstractIndexedPriorityQueue {
+    private static final int NONE = -1, ABSENT = -2;
+
+    protected long last;            //a lower bound of every queued key, the last minimum found
+    protected final int[] head;     //first id of each bucket, or NONE
+    private int[] next, prev;       //the lists of the buckets, prev is ABSENT for ids that are not queued
+    private int[] bucketOf;
+    private long[] keys;
+    private int size;
+
+    protected AbstractMonotoneQueue(int idBound, int buckets) {
+        int capacity = Math.max(idBound, 1);
+        head = new int[buckets];
+        Arrays.fill(head, NONE);
+        next = new int[capacity];
+        prev = new int[capacity];
+        Arrays.fill(prev, ABSENT);
+        bucketOf = new int[capacity];
+        keys = new long[capacity];
+    }
+
+    /* return the bucket of key, which is at least last */
+    protected abstract int bucket(long key);
+
+    /* return the index of a non-empty bucket holding only the minimum key, the queue must not be empty */
+    protected abstract int minBucket();
+
+    /* validate that key may be queued, an empty queue lowers last to accept a smaller key */
+    protected void checkKey(long key) throws IllegalArgumentException {
+        if (size == 0 && key < last) last = key;
+        else if (key < last) throw new IllegalArgumentException("The key is smaller than the last minimum of the monotone queue.");
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return id >= 0 && id < prev.length && prev[id] != ABSENT;
+    }
+
+    @Override
+    public long key(int id) {
+        return keys[locate(id)];
+    }
+
+    @Override
+    public void insert(int id, long key) {
+        if (id < 0) throw new IllegalArgumentException("Negative id.");
+        if (contains(id)) throw new IllegalArgumentException("The id is already in the queue.");
+        checkKey(key);
+        if (id >= prev.length) growIds(id + 1);
+        keys[id] = key;
+        link(id, bucket(key));
+        ++size;
+    }
+
+    @Override
+    public void decreaseKey(int id, long key) {
+        if (key > keys[locate(id)]) throw new IllegalArgumentException("The new key is greater than the current key.");
+        changeKey(id, key);
+    }
+
+    @Override
+    public void changeKey(int id, long key) {
+        locate(id);
+        checkKey(key);
+        unlink(id);
+        keys[id] = key;
+        link(id, bucket(key));
+    }
+
+    @Override
+    public int minId() {
+        if (size == 0) throw new IllegalStateException("The queue is empty.");
+        return head[minBucket()];
+    }
+
+    @Override
+    public long minKey() {
+        return keys[minId()];
+    }
+
+    @Override
+    public int removeMinId() {
+        int id = minId();
+        unlink(id);
+        --size;
+        return id;
+    }
+
+    @Override
+    public boolean remove(int id) {
+        if (!contains(id)) return false;
+        unlink(id);
+        --size;
+        return true;
+    }
+
+    /* remove every id, in O(buckets + size) */
+    @Override
+    public void clear() {
+        for (int b = 0; b < head.length; b++) {
+            for (int id = head[b], following; id != NONE; id = following) {
+                following = next[id];
+                prev[id] = ABSENT;
+            }
+            head[b] = NONE;
+        }
+        size = 0;
+    }
+
+    /* return the key of id, which is queued, without validation */
+    protected long keyOf(int id) {
+        return keys[id];
+    }
+
+    /* return the id after id in its bucket, or -1 */
+    protected int nextInBucket(int id) {
+        return next[id];
+    }
+
+    /* move every id of bucket b to the bucket of its key, e.g. after last changed */
+    protected void redistribute(int b) {
+        int id = head[b];
+        head[b] = NONE;
+        for (int following; id != NONE; id = following) {
+            following = next[id];
+            link(id, bucket(keys[id]));
+        }
+    }
+
+    private void link(int id, int b) {
+        bucketOf[id] = b;
+        prev[id] = NONE;
+        next[id] = head[b];
+        if (head[b] != NONE) prev[head[b]] = id;
+        head[b] = id;
+    }
+
+    private void unlink(int id) {
+        if (prev[id] != NONE) next[prev[id]] = next[id];
+        else head[bucketOf[id]] = next[id];
+        if (next[id] != NONE) prev[next[id]] = prev[id];
+        prev[id] = ABSENT;
+    }
+
+    private int locate(int id) {
+        if (!contains(id)) throw new IllegalArgumentException("The id is not in the queue.");
+        return id;
+    }
+
+    private void growIds(int bound) {
+        int old = prev.length, capacity = Math.max(bound, old + (old >> 1));
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        Arrays.fill(prev, old, capacity, ABSENT);
+        bucketOf = Arrays.copyOf(bucketOf, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+}
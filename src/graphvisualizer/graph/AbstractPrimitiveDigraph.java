@@ -0,0 +1,579 @@
+package graphvisualizer.graph;
+
+import java.util.*;
+
+/**
+ * A base class for directed graphs whose structure is kept in primitive arrays instead of
+ * per-edge objects. Vertices and edges are given dense <code>int</code> ids; slots freed by
+ * removals are recycled by later insertions. The outgoing and incoming edges of each vertex
+ * are chained through the edge id columns as doubly linked lists (a "forward star" layout),
+ * so inserting and removing an edge is O(1) and no map entry is allocated per edge.
+ * {@link Edge} objects are only created on demand as light handles over an edge id.
+ * Subclasses decide how edge elements are stored, e.g. as primitive weights.
+ *
+ * @param <V> Vertex type
+ * @param <E> Edge type
+ */
+public abstract class AbstractPrimitiveDigraph<V, E> implements Graph<V, E> {
+    protected static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Concrete implementation of {@link Vertex}. One {@link PVertex} is kept per vertex so that
+     * algorithms may use it as a key; it only stores the vertex id.
+     */
+    private class PVertex implements Vertex<V> {
+        private final int id;
+
+        PVertex(int id) {
+            this.id = id;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V element() {
+            return (V) labels[id];
+        }
+
+        @Override
+        public int id() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return "Vertex{" + element() + "}";
+        }
+    }
+
+    /**
+     * Concrete implementation of {@link Edge}. A {@link PEdge} is a handle created on demand. The
+     * stamp of the edge slot is recorded so that a handle of a removed edge is not mistaken for a
+     * later edge that recycled the same id.
+     */
+    private class PEdge implements Edge<E, V> {
+        private final int id, stamp;
+
+        PEdge(int id, int stamp) {
+            this.id = id;
+            this.stamp = stamp;
+        }
+
+        @Override
+        public E element() {
+            return loadElement(id);
+        }
+
+        @Override
+        public int id() {
+            return id;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Vertex<V>[] vertices() {
+            return (Vertex<V>[]) new Vertex[]{handles[source[id]], handles[target[id]]};
+        }
+
+        @Override
+        public String toString() {
+            return "Edge from " + handles[source[id]] + " to " + handles[target[id]] + " with weight of " + element();
+        }
+
+        /*
+        2 PEdge objects are equals if they refer to the same edge slot of the same graph.
+        Override hashCode() if override equals()
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PEdge edge = (PEdge) o;
+            return id == edge.id && stamp == edge.stamp && owner() == edge.owner();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * id + stamp;
+        }
+
+        private AbstractPrimitiveDigraph<V, E> owner() {
+            return AbstractPrimitiveDigraph.this;
+        }
+    }
+
+    private final Map<V, Integer> index = new HashMap<>();
+    private int vertexCount, vertexBound, freeVertex = NONE;
+    private Object[] labels;
+    private PVertex[] handles;
+    private int[] firstOut, lastOut, firstIn, lastIn, outDegree, inDegree;
+
+    private int edgeCount, edgeBound, freeEdge = NONE;
+    private int[] source, target, nextOut, prevOut, nextIn, prevIn, stamps;
+
+    protected AbstractPrimitiveDigraph() {
+        this(INITIAL_CAPACITY, INITIAL_CAPACITY);
+    }
+
+    protected AbstractPrimitiveDigraph(int vertexCapacity, int edgeCapacity) {
+        vertexCapacity = Math.max(vertexCapacity, 1);
+        edgeCapacity = Math.max(edgeCapacity, 1);
+        labels = new Object[vertexCapacity];
+        handles = (PVertex[]) new AbstractPrimitiveDigraph.PVertex[vertexCapacity];
+        firstOut = new int[vertexCapacity];
+        lastOut = new int[vertexCapacity];
+        firstIn = new int[vertexCapacity];
+        lastIn = new int[vertexCapacity];
+        outDegree = new int[vertexCapacity];
+        inDegree = new int[vertexCapacity];
+        source = new int[edgeCapacity];
+        target = new int[edgeCapacity];
+        nextOut = new int[edgeCapacity];
+        prevOut = new int[edgeCapacity];
+        nextIn = new int[edgeCapacity];
+        prevIn = new int[edgeCapacity];
+        stamps = new int[edgeCapacity];
+    }
+
+    /* return the number of edge slots currently allocated */
+    protected int edgeCapacity() {
+        return source.length;
+    }
+
+    /* grow the element columns of the subclass to hold at least capacity edges */
+    protected abstract void growElements(int capacity);
+
+    /* validate that element can be stored, before the edge is linked */
+    protected abstract void checkElement(E element) throws InvalidEdgeException;
+
+    /* store the element of edge id, which checkElement accepted */
+    protected abstract void storeElement(int id, E element);
+
+    /* return the element of edge id */
+    protected abstract E loadElement(int id);
+
+    public synchronized void clear() {
+        index.clear();
+        Arrays.fill(labels, 0, vertexBound, null);
+        Arrays.fill(handles, 0, vertexBound, null);
+        vertexCount = vertexBound = edgeCount = edgeBound = 0;
+        freeVertex = freeEdge = NONE;
+    }
+
+    @Override
+    public synchronized int numVertices() {
+        return vertexCount;
+    }
+
+    @Override
+    public synchronized int numEdges() {
+        return edgeCount;
+    }
+
+    @Override
+    public synchronized Collection<Vertex<V>> vertices() {
+        List<Vertex<V>> list = new ArrayList<>(vertexCount);
+        for (int v = 0; v < vertexBound; v++) {
+            if (handles[v] != null) list.add(handles[v]);
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized Collection<Edge<E, V>> edges() {
+        List<Edge<E, V>> list = new ArrayList<>(edgeCount);
+        for (int v = 0; v < vertexBound; v++) {
+            if (handles[v] == null) continue;
+            for (int e = firstOut[v]; e != NONE; e = nextOut[e]) {
+                list.add(new PEdge(e, stamps[e]));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized Collection<Edge<E, V>> incomingEdges(Vertex<V> v) throws InvalidVertexException {
+        int id = validateVertex(v);
+        List<Edge<E, V>> list = new ArrayList<>(inDegree[id]);
+        for (int e = firstIn[id]; e != NONE; e = nextIn[e]) {
+            list.add(new PEdge(e, stamps[e]));
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized Collection<Edge<E, V>> outgoingEdges(Vertex<V> v) throws InvalidVertexException {
+        int id = validateVertex(v);
+        List<Edge<E, V>> list = new ArrayList<>(outDegree[id]);
+        for (int e = firstOut[id]; e != NONE; e = nextOut[e]) {
+            list.add(new PEdge(e, stamps[e]));
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized Vertex<V> opposite(Vertex<V> v, Edge<E, V> e) throws InvalidVertexException, InvalidEdgeException {
+        int vertex = validateVertex(v);
+        int edge = validateEdge(e);
+
+        if (source[edge] == vertex) {
+            return handles[target[edge]];
+        }
+        else if (target[edge] == vertex) {
+            return handles[source[edge]];
+        }
+        else {
+            throw new InvalidEdgeException("v is not incident to this edge.");
+        }
+    }
+
+    @Override
+    public synchronized Vertex<V> insertVertex(V element) throws InvalidVertexException {
+        if (index.containsKey(element)) {
+            throw new InvalidVertexException("A vertex with this element already exists.");
+        }
+
+        int id;
+        if (freeVertex != NONE) {       //recycle a slot freed by removeVertex
+            id = freeVertex;
+            freeVertex = firstOut[id];
+        }
+        else {
+            if (vertexBound == labels.length) growVertices(vertexBound + (vertexBound >> 1) + 1);
+            id = vertexBound++;
+        }
+        labels[id] = element;
+        handles[id] = new PVertex(id);
+        firstOut[id] = lastOut[id] = firstIn[id] = lastIn[id] = NONE;
+        outDegree[id] = inDegree[id] = 0;
+        index.put(element, id);
+        ++vertexCount;
+        return handles[id];
+    }
+
+    @Override
+    public synchronized Edge<E, V> getEdge(Vertex<V> u, Vertex<V> v) throws InvalidVertexException {
+        int e = findEdge(validateVertex(u), validateVertex(v));
+        return e == NONE ? null : new PEdge(e, stamps[e]);
+    }
+
+    @Override
+    public synchronized Edge<E, V> insertEdge(Vertex<V> u, Vertex<V> v, E element) throws InvalidVertexException, InvalidEdgeException {
+        int s = validateVertex(u), t = validateVertex(v);
+        checkElement(element);
+        int e = linkEdge(s, t);
+        storeElement(e, element);
+        return new PEdge(e, stamps[e]);
+    }
+
+    @Override
+    public synchronized Edge<E, V> insertEdge(V uElement, V vElement, E eElement) throws InvalidVertexException, InvalidEdgeException {
+        int s = validateElement(uElement), t = validateElement(vElement);
+        checkElement(eElement);
+        int e = linkEdge(s, t);
+        storeElement(e, eElement);
+        return new PEdge(e, stamps[e]);
+    }
+
+    @Override
+    public synchronized V removeVertex(Vertex<V> v) throws InvalidVertexException {
+        int id = validateVertex(v);
+        V element = v.element();
+
+        while (firstOut[id] != NONE) unlinkEdge(firstOut[id]);
+        while (firstIn[id] != NONE) unlinkEdge(firstIn[id]);
+
+        index.remove(element);
+        labels[id] = null;
+        handles[id] = null;
+        firstOut[id] = freeVertex;      //chain the free slot
+        freeVertex = id;
+        --vertexCount;
+        return element;
+    }
+
+    @Override
+    public synchronized E removeEdge(Edge<E, V> e) throws InvalidEdgeException {
+        int id = validateEdge(e);
+        E element = loadElement(id);
+        unlinkEdge(id);
+        return element;
+    }
+
+    /*
+    The bulk methods hold the monitor once for the whole batch and grow the columns at most once.
+    A batch is atomic: if one of the elements is invalid, the graph is left unchanged.
+     */
+    @Override
+    public synchronized List<Vertex<V>> insertVertices(Collection<? extends V> elements) throws InvalidVertexException {
+        Set<V> batch = new HashSet<>(elements.size() * 4 / 3 + 1);
+        for (V element : elements) {
+            if (index.containsKey(element) || !batch.add(element)) {
+                throw new InvalidVertexException("A vertex with this element already exists.");
+            }
+        }
+        if (vertexBound + elements.size() > labels.length) growVertices(vertexBound + elements.size());
+
+        List<Vertex<V>> inserted = new ArrayList<>(elements.size());
+        for (V element : elements) {
+            inserted.add(insertVertex(element));
+        }
+        return inserted;
+    }
+
+    @Override
+    public synchronized void insertEdges(List<? extends V> uElements, List<? extends V> vElements, List<? extends E> eElements) throws InvalidVertexException, InvalidEdgeException {
+        int m = uElements.size();
+        if (vElements.size() != m || eElements.size() != m) {
+            throw new IllegalArgumentException("The lists of end vertices and elements differ in size.");
+        }
+
+        int[] starts = new int[m], ends = new int[m];
+        Iterator<? extends V> u = uElements.iterator(), v = vElements.iterator();
+        for (int i = 0; i < m; i++) {
+            starts[i] = validateElement(u.next());
+            ends[i] = validateElement(v.next());
+        }
+        for (E element : eElements) {
+            checkElement(element);          //before any edge is linked, so that storing cannot fail
+        }
+        if (edgeBound + m > source.length) growEdges(edgeBound + m);
+
+        int[] inserted = new int[m];
+        Iterator<? extends E> e = eElements.iterator();
+        for (int i = 0; i < m; i++) {
+            try {
+                inserted[i] = linkEdge(starts[i], ends[i]);
+            } catch (InvalidEdgeException ex) {
+                for (int j = i - 1; j >= 0; j--) unlinkEdge(inserted[j]); //roll back the edges linked so far
+                throw ex;
+            }
+            storeElement(inserted[i], e.next());
+        }
+    }
+
+    /* return the id of vertex v */
+    public synchronized int vertexId(Vertex<V> v) throws InvalidVertexException {
+        return validateVertex(v);
+    }
+
+    /* return the id of the vertex with this element, or -1 if there is none */
+    public synchronized int vertexId(V element) {
+        Integer id = index.get(element);
+        return id == null ? NONE : id;
+    }
+
+    /* return true if a vertex with this id exists, not synchronized */
+    public boolean containsVertex(int vertexId) {
+        return vertexId >= 0 && vertexId < vertexBound && handles[vertexId] != null;
+    }
+
+    /* return the vertex with this id */
+    public synchronized Vertex<V> vertex(int id) throws InvalidVertexException {
+        if (id < 0 || id >= vertexBound || handles[id] == null) throw new InvalidVertexException("Vertex does not belong to this graph.");
+        return handles[id];
+    }
+
+    /* return the id of edge e */
+    public synchronized int edgeId(Edge<E, V> e) throws InvalidEdgeException {
+        return validateEdge(e);
+    }
+
+    @Override
+    public synchronized int vertexIdBound() {
+        return vertexBound;
+    }
+
+    @Override
+    public synchronized int edgeIdBound() {
+        return edgeBound;
+    }
+
+    /*
+    The following accessors expose the forward star directly for allocation-free traversal, e.g.
+    for (int e = g.firstOutEdge(u); e != -1; e = g.nextOutEdge(e)) { int v = g.edgeTarget(e); ... }
+    They are not validated nor synchronized, so the caller must hold valid ids and must not mutate
+    the graph concurrently.
+     */
+    public int firstOutEdge(int vertexId) {
+        return firstOut[vertexId];
+    }
+
+    public int nextOutEdge(int edgeId) {
+        return nextOut[edgeId];
+    }
+
+    public int firstInEdge(int vertexId) {
+        return firstIn[vertexId];
+    }
+
+    public int nextInEdge(int edgeId) {
+        return nextIn[edgeId];
+    }
+
+    public int edgeSource(int edgeId) {
+        return source[edgeId];
+    }
+
+    public int edgeTarget(int edgeId) {
+        return target[edgeId];
+    }
+
+    public int outDegree(int vertexId) {
+        return outDegree[vertexId];
+    }
+
+    public int inDegree(int vertexId) {
+        return inDegree[vertexId];
+    }
+
+    /* return the id of the edge from u to v, or -1 if there is none, scanning the shorter list */
+    protected int findEdge(int u, int v) {
+        if (outDegree[u] <= inDegree[v]) {
+            for (int e = firstOut[u]; e != NONE; e = nextOut[e]) {
+                if (target[e] == v) return e;
+            }
+        }
+        else {
+            for (int e = firstIn[v]; e != NONE; e = nextIn[e]) {
+                if (source[e] == u) return e;
+            }
+        }
+        return NONE;
+    }
+
+    /* link a new edge from u to v at the tail of both lists and return its id */
+    protected int linkEdge(int u, int v) throws InvalidEdgeException {
+        if (findEdge(u, v) != NONE) {
+            throw new InvalidEdgeException("Edge from u to v exists.");
+        }
+
+        int e;
+        if (freeEdge != NONE) {         //recycle a slot freed by removeEdge
+            e = freeEdge;
+            freeEdge = nextOut[e];
+        }
+        else {
+            if (edgeBound == source.length) growEdges(edgeBound + (edgeBound >> 1) + 1);
+            e = edgeBound++;
+        }
+        source[e] = u;
+        target[e] = v;
+        ++stamps[e];
+
+        nextOut[e] = NONE;
+        prevOut[e] = lastOut[u];
+        if (lastOut[u] != NONE) nextOut[lastOut[u]] = e;
+        else firstOut[u] = e;
+        lastOut[u] = e;
+        ++outDegree[u];
+
+        nextIn[e] = NONE;
+        prevIn[e] = lastIn[v];
+        if (lastIn[v] != NONE) nextIn[lastIn[v]] = e;
+        else firstIn[v] = e;
+        lastIn[v] = e;
+        ++inDegree[v];
+
+        ++edgeCount;
+        return e;
+    }
+
+    /* unlink edge e from both lists and free its slot */
+    protected void unlinkEdge(int e) {
+        int u = source[e], v = target[e];
+
+        if (prevOut[e] != NONE) nextOut[prevOut[e]] = nextOut[e];
+        else firstOut[u] = nextOut[e];
+        if (nextOut[e] != NONE) prevOut[nextOut[e]] = prevOut[e];
+        else lastOut[u] = prevOut[e];
+        --outDegree[u];
+
+        if (prevIn[e] != NONE) nextIn[prevIn[e]] = nextIn[e];
+        else firstIn[v] = nextIn[e];
+        if (nextIn[e] != NONE) prevIn[nextIn[e]] = prevIn[e];
+        else lastIn[v] = prevIn[e];
+        --inDegree[v];
+
+        source[e] = target[e] = NONE;
+        ++stamps[e];                    //invalidate outstanding handles
+        nextOut[e] = freeEdge;          //chain the free slot
+        freeEdge = e;
+        --edgeCount;
+    }
+
+    private void growVertices(int capacity) {
+        labels = Arrays.copyOf(labels, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+        firstOut = Arrays.copyOf(firstOut, capacity);
+        lastOut = Arrays.copyOf(lastOut, capacity);
+        firstIn = Arrays.copyOf(firstIn, capacity);
+        lastIn = Arrays.copyOf(lastIn, capacity);
+        outDegree = Arrays.copyOf(outDegree, capacity);
+        inDegree = Arrays.copyOf(inDegree, capacity);
+    }
+
+    private void growEdges(int capacity) {
+        source = Arrays.copyOf(source, capacity);
+        target = Arrays.copyOf(target, capacity);
+        nextOut = Arrays.copyOf(nextOut, capacity);
+        prevOut = Arrays.copyOf(prevOut, capacity);
+        nextIn = Arrays.copyOf(nextIn, capacity);
+        prevIn = Arrays.copyOf(prevIn, capacity);
+        stamps = Arrays.copyOf(stamps, capacity);
+        growElements(capacity);
+    }
+
+    /* validate that this vertex belongs to the graph and return its id */
+    protected int validateVertex(Vertex<V> v) throws InvalidVertexException {
+        if (v == null) throw new InvalidVertexException("Null vertex.");
+        if (!(v instanceof AbstractPrimitiveDigraph.PVertex)) throw new InvalidVertexException("Not a vertex.");
+
+        int id = ((PVertex) v).id;
+        if (id >= vertexBound || handles[id] != v) {
+            throw new InvalidVertexException("Vertex does not belong to this graph.");
+        }
+        return id;
+    }
+
+    /* validate that a vertex with this element belongs to the graph and return its id */
+    protected int validateElement(V element) throws InvalidVertexException {
+        Integer id = index.get(element);
+        if (id == null) throw new InvalidVertexException("Vertex does not belong to this graph.");
+        return id;
+    }
+
+    /* validate that this edge belongs to the graph and return its id */
+    protected int validateEdge(Edge<E, V> e) throws InvalidEdgeException {
+        if (e == null) throw new InvalidEdgeException("Null edge.");
+        if (!(e instanceof AbstractPrimitiveDigraph.PEdge)) throw new InvalidEdgeException("Not an edge.");
+
+        PEdge edge = (PEdge) e;
+        if (edge.owner() != this || edge.id >= edgeBound || stamps[edge.id] != edge.stamp) {
+            throw new InvalidEdgeException("Edge does not belong to this graph.");
+        }
+        return edge.id;
+    }
+
+    /* wrap edge id in a handle */
+    protected Edge<E, V> edgeHandle(int id) {
+        return new PEdge(id, stamps[id]);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder(
+                String.format("[Graph with %d vertices and %d edges]\n", numVertices(), numEdges())
+        );
+
+        sb.append("--- Vertices: \n");
+        for (Vertex<V> v : vertices()) {
+            sb.append("\t").append(v.toString()).append("\n");
+        }
+        sb.append("\n--- Edges: \n");
+        for (Edge<E, V> e : edges()) {
+            sb.append("\t").append(e.toString()).append("\n");
+        }
+        return sb.append("\n").toString();
+    }
+}
@@ -1,7 +1,7 @@
 package graphvisualizer.graph;
 
-//Interface for AdaptablePriorityQueue
-public interface AdaptablePriorityQueue<K, V> {
+//Interface for AdaptablePriorityQueue, a priority queue whose entries can be removed or rekeyed
+public interface AdaptablePriorityQueue<K, V> extends PriorityQueue<K, V> {
     void remove (Entry<K,V> entry);             //Removes the given entry from the priority queue
     void replaceKey (Entry<K,V> entry, K key);  //Replaces the key of an entry
-}
\ No newline at end of file
+}
@@ -0,0 +1,202 @@
+package graphvisualizer.graph;
+
+import java.util.*;
+
+/**
+ * An insertion-ordered map from the neighbours of a vertex to the edges connecting them, sized for
+ * the low degrees of sparse graphs. Up to {@link #THRESHOLD} entries are kept inline in a single
+ * array of alternating keys and values that is scanned linearly, which costs a few bytes per edge
+ * instead of a hash table and its entry objects; a vertex without edges allocates nothing. Above
+ * the threshold the entries move to a {@link LinkedHashMap} so that lookups on hubs stay O(1), and
+ * they move back inline once the degree falls to half the threshold.
+ *
+ * @param <K> Key type, i.e. the neighbour vertex
+ * @param <T> Value type, i.e. the connecting edge
+ */
+final class AdaptiveAdjacency<K, T> {
+    static final int THRESHOLD = 8;
+    private static final Object[] EMPTY = {};
+
+    private Object[] slots = EMPTY;     //key of entry i at 2i, value at 2i + 1, while map is null
+    private int size;
+    private LinkedHashMap<K, T> map;
+
+    AdaptiveAdjacency() {
+    }
+
+    /* return a compact copy of other, sharing its keys and values */
+    AdaptiveAdjacency(AdaptiveAdjacency<K, T> other) {
+        size = other.size;
+        if (other.map != null) {
+            map = new LinkedHashMap<>(other.map);
+        }
+        else if (size > 0) {
+            slots = Arrays.copyOf(other.slots, 2 * size);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /* return true if the entries are kept inline, so that they can be read with keyAt and valueAt */
+    boolean isInline() {
+        return map == null;
+    }
+
+    /* return the key of the i-th entry, only while inline */
+    @SuppressWarnings("unchecked")
+    K keyAt(int i) {
+        return (K) slots[2 * i];
+    }
+
+    /* return the value of the i-th entry, only while inline */
+    @SuppressWarnings("unchecked")
+    T valueAt(int i) {
+        return (T) slots[2 * i + 1];
+    }
+
+    /* return the value mapped to key, or null if there is none */
+    T get(Object key) {
+        if (map != null) return map.get(key);
+        int i = indexOf(key);
+        return i < 0 ? null : valueAt(i);
+    }
+
+    boolean containsKey(Object key) {
+        return map != null ? map.containsKey(key) : indexOf(key) >= 0;
+    }
+
+    /* map key to value, returning the previous value or null */
+    T put(K key, T value) {
+        if (map != null) {
+            T previous = map.put(key, value);
+            size = map.size();
+            return previous;
+        }
+
+        int i = indexOf(key);
+        if (i >= 0) {
+            T previous = valueAt(i);
+            slots[2 * i + 1] = value;
+            return previous;
+        }
+        if (size == THRESHOLD) {
+            inflate(size + 1);
+            map.put(key, value);
+            size = map.size();
+            return null;
+        }
+        if (2 * size == slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(4, Math.min(4 * size, 2 * THRESHOLD)));
+        }
+        slots[2 * size] = key;
+        slots[2 * size + 1] = value;
+        ++size;
+        return null;
+    }
+
+    /* remove the entry of key, returning its value or null */
+    T remove(Object key) {
+        if (map != null) {
+            T removed = map.remove(key);
+            size = map.size();
+            if (size <= THRESHOLD / 2) deflate();
+            return removed;
+        }
+
+        int i = indexOf(key);
+        if (i < 0) return null;
+        T removed = valueAt(i);
+        System.arraycopy(slots, 2 * i + 2, slots, 2 * i, 2 * (size - i - 1)); //keep the insertion order
+        --size;
+        slots[2 * size] = slots[2 * size + 1] = null;
+        return removed;
+    }
+
+    /* make room for extra more entries without growing step by step */
+    void ensureCapacity(int extra) {
+        int needed = size + extra;
+        if (needed > THRESHOLD) {
+            if (map == null) {
+                inflate(needed);
+            }
+            else if (extra > size) { //growing by doubling is cheap enough for small batches
+                LinkedHashMap<K, T> resized = new LinkedHashMap<>(needed * 4 / 3 + 1);
+                resized.putAll(map);
+                map = resized;
+            }
+        }
+        else if (2 * needed > slots.length) {
+            slots = Arrays.copyOf(slots, 2 * needed);
+        }
+    }
+
+    void clear() {
+        slots = EMPTY;
+        map = null;
+        size = 0;
+    }
+
+    /* return an unmodifiable view of the values in insertion order */
+    Collection<T> values() {
+        return new AbstractCollection<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                if (map != null) {
+                    return Collections.unmodifiableCollection(map.values()).iterator();
+                }
+                return new Iterator<T>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public T next() {
+                        if (next >= size) throw new NoSuchElementException();
+                        return valueAt(next++);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /* return the index of key among the inline entries, or -1 */
+    private int indexOf(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        for (int i = 0; i < size; i++) {
+            Object k = slots[2 * i];
+            if (k == key || (k != null && k.hashCode() == hash && k.equals(key))) return i;
+        }
+        return -1;
+    }
+
+    /* move the inline entries to a map sized for capacity entries */
+    private void inflate(int capacity) {
+        map = new LinkedHashMap<>(capacity * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            map.put(keyAt(i), valueAt(i));
+        }
+        slots = EMPTY;
+    }
+
+    /* move the entries of the map back inline */
+    private void deflate() {
+        Object[] inline = size == 0 ? EMPTY : new Object[2 * THRESHOLD];
+        int i = 0;
+        for (Map.Entry<K, T> entry : map.entrySet()) {
+            inline[i++] = entry.getKey();
+            inline[i++] = entry.getValue();
+        }
+        slots = inline;
+        map = null;
+    }
+}
@@ -0,0 +1,754 @@
+package graphvisualizer.graph;
+
+import java.util.*;
+
+/**
+ * A directed graph that moves its edges between representations as its shape and its use change,
+ * so that a graph going through a bulk load, a phase of heavy editing and a read-only analysis is
+ * stored in the right structure for each. Three representations are used:
+ * <ul>
+ * <li>{@link Representation#MAP}, an {@link AdjacencyMapDigraph}, while the graph is sparse and
+ * being edited;</li>
+ * <li>{@link Representation#CSR}, a {@link CSRDigraph}, once the reads since the last write have
+ * cost about as much as copying the graph, i.e. O(n + m); the next write moves the graph back;</li>
+ * <li>{@link Representation#MATRIX}, a {@link BitMatrixDigraph}, while the graph is dense and has
+ * between {@link #MATRIX_MIN_VERTICES} and {@link #MATRIX_MAX_VERTICES} vertices, whether it is
+ * edited or read.</li>
+ * </ul>
+ * The graph enters the matrix above {@link #DENSE} density and leaves it below {@link #SPARSE}, so
+ * that it does not move back and forth around a single threshold. The current choice and the
+ * figures it is based on are reported by {@link #metrics()}.
+ * <p>
+ * Vertex handles and ids belong to this graph and survive every move. Each representation holds a
+ * vertex for every id below {@link #vertexIdBound()}, including the ids of removed vertices, which
+ * keep no edges there, so that its vertex ids are those of this graph and the {@link IntDigraph}
+ * surface reads it without translation. Edge ids are those of the current representation and
+ * change when the graph moves. The {@link Graph} methods are synchronized; the {@link IntDigraph}
+ * methods are trusted and are not, except for the creation of cursors, which counts as a whole read
+ * of the graph. A move never modifies the structure it leaves, so that a traversal started before
+ * it keeps a consistent view.
+ *
+ * @param <V> Vertex type
+ */
+public class AdaptiveDigraph<V> implements Graph<V, Integer>, IntDigraph {
+    public static final double DENSE = 0.25, SPARSE = 0.125;
+    public static final int MATRIX_MIN_VERTICES = 64, MATRIX_MAX_VERTICES = 4096;
+
+    public enum Representation {
+        /* an adjacency map, for sparse graphs being edited */
+        MAP,
+        /* compressed sparse rows, for sparse graphs being read */
+        CSR,
+        /* a bitset adjacency matrix, for small dense graphs */
+        MATRIX
+    }
+
+    /**
+     * The figures a graph bases its choice of representation on, taken at one point in time.
+     */
+    public static final class Metrics {
+        private final Representation representation;
+        private final int numVertices, numEdges, maxOutDegree, maxInDegree, migrations;
+        private final long readsSinceWrite;
+
+        private Metrics(Representation representation, int numVertices, int numEdges, int maxOutDegree, int maxInDegree,
+                        int migrations, long readsSinceWrite) {
+            this.representation = representation;
+            this.numVertices = numVertices;
+            this.numEdges = numEdges;
+            this.maxOutDegree = maxOutDegree;
+            this.maxInDegree = maxInDegree;
+            this.migrations = migrations;
+            this.readsSinceWrite = readsSinceWrite;
+        }
+
+        public Representation representation() {
+            return representation;
+        }
+
+        public int numVertices() {
+            return numVertices;
+        }
+
+        public int numEdges() {
+            return numEdges;
+        }
+
+        /* return the fraction of the n(n - 1) possible edges between distinct vertices that are present */
+        public double density() {
+            return AdaptiveDigraph.density(numVertices, numEdges);
+        }
+
+        public double averageDegree() {
+            return numVertices == 0 ? 0 : (double) numEdges / numVertices;
+        }
+
+        public int maxOutDegree() {
+            return maxOutDegree;
+        }
+
+        public int maxInDegree() {
+            return maxInDegree;
+        }
+
+        /* return the number of times the graph changed representation */
+        public int migrations() {
+            return migrations;
+        }
+
+        /* return the work of the reads since the last write, in vertices and edges visited */
+        public long readsSinceWrite() {
+            return readsSinceWrite;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%s with %d vertices and %d edges, density %.4f, average degree %.2f, max out/in degree %d/%d, %d migrations]",
+                    representation, numVertices, numEdges, density(), averageDegree(), maxOutDegree, maxInDegree, migrations);
+        }
+    }
+
+    /**
+     * Concrete implementation of {@link Vertex}. One {@link AVertex} is kept per vertex, whatever the
+     * representation of the edges.
+     */
+    private class AVertex implements Vertex<V> {
+        private final int id;
+
+        AVertex(int id) {
+            this.id = id;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V element() {
+            return (V) labels[id];
+        }
+
+        @Override
+        public int id() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return "Vertex{" + element() + "}";
+        }
+    }
+
+    /**
+     * Concrete implementation of {@link Edge}. An {@link AEdge} is a handle created on demand over a
+     * pair of vertices; its element and id are read from the current representation.
+     */
+    private class AEdge implements Edge<Integer, V> {
+        private final AVertex u, v;
+
+        AEdge(AVertex u, AVertex v) {
+            this.u = u;
+            this.v = v;
+        }
+
+        /* return the weight, or null if the edge was removed */
+        @Override
+        public Integer element() {
+            synchronized (AdaptiveDigraph.this) {
+                return hasEdge(u.id, v.id) ? weight(u.id, v.id) : null;
+            }
+        }
+
+        @Override
+        public int id() {
+            synchronized (AdaptiveDigraph.this) {
+                return edgeId(u.id, v.id);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Vertex<V>[] vertices() {
+            return (Vertex<V>[]) new Vertex[]{u, v};
+        }
+
+        @Override
+        public String toString() {
+            return "Edge from " + u + " to " + v + " with weight of " + element();
+        }
+
+        /*
+        2 AEdge objects are equals if they join the same vertices of the same graph.
+        Override hashCode() if override equals()
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            AEdge edge = (AEdge) o;
+            return u == edge.u && v == edge.v;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * u.id + v.id;
+        }
+    }
+
+    private final Map<V, Integer> index = new HashMap<>();
+    private final IdAllocator vertexIds = new IdAllocator();
+    private Object[] labels = new Object[16];
+    private AVertex[] handles = (AVertex[]) new AdaptiveDigraph.AVertex[16];
+    private int vertexCount, edgeCount;
+
+    /*
+    Exactly one of map, csr and matrix is set, according to representation, and view is its
+    IntDigraph surface. The vertices of all three are the Integer ids of this graph.
+     */
+    private Representation representation;
+    private AdjacencyMapDigraph<Integer, Integer> map;
+    private CSRDigraph<Integer> csr;
+    private BitMatrixDigraph<Integer> matrix;
+    private volatile IntDigraph view;
+    private int migrations;
+    private long readsSinceWrite;
+
+    public AdaptiveDigraph() {
+        useMap(new AdjacencyMapDigraph<>());
+    }
+
+    public synchronized void clear() {
+        index.clear();
+        vertexIds.clear();
+        Arrays.fill(labels, null);
+        Arrays.fill(handles, null);
+        vertexCount = edgeCount = 0;
+        readsSinceWrite = 0;
+        if (representation != Representation.MAP) ++migrations;
+        useMap(new AdjacencyMapDigraph<>());
+    }
+
+    /* return the representation currently holding the edges */
+    public synchronized Representation representation() {
+        return representation;
+    }
+
+    /* return the current representation and the figures it is chosen from, scanning the degrees in O(n) */
+    public synchronized Metrics metrics() {
+        int maxOut = 0, maxIn = 0;
+        for (int v = 0; v < vertexIds.bound(); v++) {
+            if (handles[v] == null) continue;
+            maxOut = Math.max(maxOut, view.outDegree(v));
+            maxIn = Math.max(maxIn, view.inDegree(v));
+        }
+        return new Metrics(representation, vertexCount, edgeCount, maxOut, maxIn, migrations, readsSinceWrite);
+    }
+
+    @Override
+    public synchronized int numVertices() {
+        return vertexCount;
+    }
+
+    @Override
+    public synchronized int numEdges() {
+        return edgeCount;
+    }
+
+    @Override
+    public synchronized int vertexIdBound() {
+        return vertexIds.bound();
+    }
+
+    @Override
+    public synchronized int edgeIdBound() {
+        switch (representation) {
+            case MAP:
+                return map.edgeIdBound();
+            case CSR:
+                return csr.numEdges();
+            default:
+                return matrix.edgeIdBound();
+        }
+    }
+
+    @Override
+    public synchronized Collection<Vertex<V>> vertices() {
+        read(vertexCount);
+        List<Vertex<V>> list = new ArrayList<>(vertexCount);
+        for (int v = 0; v < vertexIds.bound(); v++) {
+            if (handles[v] != null) list.add(handles[v]);
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized Collection<Edge<Integer, V>> edges() {
+        read(edgeCount);
+        List<Edge<Integer, V>> list = new ArrayList<>(edgeCount);
+        for (int u = 0; u < vertexIds.bound(); u++) {
+            AVertex source = handles[u];
+            if (source != null) view.forEachOutNeighbor(u, (v, weight) -> list.add(new AEdge(source, handles[v])));
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized Collection<Edge<Integer, V>> incomingEdges(Vertex<V> v) throws InvalidVertexException {
+        AVertex target = validateVertex(v);
+        read(1 + view.inDegree(target.id));
+        List<Edge<Integer, V>> list = new ArrayList<>(view.inDegree(target.id));
+        view.forEachInNeighbor(target.id, (u, weight) -> list.add(new AEdge(handles[u], target)));
+        return list;
+    }
+
+    @Override
+    public synchronized Collection<Edge<Integer, V>> outgoingEdges(Vertex<V> v) throws InvalidVertexException {
+        AVertex source = validateVertex(v);
+        read(1 + view.outDegree(source.id));
+        List<Edge<Integer, V>> list = new ArrayList<>(view.outDegree(source.id));
+        view.forEachOutNeighbor(source.id, (t, weight) -> list.add(new AEdge(source, handles[t])));
+        return list;
+    }
+
+    @Override
+    public synchronized Vertex<V> opposite(Vertex<V> v, Edge<Integer, V> e) throws InvalidVertexException, InvalidEdgeException {
+        AVertex vertex = validateVertex(v);
+        AEdge edge = validateEdge(e);
+
+        if (edge.u == vertex) {
+            return edge.v;
+        }
+        else if (edge.v == vertex) {
+            return edge.u;
+        }
+        else {
+            throw new InvalidEdgeException("v is not incident to this edge.");
+        }
+    }
+
+    @Override
+    public synchronized Vertex<V> insertVertex(V element) throws InvalidVertexException {
+        if (index.containsKey(element)) {
+            throw new InvalidVertexException("A vertex with this element already exists.");
+        }
+        beginWrite(1);
+        AVertex vertex = addVertex(element);
+        endWrite();
+        return vertex;
+    }
+
+    @Override
+    public synchronized Edge<Integer, V> getEdge(Vertex<V> u, Vertex<V> v) throws InvalidVertexException {
+        AVertex s = validateVertex(u), t = validateVertex(v);
+        read(1);
+        return hasEdge(s.id, t.id) ? new AEdge(s, t) : null;
+    }
+
+    @Override
+    public synchronized Edge<Integer, V> insertEdge(Vertex<V> u, Vertex<V> v, Integer element) throws InvalidVertexException, InvalidEdgeException {
+        return addEdge(validateVertex(u), validateVertex(v), element);
+    }
+
+    @Override
+    public synchronized Edge<Integer, V> insertEdge(V uElement, V vElement, Integer eElement) throws InvalidVertexException, InvalidEdgeException {
+        return addEdge(handles[validateElement(uElement)], handles[validateElement(vElement)], eElement);
+    }
+
+    @Override
+    public synchronized V removeVertex(Vertex<V> v) throws InvalidVertexException {
+        AVertex vertex = validateVertex(v);
+        V element = vertex.element();
+        beginWrite();
+
+        //the representation keeps a vertex for the id, without edges
+        if (representation == Representation.MAP) {
+            map.removeVertex(map.vertex(vertex.id));
+            map.insertVertex(vertex.id);        //the id just released is the one handed out again
+            edgeCount = map.numEdges();
+        }
+        else {
+            matrix.removeVertex(matrix.vertex(vertex.id));
+            matrix.insertVertex(vertex.id);
+            edgeCount = matrix.numEdges();
+        }
+
+        index.remove(element);
+        labels[vertex.id] = null;
+        handles[vertex.id] = null;
+        vertexIds.release(vertex.id);
+        --vertexCount;
+        endWrite();
+        return element;
+    }
+
+    @Override
+    public synchronized Integer removeEdge(Edge<Integer, V> e) throws InvalidEdgeException {
+        AEdge edge = validateEdge(e);
+        beginWrite();
+        Integer element;
+        if (representation == Representation.MAP) {
+            element = map.removeEdge(map.getEdge(map.vertex(edge.u.id), map.vertex(edge.v.id)));
+        }
+        else {
+            element = matrix.removeEdge(matrix.getEdge(matrix.vertex(edge.u.id), matrix.vertex(edge.v.id)));
+        }
+        --edgeCount;
+        endWrite();
+        return element;
+    }
+
+    /*
+    The bulk methods validate the whole batch first and hand it to the representation in one call,
+    so that a bulk load is a single pass over the map or the matrix and the graph only considers
+    moving once, at the end. A batch is atomic: if one of the elements is invalid, the graph is left
+    unchanged.
+     */
+    @Override
+    public synchronized List<Vertex<V>> insertVertices(Collection<? extends V> elements) throws InvalidVertexException {
+        Set<V> batch = new HashSet<>(elements.size() * 4 / 3 + 1);
+        for (V element : elements) {
+            if (index.containsKey(element) || !batch.add(element)) {
+                throw new InvalidVertexException("A vertex with this element already exists.");
+            }
+        }
+        beginWrite(elements.size());
+        List<Vertex<V>> inserted = new ArrayList<>(elements.size());
+        for (V element : elements) {
+            inserted.add(addVertex(element));
+        }
+        endWrite();
+        return inserted;
+    }
+
+    @Override
+    public synchronized void insertEdges(List<? extends V> uElements, List<? extends V> vElements, List<? extends Integer> eElements) throws InvalidVertexException, InvalidEdgeException {
+        int m = uElements.size();
+        if (vElements.size() != m || eElements.size() != m) {
+            throw new IllegalArgumentException("The lists of end vertices and elements differ in size.");
+        }
+
+        List<Integer> starts = new ArrayList<>(m), ends = new ArrayList<>(m);
+        Iterator<? extends V> u = uElements.iterator(), v = vElements.iterator();
+        for (int i = 0; i < m; i++) {
+            starts.add(validateElement(u.next()));
+            ends.add(validateElement(v.next()));
+        }
+        beginWrite();
+        try {
+            if (representation == Representation.MAP) {
+                map.insertEdges(starts, ends, eElements);
+                edgeCount = map.numEdges();
+            }
+            else {
+                matrix.insertEdges(starts, ends, eElements);
+                edgeCount = matrix.numEdges();
+            }
+        } finally {
+            endWrite();
+        }
+    }
+
+    /* return the id of the vertex with this element, or -1 if there is none */
+    public synchronized int vertexId(V element) {
+        Integer id = index.get(element);
+        return id == null ? -1 : id;
+    }
+
+    /* return the vertex with this id */
+    public synchronized Vertex<V> vertex(int id) throws InvalidVertexException {
+        if (id < 0 || id >= vertexIds.bound() || handles[id] == null) throw new InvalidVertexException("Vertex does not belong to this graph.");
+        return handles[id];
+    }
+
+    /*
+    The IntDigraph surface delegates to the current representation, whose ids are those of this
+    graph. It is not validated nor synchronized, so the caller must hold valid ids and must not
+    mutate the graph concurrently.
+     */
+    @Override
+    public boolean containsVertex(int vertexId) {
+        AVertex[] handles = this.handles;
+        return vertexId >= 0 && vertexId < handles.length && handles[vertexId] != null;
+    }
+
+    @Override
+    public int outDegree(int vertexId) {
+        return view.outDegree(vertexId);
+    }
+
+    @Override
+    public int inDegree(int vertexId) {
+        return view.inDegree(vertexId);
+    }
+
+    @Override
+    public void forEachOutNeighbor(int vertexId, IntIntConsumer action) {
+        view.forEachOutNeighbor(vertexId, action);
+    }
+
+    @Override
+    public void forEachInNeighbor(int vertexId, IntIntConsumer action) {
+        view.forEachInNeighbor(vertexId, action);
+    }
+
+    /* return a cursor over the current representation, a traversal counts as reading the whole graph */
+    @Override
+    public synchronized NeighborCursor outCursor() {
+        read((long) vertexCount + edgeCount);
+        return view.outCursor();
+    }
+
+    @Override
+    public synchronized NeighborCursor inCursor() {
+        read((long) vertexCount + edgeCount);
+        return view.inCursor();
+    }
+
+    private AVertex addVertex(V element) {
+        int id = vertexIds.acquire();
+        if (id == labels.length) {
+            labels = Arrays.copyOf(labels, id * 2);
+            handles = Arrays.copyOf(handles, id * 2);
+        }
+        if (id == representationBound()) {      //ids below the bound already have a vertex
+            if (representation == Representation.MAP) map.insertVertex(id);
+            else matrix.insertVertex(id);
+        }
+        labels[id] = element;
+        handles[id] = new AVertex(id);
+        index.put(element, id);
+        ++vertexCount;
+        return handles[id];
+    }
+
+    private Edge<Integer, V> addEdge(AVertex u, AVertex v, Integer element) throws InvalidEdgeException {
+        beginWrite();
+        try {
+            if (representation == Representation.MAP) map.insertEdge(map.vertex(u.id), map.vertex(v.id), element);
+            else matrix.insertEdge(matrix.vertex(u.id), matrix.vertex(v.id), element.intValue());
+            ++edgeCount;
+        } finally {
+            endWrite();
+        }
+        return new AEdge(u, v);
+    }
+
+    /* return the number of vertices of the representation, every id below it has one */
+    private int representationBound() {
+        switch (representation) {
+            case MAP:
+                return map.vertexIdBound();
+            case CSR:
+                return csr.vertexIdBound();
+            default:
+                return matrix.vertexIdBound();
+        }
+    }
+
+    /* return true if there is an edge from u to v, scanning the shorter list of the CSR */
+    private boolean hasEdge(int u, int v) {
+        switch (representation) {
+            case MAP:
+                return map.getEdge(map.vertex(u), map.vertex(v)) != null;
+            case CSR:
+                if (csr.outDegree(u) <= csr.inDegree(v)) {
+                    return outSlot(u, v) >= 0;
+                }
+                for (int i = csr.inStart(v); i < csr.inEnd(v); i++) {
+                    if (csr.inSource(i) == u) return true;
+                }
+                return false;
+            default:
+                return matrix.hasEdge(u, v);
+        }
+    }
+
+    /* return the weight of the edge from u to v, which must exist */
+    private int weight(int u, int v) {
+        switch (representation) {
+            case MAP:
+                return map.getEdge(map.vertex(u), map.vertex(v)).element();
+            case CSR:
+                return csr.outWeight(outSlot(u, v));
+            default:
+                return matrix.weight(u, v);
+        }
+    }
+
+    /* return the id of the edge from u to v in the current representation, which must exist */
+    private int edgeId(int u, int v) {
+        switch (representation) {
+            case MAP:
+                return map.getEdge(map.vertex(u), map.vertex(v)).id();
+            case CSR:
+                return outSlot(u, v);
+            default:
+                return matrix.getEdge(matrix.vertex(u), matrix.vertex(v)).id();
+        }
+    }
+
+    /* return the CSR slot of the edge from u to v, or -1 if there is none */
+    private int outSlot(int u, int v) {
+        for (int i = csr.outStart(u); i < csr.outEnd(u); i++) {
+            if (csr.outTarget(i) == v) return i;
+        }
+        return -1;
+    }
+
+    /*
+    A write leaves the CSR, which is immutable, for the map or the matrix, and ends the read phase.
+    After the write, the density decides between the map and the matrix. A write adding vertices
+    leaves the matrix beforehand if they would not fit, rather than growing it.
+     */
+    private void beginWrite() {
+        beginWrite(0);
+    }
+
+    private void beginWrite(int newVertices) {
+        readsSinceWrite = 0;
+        if (representation == Representation.CSR) {
+            migrate(fitsMatrix(DENSE) ? Representation.MATRIX : Representation.MAP);
+        }
+        if (representation == Representation.MATRIX && (long) vertexIds.bound() + newVertices > MATRIX_MAX_VERTICES) {
+            migrate(Representation.MAP);
+        }
+    }
+
+    private void endWrite() {
+        if (representation == Representation.MAP && fitsMatrix(DENSE)) {
+            migrate(Representation.MATRIX);
+        }
+        else if (representation == Representation.MATRIX && !fitsMatrix(SPARSE)) {
+            migrate(Representation.MAP);
+        }
+    }
+
+    /* return true if the graph is at least this dense and small enough for the matrix */
+    private boolean fitsMatrix(double density) {
+        return vertexIds.bound() <= MATRIX_MAX_VERTICES && vertexCount >= MATRIX_MIN_VERTICES
+                && density(vertexCount, edgeCount) >= density;
+    }
+
+    /*
+    Reads are counted in vertices and edges visited. Copying the graph into a CSR costs O(n + m),
+    so a sparse graph is frozen once the reads since the last write have cost as much.
+     */
+    private void read(long work) {
+        readsSinceWrite += work;
+        if (representation == Representation.MAP && readsSinceWrite >= (long) vertexCount + edgeCount) {
+            migrate(Representation.CSR);
+        }
+    }
+
+    /* copy the edges into a new representation, reading the current one through its IntDigraph surface */
+    private void migrate(Representation target) {
+        int n = vertexIds.bound();
+        IntDigraph source = view;
+        List<Integer> ids = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) ids.add(v);
+
+        if (target == Representation.CSR) {
+            int[] sources = new int[edgeCount], targets = new int[edgeCount], weights = new int[edgeCount];
+            int[] m = {0};
+            for (int u = 0; u < n; u++) {
+                int s = u;
+                source.forEachOutNeighbor(u, (v, weight) -> {
+                    sources[m[0]] = s;
+                    targets[m[0]] = v;
+                    weights[m[0]++] = weight;
+                });
+            }
+            csr = CSRDigraph.fromEdges(ids, sources, targets, weights, edgeCount);
+            map = null;
+            matrix = null;
+            view = csr;
+        }
+        else if (target == Representation.MATRIX) {
+            BitMatrixDigraph<Integer> copy = new BitMatrixDigraph<>(n);
+            copy.insertVertices(ids);
+            for (int u = 0; u < n; u++) {
+                Vertex<Integer> s = copy.vertex(u);
+                source.forEachOutNeighbor(u, (v, weight) -> copy.insertEdge(s, copy.vertex(v), weight));
+            }
+            matrix = copy;
+            map = null;
+            csr = null;
+            view = copy;
+        }
+        else {
+            AdjacencyMapDigraph<Integer, Integer> copy = new AdjacencyMapDigraph<>();
+            copy.insertVertices(ids);
+            List<Integer> starts = new ArrayList<>(edgeCount), ends = new ArrayList<>(edgeCount), weights = new ArrayList<>(edgeCount);
+            for (int u = 0; u < n; u++) {
+                Integer s = ids.get(u);
+                source.forEachOutNeighbor(u, (v, weight) -> {
+                    starts.add(s);
+                    ends.add(ids.get(v));
+                    weights.add(weight);
+                });
+            }
+            copy.insertEdges(starts, ends, weights);
+            useMap(copy);
+        }
+        representation = target;
+        ++migrations;
+    }
+
+    private void useMap(AdjacencyMapDigraph<Integer, Integer> graph) {
+        map = graph;
+        csr = null;
+        matrix = null;
+        view = graph.asIntDigraph(Integer::intValue);
+        representation = Representation.MAP;
+    }
+
+    private static double density(int numVertices, int numEdges) {
+        return numVertices < 2 ? 0 : (double) numEdges / ((long) numVertices * (numVertices - 1));
+    }
+
+    /* validate that this vertex belongs to the graph */
+    private AVertex validateVertex(Vertex<V> v) throws InvalidVertexException {
+        if (v == null) throw new InvalidVertexException("Null vertex.");
+        if (!(v instanceof AdaptiveDigraph.AVertex)) throw new InvalidVertexException("Not a vertex.");
+
+        AVertex vertex = (AVertex) v;
+        if (vertex.id >= vertexIds.bound() || handles[vertex.id] != v) {
+            throw new InvalidVertexException("Vertex does not belong to this graph.");
+        }
+        return vertex;
+    }
+
+    /* validate that a vertex with this element belongs to the graph and return its id */
+    private int validateElement(V element) throws InvalidVertexException {
+        Integer id = index.get(element);
+        if (id == null) throw new InvalidVertexException("Vertex does not belong to this graph.");
+        return id;
+    }
+
+    /* validate that this edge joins vertices of the graph and is present */
+    private AEdge validateEdge(Edge<Integer, V> e) throws InvalidEdgeException {
+        if (e == null) throw new InvalidEdgeException("Null edge.");
+        if (!(e instanceof AdaptiveDigraph.AEdge)) throw new InvalidEdgeException("Not an edge.");
+
+        AEdge edge = (AEdge) e;
+        if (edge.u.id >= vertexIds.bound() || edge.v.id >= vertexIds.bound() || handles[edge.u.id] != edge.u
+                || handles[edge.v.id] != edge.v || !hasEdge(edge.u.id, edge.v.id)) {
+            throw new InvalidEdgeException("Edge does not belong to this graph.");
+        }
+        return edge;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder(
+                String.format("[Graph with %d vertices and %d edges]\n", numVertices(), numEdges())
+        );
+
+        sb.append("--- Vertices: \n");
+        for (Vertex<V> v : vertices()) {
+            sb.append("\t").append(v.toString()).append("\n");
+        }
+        sb.append("\n--- Edges: \n");
+        for (Edge<Integer, V> e : edges()) {
+            sb.append("\t").append(e.toString()).append("\n");
+        }
+        return sb.append("\n").toString();
+    }
+}
@@ -1,6 +1,11 @@
 package graphvisualizer.graph;
 
 import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 /**
  * An adjacency map structure for a directed graph. A double map structure is used
@@ -9,25 +14,46 @@ import java.util.*;
  * map structure can be used since the vertices added are unique i.e. with unique
  * <code>String</code> labels. This structure provides similar performance to an
  * adjacency matrix where the {@link #getEdge(Vertex u, Vertex v)} method can achieve
- * O(1) by performing lookup on the first and second map respectively.
+ * O(1) by performing lookup on the first and second map respectively. For small dense
+ * graphs, {@link BitMatrixDigraph} answers it with a single bit test instead.
  *
  * @param <V> Vertex type
  * @param <E> Edge type
  */
 public class AdjacencyMapDigraph<V, E> implements Graph<V, E> {
+    /**
+     * When the graph maintains the incoming edges of each vertex, which doubles the memory and the
+     * insertion cost of the adjacency but is only needed to walk edges backwards.
+     */
+    public enum IncomingEdgeIndex {
+        /* the incoming edges are maintained with every mutation */
+        ALWAYS,
+        /* the incoming edges are never maintained; querying those of a vertex scans every vertex */
+        NEVER,
+        /* the incoming edges are indexed on the first query that needs them, then maintained */
+        LAZY
+    }
+
     /**
      * Concrete implementation of {@link Vertex}. A {@link DVertex} object stores
-     * a {@link V} element and its edges. Edges are implemented as {@link LinkedHashMap}
-     * to provide O(1) lookup and also maintain the insertion order.
+     * a {@link V} element and its edges. Edges are implemented as {@link AdaptiveAdjacency}
+     * which keeps the few edges of most vertices inline and switches to a hash index for
+     * high degrees, to provide fast lookup and also maintain the insertion order. The hash
+     * code is cached since vertices are hashed by every lookup of the graph. The incoming
+     * edges are null while the graph does not index them.
      */
     private class DVertex implements Vertex<V> {
+        private final int id, hash;
         private V element;
-        private Map<Vertex<V>, Edge<E, V>> outgoingEdges, incomingEdges;
+        private final AdaptiveAdjacency<Vertex<V>, Edge<E, V>> outgoingEdges;
+        private AdaptiveAdjacency<Vertex<V>, Edge<E, V>> incomingEdges;
 
         public DVertex(V element) {
+            this.id = vertexIds.acquire();
+            this.hash = element.hashCode();
             this.element = element;
-            outgoingEdges = new LinkedHashMap<>();
-            incomingEdges = new LinkedHashMap<>();
+            outgoingEdges = new AdaptiveAdjacency<>();
+            incomingEdges = incomingIndexed ? new AdaptiveAdjacency<>() : null;
         }
 
         @Override
@@ -35,11 +61,16 @@ public class AdjacencyMapDigraph<V, E> implements Graph<V, E> {
             return element;
         }
 
-        public Map<Vertex<V>, Edge<E, V>> getOutgoingEdges() {
+        @Override
+        public int id() {
+            return id;
+        }
+
+        public AdaptiveAdjacency<Vertex<V>, Edge<E, V>> getOutgoingEdges() {
             return outgoingEdges;
         }
 
-        public Map<Vertex<V>, Edge<E, V>> getIncomingEdges() {
+        public AdaptiveAdjacency<Vertex<V>, Edge<E, V>> getIncomingEdges() {
             return incomingEdges;
         }
 
@@ -57,24 +88,28 @@ public class AdjacencyMapDigraph<V, E> implements Graph<V, E> {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             DVertex vertex = (DVertex) o;
-            return element.equals(vertex.element);
+            return hash == vertex.hash && element.equals(vertex.element);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(element);
+            return hash;
         }
     }
 
     /**
      * Concrete implementation of {@link Edge}. A {@link DEdge} object stores
-     * an {@link E} element and its {@link V} end vertices.
+     * an {@link E} element and its {@link V} end vertices. The hash code is derived
+     * from the cached hash codes of the end vertices once, at creation.
      */
     private class DEdge implements Edge<E, V> {
+        private final int id, hash;
         private E element;
         private Vertex<V>[] endVertices;
 
         public DEdge(Vertex<V> u, Vertex<V> v, E element) {
+            this.id = edgeIds.acquire();
+            this.hash = 31 * u.hashCode() + v.hashCode();
             this.element = element;
             this.endVertices = (Vertex<V>[]) new Vertex[]{u, v};
         }
@@ -84,6 +119,11 @@ public class AdjacencyMapDigraph<V, E> implements Graph<V, E> {
             return element;
         }
 
+        @Override
+        public int id() {
+            return id;
+        }
+
         @Override
         public Vertex<V>[] vertices() {
             return endVertices;
@@ -103,17 +143,47 @@ public class AdjacencyMapDigraph<V, E> implements Graph<V, E> {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             DEdge edge = (DEdge) o;
-            return Arrays.equals(endVertices, edge.endVertices);
+            return hash == edge.hash && Arrays.equals(endVertices, edge.endVertices);
         }
 
         @Override
         public int hashCode() {
-            return Arrays.hashCode(endVertices);
+            return hash;
         }
     }
 
     private Map<V, Vertex<V>> vertices;
     private Set<Edge<E, V>> edges;
+    private final IdAllocator vertexIds = new IdAllocator(), edgeIds = new IdAllocator();
+    private Object[] vertexById = new Object[16];     //DVertex objects indexed by id, for the trusted traversal
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SplittableRandom random = new SplittableRandom();    //used under the write lock only
+
+    /*
+    Every mutation bumps the version and records the vertices whose adjacency changed, inserted and
+    removed vertices included, so that snapshot() only has to update the entries of those vertices
+    and can share the rest with the previous snapshot.
+     */
+    private long version;
+    private final Set<Vertex<V>> dirtyVertices = Collections.newSetFromMap(new IdentityHashMap<>()); //a removed vertex equals the one reinserted with its element
+    private DigraphSnapshot<V, E> lastSnapshot;
+
+    /*
+    While somebody subscribes to the changes, every mutation records them under the write lock and
+    publishes them as one batch when it ends, or when the enclosing batch() ends, which keeps the
+    batches in mutation order.
+     */
+    private final GraphChangePublisher<V, E> changes = new GraphChangePublisher<>();
+    private final List<GraphChange<V, E>> pendingChanges = new ArrayList<>();
+
+    /*
+    During a batch, every mutation pushes the action undoing it, so that a failed batch can be
+    rolled back in reverse order. The log is null outside batches.
+     */
+    private Deque<Runnable> undoLog;
+
+    private final IncomingEdgeIndex incomingEdgeIndex;
+    private volatile boolean incomingIndexed;     //only ever set to true, under the write lock
 
     /*
     LinkedHashMap is used to provide a map interface and maintain the insertion order of
@@ -121,112 +191,638 @@ public class AdjacencyMapDigraph<V, E> implements Graph<V, E> {
     than HashMap.
      */
     public AdjacencyMapDigraph() {
+        this(IncomingEdgeIndex.ALWAYS);
+    }
+
+    /* create a graph that maintains its incoming edges according to incomingEdgeIndex */
+    public AdjacencyMapDigraph(IncomingEdgeIndex incomingEdgeIndex) {
         this.vertices = new LinkedHashMap<>();
         this.edges = new LinkedHashSet<>();
+        this.incomingEdgeIndex = incomingEdgeIndex;
+        this.incomingIndexed = incomingEdgeIndex == IncomingEdgeIndex.ALWAYS;
+    }
+
+    public IncomingEdgeIndex incomingEdgeIndex() {
+        return incomingEdgeIndex;
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            if (undoLog != null) { //keep the structures to put them back on rollback
+                Map<V, Vertex<V>> oldVertices = vertices;
+                Set<Edge<E, V>> oldEdges = edges;
+                Object[] oldVertexById = vertexById;
+                boolean wasIndexed = incomingIndexed;
+                undoLog.push(() -> {
+                    vertices = oldVertices;
+                    edges = oldEdges;
+                    vertexById = oldVertexById;
+                    if (incomingIndexed && !wasIndexed) buildIncomingIndex();
+                    ++version;
+                });
+                vertices = new LinkedHashMap<>();
+                edges = new LinkedHashSet<>();
+                vertexById = new Object[16];
+            }
+            else {
+                vertices.clear();
+                edges.clear();
+                Arrays.fill(vertexById, null);
+            }
+            vertexIds.clear();
+            edgeIds.clear();
+            ++version;
+            dirtyVertices.clear();
+            lastSnapshot = null;
+            pendingChanges.clear();     //the earlier changes no longer matter to the subscribers
+            if (changes.hasSubscribers()) pendingChanges.add(GraphChange.cleared());
+        } finally {
+            publishChanges();
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a group of mutations atomically: <code>mutations</code> receives this graph and may call
+     * any of its methods while the write lock is held, once, for the whole group. If it throws, e.g.
+     * an {@link InvalidEdgeException}, every mutation of the group is undone before the exception is
+     * propagated, although restored vertices and edges may come last in iteration order. The
+     * subscribers receive the changes of the group as a single batch, or nothing if it was rolled
+     * back. A batch started within a batch joins it.
+     *
+     * @param mutations Mutations to apply to this graph
+     */
+    public void batch(Consumer<? super AdjacencyMapDigraph<V, E>> mutations) {
+        lock.writeLock().lock();
+        try {
+            if (undoLog != null) {
+                mutations.accept(this);
+                return;
+            }
+            undoLog = new ArrayDeque<>();
+            IdAllocator savedVertexIds = vertexIds.copy(), savedEdgeIds = edgeIds.copy();
+            try {
+                mutations.accept(this);
+            } catch (RuntimeException | Error e) {
+                Deque<Runnable> log = undoLog;
+                undoLog = null; //undoing is not logged
+                while (!log.isEmpty()) log.pop().run();
+                vertexIds.restore(savedVertexIds);
+                edgeIds.restore(savedEdgeIds);
+                pendingChanges.clear();
+                throw e;
+            } finally {
+                undoLog = null;
+            }
+        } finally {
+            publishChanges();
+            lock.writeLock().unlock();
+        }
     }
 
-    public synchronized void clear() {
-        vertices.clear();
-        edges.clear();
+    /* return the publisher of the changes of this graph, to subscribe to them */
+    public GraphChangePublisher<V, E> changes() {
+        return changes;
     }
 
+    /*
+    A read/write lock is used to prevent thread interference since the graph visualization is
+    run using a non-javafx thread according to the author of JavaFX SmartGraph library. Queries
+    share the read lock so that several analyses can run in parallel, while mutations take the
+    exclusive write lock. Collections are returned as copies taken under the read lock, so that
+    iterating them is consistent and does not escape the lock.
+     */
     @Override
     public int numVertices() {
-        return vertices.size();
+        lock.readLock().lock();
+        try {
+            return vertices.size();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
     public int numEdges() {
-        return edges.size();
+        lock.readLock().lock();
+        try {
+            return edges.size();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
-    /*
-    synchronized methods are used to prevent thread interference since the graph visualization is
-    run using a non-javafx thread according to the author of JavaFX SmartGraph library.
-     */
     @Override
-    public synchronized Collection<Vertex<V>> vertices() {
-        return vertices.values();
+    public int vertexIdBound() {
+        lock.readLock().lock();
+        try {
+            return vertexIds.bound();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
-    public synchronized Collection<Edge<E, V>> edges() {
-        return edges;
+    public int edgeIdBound() {
+        lock.readLock().lock();
+        try {
+            return edgeIds.bound();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
-    public synchronized Collection<Edge<E, V>> incomingEdges(Vertex<V> v) throws InvalidVertexException {
-        DVertex vertex = validateVertex(v);
-        return vertex.getIncomingEdges().values();
+    public Collection<Vertex<V>> vertices() {
+        lock.readLock().lock();
+        try {
+            return Collections.unmodifiableSet(new LinkedHashSet<>(vertices.values()));
+        } finally {
+            lock.readLock().unlock();
+        }
     }
-    
+
     @Override
-    public synchronized Collection<Edge<E, V>> outgoingEdges(Vertex<V> v) throws InvalidVertexException {
-        DVertex vertex = validateVertex(v);
-        return vertex.getOutgoingEdges().values();
+    public Collection<Edge<E, V>> edges() {
+        lock.readLock().lock();
+        try {
+            return Collections.unmodifiableSet(new LinkedHashSet<>(edges));
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
-    public synchronized Vertex<V> opposite(Vertex<V> v, Edge<E, V> e) throws InvalidVertexException, InvalidEdgeException {
-        DVertex vertex = validateVertex(v);
-        DEdge edge = validateEdge(e);
-        Vertex<V>[] endVertices = edge.vertices();
+    public Collection<Edge<E, V>> incomingEdges(Vertex<V> v) throws InvalidVertexException {
+        requireIncomingIndex();
+        lock.readLock().lock();
+        try {
+            DVertex vertex = validateVertex(v);
+            return Collections.unmodifiableList(new ArrayList<>(incomingEdgesOf(vertex).values()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
 
-        if(endVertices[0].equals(vertex)) {
-            return endVertices[1];
+    @Override
+    public Collection<Edge<E, V>> outgoingEdges(Vertex<V> v) throws InvalidVertexException {
+        lock.readLock().lock();
+        try {
+            DVertex vertex = validateVertex(v);
+            return Collections.unmodifiableList(new ArrayList<>(vertex.getOutgoingEdges().values()));
+        } finally {
+            lock.readLock().unlock();
         }
-        else if (endVertices[1].equals(vertex)) {
-            return endVertices[0];
+    }
+
+    @Override
+    public Vertex<V> opposite(Vertex<V> v, Edge<E, V> e) throws InvalidVertexException, InvalidEdgeException {
+        lock.readLock().lock();
+        try {
+            DVertex vertex = validateVertex(v);
+            DEdge edge = validateEdge(e);
+            Vertex<V>[] endVertices = edge.vertices();
+
+            if(endVertices[0].equals(vertex)) {
+                return endVertices[1];
+            }
+            else if (endVertices[1].equals(vertex)) {
+                return endVertices[0];
+            }
+            else {
+                throw new InvalidEdgeException("v is not incident to this edge.");
+            }
+        } finally {
+            lock.readLock().unlock();
         }
-        else {
-            throw new InvalidEdgeException("v is not incident to this edge.");
+    }
+
+    @Override
+    public Vertex<V> insertVertex(V element) throws InvalidVertexException {
+        lock.writeLock().lock();
+        try {
+            if (vertices.containsKey(element)) {
+                throw new InvalidVertexException("A vertex with this element already exists.");
+            }
+            else {
+                DVertex vertex = new DVertex(element);
+                vertices.put(element, vertex);
+                register(vertex);
+                touch(vertex);
+                if (undoLog != null) undoLog.push(() -> unregister(vertex));
+                if (changes.hasSubscribers()) pendingChanges.add(GraphChange.vertexInserted(vertex));
+                return vertex;
+            }
+        } finally {
+            publishChanges();
+            lock.writeLock().unlock();
         }
     }
 
     @Override
-    public synchronized Vertex<V> insertVertex(V element) throws InvalidVertexException {
-        if (vertices.containsKey(element)) {
-            throw new InvalidVertexException("A vertex with this element already exists.");
+    public Edge<E, V> getEdge(Vertex<V> u, Vertex<V> v) throws InvalidVertexException {
+        lock.readLock().lock();
+        try {
+            DVertex startVertex = validateVertex(u);
+            return startVertex.getOutgoingEdges().get(v);
+        } finally {
+            lock.readLock().unlock();
         }
-        else {
-            DVertex vertex = new DVertex(element);
-            vertices.put(element, vertex);
-            return vertex;
+    }
+
+    @Override
+    public Edge<E, V> insertEdge(Vertex<V> u, Vertex<V> v, E element) throws InvalidVertexException, InvalidEdgeException {
+        lock.writeLock().lock();
+        try {
+            return linkEdge(validateVertex(u), validateVertex(v), element);
+        } finally {
+            publishChanges();
+            lock.writeLock().unlock();
         }
     }
 
     @Override
-    public synchronized Edge<E, V> getEdge(Vertex<V> u, Vertex<V> v) throws InvalidVertexException {
-        DVertex startVertex = validateVertex(u);
-        return startVertex.getOutgoingEdges().get(v);
+    public Edge<E, V> insertEdge(V uElement, V vElement, E eElement) throws InvalidVertexException, InvalidEdgeException {
+        lock.writeLock().lock();
+        try {
+            return linkEdge(validateVertex(vertices.get(uElement)), validateVertex(vertices.get(vElement)), eElement);
+        } finally {
+            publishChanges();
+            lock.writeLock().unlock();
+        }
     }
 
+    /*
+    The bulk methods take the write lock once for the whole batch, pre-size the maps that are about
+    to grow and resolve every end vertex before any edge is linked. A batch is atomic: if one of the
+    elements is invalid, the graph is left unchanged.
+     */
     @Override
-    public synchronized Edge<E, V> insertEdge(Vertex<V> u, Vertex<V> v, E element) throws InvalidVertexException, InvalidEdgeException {
-        if(getEdge(u, v) == null) {
-            DVertex startVertex = validateVertex(u);
-            DVertex endVertex = validateVertex(v);
-            DEdge edge = new DEdge(startVertex, endVertex, element);
-            edges.add(edge);
-            startVertex.getOutgoingEdges().put(endVertex, edge);
-            endVertex.getIncomingEdges().put(startVertex, edge);
-            return edge;
+    public List<Vertex<V>> insertVertices(Collection<? extends V> elements) throws InvalidVertexException {
+        lock.writeLock().lock();
+        try {
+            Set<V> batch = new HashSet<>(elements.size() * 4 / 3 + 1);
+            for (V element : elements) {
+                if (vertices.containsKey(element) || !batch.add(element)) {
+                    throw new InvalidVertexException("A vertex with this element already exists.");
+                }
+            }
+
+            vertices = presize(vertices, elements.size());
+            List<Vertex<V>> inserted = new ArrayList<>(elements.size());
+            boolean recording = changes.hasSubscribers();
+            for (V element : elements) {
+                DVertex vertex = new DVertex(element);
+                vertices.put(element, vertex);
+                register(vertex);
+                touch(vertex);
+                inserted.add(vertex);
+                if (undoLog != null) undoLog.push(() -> unregister(vertex));
+                if (recording) pendingChanges.add(GraphChange.vertexInserted(vertex));
+            }
+            return inserted;
+        } finally {
+            publishChanges();
+            lock.writeLock().unlock();
         }
-        else {
-            throw new InvalidEdgeException("Edge from u to v exists.");
+    }
+
+    @Override
+    public void insertEdges(List<? extends V> uElements, List<? extends V> vElements, List<? extends E> eElements) throws InvalidVertexException, InvalidEdgeException {
+        insertEdges(uElements, vElements, eElements, false);
+    }
+
+    /**
+     * Create an edge from <code>uElements[i]</code> to <code>vElements[i]</code> with <code>eElements[i]</code>
+     * for every <code>i</code>, holding the write lock once for the whole batch. In trusted mode the probe
+     * for an existing edge between the end vertices is skipped; the caller must then guarantee that
+     * the batch contains no duplicate and no edge that already exists in the graph.
+     *
+     * @param uElements Elements of the starting vertices
+     * @param vElements Elements of the ending vertices
+     * @param eElements Elements of the edges
+     * @param trusted true to skip the check for duplicate edges
+     * @throws InvalidVertexException if an element does not belong to a vertex of this graph
+     * @throws InvalidEdgeException if an edge already exists, in which case no edge of the batch is inserted
+     */
+    public void insertEdges(List<? extends V> uElements, List<? extends V> vElements, List<? extends E> eElements,
+                            boolean trusted) throws InvalidVertexException, InvalidEdgeException {
+        int m = uElements.size();
+        if (vElements.size() != m || eElements.size() != m) {
+            throw new IllegalArgumentException("The lists of end vertices and elements differ in size.");
+        }
+
+        lock.writeLock().lock();
+        try {
+            //resolve and validate every end vertex once, counting the degrees the batch adds
+            List<DVertex> starts = new ArrayList<>(m), ends = new ArrayList<>(m);
+            Map<DVertex, int[]> outDegrees = new HashMap<>(), inDegrees = new HashMap<>();
+            Iterator<? extends V> u = uElements.iterator(), v = vElements.iterator();
+            while (u.hasNext()) {
+                DVertex startVertex = validateVertex(vertices.get(u.next()));
+                DVertex endVertex = validateVertex(vertices.get(v.next()));
+                starts.add(startVertex);
+                ends.add(endVertex);
+                ++outDegrees.computeIfAbsent(startVertex, key -> new int[1])[0];
+                ++inDegrees.computeIfAbsent(endVertex, key -> new int[1])[0];
+            }
+
+            if (m > edges.size()) { //growing by doubling is cheap enough for small batches
+                Set<Edge<E, V>> resized = new LinkedHashSet<>((edges.size() + m) * 4 / 3 + 1);
+                resized.addAll(edges);
+                edges = resized;
+            }
+            outDegrees.forEach((vertex, degree) -> vertex.outgoingEdges.ensureCapacity(degree[0]));
+            if (incomingIndexed) inDegrees.forEach((vertex, degree) -> vertex.incomingEdges.ensureCapacity(degree[0]));
+
+            Iterator<? extends E> e = eElements.iterator();
+            boolean recording = changes.hasSubscribers();
+            int recorded = pendingChanges.size();
+            for (int i = 0; i < m; i++) {
+                DVertex startVertex = starts.get(i), endVertex = ends.get(i);
+                if (!trusted && startVertex.getOutgoingEdges().containsKey(endVertex)) {
+                    for (int j = i - 1; j >= 0; j--) { //roll back the edges linked so far
+                        unlinkEdge((DEdge) starts.get(j).getOutgoingEdges().get(ends.get(j)));
+                    }
+                    pendingChanges.subList(recorded, pendingChanges.size()).clear(); //the graph is back to its state before the batch
+                    throw new InvalidEdgeException("Edge from u to v exists.");
+                }
+                DEdge edge = new DEdge(startVertex, endVertex, e.next());
+                edges.add(edge);
+                startVertex.getOutgoingEdges().put(endVertex, edge);
+                if (incomingIndexed) endVertex.getIncomingEdges().put(startVertex, edge);
+                touch(startVertex);
+                touch(endVertex);
+                if (undoLog != null) undoLog.push(() -> unlinkEdge(edge));
+                if (recording) pendingChanges.add(GraphChange.edgeInserted(edge));
+            }
+        } finally {
+            publishChanges();
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* return a map with the same entries that can take extra more entries without rehashing */
+    private static <K, T> Map<K, T> presize(Map<K, T> map, int extra) {
+        if (extra <= map.size()) return map; //growing by doubling is cheap enough for small batches
+        Map<K, T> resized = new LinkedHashMap<>((map.size() + extra) * 4 / 3 + 1);
+        resized.putAll(map);
+        return resized;
+    }
+
+    @Override
+    public V removeVertex(Vertex<V> v) throws InvalidVertexException {
+        lock.writeLock().lock();
+        try {
+            return unlinkVertex(validateVertex(v), true);
+        } finally {
+            publishChanges();
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+    The bulk removals validate their arguments before removing anything, so that they are atomic,
+    and then unlink each edge once, directly from the adjacency of its end vertices.
+     */
+    @Override
+    public List<V> removeVertices(Collection<? extends Vertex<V>> vertices) throws InvalidVertexException {
+        lock.writeLock().lock();
+        try {
+            List<DVertex> removed = new ArrayList<>(vertices.size());
+            Set<DVertex> batch = new HashSet<>(vertices.size() * 4 / 3 + 1);
+            for (Vertex<V> v : vertices) {
+                DVertex vertex = validateVertex(v);
+                if (!batch.add(vertex)) throw new InvalidVertexException("The vertex is removed twice.");
+                removed.add(vertex);
+            }
+
+            //without the incoming index, the entering edges are found by scanning every vertex for each removed one, or by one pass over the edges if that is cheaper
+            boolean scan = !incomingIndexed && (long) removed.size() * this.vertices.size() <= edges.size();
+            if (!incomingIndexed && !scan) {
+                List<DEdge> entering = new ArrayList<>();
+                for (Edge<E, V> e : edges) {
+                    DEdge edge = (DEdge) e;
+                    if (batch.contains(edge.endVertices[1]) && !batch.contains(edge.endVertices[0])) entering.add(edge);
+                }
+                for (DEdge edge : entering) {
+                    unlinkEdge(edge);
+                }
+            }
+
+            List<V> elements = new ArrayList<>(removed.size());
+            for (DVertex vertex : removed) {
+                elements.add(unlinkVertex(vertex, scan));
+            }
+            return elements;
+        } finally {
+            publishChanges();
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int removeEdgesIf(Predicate<? super Edge<E, V>> filter) {
+        lock.writeLock().lock();
+        try {
+            List<DEdge> removed = new ArrayList<>();
+            for (Edge<E, V> edge : edges) {
+                if (filter.test(edge)) removed.add((DEdge) edge);
+            }
+            for (DEdge edge : removed) {
+                unlinkEdge(edge);
+            }
+            return removed.size();
+        } finally {
+            publishChanges();
+            lock.writeLock().unlock();
         }
     }
 
     @Override
-    public synchronized Edge<E, V> insertEdge(V uElement, V vElement, E eElement) throws InvalidVertexException, InvalidEdgeException {
-        DVertex startVertex = validateVertex(vertices.get(uElement));
-        DVertex endVertex = validateVertex(vertices.get(vElement));
+    public E removeEdge(Edge<E, V> e) throws InvalidEdgeException {
+        lock.writeLock().lock();
+        try {
+            return unlinkEdge(validateEdge(e));
+        } finally {
+            publishChanges();
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* return the vertex with this id */
+    public Vertex<V> vertex(int id) throws InvalidVertexException {
+        lock.readLock().lock();
+        try {
+            return byId(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return a trusted {@link IntDigraph} view of this graph, passing the ids of the neighbours and the
+     * weights of the edges to the traversal without validating ids or taking the lock on each call.
+     * The graph must not be mutated while the view is traversed; to traverse the graph while other
+     * threads keep mutating it, take the view of a {@link #snapshot()} instead. In LAZY
+     * {@link IncomingEdgeIndex} mode, the first incoming traversal builds the index, so it must not
+     * be started while holding a lock of this graph.
+     *
+     * @param weigher Function converting an edge element into a primitive weight
+     * @return A traversal view of this graph
+     */
+    public IntDigraph asIntDigraph(ToIntFunction<? super E> weigher) {
+        return new IntDigraphView<V, E>(weigher) {
+            @Override
+            AdaptiveAdjacency<Vertex<V>, Edge<E, V>> outgoingEdges(int vertexId) {
+                return ((DVertex) vertexById[vertexId]).getOutgoingEdges();
+            }
+
+            @Override
+            AdaptiveAdjacency<Vertex<V>, Edge<E, V>> incomingEdges(int vertexId) {
+                requireIncomingIndex();
+                return incomingEdgesOf((DVertex) vertexById[vertexId]);
+            }
+
+            @Override
+            public int vertexIdBound() {
+                return vertexIds.bound();
+            }
+
+            @Override
+            public boolean containsVertex(int vertexId) {
+                return vertexId >= 0 && vertexId < vertexById.length && vertexById[vertexId] != null;
+            }
+        };
+    }
+
+    /**
+     * Freeze the current state of this graph into an immutable {@link CSRDigraph}. The copy is
+     * taken from a {@link #snapshot()}, so read-only algorithms can run on it without being
+     * affected by later mutations, and writers are not blocked while it is built.
+     *
+     * @param weigher Function converting an edge element into a primitive weight
+     * @return An immutable CSR copy of this graph
+     */
+    public CSRDigraph<V> freeze(ToIntFunction<? super E> weigher) {
+        return CSRDigraph.of(snapshot(), weigher);
+    }
 
-        if(getEdge(startVertex, endVertex) == null) {
-            DEdge edge = new DEdge(startVertex, endVertex, eElement);
+    /**
+     * Return an immutable version of this graph that can be traversed without any lock while
+     * the graph keeps being mutated. If nothing changed since the previous call, the same
+     * snapshot is returned; otherwise only the adjacency of the vertices modified in between is
+     * copied and the adjacency of every other vertex is shared with the previous snapshot, so a new
+     * version costs O(log V) on top of the copy of each modified vertex, whatever the size of the graph.
+     *
+     * @return An immutable snapshot of the current version of this graph
+     */
+    public DigraphSnapshot<V, E> snapshot() {
+        lock.readLock().lock();
+        try {
+            synchronized (dirtyVertices) { //several readers may take a snapshot at the same time
+                if (lastSnapshot != null && lastSnapshot.version() == version) {
+                    return lastSnapshot;
+                }
+
+                PersistentIdArray.Editor<DigraphSnapshot.Adjacency<V, E>> adjacency;
+                Collection<Vertex<V>> changed;
+                if (lastSnapshot == null) {
+                    adjacency = PersistentIdArray.<DigraphSnapshot.Adjacency<V, E>>empty().edit();
+                    changed = vertices.values();
+                }
+                else {
+                    adjacency = lastSnapshot.adjacencies().edit(); //the other vertices are unchanged since the previous snapshot
+                    changed = dirtyVertices;
+                }
+                for (Vertex<V> v : changed) {
+                    DVertex vertex = (DVertex) v;
+                    if (vertex.id < vertexById.length && vertexById[vertex.id] == vertex) {
+                        adjacency.set(vertex.id, new DigraphSnapshot.Adjacency<>(vertex, vertex.getOutgoingEdges(), vertex.getIncomingEdges()));
+                    }
+                    else {  //removed, unless its id was already given to a vertex inserted since
+                        DigraphSnapshot.Adjacency<V, E> a = adjacency.get(vertex.id);
+                        if (a != null && a.vertex() == vertex) adjacency.set(vertex.id, null);
+                    }
+                }
+                dirtyVertices.clear();
+                return lastSnapshot = new DigraphSnapshot<>(version, edges.size(), vertexIds.bound(), edgeIds.bound(), adjacency.build());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String generateRandomEdge(E randomElement) {
+        return generateRandomEdge(randomElement, random);
+    }
+
+    /*
+    A missing edge is drawn uniformly among all missing edges. A few rejection attempts on random
+    pairs of ids are enough while the graph is far from saturation; after that, the missing edges are
+    counted per starting vertex and the k-th one is picked, which is O(n) instead of an unbounded loop.
+     */
+    public String generateRandomEdge(E randomElement, SplittableRandom random) {
+        lock.writeLock().lock();
+        try {
+            StringBuilder sb = new StringBuilder();
+            int bound = vertexIds.bound();
+            for (int attempt = 0; attempt < 32 && bound > 1; attempt++) {
+                DVertex startVertex = (DVertex) vertexById[random.nextInt(bound)];
+                DVertex endVertex = (DVertex) vertexById[random.nextInt(bound)];
+                if (startVertex != null && endVertex != null && startVertex != endVertex
+                        && !startVertex.getOutgoingEdges().containsKey(endVertex)) {
+                    return sb.append(linkEdge(startVertex, endVertex, randomElement)).append(" is generated.\n").toString();
+                }
+            }
+
+            long missing = 0;
+            for (Vertex<V> v : vertices.values()) {
+                missing += missingOutgoingEdges((DVertex) v);
+            }
+            if (missing == 0) //maximum no. of edges in digraph is n(n - 1)
+                return sb.append("Graph has maximum number of edges.\n").toString();
+
+            long k = random.nextLong(missing);
+            for (Vertex<V> u : vertices.values()) {
+                DVertex startVertex = (DVertex) u;
+                int count = missingOutgoingEdges(startVertex);
+                if (k >= count) {
+                    k -= count;
+                    continue;
+                }
+                for (Vertex<V> v : vertices.values()) {
+                    if (v != startVertex && !startVertex.getOutgoingEdges().containsKey(v) && k-- == 0) {
+                        return sb.append(linkEdge(startVertex, (DVertex) v, randomElement)).append(" is generated.\n").toString();
+                    }
+                }
+            }
+            throw new IllegalStateException("The count of missing edges is inconsistent.");
+        } finally {
+            publishChanges();
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* return the number of edges that can still start from u, the write lock must be held */
+    private int missingOutgoingEdges(DVertex u) {
+        int existing = u.getOutgoingEdges().size();
+        if (u.getOutgoingEdges().containsKey(u)) --existing; //a self-loop is not one of the n - 1 candidates
+        return vertices.size() - 1 - existing;
+    }
+
+    /* link a new edge from u to v, the write lock must be held */
+    private DEdge linkEdge(DVertex startVertex, DVertex endVertex, E element) throws InvalidEdgeException {
+        if(startVertex.getOutgoingEdges().get(endVertex) == null) {
+            DEdge edge = new DEdge(startVertex, endVertex, element);
             edges.add(edge);
             startVertex.getOutgoingEdges().put(endVertex, edge);
-            endVertex.getIncomingEdges().put(startVertex, edge);
+            if (incomingIndexed) endVertex.getIncomingEdges().put(startVertex, edge);
+            touch(startVertex);
+            touch(endVertex);
+            if (undoLog != null) undoLog.push(() -> unlinkEdge(edge));
+            if (changes.hasSubscribers()) pendingChanges.add(GraphChange.edgeInserted(edge));
             return edge;
         }
         else {
@@ -234,65 +830,149 @@ public class AdjacencyMapDigraph<V, E> implements Graph<V, E> {
         }
     }
 
-    @Override
-    public synchronized V removeVertex(Vertex<V> v) throws InvalidVertexException {
-        DVertex vertex = validateVertex(v);
-        List<Edge<E, V>> removedEdges = new LinkedList<>();
+    /* unlink a validated edge from both end vertices, the write lock must be held */
+    private E unlinkEdge(DEdge edge) {
+        DVertex startVertex = (DVertex) edge.endVertices[0], endVertex = (DVertex) edge.endVertices[1];
+        startVertex.getOutgoingEdges().remove(endVertex);
+        if (incomingIndexed) endVertex.getIncomingEdges().remove(startVertex);
+        touch(startVertex);
+        touch(endVertex);
+        return dropEdge(edge);
+    }
 
-        removedEdges.addAll(vertex.getIncomingEdges().values());
-        removedEdges.addAll(vertex.getOutgoingEdges().values());
+    /* remove an edge already unlinked from its end vertices, the write lock must be held */
+    private E dropEdge(DEdge edge) {
+        edges.remove(edge);
+        edgeIds.release(edge.id);
+        if (undoLog != null) undoLog.push(() -> relinkEdge(edge));
+        if (changes.hasSubscribers()) pendingChanges.add(GraphChange.edgeRemoved(edge));
+        return edge.element();
+    }
 
-        for (Edge<E, V> edge : removedEdges) {
-            removeEdge(edge);
+    /*
+    Remove a validated vertex and its edges, the write lock must be held. The edges are unlinked from
+    the other end vertex only and the adjacency of the vertex is cleared at the end, so it is iterated
+    without a copy. A self-loop is found among the outgoing edges and skipped among the incoming ones.
+    Without the incoming index, the entering edges are found by scanning every vertex, unless the
+    caller has already unlinked them.
+     */
+    private V unlinkVertex(DVertex vertex, boolean scanIncoming) {
+        for (Edge<E, V> e : vertex.getOutgoingEdges().values()) {
+            DEdge edge = (DEdge) e;
+            DVertex endVertex = (DVertex) edge.endVertices[1];
+            if (endVertex != vertex) {
+                if (incomingIndexed) endVertex.getIncomingEdges().remove(vertex);
+                touch(endVertex);
+            }
+            dropEdge(edge);
+        }
+        if (incomingIndexed || scanIncoming) {
+            for (Edge<E, V> e : incomingEdgesOf(vertex).values()) {
+                DEdge edge = (DEdge) e;
+                DVertex startVertex = (DVertex) edge.endVertices[0];
+                if (startVertex != vertex) {
+                    startVertex.getOutgoingEdges().remove(vertex);
+                    touch(startVertex);
+                    dropEdge(edge);
+                }
+            }
         }
+        vertex.getOutgoingEdges().clear();
+        if (incomingIndexed) vertex.getIncomingEdges().clear();
 
-        V element = v.element();
-        vertices.remove(v.element());
+        V element = vertex.element;
+        vertices.remove(element);
+        vertexIds.release(vertex.id);
+        vertexById[vertex.id] = null;
+        touch(vertex);
+        if (undoLog != null) undoLog.push(() -> {
+            if (incomingIndexed && vertex.incomingEdges == null) vertex.incomingEdges = new AdaptiveAdjacency<>(); //indexed since
+            vertices.put(element, vertex);
+            register(vertex);
+            touch(vertex);
+        });
+        if (changes.hasSubscribers()) pendingChanges.add(GraphChange.vertexRemoved(vertex));
         return element;
     }
 
-    @Override
-    public synchronized E removeEdge(Edge<E, V> e) throws InvalidEdgeException {
-        DEdge edge = validateEdge(e);
-        Vertex<V>[] endVertices = edge.vertices();
-        DVertex startVertex = validateVertex(endVertices[0]);
-        DVertex endVertex = validateVertex(endVertices[1]);
+    /* link an unlinked edge again, to undo its removal; the ids are restored by batch(), the write lock must be held */
+    private void relinkEdge(DEdge edge) {
+        DVertex startVertex = (DVertex) edge.endVertices[0], endVertex = (DVertex) edge.endVertices[1];
+        edges.add(edge);
+        startVertex.getOutgoingEdges().put(endVertex, edge);
+        if (incomingIndexed) endVertex.getIncomingEdges().put(startVertex, edge);
+        touch(startVertex);
+        touch(endVertex);
+    }
 
-        startVertex.getOutgoingEdges().remove(endVertex);
-        endVertex.getIncomingEdges().remove(startVertex);
-        E element = edge.element();
-        edges.remove(edge);
-        return element;
+    /* return the incoming edges of v, collected from every vertex if they are not indexed; the lock must be held */
+    private AdaptiveAdjacency<Vertex<V>, Edge<E, V>> incomingEdgesOf(DVertex v) {
+        if (incomingIndexed) return v.getIncomingEdges();
+        AdaptiveAdjacency<Vertex<V>, Edge<E, V>> incoming = new AdaptiveAdjacency<>();
+        for (Vertex<V> u : vertices.values()) {
+            Edge<E, V> edge = ((DVertex) u).getOutgoingEdges().get(v);
+            if (edge != null) incoming.put(u, edge);
+        }
+        return incoming;
     }
 
-    public synchronized String generateRandomEdge(E randomElement) {
-        StringBuilder sb = new StringBuilder();
-        if(numEdges() == numVertices()*(numVertices() - 1)) //maximum no. of edges in digraph is n(n - 1)
-            return sb.append("Graph has maximum number of edges.\n").toString();
+    /* in LAZY mode, build the incoming index if it does not exist yet; no lock must be held, or the write lock */
+    private void requireIncomingIndex() {
+        if (incomingIndexed || incomingEdgeIndex != IncomingEdgeIndex.LAZY) return;
+        lock.writeLock().lock();
+        try {
+            if (!incomingIndexed) buildIncomingIndex();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
 
-        Random random;
-        List<V> randomVertices = new ArrayList<>(vertices.keySet());
-        V randomVertex;
-        DVertex startVertex, endVertex;
+    /* index the incoming edges of every vertex from the outgoing ones, in edge order; the write lock must be held */
+    private void buildIncomingIndex() {
+        for (Vertex<V> v : vertices.values()) {
+            ((DVertex) v).incomingEdges = new AdaptiveAdjacency<>();
+        }
+        for (Edge<E, V> e : edges) {
+            DEdge edge = (DEdge) e;
+            ((DVertex) edge.endVertices[1]).incomingEdges.put(edge.endVertices[0], edge);
+        }
+        incomingIndexed = true;
+        lastSnapshot = null;    //the adjacency of the next snapshot includes the incoming edges of every vertex
+        dirtyVertices.clear();
+    }
 
-        for ( ; ;) { //continue to generate a new random edge between random vertices if invalid
-            random = new Random();
-            randomVertex = randomVertices.get(random.nextInt(randomVertices.size()));
-            startVertex = validateVertex(vertices.get(randomVertex));
+    /* remove a vertex without edges that was just inserted, to undo its insertion; the ids are restored by batch(), the write lock must be held */
+    private void unregister(DVertex vertex) {
+        vertices.remove(vertex.element);
+        vertexById[vertex.id] = null;
+        touch(vertex);
+    }
 
-            random = new Random();
-            randomVertex = randomVertices.get(random.nextInt(randomVertices.size()));
-            endVertex = validateVertex(vertices.get(randomVertex));
+    /* hand the changes recorded by the current mutation to the subscribers, unless a batch is open and will hand them over when it ends; the write lock must be held */
+    private void publishChanges() {
+        if (undoLog != null || pendingChanges.isEmpty()) return;
+        changes.publish(pendingChanges);
+        pendingChanges.clear();
+    }
 
-            if (startVertex.equals(endVertex)) //self-loop is not allowed, retry
-                continue;
-            else if (getEdge(startVertex, endVertex) == null) { //a random edge from u to v does not exist
-                return sb.append(insertEdge(startVertex, endVertex, randomElement)).append(" is generated.\n").toString();
-            }
-            else if (getEdge(endVertex, startVertex) == null) { //a random edge from v to u does not exist
-                return sb.append(insertEdge(endVertex, startVertex, randomElement)).append(" is generated.\n").toString();
-            } //random edges exist between u and v, retry
+    /* make vertex reachable by its id, the write lock must be held */
+    private void register(DVertex vertex) {
+        if (vertex.id >= vertexById.length) vertexById = Arrays.copyOf(vertexById, Math.max(vertex.id + 1, vertexById.length * 2));
+        vertexById[vertex.id] = vertex;
+    }
+
+    /* record a mutation of the adjacency of v, the write lock must be held */
+    private void touch(Vertex<V> v) {
+        ++version;
+        if (lastSnapshot != null) dirtyVertices.add(v);
+    }
+
+    /* return the vertex with this id, validating that it belongs to the graph */
+    private DVertex byId(int id) throws InvalidVertexException {
+        if (id < 0 || id >= vertexById.length || vertexById[id] == null) {
+            throw new InvalidVertexException("Vertex does not belong to this graph.");
         }
+        return (DVertex) vertexById[id];
     }
 
     /* validate that this vertex belongs to the graph */
@@ -307,7 +987,7 @@ public class AdjacencyMapDigraph<V, E> implements Graph<V, E> {
             throw new InvalidVertexException("Not a vertex.");
         }
 
-        if (!vertices.containsKey(vertex.element)) {
+        if (vertices.get(vertex.element) != vertex) {     //an equal vertex of another graph has other adjacency maps
             throw new InvalidVertexException("Vertex does not belong to this graph.");
         }
         return vertex;
@@ -333,8 +1013,17 @@ public class AdjacencyMapDigraph<V, E> implements Graph<V, E> {
 
     @Override
     public String toString() {
+        lock.readLock().lock();
+        try {
+            return describe();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private String describe() {
         StringBuilder sb = new StringBuilder(
-                String.format("[Graph with %d vertices and %d edges]\n", numVertices(), numEdges())
+                String.format("[Graph with %d vertices and %d edges]\n", vertices.size(), edges.size())
         );
 
         sb.append("--- Vertices: \n");
@@ -0,0 +1,705 @@
+package graphvisualizer.graph;
+
+import java.util.*;
+
+/**
+ * A directed graph stored as an adjacency matrix of bits, for small dense graphs. Row
+ * <code>u</code> holds one bit per possible target of <code>u</code>, 64 vertices per
+ * <code>long</code>, and a transposed copy of the matrix holds the sources of each vertex, so
+ * {@link #getEdge(Vertex, Vertex)} is a single bit test and both traversal directions skip absent
+ * edges a word at a time. The weights are kept in a parallel <code>int</code> matrix. Whole-row
+ * operations on the bits answer reachability, transitive closure and triangle queries 64 vertices
+ * at a time.
+ * <p>
+ * The matrices take <code>capacity<sup>2</sup></code> bits twice and <code>capacity<sup>2</sup></code>
+ * ints whatever the number of edges, so the structure pays off on graphs of a few thousand vertices
+ * with a sizeable fraction of all possible edges, where it is smaller than any per-edge structure.
+ * The capacity grows with the number of vertices, up to {@link #MAX_VERTICES}. The id of the edge
+ * from <code>u</code> to <code>v</code> is <code>u * capacity + v</code>, so edge ids change when the
+ * capacity grows.
+ *
+ * @param <V> Vertex type
+ */
+public class BitMatrixDigraph<V> implements Graph<V, Integer>, IntDigraph {
+    public static final int MAX_VERTICES = 46336;     //the largest multiple of 64 whose square fits in an int array
+
+    /**
+     * Concrete implementation of {@link Vertex}. One {@link MVertex} is kept per vertex; a handle of
+     * a removed vertex is not mistaken for a later vertex that recycled its id.
+     */
+    private class MVertex implements Vertex<V> {
+        private final int id;
+
+        MVertex(int id) {
+            this.id = id;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V element() {
+            return (V) labels[id];
+        }
+
+        @Override
+        public int id() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return "Vertex{" + element() + "}";
+        }
+    }
+
+    /**
+     * Concrete implementation of {@link Edge}. An {@link MEdge} is a handle created on demand over a
+     * cell of the matrix; its element is read from the weight matrix.
+     */
+    private class MEdge implements Edge<Integer, V> {
+        private final MVertex u, v;
+
+        MEdge(MVertex u, MVertex v) {
+            this.u = u;
+            this.v = v;
+        }
+
+        @Override
+        public Integer element() {
+            return weights[u.id * capacity + v.id];
+        }
+
+        @Override
+        public int id() {
+            return u.id * capacity + v.id;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Vertex<V>[] vertices() {
+            return (Vertex<V>[]) new Vertex[]{u, v};
+        }
+
+        @Override
+        public String toString() {
+            return "Edge from " + u + " to " + v + " with weight of " + element();
+        }
+
+        /*
+        2 MEdge objects are equals if they join the same vertices of the same graph.
+        Override hashCode() if override equals()
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MEdge edge = (MEdge) o;
+            return u == edge.u && v == edge.v;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * u.id + v.id;
+        }
+    }
+
+    private final Map<V, Integer> index = new HashMap<>();
+    private final IdAllocator vertexIds = new IdAllocator();
+    private int vertexCount, edgeCount;
+    private Object[] labels;
+    private MVertex[] handles;
+    private int[] outDegree, inDegree;
+
+    private int capacity, words;    //vertices per row, a multiple of 64, and longs per row
+    private long[] rows, columns;   //bit v of row u is set if there is an edge from u to v, and bit u of column v likewise
+    private int[] weights;          //weight of the edge from u to v at u * capacity + v
+
+    public BitMatrixDigraph() {
+        this(64);
+    }
+
+    /* create a graph holding up to vertexCapacity vertices before it grows */
+    public BitMatrixDigraph(int vertexCapacity) {
+        if (vertexCapacity < 0 || vertexCapacity > MAX_VERTICES) {
+            throw new IllegalArgumentException("The capacity must be between 0 and " + MAX_VERTICES + ".");
+        }
+        allocate(Math.max(64, (vertexCapacity + 63) & ~63));
+    }
+
+    /**
+     * Copy the vertices and edges of <code>graph</code> into a new matrix, in the iteration order
+     * of the graph.
+     *
+     * @param graph Graph to copy, with at most {@link #MAX_VERTICES} vertices
+     * @param <V> Vertex type
+     * @return A matrix graph with the same vertices and edges
+     */
+    public static <V> BitMatrixDigraph<V> copyOf(Graph<V, Integer> graph) {
+        Collection<Vertex<V>> vertices = graph.vertices();
+        BitMatrixDigraph<V> matrix = new BitMatrixDigraph<>(vertices.size());
+        for (Vertex<V> v : vertices) {
+            matrix.insertVertex(v.element());
+        }
+        for (Edge<Integer, V> e : graph.edges()) {
+            Vertex<V>[] endVertices = e.vertices();
+            matrix.link(matrix.index.get(endVertices[0].element()), matrix.index.get(endVertices[1].element()), e.element());
+        }
+        return matrix;
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        words = newCapacity >>> 6;
+        labels = new Object[newCapacity];
+        handles = (MVertex[]) new BitMatrixDigraph.MVertex[newCapacity];
+        outDegree = new int[newCapacity];
+        inDegree = new int[newCapacity];
+        rows = new long[newCapacity * words];
+        columns = new long[newCapacity * words];
+        weights = new int[newCapacity * newCapacity];
+    }
+
+    /* grow the matrices to hold at least needed vertices, copying them row by row */
+    private void ensureCapacity(int needed) {
+        if (needed <= capacity) return;
+        if (needed > MAX_VERTICES) throw new IllegalStateException("A matrix graph holds at most " + MAX_VERTICES + " vertices.");
+        int oldCapacity = capacity, oldWords = words, bound = vertexIds.bound();
+        Object[] oldLabels = labels;
+        MVertex[] oldHandles = handles;
+        int[] oldOut = outDegree, oldIn = inDegree, oldWeights = weights;
+        long[] oldRows = rows, oldColumns = columns;
+
+        allocate((int) Math.min(MAX_VERTICES, Math.max((needed + 63) & ~63, (long) oldCapacity * 2)));
+        System.arraycopy(oldLabels, 0, labels, 0, bound);
+        System.arraycopy(oldHandles, 0, handles, 0, bound);
+        System.arraycopy(oldOut, 0, outDegree, 0, bound);
+        System.arraycopy(oldIn, 0, inDegree, 0, bound);
+        for (int u = 0; u < bound; u++) {
+            System.arraycopy(oldRows, u * oldWords, rows, u * words, oldWords);
+            System.arraycopy(oldColumns, u * oldWords, columns, u * words, oldWords);
+            System.arraycopy(oldWeights, u * oldCapacity, weights, u * capacity, oldCapacity);
+        }
+    }
+
+    public synchronized void clear() {
+        index.clear();
+        vertexIds.clear();
+        Arrays.fill(labels, null);
+        Arrays.fill(handles, null);
+        Arrays.fill(outDegree, 0);
+        Arrays.fill(inDegree, 0);
+        Arrays.fill(rows, 0);
+        Arrays.fill(columns, 0);
+        vertexCount = edgeCount = 0;
+    }
+
+    @Override
+    public synchronized int numVertices() {
+        return vertexCount;
+    }
+
+    @Override
+    public synchronized int numEdges() {
+        return edgeCount;
+    }
+
+    /* return the fraction of the n(n - 1) possible edges between distinct vertices that are present */
+    public synchronized double density() {
+        return vertexCount < 2 ? 0 : (double) edgeCount / ((long) vertexCount * (vertexCount - 1));
+    }
+
+    @Override
+    public synchronized int vertexIdBound() {
+        return vertexIds.bound();
+    }
+
+    @Override
+    public synchronized int edgeIdBound() {
+        return vertexIds.bound() * capacity;
+    }
+
+    @Override
+    public synchronized Collection<Vertex<V>> vertices() {
+        List<Vertex<V>> list = new ArrayList<>(vertexCount);
+        for (int v = 0; v < vertexIds.bound(); v++) {
+            if (handles[v] != null) list.add(handles[v]);
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized Collection<Edge<Integer, V>> edges() {
+        List<Edge<Integer, V>> list = new ArrayList<>(edgeCount);
+        for (int u = 0; u < vertexIds.bound(); u++) {
+            if (handles[u] != null) addEdges(rows, u, true, list);
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized Collection<Edge<Integer, V>> incomingEdges(Vertex<V> v) throws InvalidVertexException {
+        int id = validateVertex(v);
+        return addEdges(columns, id, false, new ArrayList<>(inDegree[id]));
+    }
+
+    @Override
+    public synchronized Collection<Edge<Integer, V>> outgoingEdges(Vertex<V> v) throws InvalidVertexException {
+        int id = validateVertex(v);
+        return addEdges(rows, id, true, new ArrayList<>(outDegree[id]));
+    }
+
+    /* add a handle for every bit of line u of matrix, the row of a source or the column of a target */
+    private List<Edge<Integer, V>> addEdges(long[] matrix, int u, boolean outgoing, List<Edge<Integer, V>> list) {
+        for (int i = 0, base = u * words; i < words; i++) {
+            for (long bits = matrix[base + i]; bits != 0; bits &= bits - 1) {
+                int v = i << 6 | Long.numberOfTrailingZeros(bits);
+                list.add(outgoing ? new MEdge(handles[u], handles[v]) : new MEdge(handles[v], handles[u]));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized Vertex<V> opposite(Vertex<V> v, Edge<Integer, V> e) throws InvalidVertexException, InvalidEdgeException {
+        int vertex = validateVertex(v);
+        MEdge edge = validateEdge(e);
+
+        if (edge.u.id == vertex) {
+            return edge.v;
+        }
+        else if (edge.v.id == vertex) {
+            return edge.u;
+        }
+        else {
+            throw new InvalidEdgeException("v is not incident to this edge.");
+        }
+    }
+
+    @Override
+    public synchronized Vertex<V> insertVertex(V element) throws InvalidVertexException {
+        if (index.containsKey(element)) {
+            throw new InvalidVertexException("A vertex with this element already exists.");
+        }
+        ensureCapacity(vertexIds.bound() + 1);
+        int id = vertexIds.acquire();
+        labels[id] = element;
+        handles[id] = new MVertex(id);
+        index.put(element, id);
+        ++vertexCount;
+        return handles[id];
+    }
+
+    @Override
+    public synchronized Edge<Integer, V> getEdge(Vertex<V> u, Vertex<V> v) throws InvalidVertexException {
+        int s = validateVertex(u), t = validateVertex(v);
+        return hasEdge(s, t) ? new MEdge(handles[s], handles[t]) : null;
+    }
+
+    @Override
+    public synchronized Edge<Integer, V> insertEdge(Vertex<V> u, Vertex<V> v, Integer element) throws InvalidVertexException, InvalidEdgeException {
+        return insertEdge(u, v, element.intValue());
+    }
+
+    @Override
+    public synchronized Edge<Integer, V> insertEdge(V uElement, V vElement, Integer eElement) throws InvalidVertexException, InvalidEdgeException {
+        return insertEdge(uElement, vElement, eElement.intValue());
+    }
+
+    /* create and return a new edge using vertex instance without boxing the weight */
+    public synchronized Edge<Integer, V> insertEdge(Vertex<V> u, Vertex<V> v, int weight) throws InvalidVertexException, InvalidEdgeException {
+        int s = validateVertex(u), t = validateVertex(v);
+        link(s, t, weight);
+        return new MEdge(handles[s], handles[t]);
+    }
+
+    /* create and return a new edge using vertex element without boxing the weight */
+    public synchronized Edge<Integer, V> insertEdge(V uElement, V vElement, int weight) throws InvalidVertexException, InvalidEdgeException {
+        int s = validateElement(uElement), t = validateElement(vElement);
+        link(s, t, weight);
+        return new MEdge(handles[s], handles[t]);
+    }
+
+
+    @Override
+    public synchronized V removeVertex(Vertex<V> v) throws InvalidVertexException {
+        int id = validateVertex(v);
+        V element = v.element();
+        int base = id * words, bit = id & 63, word = id >>> 6;
+
+        for (int i = 0; i < words; i++) {
+            for (long bits = rows[base + i]; bits != 0; bits &= bits - 1) {
+                int t = i << 6 | Long.numberOfTrailingZeros(bits);
+                columns[t * words + word] &= ~(1L << bit);
+                --inDegree[t];
+                --edgeCount;
+            }
+        }
+        for (int i = 0; i < words; i++) {     //a self-loop was cleared from this column above
+            for (long bits = columns[base + i]; bits != 0; bits &= bits - 1) {
+                int s = i << 6 | Long.numberOfTrailingZeros(bits);
+                rows[s * words + word] &= ~(1L << bit);
+                --outDegree[s];
+                --edgeCount;
+            }
+        }
+        Arrays.fill(rows, base, base + words, 0);
+        Arrays.fill(columns, base, base + words, 0);
+        outDegree[id] = inDegree[id] = 0;
+
+        index.remove(element);
+        labels[id] = null;
+        handles[id] = null;
+        vertexIds.release(id);
+        --vertexCount;
+        return element;
+    }
+
+    @Override
+    public synchronized Integer removeEdge(Edge<Integer, V> e) throws InvalidEdgeException {
+        MEdge edge = validateEdge(e);
+        return unlink(edge.u.id, edge.v.id);
+    }
+
+    /*
+    The bulk methods hold the monitor once for the whole batch and grow the matrices at most once.
+    A batch is atomic: if one of the elements is invalid, the graph is left unchanged.
+     */
+    @Override
+    public synchronized List<Vertex<V>> insertVertices(Collection<? extends V> elements) throws InvalidVertexException {
+        Set<V> batch = new HashSet<>(elements.size() * 4 / 3 + 1);
+        for (V element : elements) {
+            if (index.containsKey(element) || !batch.add(element)) {
+                throw new InvalidVertexException("A vertex with this element already exists.");
+            }
+        }
+        ensureCapacity(vertexIds.bound() + elements.size());
+
+        List<Vertex<V>> inserted = new ArrayList<>(elements.size());
+        for (V element : elements) {
+            inserted.add(insertVertex(element));
+        }
+        return inserted;
+    }
+
+    @Override
+    public synchronized void insertEdges(List<? extends V> uElements, List<? extends V> vElements, List<? extends Integer> eElements) throws InvalidVertexException, InvalidEdgeException {
+        int m = uElements.size();
+        if (vElements.size() != m || eElements.size() != m) {
+            throw new IllegalArgumentException("The lists of end vertices and elements differ in size.");
+        }
+
+        int[] starts = new int[m], ends = new int[m];
+        Iterator<? extends V> u = uElements.iterator(), v = vElements.iterator();
+        for (int i = 0; i < m; i++) {
+            starts[i] = validateElement(u.next());
+            ends[i] = validateElement(v.next());
+        }
+
+        Iterator<? extends Integer> e = eElements.iterator();
+        for (int i = 0; i < m; i++) {
+            try {
+                link(starts[i], ends[i], e.next());
+            } catch (InvalidEdgeException ex) {
+                for (int j = i - 1; j >= 0; j--) unlink(starts[j], ends[j]); //roll back the edges linked so far
+                throw ex;
+            }
+        }
+    }
+
+    /* return the id of vertex v */
+    public synchronized int vertexId(Vertex<V> v) throws InvalidVertexException {
+        return validateVertex(v);
+    }
+
+    /* return the id of the vertex with this element, or -1 if there is none */
+    public synchronized int vertexId(V element) {
+        Integer id = index.get(element);
+        return id == null ? -1 : id;
+    }
+
+    /* return the vertex with this id */
+    public synchronized Vertex<V> vertex(int id) throws InvalidVertexException {
+        if (id < 0 || id >= vertexIds.bound() || handles[id] == null) throw new InvalidVertexException("Vertex does not belong to this graph.");
+        return handles[id];
+    }
+
+    /* return the weight of edge e */
+    public synchronized int weight(Edge<Integer, V> e) throws InvalidEdgeException {
+        MEdge edge = validateEdge(e);
+        return weights[edge.u.id * capacity + edge.v.id];
+    }
+
+    /* replace the weight of edge e and return the old weight */
+    public synchronized int setWeight(Edge<Integer, V> e, int weight) throws InvalidEdgeException {
+        MEdge edge = validateEdge(e);
+        int cell = edge.u.id * capacity + edge.v.id;
+        int old = weights[cell];
+        weights[cell] = weight;
+        return old;
+    }
+
+    /*
+    The following accessors read the matrix directly. They are not validated nor synchronized, so
+    the caller must hold valid ids and must not mutate the graph concurrently.
+     */
+
+    /* return true if there is an edge from vertex u to vertex v, a single bit test */
+    public boolean hasEdge(int u, int v) {
+        return (rows[u * words + (v >>> 6)] & 1L << v) != 0;
+    }
+
+    /* return the weight of the edge from vertex u to vertex v, meaningless if there is none */
+    public int weight(int u, int v) {
+        return weights[u * capacity + v];
+    }
+
+    @Override
+    public boolean containsVertex(int vertexId) {
+        return vertexId >= 0 && vertexId < vertexIds.bound() && handles[vertexId] != null;
+    }
+
+    @Override
+    public int outDegree(int vertexId) {
+        return outDegree[vertexId];
+    }
+
+    @Override
+    public int inDegree(int vertexId) {
+        return inDegree[vertexId];
+    }
+
+    @Override
+    public void forEachOutNeighbor(int vertexId, IntIntConsumer action) {
+        for (int i = 0, base = vertexId * words; i < words; i++) {
+            for (long bits = rows[base + i]; bits != 0; bits &= bits - 1) {
+                int v = i << 6 | Long.numberOfTrailingZeros(bits);
+                action.accept(v, weights[vertexId * capacity + v]);
+            }
+        }
+    }
+
+    @Override
+    public void forEachInNeighbor(int vertexId, IntIntConsumer action) {
+        for (int i = 0, base = vertexId * words; i < words; i++) {
+            for (long bits = columns[base + i]; bits != 0; bits &= bits - 1) {
+                int u = i << 6 | Long.numberOfTrailingZeros(bits);
+                action.accept(u, weights[u * capacity + vertexId]);
+            }
+        }
+    }
+
+    @Override
+    public NeighborCursor outCursor() {
+        return new BitCursor(true);
+    }
+
+    @Override
+    public NeighborCursor inCursor() {
+        return new BitCursor(false);
+    }
+
+    /**
+     * A cursor over the set bits of a row or of a column, one word at a time.
+     */
+    private final class BitCursor implements NeighborCursor {
+        private final boolean outgoing;
+        private int vertexId, base, word, current;
+        private long bits;
+
+        BitCursor(boolean outgoing) {
+            this.outgoing = outgoing;
+        }
+
+        @Override
+        public void reset(int vertexId) {
+            this.vertexId = vertexId;
+            base = vertexId * words;
+            word = -1;
+            bits = 0;
+        }
+
+        @Override
+        public boolean advance() {
+            long[] matrix = outgoing ? rows : columns;
+            while (bits == 0) {
+                if (++word >= words) return false;
+                bits = matrix[base + word];
+            }
+            current = word << 6 | Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            return true;
+        }
+
+        @Override
+        public int vertex() {
+            return current;
+        }
+
+        @Override
+        public int weight() {
+            return outgoing ? weights[vertexId * capacity + current] : weights[current * capacity + vertexId];
+        }
+    }
+
+    /**
+     * Return the ids of the vertices reachable from <code>v</code>, including <code>v</code>. Each
+     * reached vertex contributes its whole row at once: the bits not seen yet are found with one
+     * <code>AND NOT</code> per word, so the search takes O(n<sup>2</sup> / 64) word operations at
+     * most, whatever the number of edges.
+     *
+     * @param v Source vertex
+     * @return The ids of the reachable vertices
+     * @throws InvalidVertexException if <code>v</code> does not belong to this graph
+     */
+    public synchronized BitSet reachableFrom(Vertex<V> v) throws InvalidVertexException {
+        int source = validateVertex(v);
+        long[] seen = new long[words];
+        int[] queue = new int[vertexCount];
+        int head = 0, tail = 0;
+        seen[source >>> 6] |= 1L << source;
+        queue[tail++] = source;
+
+        while (head < tail) {
+            int base = queue[head++] * words;
+            for (int i = 0; i < words; i++) {
+                long fresh = rows[base + i] & ~seen[i];
+                if (fresh == 0) continue;
+                seen[i] |= fresh;
+                for (; fresh != 0; fresh &= fresh - 1) {
+                    queue[tail++] = i << 6 | Long.numberOfTrailingZeros(fresh);
+                }
+            }
+        }
+        return BitSet.valueOf(seen);
+    }
+
+    /**
+     * Return the transitive closure of the graph: bit <code>v</code> of the set at index
+     * <code>u</code> is set if there is a path of one or more edges from vertex <code>u</code> to
+     * vertex <code>v</code>. The sets are indexed by vertex id and are null for unused ids. This is
+     * Warshall's algorithm on whole rows: when <code>u</code> reaches <code>k</code>, the row of
+     * <code>k</code> is OR-ed into the row of <code>u</code>, in O(n<sup>3</sup> / 64) word
+     * operations at most.
+     *
+     * @return The rows of the closure, indexed by vertex id
+     */
+    public synchronized BitSet[] transitiveClosure() {
+        int bound = vertexIds.bound();
+        long[] closure = Arrays.copyOf(rows, bound * words);
+        for (int k = 0; k < bound; k++) {
+            int word = k >>> 6, kBase = k * words;
+            long bit = 1L << k;
+            for (int u = 0, uBase = 0; u < bound; u++, uBase += words) {
+                if ((closure[uBase + word] & bit) == 0) continue;
+                for (int i = 0; i < words; i++) closure[uBase + i] |= closure[kBase + i];
+            }
+        }
+
+        BitSet[] sets = new BitSet[bound];
+        for (int u = 0; u < bound; u++) {
+            if (handles[u] != null) sets[u] = BitSet.valueOf(Arrays.copyOfRange(closure, u * words, (u + 1) * words));
+        }
+        return sets;
+    }
+
+    /**
+     * Return the number of directed triangles, i.e. of cycles <code>u &rarr; v &rarr; w &rarr;
+     * u</code> through three distinct vertices. For every edge <code>u &rarr; v</code>, the vertices
+     * <code>w</code> closing a triangle are the bits of the row of <code>v</code> AND the column of
+     * <code>u</code>, counted 64 at a time with a population count; each triangle is found once per
+     * edge.
+     *
+     * @return The number of directed triangles
+     */
+    public synchronized long countTriangles() {
+        long count = 0;
+        for (int u = 0; u < vertexIds.bound(); u++) {
+            int uBase = u * words;
+            for (int i = 0; i < words; i++) {
+                for (long bits = rows[uBase + i]; bits != 0; bits &= bits - 1) {
+                    int v = i << 6 | Long.numberOfTrailingZeros(bits);
+                    if (v == u) continue;
+                    int vBase = v * words;
+                    for (int j = 0; j < words; j++) {
+                        long closing = rows[vBase + j] & columns[uBase + j];
+                        if (j == u >>> 6) closing &= ~(1L << u);     //w = u needs a self-loop, not a triangle
+                        if (j == v >>> 6) closing &= ~(1L << v);
+                        count += Long.bitCount(closing);
+                    }
+                }
+            }
+        }
+        return count / 3;
+    }
+
+    /* set the bits and the weight of a new edge from u to v */
+    private void link(int u, int v, int weight) throws InvalidEdgeException {
+        if (hasEdge(u, v)) {
+            throw new InvalidEdgeException("Edge from u to v exists.");
+        }
+        rows[u * words + (v >>> 6)] |= 1L << v;
+        columns[v * words + (u >>> 6)] |= 1L << u;
+        weights[u * capacity + v] = weight;
+        ++outDegree[u];
+        ++inDegree[v];
+        ++edgeCount;
+    }
+
+    /* clear the bits of the edge from u to v and return its weight */
+    private int unlink(int u, int v) {
+        rows[u * words + (v >>> 6)] &= ~(1L << v);
+        columns[v * words + (u >>> 6)] &= ~(1L << u);
+        --outDegree[u];
+        --inDegree[v];
+        --edgeCount;
+        return weights[u * capacity + v];
+    }
+
+    /* validate that this vertex belongs to the graph and return its id */
+    private int validateVertex(Vertex<V> v) throws InvalidVertexException {
+        if (v == null) throw new InvalidVertexException("Null vertex.");
+        if (!(v instanceof BitMatrixDigraph.MVertex)) throw new InvalidVertexException("Not a vertex.");
+
+        int id = ((MVertex) v).id;
+        if (id >= vertexIds.bound() || handles[id] != v) {
+            throw new InvalidVertexException("Vertex does not belong to this graph.");
+        }
+        return id;
+    }
+
+    /* validate that a vertex with this element belongs to the graph and return its id */
+    private int validateElement(V element) throws InvalidVertexException {
+        Integer id = index.get(element);
+        if (id == null) throw new InvalidVertexException("Vertex does not belong to this graph.");
+        return id;
+    }
+
+    /* validate that this edge joins vertices of the graph and is present in the matrix */
+    private MEdge validateEdge(Edge<Integer, V> e) throws InvalidEdgeException {
+        if (e == null) throw new InvalidEdgeException("Null edge.");
+        if (!(e instanceof BitMatrixDigraph.MEdge)) throw new InvalidEdgeException("Not an edge.");
+
+        MEdge edge = (MEdge) e;
+        int u = edge.u.id, v = edge.v.id;
+        if (u >= vertexIds.bound() || v >= vertexIds.bound() || handles[u] != edge.u || handles[v] != edge.v || !hasEdge(u, v)) {
+            throw new InvalidEdgeException("Edge does not belong to this graph.");
+        }
+        return edge;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder(
+                String.format("[Graph with %d vertices and %d edges]\n", numVertices(), numEdges())
+        );
+
+        sb.append("--- Vertices: \n");
+        for (Vertex<V> v : vertices()) {
+            sb.append("\t").append(v.toString()).append("\n");
+        }
+        sb.append("\n--- Edges: \n");
+        for (Edge<Integer, V> e : edges()) {
+            sb.append("\t").append(e.toString()).append("\n");
+        }
+        return sb.append("\n").toString();
+    }
+}
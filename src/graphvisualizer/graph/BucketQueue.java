@@ -0,0 +1,54 @@
+package graphvisualizer.graph;
+
+/**
+ * A monotone bucket queue, as in Dial's variant of Dijkstra's algorithm, for keys that never exceed
+ * the last minimum by more than a known <code>spread</code>, e.g. the maximum edge weight of a
+ * graph. The queued keys then fall in a window of <code>spread + 1</code> consecutive values, and a
+ * circular array with one bucket per value holds them: insertion and key changes are O(1), and
+ * finding the minimum scans the buckets from the last minimum. Over a run of Dijkstra's algorithm the
+ * scan never moves backwards, so the run costs O(E + D) where D &le; V &middot; C is the largest
+ * distance, and it involves no comparison at all. Keys outside of the window are rejected with an
+ * <code>IllegalArgumentException</code>. This class is not thread-safe.
+ */
+public class BucketQueue extends AbstractMonotoneQueue {
+    private final long spread;
+
+    /* create a queue for ids below idBound, which grows if needed, and keys up to spread above the minimum */
+    public BucketQueue(int idBound, int spread) {
+        super(idBound, checkSpread(spread) + 1);
+        this.spread = spread;
+    }
+
+    private static int checkSpread(int spread) {
+        if (spread < 0 || spread == Integer.MAX_VALUE) throw new IllegalArgumentException("The spread must be between 0 and 2^31 - 2.");
+        return spread;
+    }
+
+    public long spread() {
+        return spread;
+    }
+
+    /* an empty queue also moves its window up to a greater key, as little as needed */
+    @Override
+    protected void checkKey(long key) throws IllegalArgumentException {
+        super.checkKey(key);
+        if (size() == 0 && key - last > spread) last = key - spread;
+        else if (key - last > spread) throw new IllegalArgumentException("The key exceeds the last minimum of the bucket queue by more than its spread.");
+    }
+
+    @Override
+    protected int bucket(long key) {
+        return (int) Math.floorMod(key, (long) head.length);
+    }
+
+    /* advance last to the next non-empty bucket, whose keys all equal last since they fit in the window */
+    @Override
+    protected int minBucket() {
+        int b = bucket(last);
+        while (head[b] == -1) {
+            ++last;
+            if (++b == head.length) b = 0;
+        }
+        return b;
+    }
+}
@@ -0,0 +1,289 @@
+package graphvisualizer.graph;
+
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * An immutable compressed sparse row (CSR) structure for a directed graph. Every vertex
+ * is given a dense <code>int</code> index in <code>[0, numVertices())</code> following the
+ * iteration order of the source graph. The outgoing edges of vertex <code>u</code> occupy
+ * the slots <code>[outStart(u), outEnd(u))</code> of the contiguous target and weight arrays,
+ * and the incoming edges are stored the same way in a second set of arrays. Traversals
+ * therefore run over primitive arrays without any map lookup, validation or unboxing.
+ * The indices double as the vertex ids of the {@link IntDigraph} traversal surface.
+ *
+ * @param <V> Vertex type
+ */
+public final class CSRDigraph<V> implements IntDigraph {
+    private final Object[] labels;
+    private final Map<V, Integer> indices;
+    private final int[] outOffsets, outTargets, outWeights;
+    private final int[] inOffsets, inSources, inWeights;
+
+    private CSRDigraph(Object[] labels, Map<V, Integer> indices, int[] outOffsets, int[] outTargets, int[] outWeights) {
+        int n = labels.length;
+        int m = outTargets.length;
+        this.labels = labels;
+        this.indices = indices;
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.outWeights = outWeights;
+        this.inOffsets = new int[n + 1];
+        this.inSources = new int[m];
+        this.inWeights = new int[m];
+
+        //transpose the outgoing arrays with a counting sort on the targets
+        for (int i = 0; i < m; i++) {
+            ++inOffsets[outTargets[i] + 1];
+        }
+        for (int v = 0; v < n; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        int[] cursor = Arrays.copyOf(inOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int i = outOffsets[u]; i < outOffsets[u + 1]; i++) {
+                int slot = cursor[outTargets[i]]++;
+                inSources[slot] = u;
+                inWeights[slot] = outWeights[i];
+            }
+        }
+    }
+
+    /**
+     * Build a CSR snapshot of <code>graph</code>. An {@link AdjacencyMapDigraph} is copied from its
+     * {@link AdjacencyMapDigraph#snapshot()}, so it may be mutated meanwhile. For other graphs the
+     * caller is responsible for ensuring that the graph is not mutated while it is being copied.
+     *
+     * @param graph Directed graph to copy
+     * @param weigher Function converting an edge element into a primitive weight
+     * @param <V> Vertex type
+     * @param <E> Edge type
+     * @return An immutable CSR copy of the graph
+     */
+    public static <V, E> CSRDigraph<V> of(Graph<V, E> graph, ToIntFunction<? super E> weigher) {
+        if (graph instanceof AdjacencyMapDigraph) {
+            graph = ((AdjacencyMapDigraph<V, E>) graph).snapshot();    //one version, whose edge lists are not copied
+        }
+        Collection<Vertex<V>> vertices = graph.vertices();
+        int n = vertices.size();
+        Object[] labels = new Object[n];
+        Map<V, Integer> indices = new HashMap<>(n * 4 / 3 + 1);
+        int[] ref = new int[graph.vertexIdBound()];     //maps vertex ids to CSR indices
+        int[] outOffsets = new int[n + 1];
+        List<Collection<Edge<E, V>>> outgoing = new ArrayList<>(n);     //read once, to size and to fill
+
+        int count = 0;
+        for (Vertex<V> v : vertices) {
+            Collection<Edge<E, V>> edges = graph.outgoingEdges(v);
+            outgoing.add(edges);
+            labels[count] = v.element();
+            indices.put(v.element(), count);
+            ref[v.id()] = count;
+            outOffsets[count + 1] = outOffsets[count] + edges.size();
+            ++count;
+        }
+
+        int[] outTargets = new int[outOffsets[n]];
+        int[] outWeights = new int[outOffsets[n]];
+        int slot = 0;
+        for (Collection<Edge<E, V>> edges : outgoing) {
+            for (Edge<E, V> edge : edges) {
+                outTargets[slot] = ref[edge.vertices()[1].id()];
+                outWeights[slot] = weigher.applyAsInt(edge.element());
+                ++slot;
+            }
+        }
+        return new CSRDigraph<>(labels, indices, outOffsets, outTargets, outWeights);
+    }
+
+    /**
+     * Build a CSR graph from an edge list, where edge <code>i</code> goes from vertex
+     * <code>sources[i]</code> to vertex <code>targets[i]</code> with weight <code>weights[i]</code>
+     * and the vertices are numbered by their position in <code>labels</code>. The edges of each
+     * vertex keep their order in the list. The arrays are read but not retained.
+     *
+     * @param labels Elements of the vertices, which must be distinct
+     * @param sources Starting vertex of each edge
+     * @param targets Ending vertex of each edge
+     * @param weights Weight of each edge
+     * @param numEdges Number of edges, i.e. of entries used in each array
+     * @param <V> Vertex type
+     * @return An immutable CSR graph with these edges
+     */
+    public static <V> CSRDigraph<V> fromEdges(List<V> labels, int[] sources, int[] targets, int[] weights, int numEdges) {
+        int n = labels.size();
+        Map<V, Integer> indices = new HashMap<>(n * 4 / 3 + 1);
+        for (int u = 0; u < n; u++) {
+            if (indices.put(labels.get(u), u) != null) {
+                throw new InvalidVertexException("A vertex with this element already exists.");
+            }
+        }
+
+        //group the edges by source with a stable counting sort
+        int[] outOffsets = new int[n + 1];
+        for (int i = 0; i < numEdges; i++) {
+            if (sources[i] < 0 || sources[i] >= n || targets[i] < 0 || targets[i] >= n) {
+                throw new InvalidVertexException("Vertex does not belong to this graph.");
+            }
+            ++outOffsets[sources[i] + 1];
+        }
+        for (int u = 0; u < n; u++) {
+            outOffsets[u + 1] += outOffsets[u];
+        }
+        int[] cursor = Arrays.copyOf(outOffsets, n);
+        int[] outTargets = new int[numEdges];
+        int[] outWeights = new int[numEdges];
+        for (int i = 0; i < numEdges; i++) {
+            int slot = cursor[sources[i]]++;
+            outTargets[slot] = targets[i];
+            outWeights[slot] = weights[i];
+        }
+        return new CSRDigraph<>(labels.toArray(), indices, outOffsets, outTargets, outWeights);
+    }
+
+    /* return total number of vertices */
+    public int numVertices() {
+        return labels.length;
+    }
+
+    /* return total number of edges */
+    public int numEdges() {
+        return outTargets.length;
+    }
+
+    /* return the element of the vertex at index u */
+    @SuppressWarnings("unchecked")
+    public V label(int u) {
+        return (V) labels[u];
+    }
+
+    /* return the index of the vertex with this element, or -1 if there is none */
+    public int indexOf(V element) {
+        Integer index = indices.get(element);
+        return index == null ? -1 : index;
+    }
+
+    /* return the first slot of the outgoing edges of u */
+    public int outStart(int u) {
+        return outOffsets[u];
+    }
+
+    /* return one past the last slot of the outgoing edges of u */
+    public int outEnd(int u) {
+        return outOffsets[u + 1];
+    }
+
+    /* return the target of the outgoing edge stored in slot i */
+    public int outTarget(int i) {
+        return outTargets[i];
+    }
+
+    /* return the weight of the outgoing edge stored in slot i */
+    public int outWeight(int i) {
+        return outWeights[i];
+    }
+
+    /* return the first slot of the incoming edges of v */
+    public int inStart(int v) {
+        return inOffsets[v];
+    }
+
+    /* return one past the last slot of the incoming edges of v */
+    public int inEnd(int v) {
+        return inOffsets[v + 1];
+    }
+
+    /* return the source of the incoming edge stored in slot i */
+    public int inSource(int i) {
+        return inSources[i];
+    }
+
+    /* return the weight of the incoming edge stored in slot i */
+    public int inWeight(int i) {
+        return inWeights[i];
+    }
+
+    @Override
+    public int vertexIdBound() {
+        return labels.length;
+    }
+
+    @Override
+    public boolean containsVertex(int vertexId) {
+        return vertexId >= 0 && vertexId < labels.length;
+    }
+
+    @Override
+    public int outDegree(int u) {
+        return outOffsets[u + 1] - outOffsets[u];
+    }
+
+    @Override
+    public int inDegree(int v) {
+        return inOffsets[v + 1] - inOffsets[v];
+    }
+
+    @Override
+    public void forEachOutNeighbor(int vertexId, IntIntConsumer action) {
+        for (int i = outOffsets[vertexId]; i < outOffsets[vertexId + 1]; i++) {
+            action.accept(outTargets[i], outWeights[i]);
+        }
+    }
+
+    @Override
+    public void forEachInNeighbor(int vertexId, IntIntConsumer action) {
+        for (int i = inOffsets[vertexId]; i < inOffsets[vertexId + 1]; i++) {
+            action.accept(inSources[i], inWeights[i]);
+        }
+    }
+
+    @Override
+    public NeighborCursor outCursor() {
+        return new SlotCursor(outOffsets, outTargets, outWeights);
+    }
+
+    @Override
+    public NeighborCursor inCursor() {
+        return new SlotCursor(inOffsets, inSources, inWeights);
+    }
+
+    /**
+     * A {@link NeighborCursor} walking the slots of one vertex in a pair of neighbour and weight arrays.
+     */
+    private static final class SlotCursor implements NeighborCursor {
+        private final int[] offsets, neighbors, weights;
+        private int slot, end;
+
+        SlotCursor(int[] offsets, int[] neighbors, int[] weights) {
+            this.offsets = offsets;
+            this.neighbors = neighbors;
+            this.weights = weights;
+        }
+
+        @Override
+        public void reset(int vertexId) {
+            slot = offsets[vertexId] - 1;
+            end = offsets[vertexId + 1];
+        }
+
+        @Override
+        public boolean advance() {
+            return ++slot < end;
+        }
+
+        @Override
+        public int vertex() {
+            return neighbors[slot];
+        }
+
+        @Override
+        public int weight() {
+            return weights[slot];
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[CSR graph with %d vertices and %d edges]", numVertices(), numEdges());
+    }
+}
@@ -0,0 +1,53 @@
+package graphvisualizer.graph;
+
+/**
+ * Interfaces for asynchronous streams with backpressure, with the same methods and contracts as
+ * those of <code>java.util.concurrent.Flow</code>, which is not available in Java 8. A
+ * {@link Subscriber} receives items only after requesting them through its {@link Subscription}, and
+ * the methods of a subscriber are called one at a time, in order.
+ */
+public final class ChangeFlow {
+    private ChangeFlow() {
+    }
+
+    /**
+     * A producer of items.
+     *
+     * @param <T> Item type
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+        /* add subscriber, which receives onSubscribe before any other call */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * A receiver of items.
+     *
+     * @param <T> Item type
+     */
+    public interface Subscriber<T> {
+        /* called once, before any item, with the subscription to request items through */
+        void onSubscribe(Subscription subscription);
+
+        /* called with the next item, at most as many times as requested */
+        void onNext(T item);
+
+        /* called once if the subscription fails, no other call follows */
+        void onError(Throwable throwable);
+
+        /* called once if the publisher is closed, no other call follows */
+        void onComplete();
+    }
+
+    /**
+     * The link between a {@link Publisher} and one of its {@link Subscriber}s.
+     */
+    public interface Subscription {
+        /* allow n more calls to onNext, n must be positive */
+        void request(long n);
+
+        /* stop receiving items, possibly after a few already in flight */
+        void cancel();
+    }
+}
@@ -0,0 +1,291 @@
+package graphvisualizer.graph;
+
+import java.util.*;
+
+/**
+ * An immutable directed graph whose adjacency lists are compressed, for large graphs that are only
+ * queried. The neighbours of each vertex are sorted and stored as gaps in variable-length integers
+ * (7 bits per byte), each followed by the weight of its edge in zigzag form, so that small gaps and
+ * small weights take a single byte. The list of vertex <code>u</code> starts at byte
+ * <code>offset[u]</code> with its length, which gives random access per vertex; the first neighbour is
+ * encoded relative to <code>u</code> itself, which keeps it small when neighbours have close indices.
+ * The incoming lists are stored the same way unless the graph is built forward-only, which halves
+ * its size for traversals that only follow outgoing edges; the algorithms decode the lists on the
+ * fly while traversing. Vertex indices are those of the
+ * {@link CSRDigraph} the graph is built from; neighbours are visited in increasing index order.
+ *
+ * @param <V> Vertex type
+ */
+public final class CompressedDigraph<V> implements IntDigraph {
+    private final Object[] labels;
+    private final int numEdges;
+    private final byte[] out, in;
+    private final int[] outOffsets, inOffsets;
+    private volatile Map<V, Integer> indices;
+
+    private CompressedDigraph(Object[] labels, int numEdges, byte[] out, int[] outOffsets, byte[] in, int[] inOffsets) {
+        this.labels = labels;
+        this.numEdges = numEdges;
+        this.out = out;
+        this.outOffsets = outOffsets;
+        this.in = in;
+        this.inOffsets = inOffsets;
+    }
+
+    /* compress the outgoing and incoming edges of graph */
+    public static <V> CompressedDigraph<V> of(CSRDigraph<V> graph) {
+        return of(graph, true);
+    }
+
+    /**
+     * Compress the adjacency of <code>graph</code>.
+     *
+     * @param graph Graph to compress
+     * @param incoming false to only keep the outgoing edges, in which case the incoming
+     *                 traversal methods throw {@link UnsupportedOperationException}
+     * @param <V> Vertex type
+     * @return A compressed copy of the graph with the same vertex indices
+     */
+    public static <V> CompressedDigraph<V> of(CSRDigraph<V> graph, boolean incoming) {
+        int n = graph.numVertices();
+        Object[] labels = new Object[n];
+        for (int u = 0; u < n; u++) {
+            labels[u] = graph.label(u);
+        }
+
+        Encoder out = new Encoder(graph.numEdges()), in = incoming ? new Encoder(graph.numEdges()) : null;
+        int[] outOffsets = new int[n + 1], inOffsets = incoming ? new int[n + 1] : null;
+        long[] list = new long[16];
+        for (int u = 0; u < n; u++) {
+            int degree = graph.outEnd(u) - graph.outStart(u);
+            if (degree > list.length) list = new long[Math.max(degree, 2 * list.length)];
+            for (int i = 0; i < degree; i++) {
+                int slot = graph.outStart(u) + i;
+                list[i] = (long) graph.outTarget(slot) << 32 | (graph.outWeight(slot) & 0xFFFFFFFFL);
+            }
+            outOffsets[u] = out.size();
+            out.list(u, list, degree);
+            if (!incoming) continue;
+
+            degree = graph.inEnd(u) - graph.inStart(u);
+            if (degree > list.length) list = new long[Math.max(degree, 2 * list.length)];
+            for (int i = 0; i < degree; i++) {
+                int slot = graph.inStart(u) + i;
+                list[i] = (long) graph.inSource(slot) << 32 | (graph.inWeight(slot) & 0xFFFFFFFFL);
+            }
+            inOffsets[u] = in.size();
+            in.list(u, list, degree);
+        }
+        outOffsets[n] = out.size();
+        if (!incoming) return new CompressedDigraph<>(labels, graph.numEdges(), out.toArray(), outOffsets, null, null);
+        inOffsets[n] = in.size();
+        return new CompressedDigraph<>(labels, graph.numEdges(), out.toArray(), outOffsets, in.toArray(), inOffsets);
+    }
+
+    /* return total number of vertices */
+    public int numVertices() {
+        return labels.length;
+    }
+
+    /* return total number of edges */
+    public int numEdges() {
+        return numEdges;
+    }
+
+    /* return the element of the vertex at index u */
+    @SuppressWarnings("unchecked")
+    public V label(int u) {
+        return (V) labels[u];
+    }
+
+    /* return the index of the vertex with this element, or -1 if there is none; the index is built on the first call */
+    @SuppressWarnings("unchecked")
+    public int indexOf(V element) {
+        Map<V, Integer> map = indices;
+        if (map == null) {
+            map = new HashMap<>(labels.length * 4 / 3 + 1);
+            for (int u = 0; u < labels.length; u++) {
+                map.put((V) labels[u], u);
+            }
+            indices = map;
+        }
+        Integer index = map.get(element);
+        return index == null ? -1 : index;
+    }
+
+    /* return the number of bytes taken by the compressed lists and their offsets */
+    public long sizeInBytes() {
+        long size = out.length + 4L * outOffsets.length;
+        return in == null ? size : size + in.length + 4L * inOffsets.length;
+    }
+
+    @Override
+    public int vertexIdBound() {
+        return labels.length;
+    }
+
+    @Override
+    public boolean containsVertex(int vertexId) {
+        return vertexId >= 0 && vertexId < labels.length;
+    }
+
+    @Override
+    public int outDegree(int u) {
+        return readLength(out, outOffsets[u]);
+    }
+
+    @Override
+    public int inDegree(int v) {
+        return readLength(incoming(), inOffsets[v]);
+    }
+
+    @Override
+    public void forEachOutNeighbor(int vertexId, IntIntConsumer action) {
+        ListCursor cursor = new ListCursor(out, outOffsets);
+        cursor.reset(vertexId);
+        while (cursor.advance()) action.accept(cursor.vertex, cursor.weight);
+    }
+
+    @Override
+    public void forEachInNeighbor(int vertexId, IntIntConsumer action) {
+        ListCursor cursor = new ListCursor(incoming(), inOffsets);
+        cursor.reset(vertexId);
+        while (cursor.advance()) action.accept(cursor.vertex, cursor.weight);
+    }
+
+    @Override
+    public NeighborCursor outCursor() {
+        return new ListCursor(out, outOffsets);
+    }
+
+    @Override
+    public NeighborCursor inCursor() {
+        return new ListCursor(incoming(), inOffsets);
+    }
+
+    /* return the incoming lists, if they were kept */
+    private byte[] incoming() {
+        if (in == null) throw new UnsupportedOperationException("The graph was compressed without its incoming edges.");
+        return in;
+    }
+
+    /**
+     * A {@link NeighborCursor} decoding the list of one vertex at a time.
+     */
+    private static final class ListCursor implements NeighborCursor {
+        private final byte[] bytes;
+        private final int[] offsets;
+        private int position, remaining, vertex, weight;
+        private boolean first;
+
+        ListCursor(byte[] bytes, int[] offsets) {
+            this.bytes = bytes;
+            this.offsets = offsets;
+        }
+
+        @Override
+        public void reset(int vertexId) {
+            position = offsets[vertexId];
+            remaining = readVarint();
+            vertex = vertexId;      //the first gap is relative to the vertex itself
+            first = true;
+        }
+
+        @Override
+        public boolean advance() {
+            if (remaining == 0) return false;
+            --remaining;
+            int gap = readVarint();
+            vertex += first ? zigzagDecode(gap) : gap;
+            first = false;
+            weight = zigzagDecode(readVarint());
+            return true;
+        }
+
+        @Override
+        public int vertex() {
+            return vertex;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+        }
+    }
+
+    /* return the length stored at the start of a list */
+    private static int readLength(byte[] bytes, int position) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[position++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    private static int zigzagEncode(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int zigzagDecode(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Appends compressed lists to a growable byte array.
+     */
+    private static final class Encoder {
+        private byte[] bytes;
+        private int size;
+
+        Encoder(int numEdges) {
+            bytes = new byte[Math.max(16, numEdges * 2)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        /* append the first count entries of list, packed as neighbour << 32 | weight, for vertex u */
+        void list(int u, long[] list, int count) {
+            Arrays.sort(list, 0, count);
+            varint(count);
+            int previous = u;
+            for (int i = 0; i < count; i++) {
+                int neighbor = (int) (list[i] >>> 32);
+                varint(i == 0 ? zigzagEncode(neighbor - u) : neighbor - previous);
+                varint(zigzagEncode((int) list[i]));
+                previous = neighbor;
+            }
+        }
+
+        private void varint(int value) {
+            if (size + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(Integer.MAX_VALUE - 8, bytes.length * 3L / 2 + 5));
+            }
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[Compressed graph with %d vertices and %d edges in %d bytes]", numVertices(), numEdges(), sizeInBytes());
+    }
+}
@@ -0,0 +1,299 @@
+package graphvisualizer.graph;
+
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * An immutable version of a directed graph returned by {@link AdjacencyMapDigraph#snapshot()}.
+ * The snapshot shares the {@link Vertex} and {@link Edge} objects of the graph it was taken from,
+ * and it shares the adjacency of every vertex that has not been modified with the previous
+ * snapshot. The adjacencies are held in a {@link PersistentIdArray} indexed by vertex id, so taking
+ * a new version only copies the adjacency lists of the vertices touched since then, plus O(log V)
+ * trie nodes for each of them. The vertices are iterated in the order of their ids.
+ * Readers can traverse a snapshot without any lock while writers keep mutating the graph.
+ * If the graph does not index its incoming edges, neither does the snapshot: the incoming edges of
+ * every vertex are then derived from the outgoing ones on the first query that needs them.
+ * All mutating methods throw {@link UnsupportedOperationException}.
+ *
+ * @param <V> Vertex type
+ * @param <E> Edge type
+ */
+public final class DigraphSnapshot<V, E> implements Graph<V, E> {
+    /**
+     * A vertex with its outgoing and incoming edges at the time of a snapshot. An {@link Adjacency}
+     * is never modified once it is created, so it can be shared by consecutive snapshots. The
+     * incoming edges are null if the graph does not index them.
+     */
+    static final class Adjacency<V, E> {
+        private final Vertex<V> vertex;
+        private final AdaptiveAdjacency<Vertex<V>, Edge<E, V>> outgoingEdges, incomingEdges;
+
+        Adjacency(Vertex<V> vertex, AdaptiveAdjacency<Vertex<V>, Edge<E, V>> outgoingEdges, AdaptiveAdjacency<Vertex<V>, Edge<E, V>> incomingEdges) {
+            this.vertex = vertex;
+            this.outgoingEdges = new AdaptiveAdjacency<>(outgoingEdges);
+            this.incomingEdges = incomingEdges == null ? null : new AdaptiveAdjacency<>(incomingEdges);
+        }
+
+        Vertex<V> vertex() {
+            return vertex;
+        }
+    }
+
+    private final long version;
+    private final int numEdges, vertexIdBound, edgeIdBound;
+    private final PersistentIdArray<Adjacency<V, E>> adjacency;
+    private final Collection<Vertex<V>> vertices;
+    private volatile Collection<Edge<E, V>> edges;
+    private volatile Map<Vertex<V>, AdaptiveAdjacency<Vertex<V>, Edge<E, V>>> derivedIncomingEdges;
+
+    DigraphSnapshot(long version, int numEdges, int vertexIdBound, int edgeIdBound, PersistentIdArray<Adjacency<V, E>> adjacency) {
+        this.version = version;
+        this.numEdges = numEdges;
+        this.vertexIdBound = vertexIdBound;
+        this.edgeIdBound = edgeIdBound;
+        this.adjacency = adjacency;
+        this.vertices = new AbstractCollection<Vertex<V>>() {
+            @Override
+            public Iterator<Vertex<V>> iterator() {
+                Iterator<Adjacency<V, E>> it = adjacency.iterator();
+                return new Iterator<Vertex<V>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Vertex<V> next() {
+                        return it.next().vertex;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return adjacency.size();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean contains(Object o) {
+                return o instanceof Vertex && adjacencyOf((Vertex<V>) o) != null;
+            }
+        };
+    }
+
+    /* return the adjacencies of this snapshot indexed by vertex id, from which the next snapshot is derived */
+    PersistentIdArray<Adjacency<V, E>> adjacencies() {
+        return adjacency;
+    }
+
+    /* return the adjacency of v in this snapshot, or null if v does not belong to it */
+    Adjacency<V, E> adjacencyOf(Vertex<V> v) {
+        Adjacency<V, E> a = adjacency.get(v.id());
+        return a != null && a.vertex.equals(v) ? a : null;
+    }
+
+    /* return the incoming edges of the vertex with adjacency a, deriving those of every vertex on the first call if they are not indexed */
+    private AdaptiveAdjacency<Vertex<V>, Edge<E, V>> incomingEdgesOf(Vertex<V> v, Adjacency<V, E> a) {
+        if (a.incomingEdges != null) return a.incomingEdges;
+        Map<Vertex<V>, AdaptiveAdjacency<Vertex<V>, Edge<E, V>>> result = derivedIncomingEdges;
+        if (result == null) {
+            result = new HashMap<>(adjacency.size() * 4 / 3 + 1);
+            for (Adjacency<V, E> u : adjacency) {
+                result.put(u.vertex, new AdaptiveAdjacency<>());
+            }
+            for (Adjacency<V, E> u : adjacency) {
+                for (Edge<E, V> edge : u.outgoingEdges.values()) {
+                    result.get(edge.vertices()[1]).put(u.vertex, edge);
+                }
+            }
+            derivedIncomingEdges = result;
+        }
+        return result.get(v);
+    }
+
+    /* return the vertex with this id */
+    public Vertex<V> vertex(int id) throws InvalidVertexException {
+        Adjacency<V, E> a = adjacency.get(id);
+        if (a == null) {
+            throw new InvalidVertexException("Vertex does not belong to this graph.");
+        }
+        return a.vertex;
+    }
+
+    /**
+     * Return a trusted {@link IntDigraph} view of this snapshot, passing the ids of the neighbours and
+     * the weights of the edges to the traversal without validating ids. Since the snapshot is immutable,
+     * the view can be traversed without any lock.
+     *
+     * @param weigher Function converting an edge element into a primitive weight
+     * @return A traversal view of this snapshot
+     */
+    public IntDigraph asIntDigraph(ToIntFunction<? super E> weigher) {
+        return new IntDigraphView<V, E>(weigher) {
+            @Override
+            AdaptiveAdjacency<Vertex<V>, Edge<E, V>> outgoingEdges(int vertexId) {
+                return adjacency.get(vertexId).outgoingEdges;
+            }
+
+            @Override
+            AdaptiveAdjacency<Vertex<V>, Edge<E, V>> incomingEdges(int vertexId) {
+                Adjacency<V, E> a = adjacency.get(vertexId);
+                return incomingEdgesOf(a.vertex, a);
+            }
+
+            @Override
+            public int vertexIdBound() {
+                return vertexIdBound;
+            }
+
+            @Override
+            public boolean containsVertex(int vertexId) {
+                return adjacency.get(vertexId) != null;
+            }
+        };
+    }
+
+    /* return the version of the graph this snapshot was taken from */
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public int numVertices() {
+        return adjacency.size();
+    }
+
+    @Override
+    public int numEdges() {
+        return numEdges;
+    }
+
+    @Override
+    public int vertexIdBound() {
+        return vertexIdBound;
+    }
+
+    @Override
+    public int edgeIdBound() {
+        return edgeIdBound;
+    }
+
+    @Override
+    public Collection<Vertex<V>> vertices() {
+        return vertices;
+    }
+
+    /*
+    The edge set is only assembled on the first call, since most algorithms only walk the
+    adjacency of each vertex.
+     */
+    @Override
+    public Collection<Edge<E, V>> edges() {
+        Collection<Edge<E, V>> result = edges;
+        if (result == null) {
+            Set<Edge<E, V>> all = new LinkedHashSet<>(numEdges * 4 / 3 + 1);
+            for (Adjacency<V, E> a : adjacency) {
+                all.addAll(a.outgoingEdges.values());
+            }
+            edges = result = Collections.unmodifiableSet(all);
+        }
+        return result;
+    }
+
+    @Override
+    public Collection<Edge<E, V>> incomingEdges(Vertex<V> v) throws InvalidVertexException {
+        return incomingEdgesOf(v, validateVertex(v)).values();
+    }
+
+    @Override
+    public Collection<Edge<E, V>> outgoingEdges(Vertex<V> v) throws InvalidVertexException {
+        return validateVertex(v).outgoingEdges.values();
+    }
+
+    @Override
+    public Vertex<V> opposite(Vertex<V> v, Edge<E, V> e) throws InvalidVertexException, InvalidEdgeException {
+        validateVertex(v);
+        Vertex<V>[] endVertices = validateEdge(e).vertices();
+
+        if (endVertices[0].equals(v)) {
+            return endVertices[1];
+        }
+        else if (endVertices[1].equals(v)) {
+            return endVertices[0];
+        }
+        else {
+            throw new InvalidEdgeException("v is not incident to this edge.");
+        }
+    }
+
+    @Override
+    public Edge<E, V> getEdge(Vertex<V> u, Vertex<V> v) throws InvalidVertexException {
+        return validateVertex(u).outgoingEdges.get(v);
+    }
+
+    @Override
+    public Vertex<V> insertVertex(V element) {
+        throw new UnsupportedOperationException("A snapshot cannot be modified.");
+    }
+
+    @Override
+    public Edge<E, V> insertEdge(Vertex<V> u, Vertex<V> v, E element) {
+        throw new UnsupportedOperationException("A snapshot cannot be modified.");
+    }
+
+    @Override
+    public Edge<E, V> insertEdge(V uElement, V vElement, E eElement) {
+        throw new UnsupportedOperationException("A snapshot cannot be modified.");
+    }
+
+    @Override
+    public V removeVertex(Vertex<V> v) {
+        throw new UnsupportedOperationException("A snapshot cannot be modified.");
+    }
+
+    @Override
+    public E removeEdge(Edge<E, V> e) {
+        throw new UnsupportedOperationException("A snapshot cannot be modified.");
+    }
+
+    /* validate that this vertex belongs to the snapshot */
+    private Adjacency<V, E> validateVertex(Vertex<V> v) throws InvalidVertexException {
+        if (v == null) throw new InvalidVertexException("Null vertex.");
+
+        Adjacency<V, E> a = adjacencyOf(v);
+        if (a == null) {
+            throw new InvalidVertexException("Vertex does not belong to this graph.");
+        }
+        return a;
+    }
+
+    /* validate that this edge belongs to the snapshot */
+    private Edge<E, V> validateEdge(Edge<E, V> e) throws InvalidEdgeException {
+        if (e == null) throw new InvalidEdgeException("Null edge.");
+
+        Vertex<V>[] endVertices = e.vertices();
+        Adjacency<V, E> a = adjacencyOf(endVertices[0]);
+        if (a == null || !e.equals(a.outgoingEdges.get(endVertices[1]))) {
+            throw new InvalidEdgeException("Edge does not belong to this graph.");
+        }
+        return e;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(
+                String.format("[Graph with %d vertices and %d edges]\n", numVertices(), numEdges())
+        );
+
+        sb.append("--- Vertices: \n");
+        for (Vertex<V> v : vertices) {
+            sb.append("\t").append(v.toString()).append("\n");
+        }
+        sb.append("\n--- Edges: \n");
+        for (Edge<E, V> e : edges()) {
+            sb.append("\t").append(e.toString()).append("\n");
+        }
+        return sb.append("\n").toString();
+    }
+}
@@ -0,0 +1,82 @@
+package graphvisualizer.graph;
+
+import java.util.Arrays;
+
+/**
+ * A directed graph specialised for <code>double</code> edge weights. The weights are kept in a
+ * primitive array indexed by edge id next to the structure of {@link AbstractPrimitiveDigraph},
+ * so no {@link Double} is allocated per edge. Algorithms can read weights through
+ * {@link #weight(int)} while walking the forward star, e.g.
+ * <pre>
+ * for (int e = g.firstOutEdge(u); e != -1; e = g.nextOutEdge(e)) {
+ *     relax(u, g.edgeTarget(e), g.weight(e));
+ * }
+ * </pre>
+ *
+ * @param <V> Vertex type
+ */
+public class DoubleWeightedDigraph<V> extends AbstractPrimitiveDigraph<V, Double> {
+    private double[] weights;
+
+    public DoubleWeightedDigraph() {
+        super();
+        weights = new double[edgeCapacity()];
+    }
+
+    public DoubleWeightedDigraph(int vertexCapacity, int edgeCapacity) {
+        super(vertexCapacity, edgeCapacity);
+        weights = new double[edgeCapacity()];
+    }
+
+    @Override
+    protected void growElements(int capacity) {
+        weights = Arrays.copyOf(weights, capacity);
+    }
+
+    @Override
+    protected void checkElement(Double element) throws InvalidEdgeException {
+        if (element == null) throw new InvalidEdgeException("Null weight.");
+    }
+
+    @Override
+    protected void storeElement(int id, Double element) {
+        weights[id] = element;
+    }
+
+    @Override
+    protected Double loadElement(int id) {
+        return weights[id];
+    }
+
+    /* create and return a new edge using vertex instance without boxing the weight */
+    public synchronized Edge<Double, V> insertEdge(Vertex<V> u, Vertex<V> v, double weight) throws InvalidVertexException, InvalidEdgeException {
+        int e = linkEdge(validateVertex(u), validateVertex(v));
+        weights[e] = weight;
+        return edgeHandle(e);
+    }
+
+    /* create and return a new edge using vertex element without boxing the weight */
+    public synchronized Edge<Double, V> insertEdge(V uElement, V vElement, double weight) throws InvalidVertexException, InvalidEdgeException {
+        int e = linkEdge(validateElement(uElement), validateElement(vElement));
+        weights[e] = weight;
+        return edgeHandle(e);
+    }
+
+    /* return the weight of edge e */
+    public synchronized double weight(Edge<Double, V> e) throws InvalidEdgeException {
+        return weights[validateEdge(e)];
+    }
+
+    /* return the weight of the edge with this id, not validated */
+    public double weight(int edgeId) {
+        return weights[edgeId];
+    }
+
+    /* replace the weight of edge e and return the old weight */
+    public synchronized double setWeight(Edge<Double, V> e, double weight) throws InvalidEdgeException {
+        int id = validateEdge(e);
+        double old = weights[id];
+        weights[id] = weight;
+        return old;
+    }
+}
@@ -5,4 +5,6 @@ public interface Edge<E, V> {
     E element();
     /* return 2 end vertices connected by edge */
     Vertex<V>[] vertices();
+    /* return the dense id of the edge, unique among the edges of its graph */
+    int id();
 }
@@ -0,0 +1,69 @@
+package graphvisualizer.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A directed graph held as a flat list of edges between numbered vertices, as produced by
+ * {@link EdgeListImporter} and {@link RandomGraphGenerator}. Edge <code>i</code> goes from vertex
+ * <code>source(i)</code> to vertex <code>target(i)</code>, which index into {@link #labels()}.
+ */
+public final class EdgeList {
+    private final List<String> labels;
+    private final int[] sources, targets, weights;
+    private final int numEdges;
+
+    EdgeList(List<String> labels, int[] sources, int[] targets, int[] weights, int numEdges) {
+        this.labels = Collections.unmodifiableList(labels);
+        this.sources = sources;
+        this.targets = targets;
+        this.weights = weights;
+        this.numEdges = numEdges;
+    }
+
+    public List<String> labels() {
+        return labels;
+    }
+
+    public int numEdges() {
+        return numEdges;
+    }
+
+    /* return the index in labels() of the starting vertex of edge i */
+    public int source(int i) {
+        return sources[i];
+    }
+
+    /* return the index in labels() of the ending vertex of edge i */
+    public int target(int i) {
+        return targets[i];
+    }
+
+    public int weight(int i) {
+        return weights[i];
+    }
+
+    /* return an immutable CSR graph with these vertices and edges */
+    public CSRDigraph<String> toCSR() {
+        return CSRDigraph.fromEdges(labels, sources, targets, weights, numEdges);
+    }
+
+    /**
+     * Insert these vertices and edges into <code>graph</code> with its bulk methods.
+     *
+     * @param graph Graph to fill, which must not already contain any of the labels
+     * @throws InvalidEdgeException if the list repeats an edge, in which case no edge is inserted
+     */
+    public void copyTo(Graph<String, Integer> graph) throws InvalidEdgeException {
+        graph.insertVertices(labels);
+        List<String> starts = new ArrayList<>(numEdges), ends = new ArrayList<>(numEdges);
+        List<Integer> elements = new ArrayList<>(numEdges);
+        for (int i = 0; i < numEdges; i++) {
+            starts.add(labels.get(sources[i]));
+            ends.add(labels.get(targets[i]));
+            elements.add(weights[i]);
+        }
+        graph.insertEdges(starts, ends, elements);
+    }
+}
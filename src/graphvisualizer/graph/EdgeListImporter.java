@@ -0,0 +1,379 @@
+package graphvisualizer.graph;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a directed graph from a plain edge list with one <code>source,target,weight</code> line per
+ * edge. Fields are separated by a comma or a tab, the weight is optional and defaults to 1, and
+ * blank lines and lines starting with <code>#</code> are skipped, as is a leading UTF-8 byte order
+ * mark. The first line that is not skipped is taken as a header if it has three fields and its weight
+ * is not a number. A header of two fields cannot be told apart from an edge, so files with such a
+ * header must be read by an importer created with <code>hasHeader</code>, which always skips that
+ * line. Gzip-compressed input is detected from its magic bytes.
+ * <p>
+ * The input is streamed in blocks cut at line boundaries. Each block is parsed on a
+ * {@link ForkJoinPool} straight from its bytes: the labels of a block are interned and hashed by
+ * their bytes, and edges are stored as <code>int</code> ids. The blocks are merged in file order into
+ * a {@link SymbolTable}, so vertices are numbered by first appearance, edges keep their order, and
+ * each label becomes a <code>String</code> once, when the result is built. Only a bounded number of
+ * blocks is in flight, so the file is never held in memory as a whole.
+ */
+public final class EdgeListImporter {
+    private static final int DEFAULT_BLOCK_SIZE = 8 << 20;
+
+    private final ForkJoinPool pool;
+    private final int blockSize;
+    private final boolean hasHeader;
+
+    /* detect a header of three fields */
+    public EdgeListImporter() {
+        this(false);
+    }
+
+    /* skip the first line that is not a comment if hasHeader, otherwise only detect a header of three fields */
+    public EdgeListImporter(boolean hasHeader) {
+        this(ForkJoinPool.commonPool(), DEFAULT_BLOCK_SIZE, hasHeader);
+    }
+
+    /* parse on pool in blocks of blockSize bytes, and only detect a header of three fields */
+    public EdgeListImporter(ForkJoinPool pool, int blockSize) {
+        this(pool, blockSize, false);
+    }
+
+    /**
+     * @param pool Pool parsing the blocks
+     * @param blockSize Number of bytes read per block; a longer line gets a larger block
+     * @param hasHeader Whether the first line that is not a comment is a header, whatever its fields
+     */
+    public EdgeListImporter(ForkJoinPool pool, int blockSize, boolean hasHeader) {
+        if (blockSize <= 0) throw new IllegalArgumentException("The block size must be positive.");
+        this.pool = pool;
+        this.blockSize = blockSize;
+        this.hasHeader = hasHeader;
+    }
+
+    /**
+     * Read the edge list in <code>path</code>, which may be gzip-compressed.
+     *
+     * @param path Edge list file
+     * @return The vertices and edges of the file
+     * @throws IOException if the file cannot be read or contains a malformed line
+     */
+    public EdgeList read(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Read an edge list from <code>in</code>, which may be gzip-compressed. The stream is not closed.
+     *
+     * @param in Edge list
+     * @return The vertices and edges of the stream
+     * @throws IOException if the stream cannot be read or contains a malformed line
+     */
+    public EdgeList read(InputStream in) throws IOException {
+        in = decompress(in);
+        Merger merger = new Merger();
+        Deque<ForkJoinTask<Chunk>> inFlight = new ArrayDeque<>();
+        int window = 2 * pool.getParallelism();
+
+        byte[] block = new byte[blockSize];
+        int length = 0;
+        long offset = 0;    //position of the block in the uncompressed input
+        boolean preamble = true;    //no edge or header line read yet
+        for (boolean eof = false; !eof; ) {
+            int count = in.read(block, length, block.length - length);
+            if (count < 0) {
+                eof = true;
+            }
+            else {
+                length += count;
+                if (length < block.length) continue;
+            }
+
+            int cut = length;
+            if (!eof) { //cut after the last complete line
+                while (cut > 0 && block[cut - 1] != '\n') --cut;
+                if (cut == 0) { //a single line longer than the block
+                    block = Arrays.copyOf(block, block.length * 2);
+                    continue;
+                }
+            }
+            int from = 0;
+            if (preamble && cut > 0) {   //skip the byte order mark, the leading comments and the header, in file order
+                if (offset == 0 && cut >= 3 && (block[0] & 0xff) == 0xef && (block[1] & 0xff) == 0xbb && (block[2] & 0xff) == 0xbf) from = 3;
+                from = firstLine(block, from, cut);
+                if (from < cut) {
+                    preamble = false;
+                    if (isHeader(block, from, cut)) from = lineEnd(block, from, cut) + 1;
+                }
+            }
+            if (from < cut) {
+                byte[] bytes = block;
+                int start = from, end = cut;
+                long position = offset;
+                inFlight.add(pool.submit(() -> parse(bytes, start, end, position)));
+                if (inFlight.size() >= window) merger.add(join(inFlight.poll()));
+            }
+
+            byte[] next = new byte[Math.max(blockSize, length - cut)];
+            System.arraycopy(block, cut, next, 0, length - cut);
+            block = next;
+            length -= cut;
+            offset += cut;
+        }
+        while (!inFlight.isEmpty()) {
+            merger.add(join(inFlight.poll()));
+        }
+        return merger.result();
+    }
+
+    /* return a stream of the uncompressed input, peeking at the gzip magic bytes */
+    private static InputStream decompress(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, 1 << 16);
+        buffered.mark(2);
+        int b0 = buffered.read(), b1 = buffered.read();
+        buffered.reset();
+        return b0 == 0x1f && b1 == 0x8b ? new GZIPInputStream(buffered, 1 << 16) : buffered;
+    }
+
+    private static Chunk join(ForkJoinTask<Chunk> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading the edge list.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) throw ((UncheckedIOException) e.getCause()).getCause();
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * The edges of one block, with the labels interned locally to the block. Local label
+     * <code>i</code> is <code>bytes[labelStarts[i], labelEnds[i])</code>.
+     */
+    private static final class Chunk {
+        final byte[] bytes;
+        int[] labelStarts = new int[256], labelEnds = new int[256], labelHashes = new int[256];
+        int numLabels;
+        int[] sources = new int[1024], targets = new int[1024], weights = new int[1024];
+        int numEdges;
+
+        Chunk(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        void add(int source, int target, int weight) {
+            if (numEdges == sources.length) {
+                sources = Arrays.copyOf(sources, numEdges * 2);
+                targets = Arrays.copyOf(targets, numEdges * 2);
+                weights = Arrays.copyOf(weights, numEdges * 2);
+            }
+            sources[numEdges] = source;
+            targets[numEdges] = target;
+            weights[numEdges] = weight;
+            ++numEdges;
+        }
+    }
+
+    /* return the start of the first line of bytes[from, length) that is neither blank nor a comment, or length */
+    private static int firstLine(byte[] bytes, int from, int length) {
+        int[] fields = new int[6];
+        for (int line = from; line < length; line = lineEnd(bytes, line, length) + 1) {
+            if (!isComment(bytes, line, length) && split(bytes, line, trimEnd(bytes, line, lineEnd(bytes, line, length)), fields) != 0) return line;
+        }
+        return length;
+    }
+
+    /* return whether the line at start is the header: always if the file has one, otherwise if its weight is not a number */
+    private boolean isHeader(byte[] bytes, int start, int length) {
+        if (hasHeader) return true;
+        int[] fields = new int[6];
+        int count = split(bytes, start, trimEnd(bytes, start, lineEnd(bytes, start, length)), fields);
+        return count == 3 && parseWeight(bytes, fields[4], fields[5]) == Long.MIN_VALUE;
+    }
+
+    /* return the index of the line feed ending the line at start, or length */
+    private static int lineEnd(byte[] bytes, int start, int length) {
+        int end = start;
+        while (end < length && bytes[end] != '\n') ++end;
+        return end;
+    }
+
+    /* return end without a trailing carriage return */
+    private static int trimEnd(byte[] bytes, int start, int end) {
+        return end > start && bytes[end - 1] == '\r' ? end - 1 : end;
+    }
+
+    private static boolean isComment(byte[] bytes, int start, int length) {
+        while (start < length && bytes[start] == ' ') ++start;
+        return start < length && bytes[start] == '#';
+    }
+
+    /* parse the complete lines in bytes[from, length), where bytes[0] is at offset in the input */
+    private static Chunk parse(byte[] bytes, int from, int length, long offset) {
+        Chunk chunk = new Chunk(bytes);
+        LocalLabels labels = new LocalLabels(chunk);
+        int[] fields = new int[6];  //start and end of up to three fields
+
+        for (int line = from, next; line < length; line = next) {
+            int end = lineEnd(bytes, line, length);
+            next = end + 1;
+            end = trimEnd(bytes, line, end);
+
+            if (isComment(bytes, line, end)) continue;
+            int count = split(bytes, line, end, fields);
+            if (count == 0) continue;
+            if (count < 2) throw malformed(offset + line, "expected a source, a target and an optional weight");
+
+            int weight = 1;
+            if (count == 3) {
+                long value = parseWeight(bytes, fields[4], fields[5]);
+                if (value == Long.MIN_VALUE) throw malformed(offset + line, "the weight is not an int");
+                weight = (int) value;
+            }
+            chunk.add(labels.intern(fields[0], fields[1]), labels.intern(fields[2], fields[3]), weight);
+        }
+        return chunk;
+    }
+
+    /* store the trimmed bounds of the fields of bytes[start, end) in fields, and return their number, 0 for a blank line or -1 if a field is empty or there are more than three */
+    private static int split(byte[] bytes, int start, int end, int[] fields) {
+        for (int count = 0, from = start; ; ) {
+            int to = from;
+            while (to < end && bytes[to] != ',' && bytes[to] != '\t') ++to;
+            int s = from, e = to;
+            while (s < e && bytes[s] == ' ') ++s;
+            while (e > s && bytes[e - 1] == ' ') --e;
+            if (s == e) return count == 0 && to == end ? 0 : -1;
+            if (count == 3) return -1;
+            fields[2 * count] = s;
+            fields[2 * count + 1] = e;
+            ++count;
+            if (to == end) return count;
+            from = to + 1;
+        }
+    }
+
+    /* return the int in bytes[start, end), or Long.MIN_VALUE if it is not one */
+    private static long parseWeight(byte[] bytes, int start, int end) {
+        boolean negative = bytes[start] == '-';
+        int i = negative || bytes[start] == '+' ? start + 1 : start;
+        if (i == end) return Long.MIN_VALUE;
+        long value = 0;
+        for ( ; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) return Long.MIN_VALUE;
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE + 1L) return Long.MIN_VALUE;
+        }
+        value = negative ? -value : value;
+        return value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+    }
+
+    private static UncheckedIOException malformed(long position, String reason) {
+        return new UncheckedIOException(new IOException("Malformed edge list line at byte " + position + ": " + reason + "."));
+    }
+
+    /**
+     * Interns the labels of a block by their bytes in an open-addressing table, recording each
+     * distinct label and its hash in the chunk without decoding it.
+     */
+    private static final class LocalLabels {
+        private final Chunk chunk;
+        private final byte[] bytes;
+        private int[] table = new int[512];     //local id + 1, 0 for an empty slot
+
+        LocalLabels(Chunk chunk) {
+            this.chunk = chunk;
+            this.bytes = chunk.bytes;
+        }
+
+        int intern(int start, int end) {
+            int hash = SymbolTable.hash(bytes, start, end);
+            int mask = table.length - 1;
+            int slot = hash & mask;
+            for (int id; (id = table[slot] - 1) >= 0; slot = (slot + 1) & mask) {
+                if (chunk.labelHashes[id] == hash && equals(chunk.labelStarts[id], chunk.labelEnds[id], start, end)) return id;
+            }
+
+            int id = chunk.numLabels++;
+            if (id == chunk.labelStarts.length) {
+                chunk.labelStarts = Arrays.copyOf(chunk.labelStarts, id * 2);
+                chunk.labelEnds = Arrays.copyOf(chunk.labelEnds, id * 2);
+                chunk.labelHashes = Arrays.copyOf(chunk.labelHashes, id * 2);
+            }
+            chunk.labelStarts[id] = start;
+            chunk.labelEnds[id] = end;
+            chunk.labelHashes[id] = hash;
+            table[slot] = id + 1;
+            if (2 * chunk.numLabels > table.length) rehash();
+            return id;
+        }
+
+        private boolean equals(int start1, int end1, int start2, int end2) {
+            if (end1 - start1 != end2 - start2) return false;
+            for (int i = 0; i < end1 - start1; i++) {
+                if (bytes[start1 + i] != bytes[start2 + i]) return false;
+            }
+            return true;
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            int mask = table.length - 1;
+            for (int id = 0; id < chunk.numLabels; id++) {
+                int slot = chunk.labelHashes[id] & mask;
+                while (table[slot] != 0) slot = (slot + 1) & mask;
+                table[slot] = id + 1;
+            }
+        }
+    }
+
+    /**
+     * Appends the chunks in file order, translating their local label ids into global vertex ids.
+     */
+    private static final class Merger {
+        private final SymbolTable symbols = new SymbolTable();
+        private int[] sources = new int[1024], targets = new int[1024], weights = new int[1024];
+        private int numEdges;
+
+        void add(Chunk chunk) {
+            int[] global = new int[chunk.numLabels];
+            for (int id = 0; id < global.length; id++) {
+                global[id] = symbols.intern(chunk.bytes, chunk.labelStarts[id], chunk.labelEnds[id], chunk.labelHashes[id]);
+            }
+
+            int needed = numEdges + chunk.numEdges;
+            if (needed > sources.length) {
+                int capacity = Math.max(needed, sources.length * 2);
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            for (int i = 0; i < chunk.numEdges; i++) {
+                sources[numEdges] = global[chunk.sources[i]];
+                targets[numEdges] = global[chunk.targets[i]];
+                weights[numEdges] = chunk.weights[i];
+                ++numEdges;
+            }
+        }
+
+        EdgeList result() {
+            String[] labels = new String[symbols.size()];
+            for (int id = 0; id < labels.length; id++) {
+                labels[id] = symbols.symbol(id);
+            }
+            return new EdgeList(Arrays.asList(labels), sources, targets, weights, numEdges);
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package graphvisualizer.graph;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
 
 public interface Graph<V, E> {
     /* return total number of vertices */
     int numVertices();
     /* return total number of edges */
     int numEdges();
+    /* return an upper bound (exclusive) of the ids of all vertices, to size arrays indexed by id */
+    int vertexIdBound();
+    /* return an upper bound (exclusive) of the ids of all edges, to size arrays indexed by id */
+    int edgeIdBound();
     /* return iteration of all vertices */
     Collection<Vertex<V>> vertices();
     /* return iteration of all edges */
@@ -29,4 +37,46 @@ public interface Graph<V, E> {
     V removeVertex(Vertex<V> v) throws InvalidVertexException;
     /* remove an edge */
     E removeEdge(Edge<E, V> e) throws InvalidEdgeException;
+
+    /* create and return new vertices for all elements, implementations may do so in a single step */
+    default List<Vertex<V>> insertVertices(Collection<? extends V> elements) throws InvalidVertexException {
+        List<Vertex<V>> inserted = new ArrayList<>(elements.size());
+        for (V element : elements) {
+            inserted.add(insertVertex(element));
+        }
+        return inserted;
+    }
+
+    /* create an edge from uElements[i] to vElements[i] with eElements[i] for every i, implementations may do so in a single step */
+    default void insertEdges(List<? extends V> uElements, List<? extends V> vElements, List<? extends E> eElements) throws InvalidVertexException, InvalidEdgeException {
+        if (uElements.size() != vElements.size() || uElements.size() != eElements.size()) {
+            throw new IllegalArgumentException("The lists of end vertices and elements differ in size.");
+        }
+        Iterator<? extends V> u = uElements.iterator(), v = vElements.iterator();
+        Iterator<? extends E> e = eElements.iterator();
+        while (u.hasNext()) {
+            insertEdge(u.next(), v.next(), e.next());
+        }
+    }
+
+    /* remove the vertices and all incident edges and return their elements, implementations may do so in a single step */
+    default List<V> removeVertices(Collection<? extends Vertex<V>> vertices) throws InvalidVertexException {
+        List<V> removed = new ArrayList<>(vertices.size());
+        for (Vertex<V> v : vertices) {
+            removed.add(removeVertex(v));
+        }
+        return removed;
+    }
+
+    /* remove every edge accepted by filter and return their number, implementations may do so in a single step */
+    default int removeEdgesIf(Predicate<? super Edge<E, V>> filter) {
+        int count = 0;
+        for (Edge<E, V> e : edges()) {
+            if (filter.test(e)) {
+                removeEdge(e);
+                ++count;
+            }
+        }
+        return count;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package graphvisualizer.graph;
+
+/**
+ * A mutation of a graph, as delivered by its {@link GraphChangePublisher}. A change refers to the
+ * vertex or edge it concerns; the element of a removed vertex or edge can still be read from it.
+ * The removal of a vertex is reported as the removal of each incident edge followed by the removal
+ * of the vertex, so that applying the changes in order keeps a copy of the graph consistent.
+ *
+ * @param <V> Vertex type
+ * @param <E> Edge type
+ */
+public final class GraphChange<V, E> {
+    public enum Type {
+        VERTEX_INSERTED,
+        VERTEX_REMOVED,
+        EDGE_INSERTED,
+        EDGE_REMOVED,
+        /* every vertex and edge was removed */
+        CLEARED,
+        /* changes were dropped because the subscriber fell behind, the graph must be read again as a whole */
+        RESYNC
+    }
+
+    private final Type type;
+    private final Vertex<V> vertex;
+    private final Edge<E, V> edge;
+
+    private GraphChange(Type type, Vertex<V> vertex, Edge<E, V> edge) {
+        this.type = type;
+        this.vertex = vertex;
+        this.edge = edge;
+    }
+
+    static <V, E> GraphChange<V, E> vertexInserted(Vertex<V> vertex) {
+        return new GraphChange<>(Type.VERTEX_INSERTED, vertex, null);
+    }
+
+    static <V, E> GraphChange<V, E> vertexRemoved(Vertex<V> vertex) {
+        return new GraphChange<>(Type.VERTEX_REMOVED, vertex, null);
+    }
+
+    static <V, E> GraphChange<V, E> edgeInserted(Edge<E, V> edge) {
+        return new GraphChange<>(Type.EDGE_INSERTED, null, edge);
+    }
+
+    static <V, E> GraphChange<V, E> edgeRemoved(Edge<E, V> edge) {
+        return new GraphChange<>(Type.EDGE_REMOVED, null, edge);
+    }
+
+    static <V, E> GraphChange<V, E> cleared() {
+        return new GraphChange<>(Type.CLEARED, null, null);
+    }
+
+    static <V, E> GraphChange<V, E> resync() {
+        return new GraphChange<>(Type.RESYNC, null, null);
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    /* return the inserted or removed vertex, or null for the other types */
+    public Vertex<V> vertex() {
+        return vertex;
+    }
+
+    /* return the inserted or removed edge, or null for the other types */
+    public Edge<E, V> edge() {
+        return edge;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case VERTEX_INSERTED:
+            case VERTEX_REMOVED:
+                return type + " " + vertex;
+            case EDGE_INSERTED:
+            case EDGE_REMOVED:
+                return type + " " + edge;
+            default:
+                return type.toString();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package graphvisualizer.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Delivers the mutations of a graph to its subscribers in batches, so that caches, indexes and views
+ * can follow the graph by applying the changes instead of reading it again as a whole. Each item is
+ * the list of changes buffered for the subscriber since its previous item, in mutation order; a
+ * subscriber that requests items slowly gets fewer, larger batches. Changes are delivered on an
+ * {@link Executor}, one item at a time per subscriber, so the graph never waits for its subscribers.
+ * <p>
+ * The buffer of each subscriber is bounded. When it would overflow, the buffered changes are dropped
+ * and replaced by a single {@link GraphChange.Type#RESYNC} change, after which buffering resumes: the
+ * subscriber must then read the graph again. Since delivery is asynchronous, the graph may already
+ * reflect changes that are still to be delivered, so subscribers should apply changes idempotently.
+ *
+ * @param <V> Vertex type
+ * @param <E> Edge type
+ */
+public final class GraphChangePublisher<V, E> implements ChangeFlow.Publisher<List<GraphChange<V, E>>> {
+    public static final int DEFAULT_BUFFER_CAPACITY = 1 << 16;
+
+    private final Executor executor;
+    private final int bufferCapacity;
+    private final List<ChangeSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    /* deliver on the common pool with the default buffer capacity */
+    public GraphChangePublisher() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BUFFER_CAPACITY);
+    }
+
+    /**
+     * @param executor Executor running the deliveries
+     * @param bufferCapacity Maximum number of changes buffered per subscriber
+     */
+    public GraphChangePublisher(Executor executor, int bufferCapacity) {
+        if (bufferCapacity <= 0) throw new IllegalArgumentException("The buffer capacity must be positive.");
+        this.executor = executor;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    @Override
+    public void subscribe(ChangeFlow.Subscriber<? super List<GraphChange<V, E>>> subscriber) {
+        ChangeSubscription subscription = new ChangeSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscriptions.add(subscription);
+        if (closed) subscription.complete();
+    }
+
+    /* return whether a subscriber is listening, so that the graph only records changes when needed */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /* return the number of subscribers */
+    public int numSubscribers() {
+        return subscriptions.size();
+    }
+
+    /* complete every subscriber once its buffered changes are delivered, and refuse new ones */
+    public void close() {
+        closed = true;
+        for (ChangeSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /* buffer changes for every subscriber, the graph calls this in mutation order and the list is not kept */
+    void publish(List<GraphChange<V, E>> changes) {
+        for (ChangeSubscription subscription : subscriptions) {
+            subscription.offer(changes);
+        }
+    }
+
+    /**
+     * The buffer and the demand of one subscriber. A drain task is scheduled whenever there are
+     * changes and demand, and only one runs at a time, which serializes the calls to the subscriber.
+     */
+    private final class ChangeSubscription implements ChangeFlow.Subscription {
+        private final ChangeFlow.Subscriber<? super List<GraphChange<V, E>>> subscriber;
+        private List<GraphChange<V, E>> buffer = new ArrayList<>();
+        private long demand;
+        private boolean scheduled, completing, done;
+
+        ChangeSubscription(ChangeFlow.Subscriber<? super List<GraphChange<V, E>>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        synchronized void offer(List<GraphChange<V, E>> changes) {
+            if (done) return;
+            if (buffer.size() + changes.size() > bufferCapacity) {
+                buffer.clear();
+                buffer.add(GraphChange.resync());
+            }
+            else {
+                buffer.addAll(changes);
+            }
+            schedule();
+        }
+
+        synchronized void complete() {
+            completing = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("The number of requested items must be positive."));
+                return;
+            }
+            synchronized (this) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                schedule();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                done = true;
+                buffer = new ArrayList<>();
+            }
+            subscriptions.remove(this);
+        }
+
+        /* start a drain task if there is something to deliver, the monitor must be held */
+        private void schedule() {
+            if (!scheduled && !done && (demand > 0 && !buffer.isEmpty() || completing && buffer.isEmpty())) {
+                scheduled = true;
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<GraphChange<V, E>> batch;
+                synchronized (this) {
+                    if (!done && demand > 0 && !buffer.isEmpty()) {
+                        batch = buffer;
+                        buffer = new ArrayList<>();
+                        --demand;
+                    }
+                    else if (!done && completing && buffer.isEmpty()) {
+                        done = true;
+                        batch = null;
+                    }
+                    else {
+                        scheduled = false;
+                        return;
+                    }
+                }
+
+                if (batch == null) {
+                    subscriptions.remove(this);
+                    subscriber.onComplete();
+                    return;
+                }
+                try {
+                    subscriber.onNext(Collections.unmodifiableList(batch));
+                } catch (RuntimeException e) {
+                    cancel();
+                    subscriber.onError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
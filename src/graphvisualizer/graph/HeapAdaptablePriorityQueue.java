@@ -50,12 +50,17 @@ public class HeapAdaptablePriorityQueue <K,V> extends HeapPriorityQueue<K,V> imp
     //Inserts a key-value pair and returns the entry created
     public Entry<K,V> insert (K key, V value) throws IllegalArgumentException{
         checkKey(key);
-        Entry<K,V> newest = new AdaptablePQEntry<>(key,value,heap.size());
+        Entry<K,V> newest = newEntry(key,value,heap.size());
         heap.add(newest);                       //add to the end of list
         upheap(heap.size()-1);               //upheap newly added entry
         return newest;
     }
 
+    //Creates a location-aware entry stored at index j of the heap
+    protected Entry<K,V> newEntry(K key, V value, int j){
+        return new AdaptablePQEntry<>(key, value, j);
+    }
+
     //Removes the given entry from the priority queue
     public void remove (Entry<K,V> entry) throws IllegalArgumentException{
         AdaptablePQEntry<K,V> locator = validate(entry);
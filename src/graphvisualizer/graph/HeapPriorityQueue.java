@@ -2,6 +2,7 @@ package graphvisualizer.graph;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 
 //An implementation of a priority queue using an array-based heap
 public class HeapPriorityQueue<K,V> extends AbstractPriorityQueue<K,V>{
@@ -78,12 +79,43 @@ public class HeapPriorityQueue<K,V> extends AbstractPriorityQueue<K,V>{
     //Inserts a key-value pair and returns the entry created
     public Entry<K, V> insert(K key, V value) throws IllegalArgumentException {
         checkKey(key);                                  //auxiliary key-checking method (could throw exception)
-        Entry<K,V> newest = new PQEntry<>(key, value);
+        Entry<K,V> newest = newEntry(key, value, heap.size());
         heap.add(newest);                               //add to the end of the list
         upheap(heap.size()-1);                       //upheap newly added entry
         return newest;
     }
 
+    //Inserts the key-value pairs and returns the entries created, building the heap bottom-up in O(n)
+    public List<Entry<K,V>> insertAll(List<? extends K> keys, List<? extends V> values) throws IllegalArgumentException{
+        if (keys.size() != values.size())
+            throw new IllegalArgumentException("There must be as many keys as values");
+        for (K key : keys)
+            checkKey(key);                              //check every key before changing the heap
+        int n = heap.size();
+        heap.ensureCapacity(n + keys.size());
+        for (int j = 0; j < keys.size(); j++)
+            heap.add(newEntry(keys.get(j), values.get(j), n + j));
+        List<Entry<K,V>> entries = new ArrayList<>(heap.subList(n, heap.size()));
+        if (keys.size() < n / 2)                        //few new entries, upheap each of them
+            for (int j = n; j < heap.size(); j++)
+                upheap(j);
+        else
+            heapify();
+        return entries;
+    }
+
+    //Creates the entry stored at index j of the heap
+    protected Entry<K,V> newEntry(K key, V value, int j){
+        return new PQEntry<>(key, value);
+    }
+
+    //Restores the heap property of the whole array list, downheaping each parent from the last one up
+    protected void heapify(){
+        int startIndex = parent(size()-1);           //start at parent of last entry
+        for (int j = startIndex; j >= 0; j--)           //loop until processing the root
+            downheap(j);
+    }
+
     //Removes and returns an entry with minimal key (if any)
     public Entry<K, V> removeMin() {
         if (heap.isEmpty()) {
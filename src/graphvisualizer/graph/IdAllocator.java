@@ -0,0 +1,50 @@
+package graphvisualizer.graph;
+
+import java.util.Arrays;
+
+/**
+ * Hands out dense <code>int</code> ids for the vertices or edges of a graph. Released ids are
+ * recycled before new ones are issued, so every id stays below the peak number of live elements
+ * and arrays indexed by id stay compact.
+ */
+final class IdAllocator {
+    private int bound;
+    private int[] free = new int[8];
+    private int freeCount;
+
+    /* return an unused id */
+    int acquire() {
+        return freeCount > 0 ? free[--freeCount] : bound++;
+    }
+
+    /* make id available again */
+    void release(int id) {
+        if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+        free[freeCount++] = id;
+    }
+
+    /* return an upper bound (exclusive) of all ids handed out */
+    int bound() {
+        return bound;
+    }
+
+    void clear() {
+        bound = freeCount = 0;
+    }
+
+    /* return an allocator in the same state as this one */
+    IdAllocator copy() {
+        IdAllocator copy = new IdAllocator();
+        copy.bound = bound;
+        copy.free = Arrays.copyOf(free, free.length);
+        copy.freeCount = freeCount;
+        return copy;
+    }
+
+    /* return to the state of saved, a copy taken earlier */
+    void restore(IdAllocator saved) {
+        bound = saved.bound;
+        free = Arrays.copyOf(saved.free, saved.free.length);
+        freeCount = saved.freeCount;
+    }
+}
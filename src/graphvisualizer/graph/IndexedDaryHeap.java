@@ -0,0 +1,213 @@
+package graphvisualizer.graph;
+
+import java.util.Arrays;
+
+/**
+ * An indexed d-ary min-heap of <code>int</code> ids, e.g. vertex ids, with primitive
+ * <code>long</code> keys. The ids and their keys are kept in heap order in two parallel arrays, and
+ * the position of each id in a third array indexed by id, so that an id is its own handle: the key of
+ * a queued id can be decreased in O(log<sub>d</sub> n) without any entry object, and the relaxation
+ * loop of Dijkstra's algorithm allocates nothing. The children of a node are contiguous, so with the
+ * default arity of 4 a sift-down compares a whole group of children within one or two cache lines,
+ * over half as many levels as a binary heap.
+ * <p>
+ * <code>int</code> keys are used as they are. <code>double</code> keys are supported through
+ * {@link #encode(double)}, which maps them to <code>long</code>s in the same order, and
+ * {@link #decode(long)}. This class is not thread-safe.
+ */
+public class IndexedDaryHeap extends AbstractIndexedPriorityQueue {
+    public static final int DEFAULT_ARITY = 4;
+    private static final int ABSENT = -1;
+
+    private final int arity;
+    private int[] ids;          //ids in heap order
+    private long[] keys;        //key of ids[i] at i
+    private int[] position;     //index of each id in ids, or ABSENT
+    private int size;
+
+    /* create a heap of arity DEFAULT_ARITY for ids below idBound, which grows if needed */
+    public IndexedDaryHeap(int idBound) {
+        this(idBound, DEFAULT_ARITY);
+    }
+
+    /* create a heap where each node has up to arity children, for ids below idBound */
+    public IndexedDaryHeap(int idBound, int arity) {
+        if (arity < 2) throw new IllegalArgumentException("The arity must be at least 2.");
+        this.arity = arity;
+        int capacity = Math.max(idBound, 1);
+        ids = new int[capacity];
+        keys = new long[capacity];
+        position = new int[capacity];
+        Arrays.fill(position, ABSENT);
+    }
+
+    public int arity() {
+        return arity;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return id >= 0 && id < position.length && position[id] != ABSENT;
+    }
+
+    @Override
+    public long key(int id) {
+        return keys[locate(id)];
+    }
+
+    @Override
+    public void insert(int id, long key) {
+        if (id < 0) throw new IllegalArgumentException("Negative id.");
+        if (contains(id)) throw new IllegalArgumentException("The id is already in the heap.");
+        if (id >= position.length) growIds(id + 1);
+        if (size == ids.length) growHeap(size + 1);
+        siftUp(size++, id, key);
+    }
+
+    @Override
+    public void decreaseKey(int id, long key) {
+        int i = locate(id);
+        if (key > keys[i]) throw new IllegalArgumentException("The new key is greater than the current key.");
+        siftUp(i, id, key);
+    }
+
+    @Override
+    public void changeKey(int id, long key) {
+        place(locate(id), id, key);
+    }
+
+    /* insert id or lower its key, with a single lookup of its position */
+    @Override
+    public boolean insertOrDecreaseKey(int id, long key) {
+        if (!contains(id)) {
+            insert(id, key);
+            return true;
+        }
+        int i = position[id];
+        if (key >= keys[i]) return false;
+        siftUp(i, id, key);
+        return true;
+    }
+
+    @Override
+    public int minId() {
+        if (size == 0) throw new IllegalStateException("The heap is empty.");
+        return ids[0];
+    }
+
+    @Override
+    public long minKey() {
+        if (size == 0) throw new IllegalStateException("The heap is empty.");
+        return keys[0];
+    }
+
+    @Override
+    public int removeMinId() {
+        int id = minId();
+        removeAt(0);
+        return id;
+    }
+
+    @Override
+    public boolean remove(int id) {
+        if (!contains(id)) return false;
+        removeAt(position[id]);
+        return true;
+    }
+
+    /* remove every id, in O(size) */
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) position[ids[i]] = ABSENT;
+        size = 0;
+    }
+
+    /* map a double to a long such that the order of doubles, -0.0 before 0.0, is the order of longs */
+    public static long encode(double key) {
+        if (Double.isNaN(key)) throw new IllegalArgumentException("NaN key.");
+        long bits = Double.doubleToLongBits(key);
+        return bits ^ (bits >> 63 & Long.MAX_VALUE);
+    }
+
+    /* return the double encoded into key by encode(double) */
+    public static double decode(long key) {
+        return Double.longBitsToDouble(key ^ (key >> 63 & Long.MAX_VALUE));
+    }
+
+    /* return the heap index of id, which must be in the heap */
+    private int locate(int id) {
+        if (!contains(id)) throw new IllegalArgumentException("The id is not in the heap.");
+        return position[id];
+    }
+
+    private void removeAt(int i) {
+        position[ids[i]] = ABSENT;
+        if (i < --size) place(i, ids[size], keys[size]);    //refill the hole with the last leaf
+    }
+
+    /* put id with key at index i, which is free, and restore the heap property in either direction */
+    private void place(int i, int id, long key) {
+        if (i > 0 && key < keys[(i - 1) / arity]) siftUp(i, id, key);
+        else siftDown(i, id, key);
+    }
+
+    /*
+    Both sifts move a hole rather than swapping: the entries on the way are shifted by one level and
+    id is written once, at its final index.
+     */
+    private void siftUp(int i, int id, long key) {
+        while (i > 0) {
+            int parent = (i - 1) / arity;
+            if (keys[parent] <= key) break;
+            move(parent, i);
+            i = parent;
+        }
+        ids[i] = id;
+        keys[i] = key;
+        position[id] = i;
+    }
+
+    private void siftDown(int i, int id, long key) {
+        while (true) {
+            long first = (long) i * arity + 1;
+            if (first >= size) break;
+            int best = (int) first, last = (int) Math.min(first + arity, size);
+            long bestKey = keys[best];
+            for (int child = best + 1; child < last; child++) {
+                if (keys[child] < bestKey) {
+                    best = child;
+                    bestKey = keys[child];
+                }
+            }
+            if (bestKey >= key) break;
+            move(best, i);
+            i = best;
+        }
+        ids[i] = id;
+        keys[i] = key;
+        position[id] = i;
+    }
+
+    private void move(int from, int to) {
+        ids[to] = ids[from];
+        keys[to] = keys[from];
+        position[ids[to]] = to;
+    }
+
+    private void growIds(int bound) {
+        int old = position.length;
+        position = Arrays.copyOf(position, Math.max(bound, old + (old >> 1)));
+        Arrays.fill(position, old, position.length, ABSENT);
+    }
+
+    private void growHeap(int capacity) {
+        capacity = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+}
@@ -0,0 +1,37 @@
+package graphvisualizer.graph;
+
+/**
+ * A priority queue of <code>int</code> ids, e.g. vertex ids, with primitive <code>long</code> keys,
+ * where an id is its own handle: its key is read, decreased or changed through the id, without any
+ * entry object or boxing. Each id is queued at most once. Implementations also provide the
+ * {@link AdaptablePriorityQueue} interface, with the id as the value of each entry; their entries
+ * are created on demand.
+ * <p>
+ * Monotone implementations, meant for Dijkstra's algorithm, only accept keys that are not smaller
+ * than the last minimum removed, and reject other keys with an
+ * <code>IllegalArgumentException</code>.
+ */
+public interface IndexedPriorityQueue extends AdaptablePriorityQueue<Long, Integer> {
+    /* return true if id is queued */
+    boolean contains(int id);
+    /* return the key of id, which must be queued */
+    long key(int id);
+    /* insert id with key, id must not be queued */
+    void insert(int id, long key);
+    /* lower the key of id, which must be queued, to key */
+    void decreaseKey(int id, long key);
+    /* replace the key of id, which must be queued */
+    void changeKey(int id, long key);
+    /* insert id if it is not queued, or lower its key if key is smaller, return true if the queue changed */
+    boolean insertOrDecreaseKey(int id, long key);
+    /* return the id with the minimum key, the queue must not be empty */
+    int minId();
+    /* return the minimum key, the queue must not be empty */
+    long minKey();
+    /* remove and return the id with the minimum key, the queue must not be empty */
+    int removeMinId();
+    /* remove id, return false if it was not queued */
+    boolean remove(int id);
+    /* remove every id */
+    void clear();
+}
@@ -0,0 +1,49 @@
+package graphvisualizer.graph;
+
+/**
+ * A trusted, allocation-free traversal surface over a directed graph with <code>int</code> weights.
+ * Vertices are addressed by their dense id (see {@link Vertex#id()}) and neighbours are reported
+ * as primitive ids and weights, so the innermost loop of an algorithm creates no iterator,
+ * {@link Edge} or exception. Ids are not validated and implementations do not synchronize:
+ * callers must pass ids of existing vertices and must not mutate the graph while traversing it,
+ * e.g. by traversing an immutable snapshot.
+ */
+public interface IntDigraph {
+    /* return an upper bound (exclusive) of the ids of all vertices */
+    int vertexIdBound();
+    /* return true if a vertex with this id exists, since ids of removed vertices may leave holes */
+    boolean containsVertex(int vertexId);
+    /* return number of outgoing edges */
+    int outDegree(int vertexId);
+    /* return number of incoming edges */
+    int inDegree(int vertexId);
+    /* pass the id of every successor and the weight of the edge to it to action */
+    void forEachOutNeighbor(int vertexId, IntIntConsumer action);
+    /* pass the id of every predecessor and the weight of the edge from it to action */
+    void forEachInNeighbor(int vertexId, IntIntConsumer action);
+    /* return a new cursor over outgoing edges, to be positioned with reset() and reused */
+    NeighborCursor outCursor();
+    /* return a new cursor over incoming edges, to be positioned with reset() and reused */
+    NeighborCursor inCursor();
+
+    /**
+     * A reusable cursor over the neighbours of one vertex at a time. An iterative DFS can keep one
+     * cursor per depth of its stack and reuse them across runs, e.g.
+     * <pre>
+     * cursor.reset(u);
+     * while (cursor.advance()) {
+     *     relax(u, cursor.vertex(), cursor.weight());
+     * }
+     * </pre>
+     */
+    interface NeighborCursor {
+        /* position the cursor before the first neighbour of vertexId */
+        void reset(int vertexId);
+        /* move to the next neighbour, return false if there is none */
+        boolean advance();
+        /* return the id of the current neighbour */
+        int vertex();
+        /* return the weight of the edge to the current neighbour */
+        int weight();
+    }
+}
@@ -0,0 +1,117 @@
+package graphvisualizer.graph;
+
+import java.util.Iterator;
+import java.util.function.ToIntFunction;
+
+/**
+ * An {@link IntDigraph} view over a graph that keeps the edges of each vertex in an
+ * {@link AdaptiveAdjacency}. Neighbour ids are read from the end vertices of each edge and weights
+ * are obtained by applying a weigher to the edge elements, so the traversal skips the vertex and
+ * edge validation of {@link Graph#opposite(Vertex, Edge)}. Inline adjacencies are walked by index
+ * without allocating; only the hash-indexed adjacency of high-degree vertices needs an iterator.
+ *
+ * @param <V> Vertex type
+ * @param <E> Edge type
+ */
+abstract class IntDigraphView<V, E> implements IntDigraph {
+    private final ToIntFunction<? super E> weigher;
+
+    IntDigraphView(ToIntFunction<? super E> weigher) {
+        this.weigher = weigher;
+    }
+
+    /* return the outgoing edges of the vertex with this id */
+    abstract AdaptiveAdjacency<Vertex<V>, Edge<E, V>> outgoingEdges(int vertexId);
+
+    /* return the incoming edges of the vertex with this id */
+    abstract AdaptiveAdjacency<Vertex<V>, Edge<E, V>> incomingEdges(int vertexId);
+
+    @Override
+    public int outDegree(int vertexId) {
+        return outgoingEdges(vertexId).size();
+    }
+
+    @Override
+    public int inDegree(int vertexId) {
+        return incomingEdges(vertexId).size();
+    }
+
+    @Override
+    public void forEachOutNeighbor(int vertexId, IntIntConsumer action) {
+        forEach(outgoingEdges(vertexId), 1, action);
+    }
+
+    @Override
+    public void forEachInNeighbor(int vertexId, IntIntConsumer action) {
+        forEach(incomingEdges(vertexId), 0, action);
+    }
+
+    /* pass the end vertex at index end of every edge in adjacency to action */
+    private void forEach(AdaptiveAdjacency<Vertex<V>, Edge<E, V>> adjacency, int end, IntIntConsumer action) {
+        if (adjacency.isInline()) {
+            for (int i = 0; i < adjacency.size(); i++) {
+                Edge<E, V> edge = adjacency.valueAt(i);
+                action.accept(edge.vertices()[end].id(), weigher.applyAsInt(edge.element()));
+            }
+        }
+        else {
+            for (Edge<E, V> edge : adjacency.values()) {
+                action.accept(edge.vertices()[end].id(), weigher.applyAsInt(edge.element()));
+            }
+        }
+    }
+
+    @Override
+    public NeighborCursor outCursor() {
+        return new EdgeCursor(true);
+    }
+
+    @Override
+    public NeighborCursor inCursor() {
+        return new EdgeCursor(false);
+    }
+
+    /**
+     * A {@link NeighborCursor} over the adjacency of one vertex at a time.
+     */
+    private final class EdgeCursor implements NeighborCursor {
+        private final boolean outgoing;
+        private AdaptiveAdjacency<Vertex<V>, Edge<E, V>> adjacency;
+        private Iterator<Edge<E, V>> edges;     //only for adjacencies that are not inline
+        private int next;
+        private Edge<E, V> current;
+
+        EdgeCursor(boolean outgoing) {
+            this.outgoing = outgoing;
+        }
+
+        @Override
+        public void reset(int vertexId) {
+            adjacency = outgoing ? outgoingEdges(vertexId) : incomingEdges(vertexId);
+            edges = adjacency.isInline() ? null : adjacency.values().iterator();
+            next = 0;
+        }
+
+        @Override
+        public boolean advance() {
+            if (edges == null) {
+                if (next >= adjacency.size()) return false;
+                current = adjacency.valueAt(next++);
+                return true;
+            }
+            if (!edges.hasNext()) return false;
+            current = edges.next();
+            return true;
+        }
+
+        @Override
+        public int vertex() {
+            return current.vertices()[outgoing ? 1 : 0].id();
+        }
+
+        @Override
+        public int weight() {
+            return weigher.applyAsInt(current.element());
+        }
+    }
+}
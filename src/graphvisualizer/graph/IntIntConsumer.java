@@ -0,0 +1,10 @@
+package graphvisualizer.graph;
+
+/**
+ * An operation accepting a neighbour id and the weight of the edge leading to it, used by the
+ * allocation-free traversal methods of {@link IntDigraph}.
+ */
+@FunctionalInterface
+public interface IntIntConsumer {
+    void accept(int vertexId, int weight);
+}
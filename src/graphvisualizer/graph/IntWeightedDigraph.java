@@ -0,0 +1,157 @@
+package graphvisualizer.graph;
+
+import java.util.Arrays;
+
+/**
+ * A directed graph specialised for <code>int</code> edge weights. The weights are kept in a
+ * primitive array indexed by edge id next to the structure of {@link AbstractPrimitiveDigraph},
+ * so no {@link Integer} is allocated per edge. Algorithms can read weights through
+ * {@link #weight(int)} while walking the forward star, e.g.
+ * <pre>
+ * for (int e = g.firstOutEdge(u); e != -1; e = g.nextOutEdge(e)) {
+ *     relax(u, g.edgeTarget(e), g.weight(e));
+ * }
+ * </pre>
+ * The same traversal is available without edge ids through the {@link IntDigraph} surface.
+ *
+ * @param <V> Vertex type
+ */
+public class IntWeightedDigraph<V> extends AbstractPrimitiveDigraph<V, Integer> implements IntDigraph {
+    private int[] weights;
+
+    public IntWeightedDigraph() {
+        super();
+        weights = new int[edgeCapacity()];
+    }
+
+    public IntWeightedDigraph(int vertexCapacity, int edgeCapacity) {
+        super(vertexCapacity, edgeCapacity);
+        weights = new int[edgeCapacity()];
+    }
+
+    @Override
+    protected void growElements(int capacity) {
+        weights = Arrays.copyOf(weights, capacity);
+    }
+
+    @Override
+    protected void checkElement(Integer element) throws InvalidEdgeException {
+        if (element == null) throw new InvalidEdgeException("Null weight.");
+    }
+
+    @Override
+    protected void storeElement(int id, Integer element) {
+        weights[id] = element;
+    }
+
+    @Override
+    protected Integer loadElement(int id) {
+        return weights[id];
+    }
+
+    /* create and return a new edge using vertex instance without boxing the weight */
+    public synchronized Edge<Integer, V> insertEdge(Vertex<V> u, Vertex<V> v, int weight) throws InvalidVertexException, InvalidEdgeException {
+        int e = linkEdge(validateVertex(u), validateVertex(v));
+        weights[e] = weight;
+        return edgeHandle(e);
+    }
+
+    /* create and return a new edge using vertex element without boxing the weight */
+    public synchronized Edge<Integer, V> insertEdge(V uElement, V vElement, int weight) throws InvalidVertexException, InvalidEdgeException {
+        int e = linkEdge(validateElement(uElement), validateElement(vElement));
+        weights[e] = weight;
+        return edgeHandle(e);
+    }
+
+    /* return the weight of edge e */
+    public synchronized int weight(Edge<Integer, V> e) throws InvalidEdgeException {
+        return weights[validateEdge(e)];
+    }
+
+    /* return the weight of the edge with this id, not validated */
+    public int weight(int edgeId) {
+        return weights[edgeId];
+    }
+
+    @Override
+    public void forEachOutNeighbor(int vertexId, IntIntConsumer action) {
+        for (int e = firstOutEdge(vertexId); e != NONE; e = nextOutEdge(e)) {
+            action.accept(edgeTarget(e), weights[e]);
+        }
+    }
+
+    @Override
+    public void forEachInNeighbor(int vertexId, IntIntConsumer action) {
+        for (int e = firstInEdge(vertexId); e != NONE; e = nextInEdge(e)) {
+            action.accept(edgeSource(e), weights[e]);
+        }
+    }
+
+    @Override
+    public NeighborCursor outCursor() {
+        return new NeighborCursor() {
+            private int next = NONE, current = NONE;
+
+            @Override
+            public void reset(int vertexId) {
+                next = firstOutEdge(vertexId);
+            }
+
+            @Override
+            public boolean advance() {
+                current = next;
+                if (current == NONE) return false;
+                next = nextOutEdge(current);
+                return true;
+            }
+
+            @Override
+            public int vertex() {
+                return edgeTarget(current);
+            }
+
+            @Override
+            public int weight() {
+                return weights[current];
+            }
+        };
+    }
+
+    @Override
+    public NeighborCursor inCursor() {
+        return new NeighborCursor() {
+            private int next = NONE, current = NONE;
+
+            @Override
+            public void reset(int vertexId) {
+                next = firstInEdge(vertexId);
+            }
+
+            @Override
+            public boolean advance() {
+                current = next;
+                if (current == NONE) return false;
+                next = nextInEdge(current);
+                return true;
+            }
+
+            @Override
+            public int vertex() {
+                return edgeSource(current);
+            }
+
+            @Override
+            public int weight() {
+                return weights[current];
+            }
+        };
+    }
+
+    /* replace the weight of edge e and return the old weight */
+    public synchronized int setWeight(Edge<Integer, V> e, int weight) throws InvalidEdgeException {
+        int id = validateEdge(e);
+        int old = weights[id];
+        weights[id] = weight;
+        return old;
+    }
+}
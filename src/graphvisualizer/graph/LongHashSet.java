@@ -0,0 +1,62 @@
+package graphvisualizer.graph;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing set of non-negative <code>long</code> keys with linear probing, used to
+ * deduplicate edges encoded as <code>source * n + target</code> without boxing them.
+ */
+final class LongHashSet {
+    private static final long EMPTY = -1;
+
+    private long[] table;
+    private int size;
+
+    LongHashSet(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) * 2;
+        table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(long key) {
+        int mask = table.length - 1;
+        for (int slot = slot(key, mask); table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (table[slot] == key) return true;
+        }
+        return false;
+    }
+
+    /* add key, returning false if it was already present */
+    boolean add(long key) {
+        int mask = table.length - 1;
+        int slot = slot(key, mask);
+        for ( ; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (table[slot] == key) return false;
+        }
+        table[slot] = key;
+        if (++size * 2 > table.length) rehash();
+        return true;
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    private void rehash() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        Arrays.fill(table, EMPTY);
+        int mask = table.length - 1;
+        for (long key : old) {
+            if (key == EMPTY) continue;
+            int slot = slot(key, mask);
+            while (table[slot] != EMPTY) slot = (slot + 1) & mask;
+            table[slot] = key;
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package graphvisualizer.graph;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A directed graph stored in a binary file and read through memory-mapped buffers. The file holds
+ * a header, a table of UTF-8 vertex labels with an open-addressing index over them, and the
+ * outgoing and incoming edges in the layout of {@link CSRDigraph}. Opening a file only maps it,
+ * nothing is parsed or copied into the heap, so the algorithms can query a graph of several GB as
+ * soon as it is opened and the operating system pages in the parts they touch.
+ * <p>
+ * All numbers are little-endian and every section starts on an 8-byte boundary:
+ * <pre>
+ *   header         magic, format version, n, label index size, m, label bytes (64 bytes)
+ *   labelOffsets   long[n + 1]   start of the label of each vertex in labelBytes
+ *   labelBytes     byte[]        UTF-8 labels, back to back
+ *   labelIndex     int[]         vertex ids hashed by their label bytes as in SymbolTable, -1 for an empty slot
+ *   outOffsets     long[n + 1]   outTargets, outWeights   int[m]
+ *   inOffsets      long[n + 1]   inSources, inWeights     int[m]
+ * </pre>
+ * A single mapping cannot exceed 2 GB, so each section is mapped in pages of 1 GB.
+ */
+public final class MappedCSRDigraph implements IntDigraph {
+    private static final int MAGIC = 0x46475647;   //"GVGF"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 64;
+    private static final int PAGE_SHIFT = 30;
+    private static final long PAGE_MASK = (1L << PAGE_SHIFT) - 1;
+    private static final int MAX_LABEL_INDEX_SIZE = 1 << 30;
+
+    private final int numVertices;
+    private final long numEdges;
+    private final LongBuffer[] labelOffsets, outOffsets, inOffsets;
+    private final ByteBuffer[] labelBytes;
+    private final IntBuffer[] labelIndex, outTargets, outWeights, inSources, inWeights;
+    private final int labelIndexSize;
+
+    /*
+    The byte offsets of the sections, derived from the sizes in the header so that the writer and
+    the reader always agree on them.
+     */
+    private static final class Layout {
+        final long labelOffsets, labelBytes, labelIndex, outOffsets, outTargets, outWeights, inOffsets, inSources, inWeights, end;
+
+        Layout(int n, long m, long labelLength, int labelIndexSize) {
+            long position = HEADER_BYTES;
+            labelOffsets = position;
+            labelBytes = position = align(position + 8L * (n + 1));
+            labelIndex = position = align(position + labelLength);
+            outOffsets = position = align(position + 4L * labelIndexSize);
+            outTargets = position = align(position + 8L * (n + 1));
+            outWeights = position = align(position + 4L * m);
+            inOffsets = position = align(position + 4L * m);
+            inSources = position = align(position + 8L * (n + 1));
+            inWeights = position = align(position + 4L * m);
+            end = align(position + 4L * m);
+        }
+
+        private static long align(long position) {
+            return (position + 7) & ~7L;
+        }
+    }
+
+    private MappedCSRDigraph(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) break;
+        }
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a graph file.");
+        }
+        if (header.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported graph file version " + header.getInt(4) + ".");
+        }
+        numVertices = header.getInt(8);
+        labelIndexSize = header.getInt(12);
+        numEdges = header.getLong(16);
+        long labelLength = header.getLong(24);
+        if (numVertices < 0 || numEdges < 0 || labelLength < 0 || labelIndexSize <= 0 || labelIndexSize > MAX_LABEL_INDEX_SIZE
+                || Integer.bitCount(labelIndexSize) != 1) {
+            throw new IOException("Corrupt graph file header.");
+        }
+
+        Layout layout = new Layout(numVertices, numEdges, labelLength, labelIndexSize);
+        if (channel.size() < layout.end) {
+            throw new IOException("Truncated graph file.");
+        }
+        labelOffsets = longs(map(channel, layout.labelOffsets, 8L * (numVertices + 1)));
+        labelBytes = map(channel, layout.labelBytes, labelLength);
+        labelIndex = ints(map(channel, layout.labelIndex, 4L * labelIndexSize));
+        outOffsets = longs(map(channel, layout.outOffsets, 8L * (numVertices + 1)));
+        outTargets = ints(map(channel, layout.outTargets, 4L * numEdges));
+        outWeights = ints(map(channel, layout.outWeights, 4L * numEdges));
+        inOffsets = longs(map(channel, layout.inOffsets, 8L * (numVertices + 1)));
+        inSources = ints(map(channel, layout.inSources, 4L * numEdges));
+        inWeights = ints(map(channel, layout.inWeights, 4L * numEdges));
+    }
+
+    /**
+     * Map a graph file written by {@link #write(Path, CSRDigraph)}. The file must not be modified
+     * while the returned graph is in use.
+     *
+     * @param path Graph file
+     * @return A read-only graph backed by the mapped file
+     * @throws IOException if the file cannot be read or is not a graph file
+     */
+    public static MappedCSRDigraph open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedCSRDigraph(channel); //mappings stay valid after the channel is closed
+        }
+    }
+
+    /**
+     * Write <code>graph</code> to <code>path</code> in the binary graph format, replacing the file if
+     * it exists.
+     *
+     * @param path Graph file
+     * @param graph Graph to write, obtained e.g. with {@link AdjacencyMapDigraph#freeze(java.util.function.ToIntFunction)}
+     * @throws IOException if the file cannot be written, or the graph has too many vertices for the label index
+     */
+    public static void write(Path path, CSRDigraph<String> graph) throws IOException {
+        int n = graph.numVertices();
+        int m = graph.numEdges();
+        byte[][] labels = new byte[n][];
+        long labelLength = 0;
+        for (int u = 0; u < n; u++) {
+            labels[u] = graph.label(u).getBytes(StandardCharsets.UTF_8);
+            labelLength += labels[u].length;
+        }
+
+        long indexSize = Long.highestOneBit(Math.max(1, n)) * 4;  //load factor between 1/4 and 1/2
+        if (indexSize > MAX_LABEL_INDEX_SIZE) {
+            throw new IOException("A graph file holds fewer than " + MAX_LABEL_INDEX_SIZE / 2 + " vertices, not " + n + ".");
+        }
+        int labelIndexSize = (int) indexSize;
+        int[] index = new int[labelIndexSize];
+        Arrays.fill(index, -1);
+        for (int u = 0; u < n; u++) {
+            int slot = SymbolTable.hash(labels[u], 0, labels[u].length) & (labelIndexSize - 1);
+            while (index[slot] != -1) slot = (slot + 1) & (labelIndexSize - 1);
+            index[slot] = u;
+        }
+
+        Layout layout = new Layout(n, m, labelLength, labelIndexSize);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer out = new Writer(channel);
+            out.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(n).putInt(labelIndexSize).putLong(m).putLong(labelLength);
+            out.pad(layout.labelOffsets);
+
+            long offset = 0;
+            for (int u = 0; u < n; u++) {
+                out.putLong(offset);
+                offset += labels[u].length;
+            }
+            out.putLong(offset).pad(layout.labelBytes);
+            for (byte[] label : labels) {
+                out.put(label);
+            }
+            out.pad(layout.labelIndex);
+            for (int slot : index) {
+                out.putInt(slot);
+            }
+
+            out.pad(layout.outOffsets);
+            for (int u = 0; u <= n; u++) out.putLong(u < n ? graph.outStart(u) : m);
+            out.pad(layout.outTargets);
+            for (int i = 0; i < m; i++) out.putInt(graph.outTarget(i));
+            out.pad(layout.outWeights);
+            for (int i = 0; i < m; i++) out.putInt(graph.outWeight(i));
+
+            out.pad(layout.inOffsets);
+            for (int v = 0; v <= n; v++) out.putLong(v < n ? graph.inStart(v) : m);
+            out.pad(layout.inSources);
+            for (int i = 0; i < m; i++) out.putInt(graph.inSource(i));
+            out.pad(layout.inWeights);
+            for (int i = 0; i < m; i++) out.putInt(graph.inWeight(i));
+            out.pad(layout.end).flush();
+        }
+    }
+
+    /**
+     * Insert the vertices and edges of this graph into <code>graph</code> with its bulk methods, e.g.
+     * to display a graph file.
+     *
+     * @param graph Graph to fill, which must not already contain any of the labels
+     */
+    public void copyTo(Graph<String, Integer> graph) {
+        List<String> labels = new ArrayList<>(numVertices);
+        for (int u = 0; u < numVertices; u++) {
+            labels.add(label(u));
+        }
+        graph.insertVertices(labels);
+
+        int m = Math.toIntExact(numEdges);
+        List<String> starts = new ArrayList<>(m), ends = new ArrayList<>(m);
+        List<Integer> weights = new ArrayList<>(m);
+        for (int u = 0; u < numVertices; u++) {
+            for (long i = outStart(u); i < outEnd(u); i++) {
+                starts.add(labels.get(u));
+                ends.add(labels.get(outTarget(i)));
+                weights.add(outWeight(i));
+            }
+        }
+        graph.insertEdges(starts, ends, weights);
+    }
+
+    /* return total number of vertices */
+    public int numVertices() {
+        return numVertices;
+    }
+
+    /* return total number of edges */
+    public long numEdges() {
+        return numEdges;
+    }
+
+    /* return the label of the vertex at index u, decoded from the file */
+    public String label(int u) {
+        long start = get(labelOffsets, u);
+        byte[] bytes = new byte[(int) (get(labelOffsets, u + 1) - start)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = get(labelBytes, start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /* return the index of the vertex with this label, or -1 if there is none */
+    public int indexOf(String label) {
+        byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+        int slot = SymbolTable.hash(bytes, 0, bytes.length) & (labelIndexSize - 1);
+        for (int u; (u = get(labelIndex, slot)) != -1; slot = (slot + 1) & (labelIndexSize - 1)) {
+            if (labelEquals(u, bytes)) return u;
+        }
+        return -1;
+    }
+
+    /* return the first slot of the outgoing edges of u */
+    public long outStart(int u) {
+        return get(outOffsets, u);
+    }
+
+    /* return one past the last slot of the outgoing edges of u */
+    public long outEnd(int u) {
+        return get(outOffsets, u + 1);
+    }
+
+    /* return the target of the outgoing edge stored in slot i */
+    public int outTarget(long i) {
+        return get(outTargets, i);
+    }
+
+    /* return the weight of the outgoing edge stored in slot i */
+    public int outWeight(long i) {
+        return get(outWeights, i);
+    }
+
+    /* return the first slot of the incoming edges of v */
+    public long inStart(int v) {
+        return get(inOffsets, v);
+    }
+
+    /* return one past the last slot of the incoming edges of v */
+    public long inEnd(int v) {
+        return get(inOffsets, v + 1);
+    }
+
+    /* return the source of the incoming edge stored in slot i */
+    public int inSource(long i) {
+        return get(inSources, i);
+    }
+
+    /* return the weight of the incoming edge stored in slot i */
+    public int inWeight(long i) {
+        return get(inWeights, i);
+    }
+
+    @Override
+    public int vertexIdBound() {
+        return numVertices;
+    }
+
+    @Override
+    public boolean containsVertex(int vertexId) {
+        return vertexId >= 0 && vertexId < numVertices;
+    }
+
+    @Override
+    public int outDegree(int u) {
+        return (int) (outEnd(u) - outStart(u));
+    }
+
+    @Override
+    public int inDegree(int v) {
+        return (int) (inEnd(v) - inStart(v));
+    }
+
+    @Override
+    public void forEachOutNeighbor(int vertexId, IntIntConsumer action) {
+        for (long i = outStart(vertexId), end = outEnd(vertexId); i < end; i++) {
+            action.accept(get(outTargets, i), get(outWeights, i));
+        }
+    }
+
+    @Override
+    public void forEachInNeighbor(int vertexId, IntIntConsumer action) {
+        for (long i = inStart(vertexId), end = inEnd(vertexId); i < end; i++) {
+            action.accept(get(inSources, i), get(inWeights, i));
+        }
+    }
+
+    @Override
+    public NeighborCursor outCursor() {
+        return new SlotCursor(outOffsets, outTargets, outWeights);
+    }
+
+    @Override
+    public NeighborCursor inCursor() {
+        return new SlotCursor(inOffsets, inSources, inWeights);
+    }
+
+    /**
+     * A {@link NeighborCursor} walking the slots of one vertex in a pair of mapped neighbour and weight sections.
+     */
+    private static final class SlotCursor implements NeighborCursor {
+        private final LongBuffer[] offsets;
+        private final IntBuffer[] neighbors, weights;
+        private long slot, end;
+
+        SlotCursor(LongBuffer[] offsets, IntBuffer[] neighbors, IntBuffer[] weights) {
+            this.offsets = offsets;
+            this.neighbors = neighbors;
+            this.weights = weights;
+        }
+
+        @Override
+        public void reset(int vertexId) {
+            slot = get(offsets, vertexId) - 1;
+            end = get(offsets, vertexId + 1);
+        }
+
+        @Override
+        public boolean advance() {
+            return ++slot < end;
+        }
+
+        @Override
+        public int vertex() {
+            return get(neighbors, slot);
+        }
+
+        @Override
+        public int weight() {
+            return get(weights, slot);
+        }
+    }
+
+    /* return true if the label of u is made of these UTF-8 bytes */
+    private boolean labelEquals(int u, byte[] bytes) {
+        long start = get(labelOffsets, u);
+        if (get(labelOffsets, u + 1) - start != bytes.length) return false;
+        for (int i = 0; i < bytes.length; i++) {
+            if (get(labelBytes, start + i) != bytes[i]) return false;
+        }
+        return true;
+    }
+
+    /*
+    Elements are located by splitting their byte position into a page and an offset in the page.
+    Sections start on 8-byte boundaries and pages are a multiple of 8 bytes, so no element
+    straddles two pages.
+     */
+    private static byte get(ByteBuffer[] pages, long i) {
+        return pages[(int) (i >>> PAGE_SHIFT)].get((int) (i & PAGE_MASK));
+    }
+
+    private static int get(IntBuffer[] pages, long i) {
+        return pages[(int) (i >>> (PAGE_SHIFT - 2))].get((int) (i & (PAGE_MASK >>> 2)));
+    }
+
+    private static long get(LongBuffer[] pages, long i) {
+        return pages[(int) (i >>> (PAGE_SHIFT - 3))].get((int) (i & (PAGE_MASK >>> 3)));
+    }
+
+    /* map length bytes of the channel from position in read-only pages */
+    private static ByteBuffer[] map(FileChannel channel, long position, long length) throws IOException {
+        ByteBuffer[] pages = new ByteBuffer[(int) ((length + PAGE_MASK) >>> PAGE_SHIFT)];
+        for (int p = 0; p < pages.length; p++) {
+            long offset = (long) p << PAGE_SHIFT;
+            pages[p] = channel.map(FileChannel.MapMode.READ_ONLY, position + offset, Math.min(PAGE_MASK + 1, length - offset))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return pages;
+    }
+
+    private static IntBuffer[] ints(ByteBuffer[] pages) {
+        IntBuffer[] result = new IntBuffer[pages.length];
+        for (int p = 0; p < pages.length; p++) result[p] = pages[p].asIntBuffer();
+        return result;
+    }
+
+    private static LongBuffer[] longs(ByteBuffer[] pages) {
+        LongBuffer[] result = new LongBuffer[pages.length];
+        for (int p = 0; p < pages.length; p++) result[p] = pages[p].asLongBuffer();
+        return result;
+    }
+
+    /**
+     * Sequential little-endian output to a channel through a direct buffer.
+     */
+    private static final class Writer {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        Writer putInt(int value) throws IOException {
+            ensure(4).putInt(value);
+            position += 4;
+            return this;
+        }
+
+        Writer putLong(long value) throws IOException {
+            ensure(8).putLong(value);
+            position += 8;
+            return this;
+        }
+
+        Writer put(byte[] bytes) throws IOException {
+            for (int i = 0; i < bytes.length; ) {
+                int count = Math.min(bytes.length - i, ensure(1).remaining());
+                buffer.put(bytes, i, count);
+                i += count;
+            }
+            position += bytes.length;
+            return this;
+        }
+
+        /* write zeros up to the byte offset target */
+        Writer pad(long target) throws IOException {
+            while (position < target) {
+                ensure(1).put((byte) 0);
+                ++position;
+            }
+            return this;
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        private ByteBuffer ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush();
+            return buffer;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[Mapped CSR graph with %d vertices and %d edges]", numVertices, numEdges);
+    }
+}
@@ -0,0 +1,664 @@
+package graphvisualizer.graph;
+
+import java.util.*;
+
+/**
+ * A directed graph with <code>int</code> weights whose structure lives outside the Java heap. Like
+ * {@link AbstractPrimitiveDigraph}, vertices and edges have dense ids and the edges of each vertex are
+ * chained as doubly linked lists, but the vertex records, the edge records with their weights and the
+ * hash index of the vertex elements are stored in direct buffers ({@link OffHeapRecords}). The heap
+ * only holds the vertex elements themselves, so neither the heap size nor the GC time grows with the
+ * number of edges. {@link Vertex} and {@link Edge} objects are light handles created on demand, and
+ * {@link IntDigraph} traversals read the records directly.
+ *
+ * @param <V> Vertex type
+ */
+public class OffHeapDigraph<V> implements Graph<V, Integer>, IntDigraph {
+    private static final int NONE = -1, DELETED = -2;
+
+    //fields of a vertex record; FIRST_OUT chains the free records
+    private static final int FIRST_OUT = 0, LAST_OUT = 1, FIRST_IN = 2, LAST_IN = 3, OUT_DEGREE = 4, IN_DEGREE = 5,
+            VERTEX_STAMP = 6, VERTEX_FIELDS = 8;
+    //fields of an edge record, 32 bytes per edge; NEXT_OUT chains the free records
+    private static final int SOURCE = 0, TARGET = 1, NEXT_OUT = 2, PREV_OUT = 3, NEXT_IN = 4, PREV_IN = 5,
+            EDGE_STAMP = 6, WEIGHT = 7, EDGE_FIELDS = 8;
+    //fields of a slot of the element index
+    private static final int HASH = 0, ID = 1;
+
+    /**
+     * Concrete implementation of {@link Vertex}, a handle over a vertex id. The stamp of the record
+     * is recorded so that a handle of a removed vertex is not mistaken for a later vertex that
+     * recycled the same id.
+     */
+    private class OVertex implements Vertex<V> {
+        private final int id, stamp;
+
+        OVertex(int id, int stamp) {
+            this.id = id;
+            this.stamp = stamp;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V element() {
+            return (V) labels[id];
+        }
+
+        @Override
+        public int id() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return "Vertex{" + element() + "}";
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            OVertex vertex = (OVertex) o;
+            return id == vertex.id && stamp == vertex.stamp && owner() == vertex.owner();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * id + stamp;
+        }
+
+        private OffHeapDigraph<V> owner() {
+            return OffHeapDigraph.this;
+        }
+    }
+
+    /**
+     * Concrete implementation of {@link Edge}, a handle over an edge id validated by its stamp.
+     */
+    private class OEdge implements Edge<Integer, V> {
+        private final int id, stamp;
+
+        OEdge(int id, int stamp) {
+            this.id = id;
+            this.stamp = stamp;
+        }
+
+        @Override
+        public Integer element() {
+            return edges.get(id, WEIGHT);
+        }
+
+        @Override
+        public int id() {
+            return id;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Vertex<V>[] vertices() {
+            return (Vertex<V>[]) new Vertex[]{handle(edges.get(id, SOURCE)), handle(edges.get(id, TARGET))};
+        }
+
+        @Override
+        public String toString() {
+            return "Edge from " + handle(edges.get(id, SOURCE)) + " to " + handle(edges.get(id, TARGET)) + " with weight of " + element();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            OEdge edge = (OEdge) o;
+            return id == edge.id && stamp == edge.stamp && owner() == edge.owner();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * id + stamp;
+        }
+
+        private OffHeapDigraph<V> owner() {
+            return OffHeapDigraph.this;
+        }
+    }
+
+    private final OffHeapRecords vertices = new OffHeapRecords(VERTEX_FIELDS);
+    private final OffHeapRecords edges = new OffHeapRecords(EDGE_FIELDS);
+    private OffHeapRecords index = new OffHeapRecords(2);   //open addressing over the vertex elements
+    private int indexSize, indexUsed;                       //slots, and slots that are not empty
+    private Object[] labels = new Object[16];
+    private int vertexCount, vertexBound, freeVertex = NONE;
+    private int edgeCount, edgeBound, freeEdge = NONE;
+
+    public OffHeapDigraph() {
+        clearIndex(16);
+    }
+
+    /* drop every vertex and edge and return the off-heap memory */
+    public synchronized void clear() {
+        vertices.release();
+        edges.release();
+        index.release();
+        clearIndex(16);
+        labels = new Object[16];
+        vertexCount = vertexBound = edgeCount = edgeBound = 0;
+        freeVertex = freeEdge = NONE;
+    }
+
+    /* return the number of bytes the graph holds outside the heap */
+    public synchronized long offHeapBytes() {
+        return vertices.bytes() + edges.bytes() + index.bytes();
+    }
+
+    @Override
+    public synchronized int numVertices() {
+        return vertexCount;
+    }
+
+    @Override
+    public synchronized int numEdges() {
+        return edgeCount;
+    }
+
+    @Override
+    public synchronized int vertexIdBound() {
+        return vertexBound;
+    }
+
+    @Override
+    public synchronized int edgeIdBound() {
+        return edgeBound;
+    }
+
+    @Override
+    public synchronized Collection<Vertex<V>> vertices() {
+        List<Vertex<V>> list = new ArrayList<>(vertexCount);
+        for (int v = 0; v < vertexBound; v++) {
+            if (labels[v] != null) list.add(handle(v));
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized Collection<Edge<Integer, V>> edges() {
+        List<Edge<Integer, V>> list = new ArrayList<>(edgeCount);
+        for (int v = 0; v < vertexBound; v++) {
+            if (labels[v] == null) continue;
+            for (int e = vertices.get(v, FIRST_OUT); e != NONE; e = edges.get(e, NEXT_OUT)) {
+                list.add(edgeHandle(e));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized Collection<Edge<Integer, V>> incomingEdges(Vertex<V> v) throws InvalidVertexException {
+        int id = validateVertex(v);
+        List<Edge<Integer, V>> list = new ArrayList<>(vertices.get(id, IN_DEGREE));
+        for (int e = vertices.get(id, FIRST_IN); e != NONE; e = edges.get(e, NEXT_IN)) {
+            list.add(edgeHandle(e));
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized Collection<Edge<Integer, V>> outgoingEdges(Vertex<V> v) throws InvalidVertexException {
+        int id = validateVertex(v);
+        List<Edge<Integer, V>> list = new ArrayList<>(vertices.get(id, OUT_DEGREE));
+        for (int e = vertices.get(id, FIRST_OUT); e != NONE; e = edges.get(e, NEXT_OUT)) {
+            list.add(edgeHandle(e));
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized Vertex<V> opposite(Vertex<V> v, Edge<Integer, V> e) throws InvalidVertexException, InvalidEdgeException {
+        int vertex = validateVertex(v);
+        int edge = validateEdge(e);
+
+        if (edges.get(edge, SOURCE) == vertex) {
+            return handle(edges.get(edge, TARGET));
+        }
+        else if (edges.get(edge, TARGET) == vertex) {
+            return handle(edges.get(edge, SOURCE));
+        }
+        else {
+            throw new InvalidEdgeException("v is not incident to this edge.");
+        }
+    }
+
+    @Override
+    public synchronized Vertex<V> insertVertex(V element) throws InvalidVertexException {
+        if (find(element) != NONE) {
+            throw new InvalidVertexException("A vertex with this element already exists.");
+        }
+        return handle(linkVertex(element));
+    }
+
+    @Override
+    public synchronized Edge<Integer, V> getEdge(Vertex<V> u, Vertex<V> v) throws InvalidVertexException {
+        int e = findEdge(validateVertex(u), validateVertex(v));
+        return e == NONE ? null : edgeHandle(e);
+    }
+
+    @Override
+    public synchronized Edge<Integer, V> insertEdge(Vertex<V> u, Vertex<V> v, Integer element) throws InvalidVertexException, InvalidEdgeException {
+        return edgeHandle(linkEdge(validateVertex(u), validateVertex(v), element));
+    }
+
+    @Override
+    public synchronized Edge<Integer, V> insertEdge(V uElement, V vElement, Integer eElement) throws InvalidVertexException, InvalidEdgeException {
+        return edgeHandle(linkEdge(validateElement(uElement), validateElement(vElement), eElement));
+    }
+
+    /* insert an edge from the vertex with element u to the vertex with element v, without boxing the weight */
+    public synchronized Edge<Integer, V> insertEdge(V uElement, V vElement, int weight) throws InvalidVertexException, InvalidEdgeException {
+        return edgeHandle(linkEdge(validateElement(uElement), validateElement(vElement), weight));
+    }
+
+    @Override
+    public synchronized V removeVertex(Vertex<V> v) throws InvalidVertexException {
+        int id = validateVertex(v);
+        V element = v.element();
+
+        int e;
+        while ((e = vertices.get(id, FIRST_OUT)) != NONE) unlinkEdge(e);
+        while ((e = vertices.get(id, FIRST_IN)) != NONE) unlinkEdge(e);
+
+        remove(element);
+        labels[id] = null;
+        vertices.set(id, VERTEX_STAMP, vertices.get(id, VERTEX_STAMP) + 1);    //invalidate outstanding handles
+        vertices.set(id, FIRST_OUT, freeVertex);                               //chain the free record
+        freeVertex = id;
+        --vertexCount;
+        return element;
+    }
+
+    @Override
+    public synchronized Integer removeEdge(Edge<Integer, V> e) throws InvalidEdgeException {
+        int id = validateEdge(e);
+        int weight = edges.get(id, WEIGHT);
+        unlinkEdge(id);
+        return weight;
+    }
+
+    /*
+    The bulk methods hold the monitor once for the whole batch and allocate the pages at most once.
+    A batch is atomic: if one of the elements is invalid, the graph is left unchanged.
+     */
+    @Override
+    public synchronized List<Vertex<V>> insertVertices(Collection<? extends V> elements) throws InvalidVertexException {
+        Set<V> batch = new HashSet<>(elements.size() * 4 / 3 + 1);
+        for (V element : elements) {
+            if (find(element) != NONE || !batch.add(element)) {
+                throw new InvalidVertexException("A vertex with this element already exists.");
+            }
+        }
+        vertices.ensureCapacity(vertexBound + elements.size());
+
+        List<Vertex<V>> inserted = new ArrayList<>(elements.size());
+        for (V element : elements) {
+            inserted.add(handle(linkVertex(element)));
+        }
+        return inserted;
+    }
+
+    @Override
+    public synchronized void insertEdges(List<? extends V> uElements, List<? extends V> vElements, List<? extends Integer> eElements) throws InvalidVertexException, InvalidEdgeException {
+        int m = uElements.size();
+        if (vElements.size() != m || eElements.size() != m) {
+            throw new IllegalArgumentException("The lists of end vertices and elements differ in size.");
+        }
+
+        int[] starts = new int[m], ends = new int[m];
+        Iterator<? extends V> u = uElements.iterator(), v = vElements.iterator();
+        for (int i = 0; i < m; i++) {
+            starts[i] = validateElement(u.next());
+            ends[i] = validateElement(v.next());
+        }
+        edges.ensureCapacity(edgeBound + m);
+
+        int[] inserted = new int[m];
+        Iterator<? extends Integer> e = eElements.iterator();
+        for (int i = 0; i < m; i++) {
+            try {
+                inserted[i] = linkEdge(starts[i], ends[i], e.next());
+            } catch (InvalidEdgeException ex) {
+                for (int j = i - 1; j >= 0; j--) unlinkEdge(inserted[j]); //roll back the edges linked so far
+                throw ex;
+            }
+        }
+    }
+
+    /* return the id of the vertex with this element, or -1 if there is none */
+    public synchronized int vertexId(V element) {
+        return find(element);
+    }
+
+    /* return the vertex with this id */
+    public synchronized Vertex<V> vertex(int id) throws InvalidVertexException {
+        if (!containsVertex(id)) throw new InvalidVertexException("Vertex does not belong to this graph.");
+        return handle(id);
+    }
+
+    /* return the weight of edge e */
+    public synchronized int weight(Edge<Integer, V> e) throws InvalidEdgeException {
+        return edges.get(validateEdge(e), WEIGHT);
+    }
+
+    /* replace the weight of edge e and return the old one */
+    public synchronized int setWeight(Edge<Integer, V> e, int weight) throws InvalidEdgeException {
+        int id = validateEdge(e);
+        int old = edges.get(id, WEIGHT);
+        edges.set(id, WEIGHT, weight);
+        return old;
+    }
+
+    /*
+    The IntDigraph methods read the records directly. They are not validated nor synchronized, so the
+    caller must hold valid ids and must not mutate the graph concurrently.
+     */
+    @Override
+    public boolean containsVertex(int vertexId) {
+        return vertexId >= 0 && vertexId < vertexBound && labels[vertexId] != null;
+    }
+
+    @Override
+    public int outDegree(int vertexId) {
+        return vertices.get(vertexId, OUT_DEGREE);
+    }
+
+    @Override
+    public int inDegree(int vertexId) {
+        return vertices.get(vertexId, IN_DEGREE);
+    }
+
+    @Override
+    public void forEachOutNeighbor(int vertexId, IntIntConsumer action) {
+        for (int e = vertices.get(vertexId, FIRST_OUT); e != NONE; e = edges.get(e, NEXT_OUT)) {
+            action.accept(edges.get(e, TARGET), edges.get(e, WEIGHT));
+        }
+    }
+
+    @Override
+    public void forEachInNeighbor(int vertexId, IntIntConsumer action) {
+        for (int e = vertices.get(vertexId, FIRST_IN); e != NONE; e = edges.get(e, NEXT_IN)) {
+            action.accept(edges.get(e, SOURCE), edges.get(e, WEIGHT));
+        }
+    }
+
+    @Override
+    public NeighborCursor outCursor() {
+        return new RecordCursor(FIRST_OUT, NEXT_OUT, TARGET);
+    }
+
+    @Override
+    public NeighborCursor inCursor() {
+        return new RecordCursor(FIRST_IN, NEXT_IN, SOURCE);
+    }
+
+    /**
+     * A {@link NeighborCursor} following one chain of edge records.
+     */
+    private final class RecordCursor implements NeighborCursor {
+        private final int first, next, neighbor;
+        private int edge, following;
+
+        RecordCursor(int first, int next, int neighbor) {
+            this.first = first;
+            this.next = next;
+            this.neighbor = neighbor;
+        }
+
+        @Override
+        public void reset(int vertexId) {
+            following = vertices.get(vertexId, first);
+        }
+
+        @Override
+        public boolean advance() {
+            edge = following;
+            if (edge == NONE) return false;
+            following = edges.get(edge, next);
+            return true;
+        }
+
+        @Override
+        public int vertex() {
+            return edges.get(edge, neighbor);
+        }
+
+        @Override
+        public int weight() {
+            return edges.get(edge, WEIGHT);
+        }
+    }
+
+    /* allocate a vertex record for a new element and return its id */
+    private int linkVertex(V element) {
+        int id;
+        if (freeVertex != NONE) {       //recycle a record freed by removeVertex
+            id = freeVertex;
+            freeVertex = vertices.get(id, FIRST_OUT);
+        }
+        else {
+            id = vertexBound++;
+            vertices.ensureCapacity(vertexBound);
+            vertices.set(id, VERTEX_STAMP, 0);
+            if (id == labels.length) labels = Arrays.copyOf(labels, id + (id >> 1) + 1);
+        }
+        labels[id] = element;
+        vertices.set(id, FIRST_OUT, NONE);
+        vertices.set(id, LAST_OUT, NONE);
+        vertices.set(id, FIRST_IN, NONE);
+        vertices.set(id, LAST_IN, NONE);
+        vertices.set(id, OUT_DEGREE, 0);
+        vertices.set(id, IN_DEGREE, 0);
+        insert(element, id);
+        ++vertexCount;
+        return id;
+    }
+
+    /* return the id of the edge from u to v, or -1 if there is none, scanning the shorter list */
+    private int findEdge(int u, int v) {
+        if (vertices.get(u, OUT_DEGREE) <= vertices.get(v, IN_DEGREE)) {
+            for (int e = vertices.get(u, FIRST_OUT); e != NONE; e = edges.get(e, NEXT_OUT)) {
+                if (edges.get(e, TARGET) == v) return e;
+            }
+        }
+        else {
+            for (int e = vertices.get(v, FIRST_IN); e != NONE; e = edges.get(e, NEXT_IN)) {
+                if (edges.get(e, SOURCE) == u) return e;
+            }
+        }
+        return NONE;
+    }
+
+    /* link a new edge from u to v at the tail of both lists and return its id */
+    private int linkEdge(int u, int v, int weight) throws InvalidEdgeException {
+        if (findEdge(u, v) != NONE) {
+            throw new InvalidEdgeException("Edge from u to v exists.");
+        }
+
+        int e;
+        if (freeEdge != NONE) {         //recycle a record freed by removeEdge
+            e = freeEdge;
+            freeEdge = edges.get(e, NEXT_OUT);
+        }
+        else {
+            e = edgeBound++;
+            edges.ensureCapacity(edgeBound);
+            edges.set(e, EDGE_STAMP, 0);
+        }
+        edges.set(e, SOURCE, u);
+        edges.set(e, TARGET, v);
+        edges.set(e, WEIGHT, weight);
+
+        int last = vertices.get(u, LAST_OUT);
+        edges.set(e, NEXT_OUT, NONE);
+        edges.set(e, PREV_OUT, last);
+        if (last != NONE) edges.set(last, NEXT_OUT, e);
+        else vertices.set(u, FIRST_OUT, e);
+        vertices.set(u, LAST_OUT, e);
+        vertices.set(u, OUT_DEGREE, vertices.get(u, OUT_DEGREE) + 1);
+
+        last = vertices.get(v, LAST_IN);
+        edges.set(e, NEXT_IN, NONE);
+        edges.set(e, PREV_IN, last);
+        if (last != NONE) edges.set(last, NEXT_IN, e);
+        else vertices.set(v, FIRST_IN, e);
+        vertices.set(v, LAST_IN, e);
+        vertices.set(v, IN_DEGREE, vertices.get(v, IN_DEGREE) + 1);
+
+        ++edgeCount;
+        return e;
+    }
+
+    /* unlink edge e from both lists and free its record */
+    private void unlinkEdge(int e) {
+        int u = edges.get(e, SOURCE), v = edges.get(e, TARGET);
+        int prev = edges.get(e, PREV_OUT), next = edges.get(e, NEXT_OUT);
+        if (prev != NONE) edges.set(prev, NEXT_OUT, next);
+        else vertices.set(u, FIRST_OUT, next);
+        if (next != NONE) edges.set(next, PREV_OUT, prev);
+        else vertices.set(u, LAST_OUT, prev);
+        vertices.set(u, OUT_DEGREE, vertices.get(u, OUT_DEGREE) - 1);
+
+        prev = edges.get(e, PREV_IN);
+        next = edges.get(e, NEXT_IN);
+        if (prev != NONE) edges.set(prev, NEXT_IN, next);
+        else vertices.set(v, FIRST_IN, next);
+        if (next != NONE) edges.set(next, PREV_IN, prev);
+        else vertices.set(v, LAST_IN, prev);
+        vertices.set(v, IN_DEGREE, vertices.get(v, IN_DEGREE) - 1);
+
+        edges.set(e, SOURCE, NONE);
+        edges.set(e, TARGET, NONE);
+        edges.set(e, EDGE_STAMP, edges.get(e, EDGE_STAMP) + 1);    //invalidate outstanding handles
+        edges.set(e, NEXT_OUT, freeEdge);                         //chain the free record
+        freeEdge = e;
+        --edgeCount;
+    }
+
+    /*
+    The element index is an open-addressing table with linear probing whose slots hold the hash of
+    an element and the id of its vertex, so a probe only touches the heap to compare the element when
+    the hashes match. Removed slots are marked as deleted and dropped when the table is rebuilt.
+     */
+    private int find(Object element) {
+        int hash = spread(element.hashCode()), mask = indexSize - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = index.get(slot, ID);
+            if (id == NONE) return NONE;
+            if (id != DELETED && index.get(slot, HASH) == hash && labels[id].equals(element)) return id;
+        }
+    }
+
+    private void insert(Object element, int id) {
+        if (2 * (indexUsed + 1) > indexSize) rebuildIndex(2 * (vertexCount + 1) > indexSize / 2 ? indexSize * 2 : indexSize);
+        int hash = spread(element.hashCode()), mask = indexSize - 1;
+        int slot = hash & mask;
+        while (index.get(slot, ID) != NONE) slot = (slot + 1) & mask;
+        index.set(slot, HASH, hash);
+        index.set(slot, ID, id);
+        ++indexUsed;
+    }
+
+    private void remove(Object element) {
+        int hash = spread(element.hashCode()), mask = indexSize - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = index.get(slot, ID);
+            if (id == NONE) return;
+            if (id != DELETED && index.get(slot, HASH) == hash && labels[id].equals(element)) {
+                index.set(slot, ID, DELETED);
+                return;
+            }
+        }
+    }
+
+    private void rebuildIndex(int size) {
+        OffHeapRecords old = index;
+        int oldSize = indexSize;
+        index = new OffHeapRecords(2);
+        clearIndex(size);
+        int mask = size - 1;
+        for (int s = 0; s < oldSize; s++) {
+            int id = old.get(s, ID);
+            if (id < 0) continue;
+            int slot = old.get(s, HASH) & mask;
+            while (index.get(slot, ID) != NONE) slot = (slot + 1) & mask;
+            index.set(slot, HASH, old.get(s, HASH));
+            index.set(slot, ID, id);
+            ++indexUsed;
+        }
+        old.release();
+    }
+
+    private void clearIndex(int size) {
+        index.ensureCapacity(size);
+        index.fill(NONE);
+        indexSize = size;
+        indexUsed = 0;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private Vertex<V> handle(int id) {
+        return new OVertex(id, vertices.get(id, VERTEX_STAMP));
+    }
+
+    private Edge<Integer, V> edgeHandle(int id) {
+        return new OEdge(id, edges.get(id, EDGE_STAMP));
+    }
+
+    /* validate that this vertex belongs to the graph and return its id */
+    private int validateVertex(Vertex<V> v) throws InvalidVertexException {
+        if (v == null) throw new InvalidVertexException("Null vertex.");
+        if (!(v instanceof OffHeapDigraph.OVertex)) throw new InvalidVertexException("Not a vertex.");
+
+        OVertex vertex = (OVertex) v;
+        if (vertex.owner() != this || !containsVertex(vertex.id) || vertices.get(vertex.id, VERTEX_STAMP) != vertex.stamp) {
+            throw new InvalidVertexException("Vertex does not belong to this graph.");
+        }
+        return vertex.id;
+    }
+
+    /* validate that a vertex with this element belongs to the graph and return its id */
+    private int validateElement(V element) throws InvalidVertexException {
+        int id = element == null ? NONE : find(element);
+        if (id == NONE) throw new InvalidVertexException("Vertex does not belong to this graph.");
+        return id;
+    }
+
+    /* validate that this edge belongs to the graph and return its id */
+    private int validateEdge(Edge<Integer, V> e) throws InvalidEdgeException {
+        if (e == null) throw new InvalidEdgeException("Null edge.");
+        if (!(e instanceof OffHeapDigraph.OEdge)) throw new InvalidEdgeException("Not an edge.");
+
+        OEdge edge = (OEdge) e;
+        if (edge.owner() != this || edge.id >= edgeBound || edges.get(edge.id, EDGE_STAMP) != edge.stamp
+                || edges.get(edge.id, SOURCE) == NONE) {
+            throw new InvalidEdgeException("Edge does not belong to this graph.");
+        }
+        return edge.id;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder(
+                String.format("[Graph with %d vertices and %d edges]\n", numVertices(), numEdges())
+        );
+
+        sb.append("--- Vertices: \n");
+        for (Vertex<V> v : vertices()) {
+            sb.append("\t").append(v.toString()).append("\n");
+        }
+        sb.append("\n--- Edges: \n");
+        for (Edge<Integer, V> e : edges()) {
+            sb.append("\t").append(e.toString()).append("\n");
+        }
+        return sb.append("\n").toString();
+    }
+}
@@ -0,0 +1,63 @@
+package graphvisualizer.graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A growable array of fixed-size records of <code>int</code> fields stored outside the Java heap in
+ * direct buffers. Records are allocated in pages, so growing never copies existing records and the
+ * heap only holds one buffer object per page, whatever the number of records.
+ */
+final class OffHeapRecords {
+    private static final int PAGE_SHIFT = 14;     //records per page
+    private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+
+    private final int fields;
+    private ByteBuffer[] pages = new ByteBuffer[0];
+
+    OffHeapRecords(int fields) {
+        this.fields = fields;
+    }
+
+    /* return the number of records that can be stored without allocating a page */
+    int capacity() {
+        return pages.length << PAGE_SHIFT;
+    }
+
+    /* allocate pages until record ids below capacity are valid */
+    void ensureCapacity(int capacity) {
+        int needed = (int) (((long) capacity + PAGE_MASK) >>> PAGE_SHIFT);
+        if (needed <= pages.length) return;
+        int count = pages.length;
+        pages = Arrays.copyOf(pages, Math.max(needed, count + (count >> 1)));
+        for (int p = count; p < pages.length; p++) {
+            pages[p] = ByteBuffer.allocateDirect((fields << PAGE_SHIFT) * 4).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    int get(int record, int field) {
+        return pages[record >>> PAGE_SHIFT].getInt(((record & PAGE_MASK) * fields + field) << 2);
+    }
+
+    void set(int record, int field, int value) {
+        pages[record >>> PAGE_SHIFT].putInt(((record & PAGE_MASK) * fields + field) << 2, value);
+    }
+
+    /* set every field of every allocated record to value */
+    void fill(int value) {
+        for (ByteBuffer page : pages) {
+            for (int i = 0; i < page.capacity(); i += 4) page.putInt(i, value);
+        }
+    }
+
+    /* drop every page; the memory is returned when the buffers are collected */
+    void release() {
+        pages = new ByteBuffer[0];
+    }
+
+    /* return the number of bytes allocated outside the heap */
+    long bytes() {
+        return (long) pages.length * (fields << PAGE_SHIFT) * 4;
+    }
+}
@@ -0,0 +1,164 @@
+package graphvisualizer.graph;
+
+import java.util.Comparator;
+
+/**
+ * An adaptable priority queue implemented as a pairing heap: a heap-ordered tree of location-aware
+ * entries, each linked to its leftmost child and to its siblings. Inserting an entry and decreasing
+ * its key take O(1), by linking it, or its cut-off subtree, with the root; only removing an entry
+ * restructures the tree, by pairing the children of the removed entry in two passes, in O(log n)
+ * amortized. This suits Dijkstra's algorithm on dense graphs, where the key decreases outnumber the
+ * removals of the minimum by far, and cost O(log n) each in a {@link HeapAdaptablePriorityQueue}.
+ * <p>
+ * Increasing a key cuts the entry off and reinserts it, which costs as much as a removal.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class PairingHeap<K,V> extends AbstractPriorityQueue<K,V> implements AdaptablePriorityQueue<K,V> {
+
+    //nested PairingEntry class, a node of the tree
+    protected static class PairingEntry<K,V> extends PQEntry<K,V> {
+        private PairingEntry<K,V> child;    //leftmost child
+        private PairingEntry<K,V> next;     //right sibling
+        private PairingEntry<K,V> prev;     //left sibling, or parent of a leftmost child
+        private PairingHeap<K,V> owner;     //heap holding the entry, null once removed
+        public PairingEntry(K key, V value, PairingHeap<K,V> heap){
+            super(key, value);
+            owner = heap;
+        }
+    } //end of nested PairingEntry class
+
+    private PairingEntry<K,V> root;
+    private int size;
+
+    //Creates an empty pairing heap using natural ordering of keys
+    public PairingHeap(){super();}
+    //Creates an empty pairing heap using the given comparator
+    public PairingHeap(Comparator<K> comp){super(comp);}
+
+    //Returns the number of entries in the priority queue
+    public int size(){
+        return size;
+    }
+
+    //Returns, but does not remove, an entry with minimal key (if any)
+    public Entry<K,V> min(){
+        return root;
+    }
+
+    //Inserts a key-value pair and returns the entry created, in O(1)
+    public Entry<K,V> insert(K key, V value) throws IllegalArgumentException{
+        checkKey(key);
+        PairingEntry<K,V> newest = new PairingEntry<>(key, value, this);
+        root = link(root, newest);
+        size++;
+        return newest;
+    }
+
+    //Removes and returns an entry with minimal key (if any)
+    public Entry<K,V> removeMin(){
+        if (root == null) return null;
+        PairingEntry<K,V> answer = root;
+        remove(answer);
+        return answer;
+    }
+
+    //Removes the given entry from the priority queue
+    public void remove(Entry<K,V> entry) throws IllegalArgumentException{
+        PairingEntry<K,V> locator = validate(entry);
+        if (locator == root)
+            root = pair(locator.child);             //the children of the root become the tree
+        else {
+            cut(locator);                           //detach the subtree of the entry
+            root = link(root, pair(locator.child)); //and put its children back
+        }
+        locator.child = null;
+        locator.owner = null;
+        size--;
+    }
+
+    //Replaces the key of an entry, in O(1) if the key does not increase
+    public void replaceKey(Entry<K,V> entry, K key) throws IllegalArgumentException{
+        PairingEntry<K,V> locator = validate(entry);
+        checkKey(key);
+        boolean increased = comp.compare(key, locator.getKey()) > 0;
+        locator.setKey(key);
+        if (locator == root) {
+            if (increased) {                        //the children may now be smaller than the root
+                PairingEntry<K,V> children = pair(locator.child);
+                locator.child = null;
+                root = link(children, locator);
+            }
+        }
+        else if (!increased) {
+            cut(locator);                           //the subtree stays heap-ordered
+            root = link(root, locator);
+        }
+        else {
+            cut(locator);                           //the children may now be smaller than the entry
+            PairingEntry<K,V> children = pair(locator.child);
+            locator.child = null;
+            root = link(link(root, children), locator);
+        }
+    }
+
+    //Validates an entry to ensure it is in this heap
+    protected PairingEntry<K,V> validate(Entry<K,V> entry) throws IllegalArgumentException{
+        if (!(entry instanceof PairingEntry))
+            throw new IllegalArgumentException("Invalid Entry");
+        PairingEntry<K,V> locator = (PairingEntry<K,V>) entry;
+        if (locator.owner != this)
+            throw new IllegalArgumentException("Invalid Entry");
+        return locator;
+    }
+
+    //Links two trees, either of which may be null, by making the larger root the leftmost child of the smaller
+    private PairingEntry<K,V> link(PairingEntry<K,V> a, PairingEntry<K,V> b){
+        if (a == null) return b;
+        if (b == null) return a;
+        if (compare(b, a) < 0) {
+            PairingEntry<K,V> temp = a;
+            a = b;
+            b = temp;
+        }
+        b.prev = a;
+        b.next = a.child;
+        if (a.child != null) a.child.prev = b;
+        a.child = b;
+        a.prev = a.next = null;                     //a is a root
+        return a;
+    }
+
+    //Detaches the subtree of a non-root entry from its parent and siblings
+    private void cut(PairingEntry<K,V> entry){
+        if (entry.prev.child == entry)              //leftmost child
+            entry.prev.child = entry.next;
+        else
+            entry.prev.next = entry.next;
+        if (entry.next != null) entry.next.prev = entry.prev;
+        entry.prev = entry.next = null;
+    }
+
+    //Links a list of siblings into one tree: in pairs from left to right, then from right to left
+    private PairingEntry<K,V> pair(PairingEntry<K,V> first){
+        PairingEntry<K,V> pairs = null;             //the linked pairs, rightmost first, chained by next
+        while (first != null) {
+            PairingEntry<K,V> a = first, b = a.next;
+            first = b == null ? null : b.next;
+            a.prev = a.next = null;
+            if (b != null) b.prev = b.next = null;
+            PairingEntry<K,V> tree = link(a, b);
+            tree.next = pairs;
+            pairs = tree;
+        }
+        PairingEntry<K,V> result = null;
+        while (pairs != null) {
+            PairingEntry<K,V> tree = pairs;
+            pairs = pairs.next;
+            tree.next = null;
+            result = link(tree, result);
+        }
+        return result;
+    }
+}
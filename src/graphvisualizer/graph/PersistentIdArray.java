@@ -0,0 +1,189 @@
+package graphvisualizer.graph;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable array indexed by the ids of a graph, whose absent elements are null. It is stored as
+ * a trie of 32-slot nodes, so that a new version is derived with an {@link Editor} by copying only
+ * the nodes on the path of each id it sets: O(log V) per changed id, every other node is shared
+ * with the version it was derived from.
+ *
+ * @param <T> Element type
+ */
+final class PersistentIdArray<T> implements Iterable<T> {
+    private static final int BITS = 5, WIDTH = 1 << BITS, MASK = WIDTH - 1;
+
+    /* a node of the trie, which only the editor that created it may modify, until it builds its array */
+    private static final class Node {
+        private final Object owner;
+        private final Object[] slots;
+
+        Node(Object owner, Object[] slots) {
+            this.owner = owner;
+            this.slots = slots;
+        }
+    }
+
+    private static final PersistentIdArray<?> EMPTY = new PersistentIdArray<>(new Node(null, new Object[WIDTH]), 0, 0, 0);
+
+    private final Node root;
+    private final int shift;    //the root covers the ids below 1 << (shift + BITS)
+    private final int size, bound;
+
+    private PersistentIdArray(Node root, int shift, int size, int bound) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+        this.bound = bound;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> PersistentIdArray<T> empty() {
+        return (PersistentIdArray<T>) EMPTY;
+    }
+
+    /* return the slots of the leaf holding id, or null if there is none */
+    private static Object[] leaf(Node root, int shift, int id) {
+        Node node = root;
+        for (int s = shift; s > 0; s -= BITS) {
+            node = (Node) node.slots[(id >>> s) & MASK];
+            if (node == null) return null;
+        }
+        return node.slots;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T lookup(Node root, int shift, int bound, int id) {
+        if (id < 0 || id >= bound) return null;
+        Object[] slots = leaf(root, shift, id);
+        return slots == null ? null : (T) slots[id & MASK];
+    }
+
+    /* return the element at id, or null if there is none */
+    T get(int id) {
+        return lookup(root, shift, bound, id);
+    }
+
+    /* return the number of elements that are not null */
+    int size() {
+        return size;
+    }
+
+    /* return an editor deriving a new version from this one, which is left unchanged */
+    Editor<T> edit() {
+        return new Editor<>(this);
+    }
+
+    /* iterate the elements in the order of their ids, skipping the absent ones */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int id;
+            private Object[] slots;
+            private T next = advance();
+
+            @SuppressWarnings("unchecked")
+            private T advance() {
+                for (; id < bound; id++) {
+                    if ((id & MASK) == 0) {
+                        slots = leaf(root, shift, id);
+                        if (slots == null) {    //skip the whole leaf
+                            id += MASK;
+                            continue;
+                        }
+                    }
+                    Object value = slots[id & MASK];
+                    if (value != null) {
+                        id++;
+                        return (T) value;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (next == null) throw new NoSuchElementException();
+                T result = next;
+                next = advance();
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Derives a new version of a {@link PersistentIdArray}. The first update of a node copies it,
+     * and the copy is then updated in place by the following ones, so a batch of updates copies
+     * each node at most once. The nodes are frozen when the new version is built.
+     */
+    static final class Editor<T> {
+        private Object owner = new Object();
+        private Node root;
+        private int shift, size, bound;
+
+        private Editor(PersistentIdArray<T> base) {
+            root = base.root;
+            shift = base.shift;
+            size = base.size;
+            bound = base.bound;
+        }
+
+        /* return the element at id in the version being edited */
+        T get(int id) {
+            return lookup(root, shift, bound, id);
+        }
+
+        /* set the element at id, or remove it if value is null */
+        void set(int id, T value) {
+            if (id < 0) throw new IllegalArgumentException("Negative id.");
+            if (value == null && id >= bound) return;
+
+            while ((id >>> shift) >= WIDTH) {   //add levels above the root until it covers id
+                Object[] slots = new Object[WIDTH];
+                slots[0] = root;
+                root = new Node(owner, slots);
+                shift += BITS;
+            }
+            Node node = root = editable(root);
+            for (int s = shift; s > 0; s -= BITS) {
+                int i = (id >>> s) & MASK;
+                Node child = (Node) node.slots[i];
+                if (child == null) {
+                    if (value == null) return;
+                    child = new Node(owner, new Object[WIDTH]);
+                }
+                else {
+                    child = editable(child);
+                }
+                node.slots[i] = child;
+                node = child;
+            }
+
+            int i = id & MASK;
+            if (node.slots[i] == null) {
+                if (value != null) size++;
+            }
+            else if (value == null) {
+                size--;
+            }
+            node.slots[i] = value;
+            if (value != null) bound = Math.max(bound, id + 1);
+        }
+
+        private Node editable(Node node) {
+            return node.owner == owner ? node : new Node(owner, node.slots.clone());
+        }
+
+        /* return the edited version; later updates copy its nodes again */
+        PersistentIdArray<T> build() {
+            owner = new Object();
+            return new PersistentIdArray<>(root, shift, size, bound);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package graphvisualizer.graph;
 
+import java.util.ArrayList;
+import java.util.List;
+
 //Interface for the priority queue ADT
 public interface PriorityQueue <K,V>{
     int size();
@@ -7,4 +10,14 @@ public interface PriorityQueue <K,V>{
     Entry<K,V> insert(K key, V value) throws IllegalArgumentException;
     Entry<K,V>  min();
     Entry<K,V> removeMin();
+
+    //Inserts the key-value pairs keys[i], values[i] and returns the entries created, in the same order
+    default List<Entry<K,V>> insertAll(List<? extends K> keys, List<? extends V> values) throws IllegalArgumentException{
+        if (keys.size() != values.size())
+            throw new IllegalArgumentException("There must be as many keys as values");
+        List<Entry<K,V>> entries = new ArrayList<>(keys.size());
+        for (int j = 0; j < keys.size(); j++)
+            entries.add(insert(keys.get(j), values.get(j)));
+        return entries;
+    }
 }
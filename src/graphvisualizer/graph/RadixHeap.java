@@ -0,0 +1,46 @@
+package graphvisualizer.graph;
+
+/**
+ * A monotone radix heap. A queued key belongs to bucket 0 if it equals the last minimum and to bucket
+ * <code>i</code> if the highest bit in which it differs from the last minimum is bit
+ * <code>i - 1</code>, so the 65 buckets cover every <code>long</code> key and the lower buckets hold
+ * the smaller keys. When bucket 0 runs empty, the minimum of the first non-empty bucket becomes the
+ * last minimum and the bucket is spread over lower buckets. An id only moves down, at most
+ * O(log C) times for keys within C of the minimum, so Dijkstra's algorithm runs in
+ * O(E + V &middot; log C) with one comparison per id moved, without knowing C in advance. Keys smaller
+ * than the last minimum are rejected with an <code>IllegalArgumentException</code>. This class is not
+ * thread-safe.
+ */
+public class RadixHeap extends AbstractMonotoneQueue {
+    private static final int BUCKETS = Long.SIZE + 1;
+
+    /* create a heap for ids below idBound, which grows if needed */
+    public RadixHeap(int idBound) {
+        super(idBound, BUCKETS);
+    }
+
+    /*
+    The keys of bucket i share their bits above bit i - 1 with last and have that bit set, in the
+    order of the sign-flipped keys, so every key of bucket i is greater than every key of the lower
+    buckets. Flipping the sign bit of both keys does not change their XOR.
+     */
+    @Override
+    protected int bucket(long key) {
+        return Long.SIZE - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    @Override
+    protected int minBucket() {
+        if (head[0] != -1) return 0;
+
+        int b = 1;
+        while (head[b] == -1) ++b;
+        long min = Long.MAX_VALUE;
+        for (int id = head[b]; id != -1; id = nextInBucket(id)) {
+            min = Math.min(min, keyOf(id));
+        }
+        last = min;
+        redistribute(b);        //every id moves to a lower bucket, and those of min to bucket 0
+        return 0;
+    }
+}
@@ -0,0 +1,372 @@
+package graphvisualizer.graph;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates reproducible random directed graphs without self-loops or parallel edges. Every graph is
+ * derived from the seed alone: the work is split into slices that each get their own
+ * {@link SplittableRandom}, split from the seeded one in a fixed order, so the result does not
+ * depend on how the slices are scheduled on the common pool. Vertices are labelled
+ * <code>"0"</code> to <code>"n-1"</code> and weights are drawn uniformly from a fixed range.
+ */
+public final class RandomGraphGenerator {
+    private static final int SLICE_EDGES = 1 << 16;     //expected number of edges generated by one slice
+    private static final int RMAT_CANDIDATES_PER_EDGE = 16;   //R-MAT candidates drawn per edge before filling uniformly
+
+    private final long seed;
+    private final int minWeight, maxWeight;
+
+    /* generate graphs with weights from 1 to 20, as the demo does */
+    public RandomGraphGenerator(long seed) {
+        this(seed, 1, 20);
+    }
+
+    public RandomGraphGenerator(long seed, int minWeight, int maxWeight) {
+        if (minWeight > maxWeight) throw new IllegalArgumentException("The weight range is empty.");
+        this.seed = seed;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Erdős–Rényi G(n, m): a graph chosen uniformly among those with <code>n</code> vertices and
+     * <code>m</code> edges. Up to half of the possible edges are drawn by rejection; above that, the
+     * missing edges are drawn instead and the others enumerated, so the cost stays O(n + m).
+     *
+     * @param n Number of vertices
+     * @param m Number of edges, at most n(n - 1)
+     * @return The generated edges
+     */
+    public EdgeList gnm(int n, int m) {
+        long pairs = (long) n * (n - 1);
+        if (m < 0 || m > pairs) throw new IllegalArgumentException("A digraph with " + n + " vertices has at most " + pairs + " edges.");
+        SplittableRandom random = new SplittableRandom(seed);
+        Edges edges = new Edges(m);
+
+        boolean sparse = m <= pairs / 2;
+        LongHashSet drawn = new LongHashSet(sparse ? m : (int) (pairs - m));
+        while (drawn.size() < (sparse ? m : pairs - m)) {
+            long pair = random.nextLong(pairs);
+            if (drawn.add(pair) && sparse) edges.add(source(pair, n), target(pair, n), weight(random));
+        }
+        if (!sparse) {
+            for (long pair = 0; pair < pairs; pair++) {
+                if (!drawn.contains(pair)) edges.add(source(pair, n), target(pair, n), weight(random));
+            }
+        }
+        return edges.toEdgeList(n);
+    }
+
+    /**
+     * Erdős–Rényi G(n, p): every possible edge is present independently with probability
+     * <code>p</code>. The generator jumps from one edge to the next with geometrically distributed
+     * skips instead of flipping a coin per pair, so the cost is O(n + m), and the ranges of
+     * starting vertices are generated in parallel.
+     *
+     * @param n Number of vertices
+     * @param p Probability of each edge
+     * @return The generated edges
+     */
+    public EdgeList gnp(int n, double p) {
+        if (!(p >= 0 && p <= 1)) throw new IllegalArgumentException("The probability must be in [0, 1].");
+        long pairs = (long) n * (n - 1);
+        int slices = (int) Math.max(1, Math.min(n, pairs * p / SLICE_EDGES));
+        SplittableRandom[] randoms = split(new SplittableRandom(seed), slices);
+
+        Edges[] parts = IntStream.range(0, slices).parallel().mapToObj(slice -> {
+            SplittableRandom random = randoms[slice];
+            long first = (long) n * slice / slices * (n - 1), end = (long) n * (slice + 1) / slices * (n - 1);
+            Edges part = new Edges((int) Math.min(Integer.MAX_VALUE - 8, (end - first) * p * 1.1 + 16));
+            if (p == 0) return part;
+            double logQ = Math.log1p(-p);
+            for (long pair = first - 1; ; ) {
+                pair += p == 1 ? 1 : 1 + (long) Math.floor(Math.log(1 - random.nextDouble()) / logQ);
+                if (pair >= end || pair < first) break;     //past the range, or overflow
+                part.add(source(pair, n), target(pair, n), weight(random));
+            }
+            return part;
+        }).toArray(Edges[]::new);
+        return Edges.concat(parts).toEdgeList(n);
+    }
+
+    /**
+     * Barabási–Albert preferential attachment: vertices arrive one at a time and each new vertex
+     * links to <code>k</code> distinct earlier vertices (all of them while there are fewer than
+     * <code>k</code>), picking each with probability proportional to its degree plus one so that
+     * the first vertices can be chosen. The degree distribution follows a power law.
+     *
+     * @param n Number of vertices
+     * @param k Number of edges added with each vertex
+     * @return The generated edges, directed from the newer to the older vertex
+     */
+    public EdgeList barabasiAlbert(int n, int k) {
+        if (n < 0 || k < 1) throw new IllegalArgumentException("The number of vertices must be non-negative and k positive.");
+        SplittableRandom random = new SplittableRandom(seed);
+        long m = (long) Math.max(0, n - k) * k + (long) Math.min(n, k) * (Math.min(n, k) - 1) / 2;
+        Edges edges = new Edges(Math.toIntExact(m));
+        int[] endpoints = new int[Math.toIntExact(2 * m)];    //every vertex once per incident edge
+        int count = 0;
+        int[] chosen = new int[k];
+
+        for (int u = 1; u < n; u++) {
+            int degree = Math.min(u, k);
+            for (int j = 0; j < degree; j++) {
+                int v;
+                do {
+                    int pick = random.nextInt(u + count);
+                    v = pick < u ? pick : endpoints[pick - u];
+                } while (contains(chosen, j, v));
+                chosen[j] = v;
+            }
+            for (int j = 0; j < degree; j++) {
+                edges.add(u, chosen[j], weight(random));
+                endpoints[count++] = u;
+                endpoints[count++] = chosen[j];
+            }
+        }
+        return edges.toEdgeList(n);
+    }
+
+    /**
+     * R-MAT: each edge is placed by descending <code>scale</code> levels of the adjacency matrix and
+     * choosing one of its quadrants with probabilities <code>a, b, c</code> and <code>1 - a - b - c</code>,
+     * which yields skewed degrees and community structure. Candidates are generated in parallel
+     * slices; self-loops and duplicates are dropped in order and drawn again until there are
+     * <code>m</code> edges. Skewed probabilities keep drawing the same pairs as <code>m</code> approaches
+     * the number of possible edges, so after {@value #RMAT_CANDIDATES_PER_EDGE} candidates per edge the
+     * missing edges are drawn uniformly among the pairs the quadrants can produce, by rejection or, for
+     * most of them, by drawing the pairs to leave out, as {@link #gnm(int, int)} does.
+     *
+     * @param scale Logarithm base 2 of the number of vertices
+     * @param m Number of edges, at most n(n - 1)
+     * @param a Probability of the top left quadrant
+     * @param b Probability of the top right quadrant
+     * @param c Probability of the bottom left quadrant
+     * @return The generated edges
+     * @throws IllegalArgumentException if the quadrants with a non-zero probability cannot produce <code>m</code> distinct edges
+     */
+    public EdgeList rmat(int scale, int m, double a, double b, double c) {
+        if (scale < 0 || scale > 30) throw new IllegalArgumentException("The scale must be in [0, 30].");
+        if (a < 0 || b < 0 || c < 0 || a + b + c > 1) throw new IllegalArgumentException("The quadrant probabilities are invalid.");
+        int n = 1 << scale;
+        long pairs = (long) n * (n - 1);
+        if (m < 0 || m > pairs) throw new IllegalArgumentException("A digraph with " + n + " vertices has at most " + pairs + " edges.");
+        Quadrants quadrants = new Quadrants(scale, a, b, c);
+        if (m > quadrants.support) throw new IllegalArgumentException("The quadrant probabilities allow at most " + quadrants.support + " edges.");
+
+        SplittableRandom random = new SplittableRandom(seed);
+        Edges edges = new Edges(m);
+        LongHashSet drawn = new LongHashSet(m);
+        long budget = (long) RMAT_CANDIDATES_PER_EDGE * m;
+        for (long generated = 0; edges.size < m && generated < budget; ) {
+            int needed = m - edges.size;
+            generated += needed;
+            int slices = Math.max(1, needed / SLICE_EDGES);
+            SplittableRandom[] randoms = split(random, slices);
+            Edges[] parts = IntStream.range(0, slices).parallel().mapToObj(slice -> {
+                SplittableRandom r = randoms[slice];
+                int count = (int) ((long) needed * (slice + 1) / slices - (long) needed * slice / slices);
+                Edges part = new Edges(count);
+                for (int i = 0; i < count; i++) {
+                    int u = 0, v = 0;
+                    for (int level = 0; level < scale; level++) {
+                        double q = r.nextDouble();
+                        u = u << 1 | (q >= a + b ? 1 : 0);
+                        v = v << 1 | (q >= a && q < a + b || q >= a + b + c ? 1 : 0);
+                    }
+                    part.add(u, v, weight(r));
+                }
+                return part;
+            }).toArray(Edges[]::new);
+
+            for (Edges part : parts) {
+                for (int i = 0; i < part.size && edges.size < m; i++) {
+                    int u = part.sources[i], v = part.targets[i];
+                    if (u != v && drawn.add((long) u * n + v)) edges.add(u, v, part.weights[i]);
+                }
+            }
+        }
+        if (edges.size < m) fillUniformly(quadrants, m, edges, drawn, random);
+        return edges.toEdgeList(n);
+    }
+
+    /* add edges drawn uniformly among the pairs the quadrants produce and that are not drawn yet, until there are m */
+    private void fillUniformly(Quadrants quadrants, int m, Edges edges, LongHashSet drawn, SplittableRandom random) {
+        int n = 1 << quadrants.scale;
+        long free = quadrants.support - edges.size;
+        int missing = m - edges.size;
+        if (missing <= free / 2) {
+            while (edges.size < m) {
+                long pair = quadrants.uniformPair(random);
+                int u = (int) (pair >>> 32), v = (int) pair;
+                if (u != v && drawn.add((long) u * n + v)) edges.add(u, v, weight(random));
+            }
+            return;
+        }
+        LongHashSet excluded = new LongHashSet((int) (free - missing));  //the free pairs left out
+        while (excluded.size() < free - missing) {
+            long pair = quadrants.uniformPair(random);
+            int u = (int) (pair >>> 32), v = (int) pair;
+            if (u != v && !drawn.contains((long) u * n + v)) excluded.add((long) u * n + v);
+        }
+        for (long index = 0; index < quadrants.total; index++) {
+            long pair = quadrants.pair(index);
+            int u = (int) (pair >>> 32), v = (int) pair;
+            long key = (long) u * n + v;
+            if (u != v && !excluded.contains(key) && drawn.add(key)) edges.add(u, v, weight(random));
+        }
+    }
+
+    private int weight(SplittableRandom random) {
+        return minWeight == maxWeight ? minWeight : random.nextInt(minWeight, maxWeight + 1);
+    }
+
+    /* return count generators split from random one after the other */
+    private static SplittableRandom[] split(SplittableRandom random, int count) {
+        SplittableRandom[] randoms = new SplittableRandom[count];
+        for (int i = 0; i < count; i++) randoms[i] = random.split();
+        return randoms;
+    }
+
+    /*
+    The n(n - 1) possible edges are numbered row by row, skipping the diagonal: pair p goes from
+    p / (n - 1) to the (p % (n - 1))-th other vertex.
+     */
+    private static int source(long pair, int n) {
+        return (int) (pair / (n - 1));
+    }
+
+    private static int target(long pair, int n) {
+        int u = (int) (pair / (n - 1)), r = (int) (pair % (n - 1));
+        return r < u ? r : r + 1;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    /**
+     * The quadrants of an R-MAT run that have a non-zero probability, as the sampling loop tests
+     * them, and the pairs of vertices they can produce: the pairs whose bits choose, at every level,
+     * one of these quadrants, numbered in base the number of quadrants.
+     */
+    private static final class Quadrants {
+        final int scale;
+        final int[] allowed;        //quadrants with a non-zero probability, as (source bit << 1 | target bit)
+        final long total, support;  //pairs produced, including and excluding self-loops
+
+        Quadrants(int scale, double a, double b, double c) {
+            boolean[] possible = {a > 0, a + b > a, a + b + c > a + b, a + b + c < 1};
+            int count = 0, diagonal = 0;
+            for (int quadrant = 0; quadrant < 4; quadrant++) {
+                if (possible[quadrant]) {
+                    count++;
+                    if (quadrant == 0 || quadrant == 3) diagonal++;
+                }
+            }
+            this.scale = scale;
+            this.allowed = new int[count];
+            for (int quadrant = 0, i = 0; quadrant < 4; quadrant++) {
+                if (possible[quadrant]) allowed[i++] = quadrant;
+            }
+            long total = 1, loops = 1;
+            for (int level = 0; level < scale; level++) {
+                total *= count;
+                loops *= diagonal;
+            }
+            this.total = total;
+            this.support = total - loops;
+        }
+
+        /* return a pair drawn uniformly among the produced ones, as (u << 32 | v) */
+        long uniformPair(SplittableRandom random) {
+            int u = 0, v = 0;
+            for (int level = 0; level < scale; level++) {
+                int quadrant = allowed[random.nextInt(allowed.length)];
+                u = u << 1 | quadrant >> 1;
+                v = v << 1 | quadrant & 1;
+            }
+            return (long) u << 32 | v;
+        }
+
+        /* return the pair with the given number, below total, as (u << 32 | v) */
+        long pair(long index) {
+            int u = 0, v = 0;
+            for (int level = 0; level < scale; level++) {
+                int quadrant = allowed[(int) (index % allowed.length)];
+                index /= allowed.length;
+                u = u << 1 | quadrant >> 1;
+                v = v << 1 | quadrant & 1;
+            }
+            return (long) u << 32 | v;
+        }
+    }
+
+    /**
+     * A growable triple of primitive arrays holding generated edges.
+     */
+    private static final class Edges {
+        int[] sources, targets, weights;
+        int size;
+
+        Edges(int capacity) {
+            capacity = Math.max(capacity, 16);
+            sources = new int[capacity];
+            targets = new int[capacity];
+            weights = new int[capacity];
+        }
+
+        void add(int source, int target, int weight) {
+            if (size == sources.length) {
+                int capacity = size + (size >> 1);
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            weights[size] = weight;
+            ++size;
+        }
+
+        static Edges concat(Edges[] parts) {
+            int total = 0;
+            for (Edges part : parts) total = Math.addExact(total, part.size);
+            Edges all = new Edges(total);
+            for (Edges part : parts) {
+                System.arraycopy(part.sources, 0, all.sources, all.size, part.size);
+                System.arraycopy(part.targets, 0, all.targets, all.size, part.size);
+                System.arraycopy(part.weights, 0, all.weights, all.size, part.size);
+                all.size += part.size;
+            }
+            return all;
+        }
+
+        EdgeList toEdgeList(int n) {
+            return new EdgeList(numberLabels(n), sources, targets, weights, size);
+        }
+    }
+
+    /* return the labels "0" to "n-1", created on demand */
+    private static List<String> numberLabels(int n) {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                if (index < 0 || index >= n) throw new IndexOutOfBoundsException("Index: " + index);
+                return String.valueOf(index);
+            }
+
+            @Override
+            public int size() {
+                return n;
+            }
+        };
+    }
+}
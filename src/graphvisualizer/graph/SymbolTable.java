@@ -0,0 +1,152 @@
+package graphvisualizer.graph;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Interns vertex labels and maps them to dense <code>int</code> ids in both directions. The labels
+ * are kept back to back as UTF-8 in one byte arena, and an open-addressing table of ids, probed with
+ * the hash of the bytes, maps a label to its id; so a table of millions of labels is a handful of
+ * arrays rather than millions of <code>String</code> and map entry objects. Labels can be interned
+ * straight from a byte buffer, e.g. a block of an input file, without creating a <code>String</code>.
+ * The arena holds up to {@link #MAX_ARENA_BYTES} bytes of labels. This class is not thread-safe.
+ */
+public final class SymbolTable {
+    public static final int MAX_ARENA_BYTES = Integer.MAX_VALUE - 8;    //largest array most VMs allocate
+
+    private final int maxArenaBytes;
+    private byte[] arena = new byte[256];
+    private int arenaSize;
+    private int[] starts = new int[17];     //the label of id i is arena[starts[i], starts[i + 1])
+    private int[] hashes = new int[16];
+    private int[] table = new int[32];      //id + 1, 0 for an empty slot
+    private int size;
+    private byte[] scratch = new byte[64];
+
+    public SymbolTable() {
+        this(MAX_ARENA_BYTES);
+    }
+
+    /* create a table whose labels take at most maxArenaBytes bytes */
+    SymbolTable(int maxArenaBytes) {
+        this.maxArenaBytes = maxArenaBytes;
+    }
+
+    /* return the number of labels */
+    public int size() {
+        return size;
+    }
+
+    /* return the number of bytes of the arena used by the labels */
+    public long arenaBytes() {
+        return arenaSize;
+    }
+
+    /* return the id of label, adding it if it is new, throw IllegalStateException if the arena is full */
+    public int intern(String label) {
+        int length = encode(label);
+        return intern(scratch, 0, length, hash(scratch, 0, length));
+    }
+
+    /* return the id of the UTF-8 label in bytes[start, end), adding it if it is new */
+    public int intern(byte[] bytes, int start, int end) {
+        return intern(bytes, start, end, hash(bytes, start, end));
+    }
+
+    /* return the id of label, or -1 if it has not been interned */
+    public int find(String label) {
+        int length = encode(label);
+        return find(scratch, 0, length, hash(scratch, 0, length));
+    }
+
+    /* return the id of the UTF-8 label in bytes[start, end), or -1 if it has not been interned */
+    public int find(byte[] bytes, int start, int end) {
+        return find(bytes, start, end, hash(bytes, start, end));
+    }
+
+    /* return the label with this id */
+    public String symbol(int id) {
+        if (id < 0 || id >= size) throw new IndexOutOfBoundsException("No symbol with id " + id + ".");
+        return new String(arena, starts[id], starts[id + 1] - starts[id], StandardCharsets.UTF_8);
+    }
+
+    /* intern with a hash computed by hash(bytes, start, end), e.g. by another thread */
+    int intern(byte[] bytes, int start, int end, int hash) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        for (int id; (id = table[slot] - 1) >= 0; slot = (slot + 1) & mask) {
+            if (hashes[id] == hash && matches(id, bytes, start, end)) return id;
+        }
+
+        int length = end - start;
+        if (arenaSize + (long) length > maxArenaBytes) {
+            throw new IllegalStateException("The symbol arena is full, it cannot hold " + length + " more bytes.");
+        }
+        int id = size++;
+        if (arenaSize + length > arena.length) {
+            arena = Arrays.copyOf(arena, (int) Math.min(maxArenaBytes, Math.max(arenaSize + length, arena.length * 2L)));
+        }
+        System.arraycopy(bytes, start, arena, arenaSize, length);
+        arenaSize += length;
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, size * 2);
+            starts = Arrays.copyOf(starts, size * 2 + 1);
+        }
+        hashes[id] = hash;
+        starts[id + 1] = arenaSize;
+        table[slot] = id + 1;
+        if (2 * size > table.length) rehash();
+        return id;
+    }
+
+    int find(byte[] bytes, int start, int end, int hash) {
+        int mask = table.length - 1;
+        for (int slot = hash & mask, id; (id = table[slot] - 1) >= 0; slot = (slot + 1) & mask) {
+            if (hashes[id] == hash && matches(id, bytes, start, end)) return id;
+        }
+        return -1;
+    }
+
+    /* return the hash of the bytes of a label, shared by the tables that index labels by their UTF-8 form */
+    static int hash(byte[] bytes, int start, int end) {
+        int hash = 1;
+        for (int i = start; i < end; i++) hash = 31 * hash + bytes[i];
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean matches(int id, byte[] bytes, int start, int end) {
+        int from = starts[id];
+        if (starts[id + 1] - from != end - start) return false;
+        for (int i = start; i < end; i++) {
+            if (arena[from++] != bytes[i]) return false;
+        }
+        return true;
+    }
+
+    /* write the UTF-8 form of label into scratch and return its length, without allocating for ASCII labels */
+    private int encode(String label) {
+        int length = label.length();
+        if (length > scratch.length) scratch = new byte[Math.max(length, scratch.length * 2)];
+        for (int i = 0; i < length; i++) {
+            char c = label.charAt(i);
+            if (c >= 0x80) {
+                byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > scratch.length) scratch = new byte[bytes.length];
+                System.arraycopy(bytes, 0, scratch, 0, bytes.length);
+                return bytes.length;
+            }
+            scratch[i] = (byte) c;
+        }
+        return length;
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (table[slot] != 0) slot = (slot + 1) & mask;
+            table[slot] = id + 1;
+        }
+    }
+}
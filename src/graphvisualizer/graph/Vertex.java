@@ -3,4 +3,6 @@ package graphvisualizer.graph;
 public interface Vertex<V> {
     /* return element stored in vertex */
     V element();
+    /* return the dense id of the vertex, unique among the vertices of its graph */
+    int id();
 }
@@ -1,7 +1,9 @@
 package graphvisualizer.graphalgorithms;
 
 import graphvisualizer.graph.AdjacencyMapDigraph;
-import graphvisualizer.graph.Edge;
+import graphvisualizer.graph.CSRDigraph;
+import graphvisualizer.graph.IntDigraph;
+import graphvisualizer.graph.DigraphSnapshot;
 import graphvisualizer.graph.Vertex;
 import graphvisualizer.graphview.SmartGraphPanel;
 import java.util.*;
@@ -22,6 +24,8 @@ public class CycleDetection {
      */
     private static boolean isCyclic;
     private static int cycleCount;
+    private static IntDigraph view;                         //trusted traversal of the snapshot of the current run
+    private static IntDigraph.NeighborCursor[] cursors;     //reused cursor of each depth of the DFS
 
     /**
      * Construct a visualization of cycle detection algorithm in a directed graph (strongly connected/not
@@ -44,10 +48,13 @@ public class CycleDetection {
         StringBuilder buf = new StringBuilder();
 
         while(!isCyclic) {
-            vertices.addAll(digraph.vertices());
+            DigraphSnapshot<String, Integer> snapshot = digraph.snapshot(); //traverse a version that is not affected by concurrent mutations
+            vertices.addAll(snapshot.vertices());
+            view = snapshot.asIntDigraph(Integer::intValue);
+            cursors = new IntDigraph.NeighborCursor[snapshot.vertexIdBound()];
 
             while (!vertices.isEmpty()) { //continue perform DFS if there are unvisited vertices, e.g. when there are several strongly connected components
-                checkCycle(digraph, vertices.remove(), vertices, visitedVertices, onStackVertices, parentsOfVertices, foundCycles, buf, graphView);
+                checkCycle(snapshot, vertices.remove(), 0, vertices, visitedVertices, onStackVertices, parentsOfVertices, foundCycles, buf, graphView);
                 visitedVertices.clear(); parentsOfVertices.clear();
             }
             if(!isCyclic) {
@@ -57,12 +64,64 @@ public class CycleDetection {
         return sb.append(String.format("\n[Cycle Detection] [%d cycle(s) found.]", cycleCount)).append(buf).append("\n").toString();
     }
 
+    /**
+     * Detect whether a directed graph contains a cycle through the {@link IntDigraph} traversal surface,
+     * e.g. an immutable {@link CSRDigraph} snapshot. This runs an iterative DFS with one reused cursor
+     * per depth of the stack, colouring vertices as unvisited, on the recursion stack or finished; a
+     * cycle exists if and only if an edge leads back to a vertex on the stack.
+     *
+     * @param digraph Directed graph that is not mutated during the run
+     * @return true if the directed graph contains at least one cycle
+     */
+    public static boolean hasCycle(IntDigraph digraph) {
+        final byte UNVISITED = 0, ON_STACK = 1, FINISHED = 2;
+        int n = digraph.vertexIdBound();
+        byte[] state = new byte[n];
+        int[] callStack = new int[n];
+        IntDigraph.NeighborCursor[] cursors = new IntDigraph.NeighborCursor[n];
+
+        for (int s = 0; s < n; s++) {
+            if (state[s] != UNVISITED || !digraph.containsVertex(s)) continue;
+
+            int top = 0;
+            state[s] = ON_STACK;
+            push(digraph, cursors, top, s);
+            callStack[top++] = s;
+
+            while (top > 0) {
+                int u = callStack[top - 1];
+
+                if (cursors[top - 1].advance()) {
+                    int v = cursors[top - 1].vertex();
+                    if (state[v] == ON_STACK) return true;      //back edge closes a cycle
+                    if (state[v] == UNVISITED) {
+                        state[v] = ON_STACK;
+                        push(digraph, cursors, top, v);
+                        callStack[top++] = v;
+                    }
+                }
+                else {
+                    state[u] = FINISHED;
+                    --top;
+                }
+            }
+        }
+        return false;
+    }
+
+    /* position the cursor of the given depth of the DFS stack on vertex, creating it on first use */
+    private static void push(IntDigraph digraph, IntDigraph.NeighborCursor[] cursors, int depth, int vertex) {
+        if (cursors[depth] == null) cursors[depth] = digraph.outCursor();
+        cursors[depth].reset(vertex);
+    }
+
     /**
      * A DFS method to detect the existence of a cycle in the directed graph. Random directed edges will be generated until
      * a cycle is found. This should be called repeatedly by <code>start(AdjacencyMapDigraph, SmartGraphPanel)</code>.
      *
-     * @param digraph Directed graph
+     * @param digraph Snapshot of the directed graph
      * @param startVertex Starting vertex of a DFS search
+     * @param depth Depth of startVertex in the DFS, which selects its cursor
      * @param vertices List of vertices of the directed graph
      * @param visitedVertices Set of visited vertices
      * @param onStackVertices Set of vertices on the recursion stack
@@ -71,7 +130,7 @@ public class CycleDetection {
      * @param buf StringBuilder object to print the resulting cycles
      * @param graphView Graph visualization object
      */
-    private static void checkCycle(AdjacencyMapDigraph<String, Integer> digraph, Vertex<String> startVertex, LinkedList<Vertex<String>> vertices,
+    private static void checkCycle(DigraphSnapshot<String, Integer> digraph, Vertex<String> startVertex, int depth, LinkedList<Vertex<String>> vertices,
                                    Set<Vertex<String>> visitedVertices, Set<Vertex<String>> onStackVertices, Map<Vertex<String>, Vertex<String>> parentsOfVertices,
                                    LinkedList<Set<Vertex<String>>> foundCycles, StringBuilder buf, SmartGraphPanel<String, Integer> graphView)
     {
@@ -79,12 +138,14 @@ public class CycleDetection {
         visitedVertices.add(startVertex);
         onStackVertices.add(startVertex);
 
-        for (Edge<Integer, String> edge : digraph.outgoingEdges(startVertex)) {
-            Vertex<String> vertex = digraph.opposite(startVertex, edge); //obtain the child of the vertex
+        push(view, cursors, depth, startVertex.id());
+        IntDigraph.NeighborCursor neighbors = cursors[depth];
+        while (neighbors.advance()) { //trusted traversal, without validating the vertex and each edge
+            Vertex<String> vertex = digraph.vertex(neighbors.vertex()); //obtain the child of the vertex
 
             if(!visitedVertices.contains(vertex)) {
                 parentsOfVertices.put(vertex, startVertex); //store the tree edge connecting the vertex
-                checkCycle(digraph, vertex, vertices, visitedVertices, onStackVertices, parentsOfVertices, foundCycles, buf, graphView); //recursively perform DFS search
+                checkCycle(digraph, vertex, depth + 1, vertices, visitedVertices, onStackVertices, parentsOfVertices, foundCycles, buf, graphView); //recursively perform DFS search
             }
             else if (onStackVertices.contains(vertex)) {
                 Vertex<String> vertexInCycle;
@@ -10,19 +10,27 @@ import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import graphvisualizer.containers.SmartGraphDemoContainer;
 import graphvisualizer.graph.AdjacencyMapDigraph;
+import graphvisualizer.graph.MappedCSRDigraph;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 
 public class Main extends Application {
     private static int selectedVerticesCount = 0;
     private static Vertex<String> startVertex;
     private static Vertex<String> endVertex;
+    private static Path graphFile;  //binary graph file given on the command line, if any
 
     @Override
     public void start(Stage ignored) {
         final AdjacencyMapDigraph<String, Integer> defaultDigraph = new AdjacencyMapDigraph<>();
-        createDefaultDigraph(defaultDigraph);
+        List<String> parameters = getParameters().getRaw();
+        graphFile = parameters.isEmpty() ? null : Paths.get(parameters.get(0));
+        String loadStatus = createDefaultDigraph(defaultDigraph);
         SmartPlacementStrategy strategy = new SmartCircularSortedPlacementStrategy();
         SmartGraphPanel<String, Integer> graphView = new SmartGraphPanel<>(defaultDigraph, strategy);
         SmartGraphDemoContainer smartGraphDemoContainer = new SmartGraphDemoContainer(graphView);
@@ -43,7 +51,7 @@ public class Main extends Application {
 
         menu.getStatusBox().setText("[Graph Algorithms Visualization]\n1. Click the buttons above to start the graph algorithms.\n" +
                 "2. Double click to select the vertices and the edges.\n3. Click \"ADD VERTEX\" to add up to 5 additional vertices.\n" +
-                "4. Click \"RESET\" to reset the default graph.\n\n" + defaultDigraph);
+                "4. Click \"RESET\" to reset the default graph.\n\n" + loadStatus + defaultDigraph);
 
         graphView.setVertexDoubleClickAction(graphVertex -> {
             switch (selectedVerticesCount) {
@@ -123,11 +131,11 @@ public class Main extends Application {
         });
 
         menu.setResetButtonAction(event -> {
-            resetDefaultDigraph(defaultDigraph, graphView);
+            String resetStatus = resetDefaultDigraph(defaultDigraph, graphView);
             createAddedVertices(addedVertices);
             selectedVerticesCount = 0;
             startVertex = endVertex = null;
-            menu.getStatusBox().appendText("Graph has been reset.\n\n" + defaultDigraph);
+            menu.getStatusBox().appendText("Graph has been reset.\n\n" + resetStatus + defaultDigraph);
         });
     }
 
@@ -135,7 +143,23 @@ public class Main extends Application {
         launch(args);
     }
 
-    private void createDefaultDigraph(Graph<String, Integer> defaultDigraph) {
+    /*
+    The default graph is read from the graph file if one was given, and is otherwise built by hand.
+    The file is copied into the displayed graph, which the algorithms mutate and the view draws, so
+    only the parsing is skipped here; read-only runs can use the mapped graph as an IntDigraph.
+    Return a line for the status box if the file could not be read.
+     */
+    private String createDefaultDigraph(Graph<String, Integer> defaultDigraph) {
+        String status = "";
+        if (graphFile != null) {
+            try {
+                MappedCSRDigraph.open(graphFile).copyTo(defaultDigraph);
+                return "";
+            } catch (IOException e) {
+                ((AdjacencyMapDigraph<String, Integer>) defaultDigraph).clear();
+                status = "Cannot read " + graphFile + " (" + e.getMessage() + "), the default graph is used instead.\n\n";
+            }
+        }
         defaultDigraph.insertVertex("AU");
         defaultDigraph.insertVertex("BE");
         defaultDigraph.insertVertex("DK");
@@ -146,21 +170,22 @@ public class Main extends Application {
         defaultDigraph.insertEdge("DK", "BE", 1);
         defaultDigraph.insertEdge("DK", "EG", 4);
         defaultDigraph.insertEdge("HK", "BE", 9);
+        return status;
     }
 
-    private void resetDefaultDigraph(Graph<String, Integer> defaultDigraph, SmartGraphPanel<String, Integer> graphView) {
-        ((AdjacencyMapDigraph<String, Integer>) defaultDigraph).clear();
-        graphView.getStylableVertex(defaultDigraph.insertVertex("AU")).setStyleClass("vertex");
-        graphView.getStylableVertex(defaultDigraph.insertVertex("BE")).setStyleClass("vertex");
-        graphView.getStylableVertex(defaultDigraph.insertVertex("DK")).setStyleClass("vertex");
-        graphView.getStylableVertex(defaultDigraph.insertVertex("EG")).setStyleClass("vertex");
-        graphView.getStylableVertex(defaultDigraph.insertVertex("HK")).setStyleClass("vertex");
-        defaultDigraph.insertEdge("AU", "HK", 6);
-        defaultDigraph.insertEdge("AU", "EG", 12);
-        defaultDigraph.insertEdge("DK", "BE", 1);
-        defaultDigraph.insertEdge("DK", "EG", 4);
-        defaultDigraph.insertEdge("HK", "BE", 9);
+    /* the graph is cleared and rebuilt in one batch, so other threads and the subscribers never see it half built */
+    private String resetDefaultDigraph(AdjacencyMapDigraph<String, Integer> defaultDigraph, SmartGraphPanel<String, Integer> graphView) {
+        String[] status = new String[1];
+        defaultDigraph.batch(graph -> {
+            graph.clear();
+            status[0] = createDefaultDigraph(graph);
+        });
+        for (Vertex<String> vertex : defaultDigraph.vertices()) { //vertices already displayed keep their node
+            SmartStylableNode node = graphView.getStylableVertex(vertex);
+            if (node != null) node.setStyleClass("vertex");
+        }
         graphView.update();
+        return status[0];
     }
 
     private void createAddedVertices(Queue<String> addVertices) {
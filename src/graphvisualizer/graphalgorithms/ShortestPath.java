@@ -4,6 +4,7 @@ import graphvisualizer.graph.Edge;
 import graphvisualizer.graph.*;
 import graphvisualizer.graphview.SmartGraphPanel;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * A shortest path algorithm which implements Dijkstra’s algorithm
@@ -12,6 +13,8 @@ import java.util.*;
  */
 
 public class ShortestPath {
+    public static final int BUCKET_QUEUE_MAX_WEIGHT = 1 << 10;     //above it, the radix heap scans fewer buckets
+
     /**
      * Construct a visualization of shortest path algorithm in a directed graph which is
      * either strongly connected not strongly connected referenced by <code>digraph</code>.
@@ -27,17 +30,40 @@ public class ShortestPath {
 
     public static String start(AdjacencyMapDigraph<String, Integer> digraph, SmartGraphPanel<String, Integer> graphView,
                                Vertex<String> startVertex, Vertex<String> endVertex) {
+        return start(digraph, graphView, startVertex, endVertex, HeapAdaptablePriorityQueue::new, false);
+    }
+
+    /**
+     * Construct the same visualization as <code>start(AdjacencyMapDigraph, SmartGraphPanel, Vertex<String>, Vertex<String>)</code>
+     * with the priority queue of Dijkstra’s algorithm chosen by the caller, e.g. a {@link PairingHeap}, whose
+     * key decreases take O(1) and pay off on dense graphs. In lazy mode, a vertex is only queued and given a
+     * distance once it is reached from the starting vertex, so each run costs O(reachable) rather than O(V),
+     * which pays off while few vertices are reachable, e.g. during the first runs on a sparse graph.
+     *
+     * @param digraph Directed graph
+     * @param graphView Graph visualization object
+     * @param startVertex Starting vertex of the shortest path algorithm
+     * @param endVertex Ending vertex of the shortest path algorithm
+     * @param heaps Factory of the empty priority queue used by each run of the algorithm
+     * @param lazy Whether vertices are only queued once reached, instead of all at first with an infinite distance
+     * @return The weight count from the starting vertex to ending vertex of the Dijkstra’s algorithm
+     */
+
+    public static String start(AdjacencyMapDigraph<String, Integer> digraph, SmartGraphPanel<String, Integer> graphView,
+                               Vertex<String> startVertex, Vertex<String> endVertex,
+                               Supplier<? extends AdaptablePriorityQueue<Integer, Vertex<String>>> heaps, boolean lazy) {
         LinkedHashMap<Vertex<String>, Integer> d = new LinkedHashMap<>();
         int[] weight = {1};
         StringBuilder sb = new StringBuilder();
+        DigraphSnapshot<String, Integer> snapshot;    //the version of the graph the path is computed on
 
         //Generate random edges between random vertices until the path exists
-        while (!dijkstra(digraph, startVertex, endVertex, d, weight)) {
+        while (!dijkstra(snapshot = digraph.snapshot(), startVertex, endVertex, d, weight, heaps, lazy)) {
             //generate a random edge
             sb.append(digraph.generateRandomEdge(new Random().nextInt(20) + 1));
         }
 
-        return sb.append("\n[Shortest Path]\n\n").append(generatePath(digraph, startVertex, endVertex, d, graphView)).append("\nWeight count from ").
+        return sb.append("\n[Shortest Path]\n\n").append(generatePath(snapshot, startVertex, endVertex, d, graphView)).append("\nWeight count from ").
                 append(startVertex).append(" to ").append(endVertex).append(" is ").append(weight[0]).append(".\n").toString();
     }
 
@@ -48,58 +74,148 @@ public class ShortestPath {
      * exists between the starting and ending vertices and return boolean value.
      * This should be called repeatedly by <code>start(AdjacencyMapDigraph, SmartGraphPanel, Vertex<String>, Vertex<String>)</code>.
      *
-     * @param digraph Directed graph
+     * @param digraph Snapshot of the directed graph
      * @param startVertex Starting vertex of the shortest path algorithm
      * @param endVertex Ending vertex of the shortest path algorithm
-     * @param d Map to store the distance/weight of each vertex from the starting vertex
+     * @param d Map to store the distance/weight of each vertex from the starting vertex, only reached vertices in lazy mode
      * @param weight The weight count of the shortest path
+     * @param heaps Factory of the empty priority queue
+     * @param lazy Whether vertices are only queued once reached
      */
 
-    private static boolean dijkstra(AdjacencyMapDigraph<String, Integer> digraph, Vertex<String> startVertex, Vertex<String> endVertex,
-                                    LinkedHashMap <Vertex<String>, Integer> d, int[] weight) {
+    private static boolean dijkstra(DigraphSnapshot<String, Integer> digraph, Vertex<String> startVertex, Vertex<String> endVertex,
+                                    LinkedHashMap <Vertex<String>, Integer> d, int[] weight,
+                                    Supplier<? extends AdaptablePriorityQueue<Integer, Vertex<String>>> heaps, boolean lazy) {
 
-        Map<Vertex<String>, Integer> cloud = new LinkedHashMap<>();
-        HeapAdaptablePriorityQueue<Integer, Vertex<String>> pq = new HeapAdaptablePriorityQueue<>();
-        Map<Vertex<String>, Entry<Integer, Vertex<String>>> pqTokens = new LinkedHashMap<>();
+        Map<Vertex<String>, Integer> cloud = new HashMap<>();
+        AdaptablePriorityQueue<Integer, Vertex<String>> pq = heaps.get();
+        Map<Vertex<String>, Entry<Integer, Vertex<String>>> pqTokens = new HashMap<>();
+        IntDigraph.NeighborCursor neighbors = digraph.asIntDigraph(Integer::intValue).outCursor();
 
-        //for each vertex of the graph, add an entry to the priority queue with the source having distance 0 and all others having infinite distance
-        for (Vertex<String> v : digraph.vertices()) {
-            if (v.equals(startVertex)) {
-                d.put(v, 0);
-            } else {
-                d.put(v, Integer.MAX_VALUE);
-            }
-            //save the entry for future updates
-            pqTokens.put(v, pq.insert(d.get(v), v));
+        d.clear();      //drop the distances of the previous run
+        if (lazy) {
+            //only the source is queued, the other vertices are queued when first reached
+            d.put(startVertex, 0);
+            pqTokens.put(startVertex, pq.insert(0, startVertex));
+        } else {
+            seedAll(digraph, startVertex, d, pq, pqTokens);
         }
 
         //Add all the reachable vertices to the Map cloud
         while (!pq.isEmpty()) {
             Entry<Integer, Vertex<String>> entry = pq.removeMin();
             int key = entry.getKey();
+            if (key == Integer.MAX_VALUE) break;   //the remaining vertices are unreachable
             Vertex<String> u = entry.getValue();
             cloud.put(u, key);      //the actual distance to u
             pqTokens.remove(u);     //remove u from pq
 
-            for (Edge<Integer, String> edge : digraph.outgoingEdges(u)) {
-                Vertex<String> v = digraph.opposite(u, edge);
+            neighbors.reset(u.id());
+            while (neighbors.advance()) {       //trusted traversal, without validating u and each edge
+                Vertex<String> v = digraph.vertex(neighbors.vertex());
 
                 if (cloud.get(v) == null) {
                     //perform the relaxation step on edge (u,v)
-                    int wgt = edge.element();
-                    if ((d.get(u) + wgt) < d.get(v)) {              //check if there is any better/shorter path to v
-                        d.put(v, (d.get(u) + wgt));                 //update the distance in Map d
-                        pq.replaceKey(pqTokens.get(v), d.get(v));   //update the pq entry
+                    int distance = key + neighbors.weight();
+                    Integer current = d.get(v);
+                    if (current == null) {                          //first path to v, in lazy mode
+                        d.put(v, distance);
+                        pqTokens.put(v, pq.insert(distance, v));
+                    } else if (distance < current) {                //check if there is any better/shorter path to v
+                        d.put(v, distance);                         //update the distance in Map d
+                        pq.replaceKey(pqTokens.get(v), distance);   //update the pq entry
                     }
                 }
             }
         }
-        weight[0] = cloud.get(endVertex);                           //Store the weight of shortest path in array weight
+        Integer distance = cloud.get(endVertex);
+        weight[0] = distance == null ? Integer.MAX_VALUE : distance;   //Store the weight of shortest path in array weight
 
         //check if there is any path can be reach by starting vertex to ending vertex and return a boolean value
-        if (cloud.get(endVertex) >= Integer.MAX_VALUE) {
-            return false;
-        } else return Integer.signum(cloud.get(endVertex)) != -1;
+        return distance != null;
+    }
+
+    /* queue every vertex, the source with distance 0 and all others with an infinite distance */
+    private static void seedAll(DigraphSnapshot<String, Integer> digraph, Vertex<String> startVertex, Map<Vertex<String>, Integer> d,
+                                AdaptablePriorityQueue<Integer, Vertex<String>> pq, Map<Vertex<String>, Entry<Integer, Vertex<String>>> pqTokens) {
+        List<Vertex<String>> vertices = new ArrayList<>(digraph.vertices());
+        List<Integer> keys = new ArrayList<>(vertices.size());
+        for (Vertex<String> v : vertices) {
+            if (v.equals(startVertex)) {
+                d.put(v, 0);
+            } else {
+                d.put(v, Integer.MAX_VALUE);
+            }
+            keys.add(d.get(v));
+        }
+        //insert them at once, the heap is built bottom-up, and save the entries for future updates
+        List<Entry<Integer, Vertex<String>>> entries = pq.insertAll(keys, vertices);
+        for (int i = 0; i < vertices.size(); i++) {
+            pqTokens.put(vertices.get(i), entries.get(i));
+        }
+    }
+
+    /**
+     * An implementation of Dijkstra’s algorithm over the {@link IntDigraph} traversal surface, e.g. an
+     * immutable {@link CSRDigraph} snapshot. The relaxation loop reads neighbour ids and weights from a
+     * reused cursor and queues vertex ids in an {@link IndexedDaryHeap}, where a vertex id is its own
+     * handle, so the loop allocates nothing: no edge objects, entries, validation or boxing are
+     * involved. Vertices are only added to the priority queue once they are reached from the starting
+     * vertex.
+     *
+     * @param digraph Directed graph that is not mutated during the run
+     * @param source Id of the starting vertex
+     * @return The distance of each vertex from the starting vertex, or <code>Integer.MAX_VALUE</code> if it is unreachable
+     */
+    public static int[] distances(IntDigraph digraph, int source) {
+        return distances(digraph, source, new IndexedDaryHeap(digraph.vertexIdBound()));
+    }
+
+    /**
+     * Dijkstra’s algorithm for graphs whose weights are integers between 0 and a known
+     * <code>maxWeight</code>, e.g. the weights from 1 to 20 drawn by the demo. Such weights allow a
+     * monotone queue that never compares keys: a {@link BucketQueue} (Dial’s algorithm, O(E + V·C))
+     * for weights up to {@link #BUCKET_QUEUE_MAX_WEIGHT}, and a {@link RadixHeap} (O(E + V·log C))
+     * for larger ones.
+     *
+     * @param digraph Directed graph that is not mutated during the run
+     * @param source Id of the starting vertex
+     * @param maxWeight Upper bound of the edge weights
+     * @return The distance of each vertex from the starting vertex, or <code>Integer.MAX_VALUE</code> if it is unreachable
+     * @throws IllegalArgumentException if an edge weight is negative, or above <code>maxWeight</code> with a bucket queue
+     */
+    public static int[] distances(IntDigraph digraph, int source, int maxWeight) {
+        if (maxWeight < 0) throw new IllegalArgumentException("The weights must not be negative.");
+        int n = digraph.vertexIdBound();
+        IndexedPriorityQueue pq = maxWeight <= BUCKET_QUEUE_MAX_WEIGHT ? new BucketQueue(n, maxWeight) : new RadixHeap(n);
+        return distances(digraph, source, pq);
+    }
+
+    private static int[] distances(IntDigraph digraph, int source, IndexedPriorityQueue pq) {
+        int n = digraph.vertexIdBound();
+        int[] d = new int[n];
+        boolean[] cloud = new boolean[n];
+        IntDigraph.NeighborCursor neighbors = digraph.outCursor();
+
+        Arrays.fill(d, Integer.MAX_VALUE);
+        d[source] = 0;
+        pq.insert(source, 0);
+
+        while (!pq.isEmpty()) {
+            int u = pq.removeMinId();
+            cloud[u] = true;
+
+            neighbors.reset(u);
+            while (neighbors.advance()) {
+                int v = neighbors.vertex();
+
+                if (!cloud[v] && d[u] + neighbors.weight() < d[v]) {     //relaxation step on edge (u,v)
+                    d[v] = d[u] + neighbors.weight();
+                    pq.insertOrDecreaseKey(v, d[v]);                    //queue v or update its key
+                }
+            }
+        }
+        return d;
     }
 
     /**
@@ -109,14 +225,14 @@ public class ShortestPath {
      * vertices on the path from starting vertex to ending vertex. This should be called repeatedly by
      * <code>start(AdjacencyMapDigraph, SmartGraphPanel, Vertex<String>, Vertex<String>)</code>.
      *
-     * @param digraph Directed graph
+     * @param digraph Snapshot of the directed graph
      * @param startVertex Starting vertex of the shortest path algorithm
      * @param endVertex Ending vertex of the shortest path algorithm
      * @param d Map to store the distance/weight of each vertex from the starting vertex
      * @param graphView  Graph visualization object
      */
 
-    private static String generatePath (AdjacencyMapDigraph<String, Integer> digraph, Vertex<String> startVertex, Vertex<String> endVertex,
+    private static String generatePath (Graph<String, Integer> digraph, Vertex<String> startVertex, Vertex<String> endVertex,
                                         LinkedHashMap<Vertex<String>, Integer> d, SmartGraphPanel<String, Integer> graphView) {
         Map<Vertex<String>, Edge<Integer, String>> tree = new LinkedHashMap<>();
         Map<Vertex<String>, Vertex<String>> parentsOfVertices = new HashMap<>();
@@ -127,7 +243,8 @@ public class ShortestPath {
                 for (Edge<Integer, String> edge : digraph.incomingEdges(vertex)) {  //consider the incoming edges
                     Vertex<String> u = digraph.opposite(vertex, edge);
                     int wgt = edge.element();
-                    if (d.get(vertex) == d.get(u) + wgt) {
+                    Integer du = d.get(u);                  //null if u was not reached, in lazy mode
+                    if (du != null && d.get(vertex) == du + wgt) {
                         tree.put(vertex, edge);             //The vertices and edges are stored
                         parentsOfVertices.put(vertex, u);   //The parents of vertices are stored
                     }
@@ -1,7 +1,9 @@
 package graphvisualizer.graphalgorithms;
 
 import graphvisualizer.graph.AdjacencyMapDigraph;
-import graphvisualizer.graph.Edge;
+import graphvisualizer.graph.CSRDigraph;
+import graphvisualizer.graph.DigraphSnapshot;
+import graphvisualizer.graph.IntDigraph;
 import graphvisualizer.graph.Vertex;
 import graphvisualizer.graphview.SmartGraphPanel;
 import java.util.*;
@@ -10,14 +12,13 @@ import static java.lang.Integer.min;
 
 /**
  * This class is used to determine the strong connectivity of a directed graph.
- * This method {@link #checkStronglyConnected(AdjacencyMapDigraph, Vertex, SmartGraphPanel)} implements DFS
+ * This method {@link #checkStronglyConnected(DigraphSnapshot, Vertex, int, SmartGraphPanel)} implements DFS
  * to determine strong connectivity.
  * New edges are generated when the graph is not strongly connected until it is strongly connected.
  */
 public class StrongConnectivity {
     private static final int UNVISITED = -1;
 
-    private static HashMap<Vertex<String>,Integer> ref ;
     private static LinkedList<Vertex<String>> verticesList;
     private static StringBuilder sb;
     private static Deque<Integer> stack;
@@ -25,32 +26,32 @@ public class StrongConnectivity {
     private static int sccCount;
     private static int[] ids, low;
     private static boolean[] onStack;
+    private static IntDigraph view;                         //trusted traversal of the snapshot of the current run
+    private static IntDigraph.NeighborCursor[] cursors;     //reused cursor of each depth of the DFS
 
     /**
      * Generate a visualization for the DFS algorithm for a directed graph.
-     * This method calls the DFS algorithm {@link #checkStronglyConnected(AdjacencyMapDigraph, Vertex, SmartGraphPanel)}
+     * This method calls the DFS algorithm {@link #checkStronglyConnected(DigraphSnapshot, Vertex, int, SmartGraphPanel)}
      * to determine the connectivity.
      * This method will generate a new edge when the graph is not strongly connected.
      *
      * @param digraph Directed graph
      * @param graphView Graph visualization object
-     * @return description of edges that are newly added, result of the DFS algorithm {@link #checkStronglyConnected(AdjacencyMapDigraph, Vertex, SmartGraphPanel)}
+     * @return description of edges that are newly added, result of the DFS algorithm {@link #checkStronglyConnected(DigraphSnapshot, Vertex, int, SmartGraphPanel)}
      */
     public static String start(AdjacencyMapDigraph<String, Integer> digraph, SmartGraphPanel<String, Integer> graphView) {
-        ref = new HashMap<Vertex<String>,Integer>();
-        setRef(digraph, ref);
-
         boolean isStronglyConnected = false;
         Vertex<String> obj;
-        verticesList = new LinkedList<>(digraph.vertices());
         StringBuilder sb = new StringBuilder();
 
         while(!isStronglyConnected) {
-            init(digraph);
+            DigraphSnapshot<String, Integer> snapshot = digraph.snapshot(); //traverse a version that is not affected by concurrent mutations
+            init(snapshot);
+            verticesList = new LinkedList<>(snapshot.vertices());  //the vertices of the traversed version only
             while (!verticesList.isEmpty()){
                 obj = verticesList.remove();
-                if (ids[ref.get(obj)]==UNVISITED){
-                    checkStronglyConnected(digraph,obj, graphView);
+                if (ids[obj.id()]==UNVISITED){
+                    checkStronglyConnected(snapshot, obj, 0, graphView);
                 }
             }
 
@@ -62,7 +63,6 @@ public class StrongConnectivity {
             }
             else {
                 sb.append(digraph.generateRandomEdge(new Random().nextInt(20) + 1));
-                verticesList.addAll(digraph.vertices());
             }
         }
         return sb.append(digraph).toString();
@@ -72,12 +72,13 @@ public class StrongConnectivity {
      * This method is a DFS algorithm used to determine strong connectivity of a directed graph.
      * This method is repeatedly called by {@link #start(AdjacencyMapDigraph, SmartGraphPanel)}
      *
-     * @param digraph Directed graph
+     * @param digraph Snapshot of the directed graph
      * @param startVertex The starting vertex that will be used for DFS
+     * @param depth Depth of startVertex in the DFS, which selects its cursor
      * @param graphView Graph visualization object
      */
-    private static void checkStronglyConnected(AdjacencyMapDigraph<String, Integer> digraph, Vertex<String> startVertex, SmartGraphPanel<String, Integer> graphView) {
-        int at = ref.get(startVertex);
+    private static void checkStronglyConnected(DigraphSnapshot<String, Integer> digraph, Vertex<String> startVertex, int depth, SmartGraphPanel<String, Integer> graphView) {
+        int at = startVertex.id();
 
         stack.push(at);
         onStack[at] = true;
@@ -86,13 +87,15 @@ public class StrongConnectivity {
         graphView.getStylableVertex(startVertex).setStyleClass("highlightedVertex");
         graphView.update();
 
-        for (Edge<Integer, String> edge : digraph.outgoingEdges(startVertex)) {
-            Vertex<String> vertex = digraph.opposite(startVertex, edge);
+        push(view, cursors, depth, at);
+        IntDigraph.NeighborCursor neighbors = cursors[depth];
+        while (neighbors.advance()) {   //trusted traversal, without validating the vertex and each edge
+            int to = neighbors.vertex();
 
-            if (ids[ref.get(vertex)]==UNVISITED)
-                checkStronglyConnected(digraph, vertex, graphView);
+            if (ids[to]==UNVISITED)
+                checkStronglyConnected(digraph, digraph.vertex(to), depth + 1, graphView);
 
-            if (onStack[ref.get(vertex)]) low[at] = min(low[at], low[ref.get(vertex)]);
+            if (onStack[to]) low[at] = min(low[at], low[to]);
         }
 
         if (ids[at]==low[at]){
@@ -106,30 +109,97 @@ public class StrongConnectivity {
     }
 
     /**
-     * This method is used to initialize the hashmap named 'ref'.
-     * The hashmap is used as a index reference of the vertex when accessing to arrays.
+     * Tarjan's algorithm over the {@link IntDigraph} traversal surface, e.g. an immutable {@link CSRDigraph}
+     * snapshot. The DFS is run iteratively with an explicit call stack and one reused cursor per depth
+     * of the stack, so deep graphs do not overflow the Java stack.
      *
-     * @param digraph Directed graph
-     * @param ref A hashmap that stores the vertex as key and Integer as value.
+     * @param digraph Directed graph that is not mutated during the run
+     * @return The index of the strongly connected component of each vertex id, or -1 for ids without a vertex
      */
-    public static void setRef(AdjacencyMapDigraph<String, Integer> digraph, HashMap<Vertex<String>, Integer> ref) {
-        verticesList = new LinkedList<>(digraph.vertices());
-        int count=0;
+    public static int[] componentIds(IntDigraph digraph) {
+        int n = digraph.vertexIdBound();
+        int[] ids = new int[n], low = new int[n], component = new int[n];
+        int[] callStack = new int[n], sccStack = new int[n];
+        boolean[] onStack = new boolean[n];
+        IntDigraph.NeighborCursor[] cursors = new IntDigraph.NeighborCursor[n];
+        int id = 0, sccCount = 0, callTop = 0, sccTop = 0;
+        Arrays.fill(ids, UNVISITED);
+        Arrays.fill(component, UNVISITED);
+
+        for (int s = 0; s < n; s++) {
+            if (ids[s] != UNVISITED || !digraph.containsVertex(s)) continue;
+
+            ids[s] = low[s] = id++;
+            sccStack[sccTop++] = s;
+            onStack[s] = true;
+            push(digraph, cursors, callTop, s);
+            callStack[callTop++] = s;
+
+            while (callTop > 0) {
+                int at = callStack[callTop - 1];
+
+                if (cursors[callTop - 1].advance()) {
+                    int to = cursors[callTop - 1].vertex();
+                    if (ids[to] == UNVISITED) {     //descend into the child
+                        ids[to] = low[to] = id++;
+                        sccStack[sccTop++] = to;
+                        onStack[to] = true;
+                        push(digraph, cursors, callTop, to);
+                        callStack[callTop++] = to;
+                    }
+                    else if (onStack[to]) low[at] = min(low[at], ids[to]);
+                }
+                else {                              //all children are visited, return to the parent
+                    --callTop;
+                    if (ids[at] == low[at]) {
+                        for (int node = sccStack[--sccTop]; ; node = sccStack[--sccTop]) {
+                            onStack[node] = false;
+                            component[node] = sccCount;
+                            if (node == at) break;
+                        }
+                        sccCount++;
+                    }
+                    if (callTop > 0) {
+                        int parent = callStack[callTop - 1];
+                        low[parent] = min(low[parent], low[at]);
+                    }
+                }
+            }
+        }
+        return component;
+    }
 
-        while (!verticesList.isEmpty()){
-            ref.put(verticesList.remove(),count);
-            count++;
+    /**
+     * Determine whether a directed graph is strongly connected through the {@link IntDigraph} traversal surface.
+     *
+     * @param digraph Directed graph that is not mutated during the run
+     * @return true if every vertex belongs to a single strongly connected component
+     */
+    public static boolean isStronglyConnected(IntDigraph digraph) {
+        for (int component : componentIds(digraph)) {
+            if (component > 0) return false;
         }
+        return true;
+    }
+
+    /* position the cursor of the given depth of the DFS stack on vertex, creating it on first use */
+    private static void push(IntDigraph digraph, IntDigraph.NeighborCursor[] cursors, int depth, int vertex) {
+        if (cursors[depth] == null) cursors[depth] = digraph.outCursor();
+        cursors[depth].reset(vertex);
     }
 
     /**
-     * Initialize the members of the class before {@link #checkStronglyConnected(AdjacencyMapDigraph, Vertex, SmartGraphPanel)} is executed.
-     * The members can be found declared as global variables of this class.
+     * Initialize the members of the class before {@link #checkStronglyConnected(DigraphSnapshot, Vertex, int, SmartGraphPanel)} is executed.
+     * The members can be found declared as global variables of this class. The arrays are
+     * indexed by the dense id of each vertex, see {@link Vertex#id()}.
      *
      * @param digraph Directed graph
      */
-    private static void init(AdjacencyMapDigraph<String, Integer> digraph){
-        int graphSize = digraph.numVertices();
+    private static void init(DigraphSnapshot<String, Integer> digraph){
+        int graphSize = digraph.vertexIdBound();
+
+        view = digraph.asIntDigraph(Integer::intValue);
+        cursors = new IntDigraph.NeighborCursor[graphSize];
 
         id = 0;
         ids = new int[graphSize];
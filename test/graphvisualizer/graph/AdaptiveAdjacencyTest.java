@@ -0,0 +1,91 @@
+package graphvisualizer.graph;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveAdjacencyTest {
+
+    /* assert that adjacency holds the entries of expected in the same order */
+    private static void assertEntries(LinkedHashMap<Integer, String> expected, AdaptiveAdjacency<Integer, String> adjacency) {
+        assertEquals(expected.size(), adjacency.size());
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(adjacency.values()));
+        if (adjacency.isInline()) {
+            List<Integer> keys = new ArrayList<>();
+            for (int i = 0; i < adjacency.size(); i++) {
+                keys.add(adjacency.keyAt(i));
+                assertEquals(expected.get(adjacency.keyAt(i)), adjacency.valueAt(i));
+            }
+            assertEquals(new ArrayList<>(expected.keySet()), keys);
+        }
+    }
+
+    @Test
+    public void matchesLinkedHashMap() {
+        SplittableRandom random = new SplittableRandom(1);
+        LinkedHashMap<Integer, String> expected = new LinkedHashMap<>();
+        AdaptiveAdjacency<Integer, String> adjacency = new AdaptiveAdjacency<>();
+        boolean inflated = false, deflated = false;
+        for (int step = 0; step < 20000; step++) {
+            int key = random.nextInt(24);
+            if (random.nextInt(step / 2000 % 2 == 0 ? 3 : 2) == 0) {    //phases that grow and shrink the degree
+                assertEquals(expected.remove(key), adjacency.remove(key));
+            }
+            else {
+                String value = "e" + step;
+                assertEquals(expected.put(key, value), adjacency.put(key, value));
+            }
+            assertEquals(expected.containsKey(key), adjacency.containsKey(key));
+            assertEquals(expected.get(key), adjacency.get(key));
+            if (adjacency.size() > AdaptiveAdjacency.THRESHOLD) {
+                assertFalse(adjacency.isInline());
+                inflated = true;
+            }
+            if (adjacency.size() <= AdaptiveAdjacency.THRESHOLD / 2) {
+                assertTrue(adjacency.isInline());
+                deflated |= inflated;
+            }
+            assertEntries(expected, adjacency);
+        }
+        assertTrue(inflated && deflated);
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        for (int size : new int[]{0, 3, AdaptiveAdjacency.THRESHOLD, 3 * AdaptiveAdjacency.THRESHOLD}) {
+            LinkedHashMap<Integer, String> expected = new LinkedHashMap<>();
+            AdaptiveAdjacency<Integer, String> adjacency = new AdaptiveAdjacency<>();
+            for (int i = 0; i < size; i++) {
+                expected.put(i, "e" + i);
+                adjacency.put(i, "e" + i);
+            }
+            AdaptiveAdjacency<Integer, String> copy = new AdaptiveAdjacency<>(adjacency);
+            adjacency.put(-1, "new");
+            adjacency.remove(0);
+            assertEntries(expected, copy);
+        }
+    }
+
+    @Test
+    public void ensureCapacityKeepsTheEntries() {
+        LinkedHashMap<Integer, String> expected = new LinkedHashMap<>();
+        AdaptiveAdjacency<Integer, String> adjacency = new AdaptiveAdjacency<>();
+        for (int i = 0; i < 5; i++) {
+            expected.put(i, "e" + i);
+            adjacency.put(i, "e" + i);
+        }
+        adjacency.ensureCapacity(2);
+        assertTrue(adjacency.isInline());
+        assertEntries(expected, adjacency);
+        adjacency.ensureCapacity(100);
+        assertFalse(adjacency.isInline());
+        assertEntries(expected, adjacency);
+        adjacency.clear();
+        assertEquals(0, adjacency.size());
+        assertNull(adjacency.get(1));
+    }
+}
@@ -0,0 +1,204 @@
+package graphvisualizer.graph;
+
+import graphvisualizer.graph.AdaptiveDigraph.Metrics;
+import graphvisualizer.graph.AdaptiveDigraph.Representation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveDigraphTest {
+
+    /* insert the edges from every vertex u to u + k, modulo n, for each k in [from, to] */
+    private static void insertCirculant(Graph<String, Integer> graph, int n, int from, int to) {
+        List<String> sources = new ArrayList<>(), targets = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int k = from; k <= to; k++) {
+            for (int u = 0; u < n; u++) {
+                sources.add(String.valueOf(u));
+                targets.add(String.valueOf((u + k) % n));
+                weights.add(k * 1000 + u);
+            }
+        }
+        graph.insertEdges(sources, targets, weights);
+    }
+
+    private static void removeCirculant(Graph<String, Integer> graph, int n, int k) {
+        for (int u = 0; u < n; u++) {
+            graph.removeEdge(graph.getEdge(TestGraphs.vertex(graph, String.valueOf(u)),
+                    TestGraphs.vertex(graph, String.valueOf((u + k) % n))));
+        }
+    }
+
+    private static List<String> range(int from, int to) {
+        List<String> elements = new ArrayList<>();
+        for (int i = from; i < to; i++) elements.add(String.valueOf(i));
+        return elements;
+    }
+
+    @Test
+    public void behavesLikeTheAdjacencyMapInEveryRepresentation() {
+        AdjacencyMapDigraph<String, Integer> model = new AdjacencyMapDigraph<>();
+        AdaptiveDigraph<String> graph = new AdaptiveDigraph<>();
+        Set<Representation> seen = EnumSet.noneOf(Representation.class);
+
+        for (int round = 0; round < 12; round++) {
+            TestGraphs.mutate(round, 1500, 100, model, graph);
+            if (round % 3 == 1 && model.numVertices() >= AdaptiveDigraph.MATRIX_MIN_VERTICES) {
+                //densify the present vertices, so that the matrix is also exercised
+                List<String> present = TestGraphs.labels(model), sources = new ArrayList<>(), targets = new ArrayList<>();
+                List<Integer> weights = new ArrayList<>();
+                for (String a : present) {
+                    for (String b : present) {
+                        if (model.getEdge(TestGraphs.vertex(model, a), TestGraphs.vertex(model, b)) != null) continue;
+                        if ((a.hashCode() * 31 + b.hashCode()) % 3 != 0) continue;
+                        sources.add(a);
+                        targets.add(b);
+                        weights.add(a.length() + b.length());
+                    }
+                }
+                model.insertEdges(sources, targets, weights);
+                graph.insertEdges(sources, targets, weights);
+            }
+            seen.add(graph.representation());
+            TestGraphs.assertSameGraph(model, graph);
+            TestGraphs.assertConsistent(graph, graph);
+            seen.add(graph.representation());
+            assertEquals(model.numEdges(), graph.metrics().numEdges());
+        }
+        assertEquals(EnumSet.allOf(Representation.class), seen);
+    }
+
+    @Test
+    public void movesBetweenRepresentationsAsTheGraphChanges() {
+        int n = 100;
+        AdjacencyMapDigraph<String, Integer> model = new AdjacencyMapDigraph<>();
+        AdaptiveDigraph<String> graph = new AdaptiveDigraph<>();
+        model.insertVertices(range(0, n));
+        graph.insertVertices(range(0, n));
+        insertCirculant(model, n, 1, 1);
+        insertCirculant(graph, n, 1, 1);
+        assertEquals(Representation.MAP, graph.representation());
+        assertEquals(0, graph.metrics().migrations());
+        Edge<Integer, String> ring = graph.getEdge(graph.vertex(graph.vertexId("5")), graph.vertex(graph.vertexId("6")));
+
+        //a traversal costs as much as the copy, so the sparse graph is frozen
+        graph.outCursor();
+        assertEquals(Representation.CSR, graph.representation());
+        assertEquals(1, graph.metrics().migrations());
+        TestGraphs.assertSameGraph(model, graph);
+
+        //a write leaves the immutable CSR
+        insertCirculant(model, n, 2, 25);
+        insertCirculant(graph, n, 2, 25);
+        Metrics metrics = graph.metrics();
+        assertTrue(metrics.density() >= AdaptiveDigraph.DENSE);
+        assertEquals(Representation.MATRIX, metrics.representation());
+        assertEquals(3, metrics.migrations());
+        assertEquals(25, metrics.maxOutDegree());
+        assertEquals(25, metrics.maxInDegree());
+        TestGraphs.assertSameGraph(model, graph);
+        TestGraphs.assertConsistent(graph, graph);
+
+        //the matrix is kept between the two thresholds
+        for (int k = 25; k > 15; k--) {
+            removeCirculant(model, n, k);
+            removeCirculant(graph, n, k);
+        }
+        assertEquals(Representation.MATRIX, graph.representation());
+        assertTrue(graph.metrics().density() < AdaptiveDigraph.DENSE);
+
+        for (int k = 15; k > 12; k--) {
+            removeCirculant(model, n, k);
+            removeCirculant(graph, n, k);
+        }
+        assertTrue(graph.metrics().density() < AdaptiveDigraph.SPARSE);
+        assertEquals(Representation.MAP, graph.representation());
+        assertEquals(4, graph.metrics().migrations());
+        TestGraphs.assertSameGraph(model, graph);
+        TestGraphs.assertConsistent(graph, graph);
+
+        //handles and ids outlive every migration
+        assertEquals(Integer.valueOf(1005), ring.element());
+        assertEquals(5, graph.vertexId("5"));
+        assertEquals("5", graph.vertex(5).element());
+        graph.removeEdge(ring);
+        assertNull(ring.element());
+    }
+
+    @Test
+    public void leavesTheMatrixBeforeOutgrowingIt() {
+        int n = AdaptiveDigraph.MATRIX_MIN_VERTICES;
+        AdaptiveDigraph<String> graph = new AdaptiveDigraph<>();
+        graph.insertVertices(range(0, n));
+        insertCirculant(graph, n, 1, n / 2);
+        assertEquals(Representation.MATRIX, graph.representation());
+        Vertex<String> first = graph.vertex(0);
+
+        graph.insertVertices(range(n, AdaptiveDigraph.MATRIX_MAX_VERTICES + 1));
+        assertEquals(Representation.MAP, graph.representation());
+        assertEquals(AdaptiveDigraph.MATRIX_MAX_VERTICES + 1, graph.numVertices());
+        assertEquals(n * (n / 2), graph.numEdges());
+        assertSame(first, graph.vertex(graph.vertexId("0")));
+        assertEquals(n / 2, graph.outgoingEdges(first).size());
+    }
+
+    @Test
+    public void removedVerticesReleaseTheirIdsInEveryRepresentation() {
+        int n = 80;
+        AdaptiveDigraph<String> graph = new AdaptiveDigraph<>();
+        graph.insertVertices(range(0, n));
+        insertCirculant(graph, n, 1, 30);
+        assertEquals(Representation.MATRIX, graph.representation());
+
+        Vertex<String> removed = graph.vertex(graph.vertexId("7"));
+        graph.removeVertex(removed);
+        assertEquals(-1, graph.vertexId("7"));
+        assertEquals(n * 30 - 2 * 30, graph.numEdges());
+        assertFalse(graph.containsVertex(7));
+
+        Vertex<String> added = graph.insertVertex("new");
+        assertEquals(7, added.id());
+        assertEquals(0, graph.outDegree(7));
+        assertEquals(0, graph.inDegree(7));
+        try {
+            graph.outgoingEdges(removed);
+            fail("The removed vertex should be rejected.");
+        } catch (InvalidVertexException e) {
+            assertEquals(n, graph.numVertices());
+        }
+    }
+
+    @Test
+    public void clearReturnsToAnEmptyMap() {
+        AdaptiveDigraph<String> graph = new AdaptiveDigraph<>();
+        graph.insertVertices(range(0, 70));
+        insertCirculant(graph, 70, 1, 30);
+        assertEquals(Representation.MATRIX, graph.representation());
+
+        graph.clear();
+        assertEquals(Representation.MAP, graph.representation());
+        assertEquals(0, graph.numVertices());
+        assertEquals(0, graph.numEdges());
+        assertEquals(-1, graph.vertexId("0"));
+        assertEquals(0, graph.insertVertex("a").id());
+    }
+
+    @Test(expected = InvalidVertexException.class)
+    public void bulkInsertIsAtomic() {
+        AdaptiveDigraph<String> graph = new AdaptiveDigraph<>();
+        graph.insertVertices(range(0, 10));
+        try {
+            graph.insertEdges(range(0, 3), range(1, 4), Collections.nCopies(3, 1));
+            graph.insertEdges(range(3, 6), Arrays.asList("4", "5", "missing"), Collections.nCopies(3, 1));
+        } finally {
+            assertEquals(3, graph.numEdges());
+            assertNull(graph.getEdge(graph.vertex(3), graph.vertex(4)));
+        }
+    }
+}
@@ -0,0 +1,483 @@
+package graphvisualizer.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AdjacencyMapDigraphTest {
+
+    /* run the tasks on their own threads at once and rethrow the first failure */
+    static void runConcurrently(List<Runnable> tasks) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (Runnable task : tasks) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) throw new AssertionError(failure.get());
+    }
+
+    @Test
+    public void concurrentWritersAndReaders() throws InterruptedException {
+        AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+        int writers = 4, perWriter = 500;
+        CountDownLatch writing = new CountDownLatch(writers);
+        List<Runnable> tasks = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            String prefix = "w" + w + "-";
+            tasks.add(() -> {
+                try {
+                    graph.insertVertex(prefix + 0);
+                    for (int i = 1; i < perWriter; i++) {
+                        graph.insertVertex(prefix + i);
+                        graph.insertEdge(prefix + (i - 1), prefix + i, i);
+                        if (i % 10 == 0) graph.removeEdge(graph.getEdge(TestGraphs.vertex(graph, prefix + (i - 1)),
+                                TestGraphs.vertex(graph, prefix + i)));
+                    }
+                } finally {
+                    writing.countDown();
+                }
+            });
+        }
+        for (int r = 0; r < 2; r++) {
+            tasks.add(() -> {
+                while (writing.getCount() > 0) {
+                    Collection<Edge<Integer, String>> edges = graph.edges();
+                    for (Edge<Integer, String> e : edges) {
+                        assertEquals(Integer.parseInt(e.vertices()[1].element().split("-")[1]), (int) e.element());
+                    }
+                    for (Vertex<String> v : graph.vertices()) {
+                        assertTrue(graph.outgoingEdges(v).size() <= 1);
+                    }
+                }
+            });
+        }
+        runConcurrently(tasks);
+
+        assertEquals(writers * perWriter, graph.numVertices());
+        assertEquals(writers * (perWriter - 1 - (perWriter - 1) / 10), graph.numEdges());
+        TestGraphs.assertConsistent(graph, graph.asIntDigraph(Integer::intValue));
+    }
+
+    @Test
+    public void returnedCollectionsAreUnmodifiableCopies() {
+        AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(1, 20, 60);
+        Collection<Vertex<String>> vertices = graph.vertices();
+        Collection<Edge<Integer, String>> edges = graph.edges();
+        Vertex<String> v = TestGraphs.vertex(graph, "3");
+        Collection<Edge<Integer, String>> outgoing = graph.outgoingEdges(v);
+        int degree = outgoing.size();
+
+        graph.insertVertex("new");
+        graph.removeVertex(v);
+        assertEquals(20, vertices.size());
+        assertEquals(60, edges.size());
+        assertEquals(degree, outgoing.size());
+        try {
+            vertices.clear();
+            fail("The copy should be unmodifiable.");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void bulkInsertsMatchSingleInserts() {
+        EdgeList edges = new RandomGraphGenerator(4).gnm(500, 4000);
+        AdjacencyMapDigraph<String, Integer> single = new AdjacencyMapDigraph<>();
+        AdjacencyMapDigraph<String, Integer> bulk = new AdjacencyMapDigraph<>();
+        AdjacencyMapDigraph<String, Integer> trusted = new AdjacencyMapDigraph<>();
+        List<String> sources = new ArrayList<>(), targets = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String label : edges.labels()) {
+            single.insertVertex(label);
+        }
+        for (int i = 0; i < edges.numEdges(); i++) {
+            sources.add(edges.labels().get(edges.source(i)));
+            targets.add(edges.labels().get(edges.target(i)));
+            weights.add(edges.weight(i));
+            single.insertEdge(sources.get(i), targets.get(i), weights.get(i));
+        }
+        bulk.insertVertices(edges.labels());
+        bulk.insertEdges(sources, targets, weights);
+        trusted.insertVertices(edges.labels());
+        trusted.insertEdges(sources, targets, weights, true);
+
+        TestGraphs.assertSameGraph(single, bulk);
+        TestGraphs.assertSameGraph(single, trusted);
+        TestGraphs.assertConsistent(bulk, bulk.asIntDigraph(Integer::intValue));
+    }
+
+    @Test
+    public void failedBulkInsertLeavesTheGraphUnchanged() {
+        AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+        graph.insertVertices(Arrays.asList("a", "b", "c"));
+        graph.insertEdge("b", "c", 1);
+        List<String> edges = TestGraphs.edges(graph);
+        try {
+            graph.insertEdges(Arrays.asList("a", "a", "b"), Arrays.asList("b", "c", "c"), Arrays.asList(1, 2, 3));
+            fail("The edge from b to c exists.");
+        } catch (InvalidEdgeException expected) {
+        }
+        try {
+            graph.insertEdges(Arrays.asList("a", "c", "a"), Arrays.asList("c", "a", "c"), Arrays.asList(1, 2, 3));
+            fail("The batch inserts the edge from a to c twice.");
+        } catch (InvalidEdgeException expected) {
+        }
+        try {
+            graph.insertEdges(Arrays.asList("a", "x"), Arrays.asList("b", "a"), Arrays.asList(1, 2));
+            fail("There is no vertex x.");
+        } catch (InvalidVertexException expected) {
+        }
+        assertEquals(edges, TestGraphs.edges(graph));
+        TestGraphs.assertConsistent(graph, graph.asIntDigraph(Integer::intValue));
+
+        try {
+            graph.insertVertices(Arrays.asList("d", "e", "d"));
+            fail("The batch inserts d twice.");
+        } catch (InvalidVertexException expected) {
+        }
+        assertEquals(Arrays.asList("a", "b", "c"), TestGraphs.labels(graph));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bulkInsertRejectsListsOfDifferentSizes() {
+        AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+        graph.insertVertices(Arrays.asList("a", "b"));
+        graph.insertEdges(Arrays.asList("a"), Arrays.asList("b"), Arrays.asList(1, 2));
+    }
+
+    /* assert that the live vertices and edges have distinct ids below the bounds of graph, and that vertex(id) finds each vertex */
+    static void assertDenseIds(AdjacencyMapDigraph<String, Integer> graph) {
+        Set<Integer> ids = new HashSet<>();
+        for (Vertex<String> v : graph.vertices()) {
+            assertTrue(ids.add(v.id()));
+            assertTrue(v.id() < graph.vertexIdBound());
+            assertSame(v, graph.vertex(v.id()));
+        }
+        ids.clear();
+        for (Edge<Integer, String> e : graph.edges()) {
+            assertTrue(ids.add(e.id()));
+            assertTrue(e.id() < graph.edgeIdBound());
+        }
+    }
+
+    @Test
+    public void idsStayBelowThePeakCount() {
+        AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+        int peakVertices = 0, peakEdges = 0;
+        for (int step = 0; step < 3000; step++) {
+            TestGraphs.mutate(step, 1, 30, graph);
+            peakVertices = Math.max(peakVertices, graph.numVertices());
+            peakEdges = Math.max(peakEdges, graph.numEdges());
+            assertTrue(graph.vertexIdBound() <= peakVertices);
+            assertTrue(graph.edgeIdBound() <= peakEdges);
+        }
+        assertDenseIds(graph);
+    }
+
+    @Test
+    public void removedIdsAreRecycled() {
+        AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(5, 10, 30);
+        Vertex<String> v = TestGraphs.vertex(graph, "6");
+        graph.removeVertex(v);
+        try {
+            graph.vertex(v.id());
+            fail("The id is free.");
+        } catch (InvalidVertexException expected) {
+        }
+        assertEquals(v.id(), graph.insertVertex("new").id());
+        assertEquals(10, graph.vertexIdBound());
+        assertDenseIds(graph);
+    }
+
+    @Test
+    public void equalityFollowsElementsAndEndVertices() {
+        AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+        Vertex<String> a = graph.insertVertex(new String("a"));
+        Vertex<String> b = graph.insertVertex("b");
+        Edge<Integer, String> e = graph.insertEdge(a, b, 1);
+        graph.removeEdge(e);
+        Edge<Integer, String> again = graph.insertEdge(a, b, 2);
+
+        assertEquals(e, again);
+        assertEquals(e.hashCode(), again.hashCode());
+        assertNotEquals(again, graph.insertEdge(b, a, 2));
+        assertEquals("a".hashCode(), a.hashCode());
+        graph.removeVertex(a);
+        Vertex<String> other = graph.insertVertex("a");
+        assertEquals(a, other);
+        assertEquals(a.hashCode(), other.hashCode());
+    }
+
+    /* subscribe to the changes of graph and return the list their batches are added to */
+    private static List<List<GraphChange<String, Integer>>> record(AdjacencyMapDigraph<String, Integer> graph, CountDownLatch completed) {
+        List<List<GraphChange<String, Integer>>> items = Collections.synchronizedList(new ArrayList<>());
+        graph.changes().subscribe(new ChangeFlow.Subscriber<List<GraphChange<String, Integer>>>() {
+            @Override
+            public void onSubscribe(ChangeFlow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(List<GraphChange<String, Integer>> item) {
+                items.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+        return items;
+    }
+
+    @Test
+    public void failedBatchRestoresTheGraph() {
+        for (int round = 0; round < 10; round++) {
+            long seed = round;
+            AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(seed, 30, 120);
+            TestGraphs.mutate(seed, 200, 40, graph);
+            List<String> edges = TestGraphs.edges(graph);
+            Map<String, Vertex<String>> vertices = new HashMap<>();
+            for (Vertex<String> v : graph.vertices()) {
+                vertices.put(v.element(), v);
+            }
+            Map<String, Integer> edgeIds = new HashMap<>();
+            for (Edge<Integer, String> e : graph.edges()) {
+                edgeIds.put(e.vertices()[0].element() + ">" + e.vertices()[1].element(), e.id());
+            }
+            int vertexIdBound = graph.vertexIdBound(), edgeIdBound = graph.edgeIdBound();
+            boolean clear = round % 2 == 0;
+
+            try {
+                graph.batch(g -> {
+                    TestGraphs.mutate(seed + 100, 300, 40, g);
+                    if (clear) g.clear();
+                    g.batch(inner -> TestGraphs.mutate(seed + 200, 300, 40, inner));
+                    g.insertEdge("x", "y", 1);
+                });
+                fail("There are no vertices x and y.");
+            } catch (InvalidVertexException expected) {
+            }
+
+            assertEquals(edges, TestGraphs.edges(graph));
+            assertEquals(vertices.size(), graph.numVertices());
+            for (Vertex<String> v : graph.vertices()) {
+                assertSame(vertices.get(v.element()), v);
+                assertSame(v, graph.vertex(v.id()));
+            }
+            for (Edge<Integer, String> e : graph.edges()) {
+                assertEquals(edgeIds.get(e.vertices()[0].element() + ">" + e.vertices()[1].element()), Integer.valueOf(e.id()));
+            }
+            assertEquals(vertexIdBound, graph.vertexIdBound());
+            assertEquals(edgeIdBound, graph.edgeIdBound());
+            TestGraphs.assertConsistent(graph, graph.asIntDigraph(Integer::intValue));
+            TestGraphs.assertConsistent(graph.snapshot(), graph.snapshot().asIntDigraph(Integer::intValue));
+        }
+    }
+
+    @Test
+    public void batchesPublishOnceOrNothing() throws InterruptedException {
+        AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(1, 10, 20);
+        CountDownLatch completed = new CountDownLatch(1);
+        List<List<GraphChange<String, Integer>>> items = record(graph, completed);
+
+        try {
+            graph.batch(g -> {
+                g.insertVertex("a");
+                g.clear();
+                g.insertVertex("b");
+                throw new IllegalStateException("rolled back");
+            });
+            fail("The batch throws.");
+        } catch (IllegalStateException expected) {
+        }
+        graph.batch(g -> {
+            g.insertVertex("c");
+            try {
+                g.insertEdges(Arrays.asList("c", "c"), Arrays.asList("0", "0"), Arrays.asList(1, 2));
+            } catch (InvalidEdgeException ignored) {    //only the changes of the failed insert are dropped
+            }
+            g.insertEdge("c", "1", 3);
+        });
+        graph.changes().close();
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+
+        assertEquals(1, items.size());
+        assertEquals(2, items.get(0).size());
+        assertEquals(GraphChange.Type.VERTEX_INSERTED, items.get(0).get(0).type());
+        assertEquals("c", items.get(0).get(0).vertex().element());
+        assertEquals(GraphChange.Type.EDGE_INSERTED, items.get(0).get(1).type());
+        assertEquals(11, graph.numVertices());
+        assertEquals(21, graph.numEdges());
+    }
+
+    @Test
+    public void bulkRemovalsMatchSingleRemovals() {
+        for (long seed = 0; seed < 10; seed++) {
+            AdjacencyMapDigraph<String, Integer> single = TestGraphs.random(seed, 60, 400);
+            AdjacencyMapDigraph<String, Integer> bulk = TestGraphs.random(seed, 60, 400);
+            for (String label : new String[]{"3", "7", "11"}) {
+                single.insertEdge(label, label, 5);
+                bulk.insertEdge(label, label, 5);
+            }
+            List<Vertex<String>> removed = new ArrayList<>();
+            List<String> elements = new ArrayList<>();
+            for (int i = (int) seed; i < 60; i += 4) {
+                single.removeVertex(TestGraphs.vertex(single, String.valueOf(i)));
+                removed.add(TestGraphs.vertex(bulk, String.valueOf(i)));
+                elements.add(String.valueOf(i));
+            }
+            assertEquals(elements, bulk.removeVertices(removed));
+            TestGraphs.assertSameGraph(single, bulk);
+            TestGraphs.assertConsistent(bulk, bulk.asIntDigraph(Integer::intValue));
+
+            int expected = 0;
+            for (Edge<Integer, String> e : single.edges()) {
+                if (e.element() % 3 == 0) {
+                    single.removeEdge(e);
+                    expected++;
+                }
+            }
+            assertEquals(expected, bulk.removeEdgesIf(e -> e.element() % 3 == 0));
+            TestGraphs.assertSameGraph(single, bulk);
+        }
+    }
+
+    @Test
+    public void selfLoopIsRemovedWithItsVertex() {
+        AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+        graph.insertVertices(Arrays.asList("a", "b"));
+        graph.insertEdge("a", "a", 1);
+        graph.insertEdge("a", "b", 2);
+        graph.insertEdge("b", "a", 3);
+        assertEquals("a", graph.removeVertex(TestGraphs.vertex(graph, "a")));
+        assertEquals(0, graph.numEdges());
+        assertTrue(graph.incomingEdges(TestGraphs.vertex(graph, "b")).isEmpty());
+        assertTrue(graph.outgoingEdges(TestGraphs.vertex(graph, "b")).isEmpty());
+    }
+
+    @Test
+    public void invalidBulkRemovalLeavesTheGraphUnchanged() {
+        AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(3, 20, 80);
+        AdjacencyMapDigraph<String, Integer> other = TestGraphs.random(3, 20, 80);
+        List<String> edges = TestGraphs.edges(graph);
+        Vertex<String> v = TestGraphs.vertex(graph, "2");
+        for (List<Vertex<String>> invalid : Arrays.asList(Arrays.asList(TestGraphs.vertex(graph, "1"), v, v),
+                Arrays.asList(v, TestGraphs.vertex(other, "5")))) {
+            try {
+                graph.removeVertices(invalid);
+                fail("The vertices are invalid.");
+            } catch (InvalidVertexException expected) {
+            }
+            assertEquals(20, graph.numVertices());
+            assertEquals(edges, TestGraphs.edges(graph));
+        }
+        try {
+            graph.batch(g -> {
+                g.removeVertices(Arrays.asList(TestGraphs.vertex(g, "1"), TestGraphs.vertex(g, "2")));
+                g.removeEdgesIf(e -> true);
+                throw new IllegalStateException("rolled back");
+            });
+            fail("The batch throws.");
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(edges, TestGraphs.edges(graph));
+        TestGraphs.assertConsistent(graph, graph.asIntDigraph(Integer::intValue));
+    }
+
+    /* assert that the incoming edges of every vertex, read through the graph, its view and its snapshot, match the outgoing ones */
+    private static void assertIncomingEdges(AdjacencyMapDigraph<String, Integer> graph) {
+        TestGraphs.assertConsistent(graph, graph.asIntDigraph(Integer::intValue));
+        DigraphSnapshot<String, Integer> snapshot = graph.snapshot();
+        TestGraphs.assertConsistent(snapshot, snapshot.asIntDigraph(Integer::intValue));
+    }
+
+    @Test
+    public void incomingEdgeIndexModesAgree() {
+        for (long seed = 0; seed < 5; seed++) {
+            AdjacencyMapDigraph<String, Integer> always = new AdjacencyMapDigraph<>(AdjacencyMapDigraph.IncomingEdgeIndex.ALWAYS);
+            AdjacencyMapDigraph<String, Integer> never = new AdjacencyMapDigraph<>(AdjacencyMapDigraph.IncomingEdgeIndex.NEVER);
+            AdjacencyMapDigraph<String, Integer> lazy = new AdjacencyMapDigraph<>(AdjacencyMapDigraph.IncomingEdgeIndex.LAZY);
+            TestGraphs.mutate(seed, 1500, 40, always, never, lazy);
+            TestGraphs.assertSameGraph(always, never);
+            TestGraphs.assertSameGraph(always, lazy);
+            TestGraphs.assertSameAdjacency(always.asIntDigraph(Integer::intValue), never.asIntDigraph(Integer::intValue));
+            assertIncomingEdges(never);
+            assertIncomingEdges(lazy);     //builds the index
+
+            TestGraphs.mutate(seed + 100, 1500, 40, always, never, lazy);
+            TestGraphs.assertSameAdjacency(always.asIntDigraph(Integer::intValue), lazy.asIntDigraph(Integer::intValue));
+            assertIncomingEdges(never);
+            assertIncomingEdges(lazy);
+            assertEquals(AdjacencyMapDigraph.IncomingEdgeIndex.NEVER, never.incomingEdgeIndex());
+        }
+    }
+
+    @Test
+    public void bulkRemovalWithoutIncomingIndex() {
+        for (int count : new int[]{2, 40}) {      //scanning every vertex per removed one, or one pass over the edges
+            AdjacencyMapDigraph<String, Integer> always = TestGraphs.random(count, 100, 300);
+            AdjacencyMapDigraph<String, Integer> never = new AdjacencyMapDigraph<>(AdjacencyMapDigraph.IncomingEdgeIndex.NEVER);
+            new RandomGraphGenerator(count).gnm(100, 300).copyTo(never);
+            List<Vertex<String>> removedAlways = new ArrayList<>(), removedNever = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                removedAlways.add(TestGraphs.vertex(always, String.valueOf(2 * i)));
+                removedNever.add(TestGraphs.vertex(never, String.valueOf(2 * i)));
+            }
+            always.removeVertices(removedAlways);
+            never.removeVertices(removedNever);
+            TestGraphs.assertSameGraph(always, never);
+            assertIncomingEdges(never);
+        }
+    }
+
+    @Test
+    public void lazyIndexBuiltInAFailedBatch() {
+        AdjacencyMapDigraph<String, Integer> lazy = new AdjacencyMapDigraph<>(AdjacencyMapDigraph.IncomingEdgeIndex.LAZY);
+        new RandomGraphGenerator(4).gnm(30, 100).copyTo(lazy);
+        List<String> edges = TestGraphs.edges(lazy);
+        try {
+            lazy.batch(g -> {
+                g.removeVertex(TestGraphs.vertex(g, "3"));
+                g.clear();
+                g.insertVertex("x");
+                assertTrue(g.incomingEdges(TestGraphs.vertex(g, "x")).isEmpty());
+                throw new IllegalStateException("rolled back");
+            });
+            fail("The batch throws.");
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(edges, TestGraphs.edges(lazy));
+        assertIncomingEdges(lazy);
+    }
+}
@@ -0,0 +1,96 @@
+package graphvisualizer.graph;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BitMatrixDigraphTest {
+
+    /* return the ids reachable from source through at least one edge, by a breadth-first search over the Graph methods */
+    private static BitSet reachable(Graph<String, Integer> graph, Vertex<String> source) {
+        BitSet seen = new BitSet();
+        Deque<Vertex<String>> queue = new ArrayDeque<>();
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            for (Edge<Integer, String> e : graph.outgoingEdges(queue.poll())) {
+                Vertex<String> v = e.vertices()[1];
+                if (!seen.get(v.id())) {
+                    seen.set(v.id());
+                    queue.add(v);
+                }
+            }
+        }
+        return seen;
+    }
+
+    @Test
+    public void matchesAdjacencyMapDigraph() {
+        for (long seed = 0; seed < 5; seed++) {
+            AdjacencyMapDigraph<String, Integer> expected = new AdjacencyMapDigraph<>();
+            BitMatrixDigraph<String> graph = new BitMatrixDigraph<>();
+            TestGraphs.mutate(seed, 4000, 150, expected, graph);     //grows past several words per row
+
+            TestGraphs.assertSameGraph(expected, graph);
+            TestGraphs.assertConsistent(graph, graph);
+            for (Edge<Integer, String> e : graph.edges()) {
+                int u = e.vertices()[0].id(), v = e.vertices()[1].id();
+                assertTrue(graph.hasEdge(u, v));
+                assertEquals((int) e.element(), graph.weight(u, v));
+            }
+        }
+    }
+
+    @Test
+    public void wholeRowQueriesMatchBruteForce() {
+        for (long seed = 0; seed < 5; seed++) {
+            BitMatrixDigraph<String> graph = BitMatrixDigraph.copyOf(TestGraphs.random(seed, 90, 300 + 100 * (int) seed));
+            TestGraphs.mutate(seed, 300, 90, graph);
+            BitSet[] closure = graph.transitiveClosure();
+            long triangles = 0;
+            for (Vertex<String> u : graph.vertices()) {
+                BitSet expected = reachable(graph, u);
+                assertEquals(expected, closure[u.id()]);
+                expected.set(u.id());
+                assertEquals(expected, graph.reachableFrom(u));
+                for (Vertex<String> v : graph.vertices()) {
+                    for (Vertex<String> w : graph.vertices()) {
+                        if (u != v && v != w && w != u && graph.getEdge(u, v) != null && graph.getEdge(v, w) != null
+                                && graph.getEdge(w, u) != null) triangles++;
+                    }
+                }
+            }
+            for (int id = 0; id < graph.vertexIdBound(); id++) {
+                if (!graph.containsVertex(id)) assertNull(closure[id]);
+            }
+            assertEquals(triangles / 3, graph.countTriangles());
+        }
+    }
+
+    @Test
+    public void edgeHandlesSurviveGrowth() {
+        BitMatrixDigraph<String> graph = new BitMatrixDigraph<>(1);
+        graph.insertVertex("a");
+        graph.insertVertex("b");
+        Edge<Integer, String> e = graph.insertEdge("a", "b", 7);
+        for (int i = 0; i < 200; i++) {
+            graph.insertVertex("v" + i);
+        }
+        assertEquals(7, graph.weight(e));
+        assertEquals(7, graph.setWeight(e, 8));
+        assertEquals(Integer.valueOf(8), graph.removeEdge(e));
+        try {
+            graph.weight(e);
+            fail("The edge was removed.");
+        } catch (InvalidEdgeException expected) {
+        }
+        assertEquals(0, graph.numEdges());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsCapacityAboveTheMaximum() {
+        new BitMatrixDigraph<String>(BitMatrixDigraph.MAX_VERTICES + 1);
+    }
+}
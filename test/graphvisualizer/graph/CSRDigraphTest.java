@@ -0,0 +1,104 @@
+package graphvisualizer.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CSRDigraphTest {
+
+    @Test
+    public void copiesEveryEdgeOfTheGraph() {
+        AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(1, 300, 2000);
+        CSRDigraph<String> csr = CSRDigraph.of(graph, Integer::intValue);
+
+        assertEquals(graph.numVertices(), csr.numVertices());
+        assertEquals(graph.numEdges(), csr.numEdges());
+        TestGraphs.assertConsistent(graph, csr);
+        for (Vertex<String> v : graph.vertices()) {
+            assertEquals(v.id(), csr.indexOf(v.element()));
+            assertEquals(v.element(), csr.label(v.id()));
+        }
+    }
+
+    @Test
+    public void freezeMatchesTheLiveView() {
+        AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(2, 100, 700);
+        TestGraphs.assertSameAdjacency(graph.asIntDigraph(Integer::intValue), graph.freeze(Integer::intValue));
+    }
+
+    @Test
+    public void fromEdgesKeepsTheOrderOfEachVertex() {
+        CSRDigraph<String> csr = CSRDigraph.fromEdges(Arrays.asList("a", "b", "c"),
+                new int[]{1, 0, 1, 0}, new int[]{2, 2, 0, 1}, new int[]{4, 5, 6, 7}, 4);
+
+        assertEquals(0, csr.outStart(0));
+        assertEquals(2, csr.outEnd(0));
+        assertEquals(2, csr.outTarget(0));
+        assertEquals(5, csr.outWeight(0));
+        assertEquals(1, csr.outTarget(1));
+        assertEquals(7, csr.outWeight(1));
+        assertEquals(2, csr.outTarget(2));
+        assertEquals(0, csr.outTarget(3));
+        assertEquals(0, csr.outDegree(2));
+        assertEquals(2, csr.inDegree(2));
+        assertEquals(Arrays.asList("0:5", "1:4"), TestGraphs.predecessors(csr, 2));
+        assertEquals(-1, csr.indexOf("d"));
+    }
+
+    @Test(expected = InvalidVertexException.class)
+    public void fromEdgesRejectsDuplicateLabels() {
+        CSRDigraph.fromEdges(Arrays.asList("a", "a"), new int[0], new int[0], new int[0], 0);
+    }
+
+    @Test(expected = InvalidVertexException.class)
+    public void fromEdgesRejectsUnknownVertices() {
+        CSRDigraph.fromEdges(Arrays.asList("a", "b"), new int[]{0}, new int[]{2}, new int[]{1}, 1);
+    }
+
+    @Test
+    public void isNotAffectedByLaterMutations() {
+        AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(3, 50, 200);
+        CSRDigraph<String> csr = graph.freeze(Integer::intValue);
+        graph.removeVertex(TestGraphs.vertex(graph, "7"));
+        graph.insertVertex("new");
+        assertEquals(50, csr.numVertices());
+        assertEquals(200, csr.numEdges());
+        assertEquals(-1, csr.indexOf("new"));
+    }
+
+    @Test
+    public void copiesASingleVersionOfAGraphBeingMutated() throws InterruptedException {
+        AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(4, 50, 150);
+        int hubDegree = graph.outgoingEdges(TestGraphs.vertex(graph, "0")).size();
+        List<Runnable> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            for (int i = 0; i < 3000; i++) {
+                String leaf = "leaf" + i;
+                graph.insertVertex(leaf);
+                graph.insertEdge("0", leaf, 1);
+                if (i >= 10) graph.removeVertex(TestGraphs.vertex(graph, "leaf" + (i - 10)));
+            }
+        });
+        for (int r = 0; r < 2; r++) {
+            tasks.add(() -> {
+                for (int i = 0; i < 300; i++) {
+                    CSRDigraph<String> csr = i % 2 == 0 ? CSRDigraph.of(graph, Integer::intValue) : graph.freeze(Integer::intValue);
+                    int linked = 0;
+                    for (int u = 0; u < csr.numVertices(); u++) {
+                        if (!csr.label(u).startsWith("leaf")) continue;
+                        assertTrue(csr.inDegree(u) <= 1);
+                        if (csr.inDegree(u) == 0) continue;
+                        assertEquals("0", csr.label(csr.inSource(csr.inStart(u))));
+                        ++linked;
+                    }
+                    assertEquals(hubDegree + linked, csr.outDegree(csr.indexOf("0")));
+                    assertEquals(150 + linked, csr.numEdges());
+                }
+            });
+        }
+        AdjacencyMapDigraphTest.runConcurrently(tasks);
+    }
+}
@@ -0,0 +1,70 @@
+package graphvisualizer.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CompressedDigraphTest {
+
+    @Test
+    public void roundTripOfGeneratedGraphs() {
+        for (long seed = 0; seed < 5; seed++) {
+            CSRDigraph<String> csr = new RandomGraphGenerator(seed, -1000, 1000).gnm(3000, 20000).toCSR();
+            CompressedDigraph<String> compressed = CompressedDigraph.of(csr);
+
+            assertEquals(csr.numVertices(), compressed.numVertices());
+            assertEquals(csr.numEdges(), compressed.numEdges());
+            TestGraphs.assertSameAdjacency(csr, compressed);
+            assertEquals("17", compressed.label(17));
+            assertEquals(17, compressed.indexOf("17"));
+            assertEquals(-1, compressed.indexOf("3000"));
+        }
+    }
+
+    @Test
+    public void extremeGapsAndWeights() {
+        int[] weights = {0, -1, 1, 63, -64, 64, 127, 128, 8191, -8192, 16383, 16384, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Integer.MAX_VALUE - 1, Integer.MIN_VALUE + 1, 1 << 20, -(1 << 27), 1 << 28};
+        int n = 100000, m = weights.length;
+        List<String> labels = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            labels.add("v" + i);
+        }
+        int[] sources = new int[m], targets = new int[m];
+        for (int i = 0; i < m; i++) {
+            sources[i] = i % 2 == 0 ? n / 2 : n - 1 - i;
+            targets[i] = i % 2 == 0 ? (i * 7919) % n : i;      //neighbours before and after the source, far apart
+        }
+        CSRDigraph<String> csr = CSRDigraph.fromEdges(labels, sources, targets, weights, m);
+        CompressedDigraph<String> compressed = CompressedDigraph.of(csr);
+
+        TestGraphs.assertSameAdjacency(csr, compressed);
+        assertTrue(compressed.sizeInBytes() <= 2 * (5L * (n + 1) + 10L * m));     //offset and length per vertex, two varints per edge
+    }
+
+    @Test
+    public void isSmallerThanTheCSRArrays() {
+        CSRDigraph<String> csr = new RandomGraphGenerator(1).rmat(14, 200000, 0.57, 0.19, 0.19).toCSR();
+        CompressedDigraph<String> compressed = CompressedDigraph.of(csr);
+        long csrBytes = 2 * (4L * (csr.numVertices() + 1) + 8L * csr.numEdges());
+        assertTrue(compressed + " vs " + csrBytes, compressed.sizeInBytes() < csrBytes / 2);
+        TestGraphs.assertSameAdjacency(csr, compressed);
+    }
+
+    @Test
+    public void outgoingOnlyRejectsIncomingTraversal() {
+        CSRDigraph<String> csr = new RandomGraphGenerator(2).gnm(100, 500).toCSR();
+        CompressedDigraph<String> compressed = CompressedDigraph.of(csr, false);
+        for (int u = 0; u < csr.numVertices(); u++) {
+            assertEquals(TestGraphs.successors(csr, u), TestGraphs.successors(compressed, u));
+            assertEquals(TestGraphs.successors(csr, u), TestGraphs.neighbors(compressed.outCursor(), u));
+        }
+        try {
+            compressed.inDegree(0);
+            fail("The incoming edges were not kept.");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+}
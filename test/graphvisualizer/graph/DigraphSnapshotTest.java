@@ -0,0 +1,145 @@
+package graphvisualizer.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DigraphSnapshotTest {
+
+    /* assert that the snapshot holds the vertices and edges, and that its traversal views agree with them */
+    private static void assertSnapshot(List<String> labels, List<String> edges, DigraphSnapshot<String, Integer> snapshot) {
+        assertEquals(labels, TestGraphs.labels(snapshot));
+        assertEquals(edges, TestGraphs.edges(snapshot));
+        assertEquals(edges.size(), snapshot.numEdges());
+        TestGraphs.assertConsistent(snapshot, snapshot.asIntDigraph(Integer::intValue));
+    }
+
+    @Test
+    public void snapshotsAreIsolatedFromLaterMutations() {
+        AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+        List<DigraphSnapshot<String, Integer>> snapshots = new ArrayList<>();
+        List<List<String>> labels = new ArrayList<>(), edges = new ArrayList<>();
+        for (int round = 0; round < 30; round++) {
+            TestGraphs.mutate(round, 40, 25, graph);
+            snapshots.add(graph.snapshot());
+            labels.add(TestGraphs.labels(graph));
+            edges.add(TestGraphs.edges(graph));
+            TestGraphs.assertSameAdjacency(graph.asIntDigraph(Integer::intValue), snapshots.get(round).asIntDigraph(Integer::intValue));
+        }
+        for (int round = 0; round < 30; round++) {
+            assertSnapshot(labels.get(round), edges.get(round), snapshots.get(round));
+        }
+    }
+
+    @Test
+    public void unchangedGraphReturnsTheSameSnapshot() {
+        AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(1, 10, 20);
+        DigraphSnapshot<String, Integer> first = graph.snapshot();
+        assertSame(first, graph.snapshot());
+
+        graph.insertVertex("new");
+        DigraphSnapshot<String, Integer> second = graph.snapshot();
+        assertNotSame(first, second);
+        assertTrue(second.version() > first.version());
+        assertEquals(10, first.numVertices());
+        assertEquals(11, second.numVertices());
+    }
+
+    @Test
+    public void removedVerticesAndEdgesAreRejected() {
+        AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(2, 10, 20);
+        Vertex<String> removed = TestGraphs.vertex(graph, "4");
+        graph.removeVertex(removed);
+        DigraphSnapshot<String, Integer> snapshot = graph.snapshot();
+        try {
+            snapshot.outgoingEdges(removed);
+            fail("The vertex was removed before the snapshot.");
+        } catch (InvalidVertexException expected) {
+        }
+        try {
+            snapshot.insertVertex("x");
+            fail("A snapshot cannot be modified.");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void newVersionsShareTheAdjacencyOfUntouchedVertices() {
+        AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(4, 2000, 6000);
+        DigraphSnapshot<String, Integer> first = graph.snapshot();
+        Vertex<String> a = TestGraphs.vertex(graph, "1"), b = TestGraphs.vertex(graph, "2");
+        Edge<Integer, String> old = graph.getEdge(a, b);
+        if (old != null) graph.removeEdge(old);
+        graph.insertEdge(a, b, 7);
+        DigraphSnapshot<String, Integer> second = graph.snapshot();
+
+        for (Vertex<String> v : graph.vertices()) {
+            if (v == a || v == b) assertNotSame(first.adjacencyOf(v), second.adjacencyOf(v));
+            else assertSame(v.element(), first.adjacencyOf(v), second.adjacencyOf(v));
+        }
+        assertSame(old, first.getEdge(a, b));
+        assertEquals(Integer.valueOf(7), second.getEdge(a, b).element());
+    }
+
+    @Test
+    public void removedAndReinsertedVerticesAreReplaced() {
+        AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(5, 30, 80);
+        DigraphSnapshot<String, Integer> before = graph.snapshot();
+        Vertex<String> removed = TestGraphs.vertex(graph, "4");
+        graph.removeVertex(removed);
+        Vertex<String> other = graph.insertVertex("x");     //may take the id of the removed vertex
+        Vertex<String> reinserted = graph.insertVertex("4");
+        graph.insertEdge(reinserted, other, 1);
+        DigraphSnapshot<String, Integer> after = graph.snapshot();
+
+        assertSnapshot(TestGraphs.labels(graph), TestGraphs.edges(graph), after);
+        assertEquals(Collections.singletonList("4>x:1"), TestGraphs.edges(after).stream().filter(e -> e.startsWith("4>")).collect(Collectors.toList()));
+        assertTrue(after.vertices().contains(reinserted));
+        assertTrue(before.vertices().contains(removed));
+        assertFalse(before.vertices().contains(other));
+        assertSame(other, after.vertex(other.id()));
+        int previous = -1;
+        for (Vertex<String> v : after.vertices()) {
+            assertTrue(previous < v.id());      //in the order of the ids
+            previous = v.id();
+        }
+    }
+
+    @Test
+    public void snapshotsTakenDuringMutationAreConsistent() throws InterruptedException {
+        AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+        CountDownLatch writing = new CountDownLatch(1);
+        List<Runnable> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            try {
+                TestGraphs.mutate(3, 20000, 60, graph);
+            } finally {
+                writing.countDown();
+            }
+        });
+        for (int r = 0; r < 3; r++) {
+            tasks.add(() -> {
+                while (writing.getCount() > 0) {
+                    DigraphSnapshot<String, Integer> snapshot = graph.snapshot();
+                    int edges = 0;
+                    for (Vertex<String> v : snapshot.vertices()) {
+                        for (Edge<Integer, String> e : snapshot.outgoingEdges(v)) {
+                            assertSame(e, snapshot.getEdge(v, e.vertices()[1]));
+                            assertTrue(snapshot.incomingEdges(e.vertices()[1]).contains(e));
+                            edges++;
+                        }
+                    }
+                    assertEquals(snapshot.numEdges(), edges);
+                }
+            });
+        }
+        AdjacencyMapDigraphTest.runConcurrently(tasks);
+
+        assertSnapshot(TestGraphs.labels(graph), TestGraphs.edges(graph), graph.snapshot());
+    }
+}
@@ -0,0 +1,59 @@
+package graphvisualizer.graph;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DoubleWeightedDigraphTest {
+
+    @Test
+    public void storesPrimitiveWeights() {
+        DoubleWeightedDigraph<String> graph = new DoubleWeightedDigraph<>(1, 1);
+        for (int i = 0; i < 100; i++) {
+            graph.insertVertex("v" + i);
+        }
+        for (int i = 0; i < 100; i++) {
+            graph.insertEdge("v" + i, "v" + (i + 1) % 100, i / 4.0);
+        }
+
+        assertEquals(100, graph.numEdges());
+        for (int i = 0; i < 100; i++) {
+            int e = graph.firstOutEdge(graph.vertexId("v" + i));
+            assertEquals(i / 4.0, graph.weight(e), 0);
+            assertEquals(graph.vertexId("v" + (i + 1) % 100), graph.edgeTarget(e));
+            assertEquals(1, graph.inDegree(graph.vertexId("v" + i)));
+        }
+    }
+
+    @Test
+    public void setAndRemoveWeights() {
+        DoubleWeightedDigraph<String> graph = new DoubleWeightedDigraph<>();
+        graph.insertVertices(Arrays.asList("a", "b"));
+        Edge<Double, String> e = graph.insertEdge(graph.vertex(graph.vertexId("a")), graph.vertex(graph.vertexId("b")), 0.5);
+
+        assertEquals(0.5, graph.setWeight(e, Double.NaN), 0);
+        assertTrue(Double.isNaN(graph.weight(e)));
+        assertTrue(Double.isNaN(graph.removeEdge(e)));
+        assertEquals(0, graph.numEdges());
+        assertNull(graph.getEdge(graph.vertex(0), graph.vertex(1)));
+    }
+
+    @Test
+    public void nullWeightsLeaveTheGraphUnchanged() {
+        DoubleWeightedDigraph<String> graph = new DoubleWeightedDigraph<>();
+        graph.insertVertices(Arrays.asList("a", "b", "c"));
+        try {
+            graph.insertEdges(Arrays.asList("a", "b"), Arrays.asList("b", "c"), Arrays.asList(0.5, null));
+            fail("A null weight should be rejected.");
+        } catch (InvalidEdgeException expected) {
+        }
+        try {
+            ((Graph<String, Double>) graph).insertEdge("a", "c", null);
+            fail("A null weight should be rejected.");
+        } catch (InvalidEdgeException expected) {
+        }
+        assertEquals(0, graph.numEdges());
+        assertNull(graph.getEdge(graph.vertex(0), graph.vertex(1)));
+    }
+}
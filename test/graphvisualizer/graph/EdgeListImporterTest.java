@@ -0,0 +1,102 @@
+package graphvisualizer.graph;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EdgeListImporterTest {
+
+    private static EdgeList read(EdgeListImporter importer, String text) throws IOException {
+        return importer.read(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /* return the edges as "source>target:weight" separated by spaces */
+    private static String edges(EdgeList edges) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < edges.numEdges(); i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(edges.labels().get(edges.source(i))).append('>').append(edges.labels().get(edges.target(i)))
+                    .append(':').append(edges.weight(i));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void readsWeightsAndDefaultsToOne() throws IOException {
+        EdgeList edges = read(new EdgeListImporter(), "a,b,3\nb\tc\nc , a , -2\n");
+        assertEquals("a>b:3 b>c:1 c>a:-2", edges(edges));
+        assertEquals(3, edges.labels().size());
+    }
+
+    @Test
+    public void skipsHeaderOnFirstLine() throws IOException {
+        assertEquals("a>b:3", edges(read(new EdgeListImporter(), "source,target,weight\na,b,3\n")));
+    }
+
+    @Test
+    public void skipsHeaderAfterComments() throws IOException {
+        assertEquals("a>b:3", edges(read(new EdgeListImporter(), "# exported graph\n\nsource,target,weight\na,b,3\n")));
+    }
+
+    @Test
+    public void skipsByteOrderMark() throws IOException {
+        assertEquals("a>b:3", edges(read(new EdgeListImporter(), "\uFEFFsource,target,weight\na,b,3\n")));
+        assertEquals("a>b:1", edges(read(new EdgeListImporter(), "\uFEFFa,b\n")));
+        assertEquals("a>b:3", edges(read(new EdgeListImporter(), "\uFEFF# comment\r\nsource\ttarget\tweight\r\na\tb\t3\r\n")));
+    }
+
+    @Test
+    public void twoColumnHeaderNeedsHasHeader() throws IOException {
+        assertEquals("source>target:1 a>b:1", edges(read(new EdgeListImporter(), "source,target\na,b\n")));
+        assertEquals("a>b:1 b>c:1", edges(read(new EdgeListImporter(true), "source,target\na,b\nb,c\n")));
+        assertEquals("a>b:1", edges(read(new EdgeListImporter(true), "# comment\nsource,target\na,b\n")));
+    }
+
+    @Test
+    public void headerAfterCommentOnlyBlocks() throws IOException {
+        EdgeListImporter importer = new EdgeListImporter(ForkJoinPool.commonPool(), 16, false);
+        String text = "# a long comment line\n# another comment line\nsrc,dst,w\na,b,2\nc,d,4\n";
+        assertEquals("a>b:2 c>d:4", edges(read(importer, text)));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsNonNumericWeightAfterFirstLine() throws IOException {
+        read(new EdgeListImporter(), "a,b,1\nc,d,x\n");
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsSingleField() throws IOException {
+        read(new EdgeListImporter(), "a,b\nc\n");
+    }
+
+    @Test
+    public void smallBlocksKeepFileOrder() throws IOException {
+        StringBuilder text = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append('v').append(i).append(",v").append(i + 1).append(',').append(i % 7).append('\n');
+            if (i > 0) expected.append(' ');
+            expected.append('v').append(i).append(">v").append(i + 1).append(':').append(i % 7);
+        }
+        EdgeList edges = read(new EdgeListImporter(ForkJoinPool.commonPool(), 64, false), text.toString());
+        assertEquals(expected.toString(), edges(edges));
+        assertEquals("v0", edges.labels().get(0));
+        assertEquals(1001, edges.labels().size());
+    }
+
+    @Test
+    public void readsGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write("source,target,weight\na,b,5\nb,a,6\n".getBytes(StandardCharsets.UTF_8));
+        }
+        EdgeList edges = new EdgeListImporter().read(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals("a>b:5 b>a:6", edges(edges));
+    }
+}
@@ -0,0 +1,187 @@
+package graphvisualizer.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GraphChangePublisherTest {
+
+    /* records the calls it receives, requesting nothing on its own */
+    private static class Recorder implements ChangeFlow.Subscriber<List<GraphChange<String, Integer>>> {
+        final List<List<GraphChange<String, Integer>>> items = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch finished = new CountDownLatch(1);
+        ChangeFlow.Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        @Override
+        public void onSubscribe(ChangeFlow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(List<GraphChange<String, Integer>> item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            finished.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            finished.countDown();
+        }
+    }
+
+    /* return a publisher delivering on the calling thread */
+    private static GraphChangePublisher<String, Integer> publisher(int bufferCapacity) {
+        return new GraphChangePublisher<>(Runnable::run, bufferCapacity);
+    }
+
+    private static List<GraphChange<String, Integer>> inserted(String... labels) {
+        AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+        List<GraphChange<String, Integer>> changes = new ArrayList<>();
+        for (String label : labels) {
+            changes.add(GraphChange.vertexInserted(graph.insertVertex(label)));
+        }
+        return changes;
+    }
+
+    private static List<GraphChange.Type> types(List<GraphChange<String, Integer>> changes) {
+        List<GraphChange.Type> types = new ArrayList<>();
+        for (GraphChange<String, Integer> change : changes) {
+            types.add(change.type());
+        }
+        return types;
+    }
+
+    @Test
+    public void deliversOnlyWhatIsRequested() {
+        GraphChangePublisher<String, Integer> publisher = publisher(100);
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+        assertTrue(publisher.hasSubscribers());
+
+        publisher.publish(inserted("a"));
+        publisher.publish(inserted("b", "c"));
+        assertTrue(recorder.items.isEmpty());
+
+        recorder.subscription.request(1);
+        assertEquals(1, recorder.items.size());
+        assertEquals(3, recorder.items.get(0).size());     //the buffered batches are merged
+        assertEquals("c", recorder.items.get(0).get(2).vertex().element());
+
+        publisher.publish(inserted("d"));
+        assertEquals(1, recorder.items.size());
+        recorder.subscription.request(2);
+        publisher.publish(inserted("e"));
+        assertEquals(3, recorder.items.size());
+        publisher.publish(inserted("f"));
+        assertEquals(3, recorder.items.size());
+    }
+
+    @Test
+    public void overflowIsReplacedByResync() {
+        GraphChangePublisher<String, Integer> publisher = publisher(3);
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+        publisher.publish(inserted("a", "b"));
+        publisher.publish(inserted("c", "d"));
+        publisher.publish(inserted("e"));
+
+        recorder.subscription.request(1);
+        assertEquals(Arrays.asList(GraphChange.Type.RESYNC, GraphChange.Type.VERTEX_INSERTED), types(recorder.items.get(0)));
+    }
+
+    @Test
+    public void closeCompletesAfterTheBufferedChanges() {
+        GraphChangePublisher<String, Integer> publisher = publisher(100);
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+        publisher.publish(inserted("a"));
+        publisher.close();
+        assertFalse(recorder.completed);
+
+        recorder.subscription.request(1);
+        assertEquals(1, recorder.items.size());
+        assertTrue(recorder.completed);
+        assertFalse(publisher.hasSubscribers());
+
+        Recorder late = new Recorder();
+        publisher.subscribe(late);
+        assertTrue(late.completed);
+    }
+
+    @Test
+    public void invalidRequestAndFailingSubscriberAreCancelled() {
+        GraphChangePublisher<String, Integer> publisher = publisher(100);
+        Recorder invalid = new Recorder();
+        publisher.subscribe(invalid);
+        invalid.subscription.request(0);
+        assertTrue(invalid.error instanceof IllegalArgumentException);
+
+        Recorder failing = new Recorder() {
+            @Override
+            public void onNext(List<GraphChange<String, Integer>> item) {
+                throw new IllegalStateException("failed");
+            }
+        };
+        publisher.subscribe(failing);
+        failing.subscription.request(5);
+        publisher.publish(inserted("a"));
+        assertTrue(failing.error instanceof IllegalStateException);
+        assertEquals(0, publisher.numSubscribers());
+    }
+
+    @Test
+    public void changesReplayTheGraph() throws InterruptedException {
+        AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+        AdjacencyMapDigraph<String, Integer> mirror = new AdjacencyMapDigraph<>();
+        Recorder recorder = new Recorder();
+        graph.changes().subscribe(recorder);
+        recorder.subscription.request(Long.MAX_VALUE);
+
+        TestGraphs.mutate(1, 2000, 30, graph);
+        graph.clear();
+        TestGraphs.mutate(2, 2000, 30, graph);
+        graph.changes().close();
+        assertTrue(recorder.finished.await(10, TimeUnit.SECONDS));
+        assertNull(recorder.error);
+
+        for (List<GraphChange<String, Integer>> item : recorder.items) {
+            for (GraphChange<String, Integer> change : item) {
+                switch (change.type()) {
+                    case VERTEX_INSERTED:
+                        mirror.insertVertex(change.vertex().element());
+                        break;
+                    case VERTEX_REMOVED:
+                        mirror.removeVertex(TestGraphs.vertex(mirror, change.vertex().element()));
+                        break;
+                    case EDGE_INSERTED:
+                        mirror.insertEdge(change.edge().vertices()[0].element(), change.edge().vertices()[1].element(), change.edge().element());
+                        break;
+                    case EDGE_REMOVED:
+                        mirror.removeEdge(mirror.getEdge(TestGraphs.vertex(mirror, change.edge().vertices()[0].element()),
+                                TestGraphs.vertex(mirror, change.edge().vertices()[1].element())));
+                        break;
+                    case CLEARED:
+                        mirror.clear();
+                        break;
+                    default:
+                        fail("Unexpected " + change);
+                }
+            }
+        }
+        TestGraphs.assertSameGraph(graph, mirror);
+    }
+}
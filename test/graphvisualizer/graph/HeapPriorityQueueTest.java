@@ -0,0 +1,142 @@
+package graphvisualizer.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HeapPriorityQueueTest {
+    //entries already queued and entries inserted in bulk, covering the upheap and the heapify paths
+    private static final int[][] SIZES = {{0, 0}, {0, 1}, {0, 1000}, {1000, 10}, {1000, 499}, {1000, 500}, {10, 1000}, {1, 1}};
+
+    private static List<Integer> keys(long seed, int n, int bound) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Integer> keys = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) keys.add(random.nextInt(bound));
+        return keys;
+    }
+
+    private static List<Integer> values(int from, int n) {
+        List<Integer> values = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) values.add(from + i);
+        return values;
+    }
+
+    /* remove every entry of queue and return them as "key:value" strings in removal order, checking the order of the keys */
+    private static List<String> drain(PriorityQueue<Integer, Integer> queue) {
+        List<String> removed = new ArrayList<>();
+        int previous = Integer.MIN_VALUE;
+        while (!queue.isEmpty()) {
+            Entry<Integer, Integer> min = queue.min();
+            assertSame(min, queue.removeMin());
+            assertTrue(previous <= min.getKey());
+            previous = min.getKey();
+            removed.add(min.getKey() + ":" + min.getValue());
+        }
+        assertNull(queue.removeMin());
+        return removed;
+    }
+
+    private static void assertSameContents(List<String> expected, List<String> actual) {
+        List<String> a = new ArrayList<>(expected), b = new ArrayList<>(actual);
+        Collections.sort(a);
+        Collections.sort(b);
+        assertEquals(a, b);
+    }
+
+    @Test
+    public void bulkInsertMatchesSingleInserts() {
+        for (int[] size : SIZES) {
+            for (int bound : new int[]{5, 100000}) {
+                List<Integer> initial = keys(size[0], size[0], bound), bulk = keys(size[1] + 7, size[1], bound);
+                List<PriorityQueue<Integer, Integer>> bulkQueues = Arrays.asList(new HeapPriorityQueue<>(), new HeapAdaptablePriorityQueue<>());
+                List<PriorityQueue<Integer, Integer>> singleQueues = Arrays.asList(new HeapPriorityQueue<>(), new HeapAdaptablePriorityQueue<>());
+                for (int q = 0; q < 2; q++) {
+                    PriorityQueue<Integer, Integer> bulkQueue = bulkQueues.get(q), singleQueue = singleQueues.get(q);
+                    for (int i = 0; i < initial.size(); i++) {
+                        bulkQueue.insert(initial.get(i), i);
+                        singleQueue.insert(initial.get(i), i);
+                    }
+                    List<Entry<Integer, Integer>> entries = bulkQueue.insertAll(bulk, values(size[0], size[1]));
+                    for (int i = 0; i < bulk.size(); i++) {
+                        assertEquals(bulk.get(i), entries.get(i).getKey());
+                        assertEquals(Integer.valueOf(size[0] + i), entries.get(i).getValue());
+                        singleQueue.insert(bulk.get(i), size[0] + i);
+                    }
+                    assertEquals(size[0] + size[1], bulkQueue.size());
+
+                    List<String> expected = drain(singleQueue), actual = drain(bulkQueue);
+                    assertSameContents(expected, actual);     //equal keys may be removed in another order
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bulkEntriesAreLocationAware() {
+        for (int[] size : SIZES) {
+            HeapAdaptablePriorityQueue<Integer, Integer> queue = new HeapAdaptablePriorityQueue<>();
+            List<String> expected = new ArrayList<>();
+            List<Integer> initial = keys(size[0], size[0], 50);
+            for (int i = 0; i < initial.size(); i++) {
+                queue.insert(initial.get(i), i);
+                expected.add(initial.get(i) + ":" + i);
+            }
+            List<Entry<Integer, Integer>> entries = queue.insertAll(keys(size[1] + 3, size[1], 50), values(size[0], size[1]));
+
+            for (int i = 0; i < entries.size(); i++) {
+                Entry<Integer, Integer> entry = entries.get(i);
+                if (i % 3 == 0) {
+                    queue.remove(entry);
+                }
+                else {
+                    int key = i % 3 == 1 ? -entry.getKey() : entry.getKey() + 100;
+                    queue.replaceKey(entry, key);
+                    expected.add(key + ":" + entry.getValue());
+                }
+            }
+            assertEquals(expected.size(), queue.size());
+            assertSameContents(expected, drain(queue));
+        }
+    }
+
+    @Test
+    public void invalidBulkInsertLeavesTheQueueUnchanged() {
+        HeapAdaptablePriorityQueue<Object, Integer> queue = new HeapAdaptablePriorityQueue<>();
+        Entry<Object, Integer> first = queue.insert(3, 0);
+        queue.insert(1, 1);
+        try {
+            queue.insertAll(Arrays.asList(2, 5), Collections.singletonList(2));
+            fail("Lists of different sizes should be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertEquals(2, queue.size());
+        }
+        try {
+            queue.insertAll(Arrays.asList(2, new Object(), 5), Arrays.asList(2, 3, 4));
+            fail("A key that cannot be compared should be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertEquals(2, queue.size());
+        }
+        queue.replaceKey(first, 0);
+        assertSame(first, queue.removeMin());
+        assertEquals(1, queue.removeMin().getKey());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void defaultBulkInsertOfOtherQueues() {
+        PairingHeap<Integer, Integer> queue = new PairingHeap<>();
+        List<Integer> keys = keys(9, 500, 1000);
+        List<Entry<Integer, Integer>> entries = queue.insertAll(keys, values(0, 500));
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(keys.get(i), entries.get(i).getKey());
+            expected.add(keys.get(i) + ":" + i);
+        }
+        assertSameContents(expected, drain(queue));
+    }
+}
@@ -0,0 +1,133 @@
+package graphvisualizer.graph;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IndexedDaryHeapTest {
+
+    @Test
+    public void behavesLikeAMapOfKeysForEveryArity() {
+        for (int arity : new int[]{2, 3, 4, 8}) {
+            TestQueues.assertBehavesLikeModel(new IndexedDaryHeap(500, arity), arity, 50000, 500, 1000, false);
+        }
+    }
+
+    @Test
+    public void toleratesEqualKeys() {
+        TestQueues.assertBehavesLikeModel(new IndexedDaryHeap(100), 5, 20000, 100, 3, false);
+    }
+
+    @Test
+    public void growsPastTheIdBound() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(0);
+        for (int id = 999; id >= 0; id--) {
+            heap.insert(id, 1000 - id);
+        }
+        assertEquals(1000, heap.size());
+        for (int id = 999; id >= 0; id--) {
+            assertEquals(id, heap.removeMinId());
+        }
+        TestQueues.assertBehavesLikeModel(new IndexedDaryHeap(1), 9, 5000, 300, 50, false);
+    }
+
+    @Test
+    public void extremeKeys() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(4);
+        heap.insert(0, Long.MAX_VALUE);
+        heap.insert(1, Long.MIN_VALUE);
+        heap.insert(2, 0);
+        heap.insert(3, -1);
+        assertEquals(Long.MIN_VALUE, heap.minKey());
+        heap.changeKey(1, Long.MAX_VALUE);
+        assertEquals(3, heap.removeMinId());
+        assertEquals(2, heap.removeMinId());
+        assertEquals(Long.MAX_VALUE, heap.minKey());
+        assertEquals(2, heap.size());
+    }
+
+    @Test
+    public void encodingKeepsTheOrderOfDoubles() {
+        double[] keys = {Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1.5, -Double.MIN_VALUE, -0.0, 0.0,
+                Double.MIN_VALUE, Double.MIN_NORMAL, 1, 1.5, Double.MAX_VALUE, Double.POSITIVE_INFINITY};
+        for (int i = 0; i < keys.length; i++) {
+            long encoded = IndexedDaryHeap.encode(keys[i]);
+            assertEquals(Double.doubleToLongBits(keys[i]), Double.doubleToLongBits(IndexedDaryHeap.decode(encoded)));
+            if (i > 0) assertTrue(keys[i] + " after " + keys[i - 1], IndexedDaryHeap.encode(keys[i - 1]) < encoded);
+        }
+
+        double[] shuffled = {3.25, -7, 0.0, 1e-300, -1e300, 42, -0.0, 2.5};
+        IndexedDaryHeap heap = new IndexedDaryHeap(shuffled.length);
+        for (int id = 0; id < shuffled.length; id++) {
+            heap.insert(id, IndexedDaryHeap.encode(shuffled[id]));
+        }
+        double[] sorted = shuffled.clone();
+        Arrays.sort(sorted);
+        for (double expected : sorted) {
+            assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(IndexedDaryHeap.decode(heap.minKey())));
+            heap.removeMinId();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void encodingRejectsNaN() {
+        IndexedDaryHeap.encode(Double.NaN);
+    }
+
+    @Test
+    public void entriesReadTheKeysOfTheirIds() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(10);
+        Entry<Long, Integer> a = heap.insert(7L, 1), b = heap.insert(3L, 2);
+        assertEquals(Integer.valueOf(2), heap.min().getValue());
+        heap.replaceKey(a, 1L);
+        assertEquals(Long.valueOf(1), a.getKey());
+        Entry<Long, Integer> removed = heap.removeMin();
+        assertEquals(Integer.valueOf(1), removed.getValue());
+        assertEquals(Long.valueOf(1), removed.getKey());
+        assertEquals(Long.valueOf(7), a.getKey());     //the key it was created with, once its id is not queued
+        try {
+            heap.remove(a);
+            fail("The removed entry should be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertEquals(1, heap.size());
+        }
+        try {
+            new IndexedDaryHeap(10).remove(b);
+            fail("An entry of another heap should be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertTrue(heap.contains(2));
+        }
+        heap.remove(b);
+        assertNull(heap.removeMin());
+    }
+
+    @Test
+    public void rejectsInvalidOperations() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(4);
+        heap.insert(1, 5);
+        Runnable[] invalid = {
+                () -> heap.insert(1, 3),
+                () -> heap.insert(-1, 3),
+                () -> heap.decreaseKey(1, 6),
+                () -> heap.decreaseKey(2, 1),
+                () -> heap.key(3),
+                () -> new IndexedDaryHeap(4, 1)
+        };
+        for (Runnable operation : invalid) {
+            try {
+                operation.run();
+                fail("The operation should be rejected.");
+            } catch (IllegalArgumentException e) {
+                assertEquals(5, heap.key(1));
+            }
+        }
+        heap.clear();
+        try {
+            heap.minId();
+            fail("An empty heap has no minimum.");
+        } catch (IllegalStateException e) {
+            assertFalse(heap.contains(1));
+        }
+    }
+}
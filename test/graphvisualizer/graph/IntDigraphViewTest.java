@@ -0,0 +1,66 @@
+package graphvisualizer.graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IntDigraphViewTest {
+
+    /* return a graph with a hub of high degree, a self-loop and random edges between the other vertices */
+    private static AdjacencyMapDigraph<String, Integer> hubGraph() {
+        AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(6, 200, 600);
+        graph.insertVertex("hub");
+        for (int i = 0; i < 200; i += 2) {
+            graph.insertEdge("hub", String.valueOf(i), i);
+            graph.insertEdge(String.valueOf(i + 1), "hub", i + 1);
+        }
+        graph.insertEdge("hub", "hub", 0);
+        return graph;
+    }
+
+    @Test
+    public void viewsMatchTheGraph() {
+        AdjacencyMapDigraph<String, Integer> graph = hubGraph();
+        TestGraphs.assertConsistent(graph, graph.asIntDigraph(Integer::intValue));
+        TestGraphs.assertSameAdjacency(graph.freeze(Integer::intValue), graph.asIntDigraph(Integer::intValue));
+
+        DigraphSnapshot<String, Integer> snapshot = graph.snapshot();
+        TestGraphs.assertConsistent(snapshot, snapshot.asIntDigraph(Integer::intValue));
+        TestGraphs.assertSameAdjacency(graph.asIntDigraph(Integer::intValue), snapshot.asIntDigraph(Integer::intValue));
+    }
+
+    @Test
+    public void weigherIsAppliedToEveryEdge() {
+        AdjacencyMapDigraph<String, Integer> graph = hubGraph();
+        IntDigraph doubled = graph.asIntDigraph(weight -> 2 * weight);
+        int hub = TestGraphs.vertex(graph, "hub").id();
+        int[] sum = new int[2];
+        doubled.forEachOutNeighbor(hub, (v, weight) -> sum[0] += weight);
+        IntDigraph.NeighborCursor cursor = doubled.inCursor();
+        cursor.reset(hub);
+        while (cursor.advance()) {
+            sum[1] += cursor.weight();
+        }
+        assertEquals(2 * 9900, sum[0]);         //0 + 2 + ... + 198 and the self-loop
+        assertEquals(2 * 10000, sum[1]);        //1 + 3 + ... + 199 and the self-loop
+    }
+
+    @Test
+    public void resetRestartsTheCursor() {
+        AdjacencyMapDigraph<String, Integer> graph = hubGraph();
+        IntDigraph view = graph.asIntDigraph(Integer::intValue);
+        int hub = TestGraphs.vertex(graph, "hub").id();
+        IntDigraph.NeighborCursor cursor = view.inCursor();
+
+        cursor.reset(hub);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(cursor.advance());
+        }
+        assertEquals(TestGraphs.predecessors(view, hub), TestGraphs.neighbors(cursor, hub));
+        assertEquals(101, view.inDegree(hub));
+        assertFalse(cursor.advance());
+
+        int leaf = TestGraphs.vertex(graph, "0").id();
+        assertEquals(view.outDegree(leaf), TestGraphs.neighbors(view.outCursor(), leaf).size());
+    }
+}
@@ -0,0 +1,121 @@
+package graphvisualizer.graph;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IntWeightedDigraphTest {
+
+    @Test
+    public void matchesAdjacencyMapDigraph() {
+        for (long seed = 0; seed < 10; seed++) {
+            AdjacencyMapDigraph<String, Integer> expected = new AdjacencyMapDigraph<>();
+            IntWeightedDigraph<String> graph = new IntWeightedDigraph<>(1, 1);
+            TestGraphs.mutate(seed, 3000, 40, expected, graph);
+
+            TestGraphs.assertSameGraph(expected, graph);
+            TestGraphs.assertConsistent(graph, graph);
+        }
+    }
+
+    @Test
+    public void primitiveWeights() {
+        IntWeightedDigraph<String> graph = new IntWeightedDigraph<>();
+        graph.insertVertices(Arrays.asList("a", "b"));
+        Edge<Integer, String> e = graph.insertEdge("a", "b", 7);
+
+        assertEquals(7, graph.weight(e));
+        assertEquals(7, graph.weight(graph.edgeId(e)));
+        assertEquals(7, graph.setWeight(e, -3));
+        assertEquals(Integer.valueOf(-3), e.element());
+        assertEquals(graph.edgeId(e), graph.firstOutEdge(graph.vertexId("a")));
+        assertEquals(graph.vertexId("b"), graph.edgeTarget(graph.firstOutEdge(graph.vertexId("a"))));
+        assertEquals(Integer.valueOf(-3), graph.removeEdge(e));
+        assertEquals(-1, graph.firstOutEdge(graph.vertexId("a")));
+    }
+
+    @Test
+    public void recycledSlotsDoNotRevalidateOldHandles() {
+        IntWeightedDigraph<String> graph = new IntWeightedDigraph<>();
+        Vertex<String> a = graph.insertVertex("a");
+        graph.insertVertex("b");
+        Edge<Integer, String> old = graph.insertEdge("a", "b", 1);
+        graph.removeEdge(old);
+        Edge<Integer, String> recycled = graph.insertEdge("b", "a", 2);
+
+        assertEquals(graph.edgeId(recycled), old.id());
+        assertNotEquals(old, recycled);
+        try {
+            graph.removeEdge(old);
+            fail("A removed edge should be rejected.");
+        } catch (InvalidEdgeException expected) {
+        }
+
+        graph.removeVertex(a);
+        Vertex<String> c = graph.insertVertex("c");
+        assertEquals(a.id(), c.id());
+        try {
+            graph.insertEdge(a, c, 1);
+            fail("A removed vertex should be rejected.");
+        } catch (InvalidVertexException expected) {
+        }
+        assertEquals(0, graph.numEdges());     //the edge from b to a went with a
+    }
+
+    @Test(expected = InvalidEdgeException.class)
+    public void rejectsParallelEdges() {
+        IntWeightedDigraph<String> graph = new IntWeightedDigraph<>();
+        graph.insertVertices(Arrays.asList("a", "b"));
+        graph.insertEdge("a", "b", 1);
+        graph.insertEdge("a", "b", 2);
+    }
+
+    @Test
+    public void failedBulkInsertLeavesTheGraphUnchanged() {
+        IntWeightedDigraph<String> graph = new IntWeightedDigraph<>();
+        graph.insertVertices(Arrays.asList("a", "b", "c"));
+        graph.insertEdge("b", "c", 1);
+        try {
+            graph.insertEdges(Arrays.asList("a", "a", "b"), Arrays.asList("b", "c", "c"), Arrays.asList(1, 2, 3));
+            fail("The edge from b to c exists.");
+        } catch (InvalidEdgeException expected) {
+        }
+        assertEquals(Arrays.asList("b>c:1"), TestGraphs.edges(graph));
+        try {
+            graph.insertVertices(Arrays.asList("d", "a"));
+            fail("The vertex a exists.");
+        } catch (InvalidVertexException expected) {
+        }
+        assertEquals(3, graph.numVertices());
+    }
+
+    @Test
+    public void nullWeightsAreRejectedBeforeTheEdgeIsLinked() {
+        IntWeightedDigraph<String> graph = new IntWeightedDigraph<>();
+        graph.insertVertices(Arrays.asList("a", "b", "c"));
+        graph.removeEdge(graph.insertEdge("a", "b", 7));     //leave a free slot with a stale weight
+        graph.insertEdge("b", "c", 1);
+        Graph<String, Integer> boxed = graph;
+        try {
+            boxed.insertEdge("a", "b", null);
+            fail("A null weight should be rejected.");
+        } catch (InvalidEdgeException expected) {
+        }
+        try {
+            boxed.insertEdge(graph.vertex(graph.vertexId("a")), graph.vertex(graph.vertexId("b")), null);
+            fail("A null weight should be rejected.");
+        } catch (InvalidEdgeException expected) {
+        }
+        try {
+            graph.insertEdges(Arrays.asList("a", "c", "c"), Arrays.asList("b", "a", "b"), Arrays.asList(2, null, 4));
+            fail("A null weight should be rejected.");
+        } catch (InvalidEdgeException expected) {
+        }
+        assertEquals(Arrays.asList("b>c:1"), TestGraphs.edges(graph));
+        assertEquals(0, graph.outDegree(graph.vertexId("a")));
+
+        graph.insertEdges(Arrays.asList("a", "c"), Arrays.asList("b", "a"), Arrays.asList(2, 3));
+        assertEquals(Arrays.asList("a>b:2", "b>c:1", "c>a:3"), TestGraphs.edges(graph));
+    }
+}
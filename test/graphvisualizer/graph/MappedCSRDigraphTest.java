@@ -0,0 +1,126 @@
+package graphvisualizer.graph;
+
+import graphvisualizer.graphalgorithms.ShortestPath;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MappedCSRDigraphTest {
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("graph", ".gvg");
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static CSRDigraph<String> sample() {
+        List<String> labels = Arrays.asList("Zürich", "東京", "", "a,b", "isolated");
+        int[] sources = {0, 0, 1, 3, 2, 1};
+        int[] targets = {1, 3, 2, 0, 0, 0};
+        int[] weights = {5, -1, 7, 2, 0, 9};
+        return CSRDigraph.fromEdges(labels, sources, targets, weights, sources.length);
+    }
+
+    private static Vertex<String> vertex(Graph<String, Integer> graph, String label) {
+        for (Vertex<String> v : graph.vertices()) {
+            if (v.element().equals(label)) return v;
+        }
+        throw new AssertionError("No vertex " + label);
+    }
+
+    @Test
+    public void roundTripKeepsLabelsAndEdges() throws IOException {
+        CSRDigraph<String> csr = sample();
+        MappedCSRDigraph.write(file, csr);
+        MappedCSRDigraph mapped = MappedCSRDigraph.open(file);
+
+        assertEquals(csr.numVertices(), mapped.numVertices());
+        assertEquals(csr.numEdges(), mapped.numEdges());
+        for (int u = 0; u < csr.numVertices(); u++) {
+            assertEquals(csr.label(u), mapped.label(u));
+            assertEquals(u, mapped.indexOf(csr.label(u)));
+            assertEquals(csr.outDegree(u), mapped.outDegree(u));
+            assertEquals(csr.inDegree(u), mapped.inDegree(u));
+            for (int i = csr.outStart(u), j = (int) mapped.outStart(u); i < csr.outEnd(u); i++, j++) {
+                assertEquals(csr.outTarget(i), mapped.outTarget(j));
+                assertEquals(csr.outWeight(i), mapped.outWeight(j));
+            }
+            for (int i = csr.inStart(u), j = (int) mapped.inStart(u); i < csr.inEnd(u); i++, j++) {
+                assertEquals(csr.inSource(i), mapped.inSource(j));
+                assertEquals(csr.inWeight(i), mapped.inWeight(j));
+            }
+        }
+        assertEquals(-1, mapped.indexOf("missing"));
+    }
+
+    @Test
+    public void roundTripOfGeneratedGraph() throws IOException {
+        CSRDigraph<String> csr = new RandomGraphGenerator(7).gnm(2000, 30000).toCSR();
+        MappedCSRDigraph.write(file, csr);
+        MappedCSRDigraph mapped = MappedCSRDigraph.open(file);
+
+        TestGraphs.assertSameAdjacency(csr, mapped);
+        for (int source : new int[]{0, 17, 1999}) {
+            assertArrayEquals(ShortestPath.distances(csr, source),
+                    ShortestPath.distances(mapped, source));
+        }
+    }
+
+    @Test
+    public void copyToInsertsEveryEdge() throws IOException {
+        MappedCSRDigraph.write(file, sample());
+        AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+        MappedCSRDigraph.open(file).copyTo(graph);
+
+        assertEquals(5, graph.numVertices());
+        assertEquals(6, graph.numEdges());
+        assertEquals(Integer.valueOf(-1), graph.getEdge(vertex(graph, "Zürich"), vertex(graph, "a,b")).element());
+        assertEquals(Integer.valueOf(0), graph.getEdge(vertex(graph, ""), vertex(graph, "Zürich")).element());
+    }
+
+    @Test
+    public void emptyGraph() throws IOException {
+        MappedCSRDigraph.write(file, CSRDigraph.fromEdges(Arrays.<String>asList(), new int[0], new int[0], new int[0], 0));
+        MappedCSRDigraph mapped = MappedCSRDigraph.open(file);
+        assertEquals(0, mapped.numVertices());
+        assertEquals(0, mapped.numEdges());
+        assertEquals(-1, mapped.indexOf("a"));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherFiles() throws IOException {
+        Files.write(file, "source,target,weight\n".getBytes("UTF-8"));
+        MappedCSRDigraph.open(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedFile() throws IOException {
+        MappedCSRDigraph.write(file, sample());
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+        MappedCSRDigraph.open(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsCorruptLabelIndexSize() throws IOException {
+        MappedCSRDigraph.write(file, sample());
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(12, 3);    //not a power of two
+        Files.write(file, bytes);
+        MappedCSRDigraph.open(file);
+    }
+}
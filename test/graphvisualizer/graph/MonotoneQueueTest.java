@@ -0,0 +1,121 @@
+package graphvisualizer.graph;
+
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MonotoneQueueTest {
+
+    @Test
+    public void bucketQueueBehavesLikeAMapOfKeys() {
+        for (int spread : new int[]{0, 1, 7, 1000}) {
+            TestQueues.assertBehavesLikeModel(new BucketQueue(300, spread), spread, 40000, 300, spread, true);
+        }
+    }
+
+    @Test
+    public void radixHeapBehavesLikeAMapOfKeys() {
+        for (long spread : new long[]{0, 1, 1000, 1L << 40}) {
+            TestQueues.assertBehavesLikeModel(new RadixHeap(300), spread, 40000, 300, spread, true);
+        }
+    }
+
+    @Test
+    public void radixHeapOrdersKeysOfEverySign() {
+        //the first key lowers the last minimum of the empty heap, the others may be anywhere above it
+        long[] keys = {Long.MIN_VALUE, 5, -3, 0, -1, Long.MAX_VALUE, 1L << 62, -(1L << 62)};
+        RadixHeap heap = new RadixHeap(keys.length);
+        for (int id = 0; id < keys.length; id++) heap.insert(id, keys[id]);
+        int[] order = {0, 7, 2, 4, 3, 1, 6, 5};
+        for (int id : order) {
+            assertEquals(keys[id], heap.minKey());
+            assertEquals(id, heap.removeMinId());
+        }
+    }
+
+    @Test
+    public void queuesAgreeOnAMonotoneRun() {
+        //the pattern of Dijkstra's algorithm: each new key is the last minimum plus a weight
+        int n = 2000, maxWeight = 50;
+        IndexedPriorityQueue[] queues = {new IndexedDaryHeap(n), new BucketQueue(n, maxWeight), new RadixHeap(n)};
+        SplittableRandom random = new SplittableRandom(3);
+        for (IndexedPriorityQueue queue : queues) queue.insert(0, 0);
+        boolean[] done = new boolean[n];
+        while (!queues[0].isEmpty()) {
+            long min = queues[0].minKey();
+            int u = queues[0].removeMinId();
+            done[u] = true;
+            for (int q = 1; q < queues.length; q++) {
+                assertEquals(min, queues[q].minKey());
+                assertEquals(min, queues[q].key(u));
+                queues[q].remove(u);
+            }
+            for (int i = 0; i < 5; i++) {
+                int v = random.nextInt(n);
+                long key = min + random.nextInt(maxWeight + 1);
+                if (done[v]) continue;
+                for (IndexedPriorityQueue queue : queues) queue.insertOrDecreaseKey(v, key);
+            }
+        }
+        for (IndexedPriorityQueue queue : queues) assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void bucketQueueRejectsKeysOutsideItsWindow() {
+        BucketQueue queue = new BucketQueue(4, 10);
+        queue.insert(0, 100);           //the window of the empty queue moves up as little as needed, to [90, 100]
+        queue.insert(1, 92);
+        try {
+            queue.insert(2, 101);
+            fail("A key beyond the window should be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertFalse(queue.contains(2));
+        }
+        assertEquals(1, queue.removeMinId());
+        queue.insert(2, 102);
+        try {
+            queue.changeKey(0, 103);
+            fail("A key beyond the spread should be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertEquals(100, queue.key(0));
+        }
+        try {
+            queue.insert(3, 91);
+            fail("A key below the last minimum should be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertFalse(queue.contains(3));
+        }
+        assertEquals(0, queue.removeMinId());
+        assertEquals(2, queue.removeMinId());
+
+        //an empty queue moves its window to any key
+        queue.insert(3, 5);
+        assertEquals(3, queue.removeMinId());
+        queue.insert(1, 1000);
+        assertEquals(1000, queue.minKey());
+    }
+
+    @Test
+    public void radixHeapRejectsKeysBelowTheLastMinimum() {
+        RadixHeap heap = new RadixHeap(4);
+        heap.insert(0, 10);
+        heap.insert(1, 20);
+        assertEquals(0, heap.removeMinId());
+        try {
+            heap.decreaseKey(1, 9);
+            fail("A key below the last minimum should be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertEquals(20, heap.key(1));
+        }
+        heap.decreaseKey(1, 10);
+        assertEquals(1, heap.removeMinId());
+        heap.insert(2, -5);             //an empty heap accepts a smaller key
+        assertEquals(-5, heap.minKey());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bucketQueueRejectsNegativeSpread() {
+        new BucketQueue(4, -1);
+    }
+}
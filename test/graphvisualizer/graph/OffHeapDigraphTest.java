@@ -0,0 +1,96 @@
+package graphvisualizer.graph;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OffHeapDigraphTest {
+
+    @Test
+    public void matchesAdjacencyMapDigraph() {
+        for (long seed = 0; seed < 10; seed++) {
+            AdjacencyMapDigraph<String, Integer> expected = new AdjacencyMapDigraph<>();
+            OffHeapDigraph<String> graph = new OffHeapDigraph<>();
+            TestGraphs.mutate(seed, 3000, 40, expected, graph);
+
+            TestGraphs.assertSameGraph(expected, graph);
+            TestGraphs.assertConsistent(graph, graph);
+            for (Vertex<String> v : graph.vertices()) {
+                assertEquals(v.id(), graph.vertexId(v.element()));
+                assertEquals(v, graph.vertex(v.id()));
+            }
+        }
+    }
+
+    @Test
+    public void growsPastOnePage() {
+        int n = 40000;
+        OffHeapDigraph<String> graph = new OffHeapDigraph<>();
+        EdgeList edges = new RandomGraphGenerator(1).gnm(n, 3 * n);
+        long empty = graph.offHeapBytes();
+        edges.copyTo(graph);
+
+        assertEquals(n, graph.numVertices());
+        assertEquals(3 * n, graph.numEdges());
+        assertTrue(graph.offHeapBytes() > empty);
+        TestGraphs.assertSameAdjacency(edges.toCSR(), graph);
+        for (int i = 0; i < n; i += 1999) {
+            assertEquals(i, graph.vertexId(String.valueOf(i)));
+        }
+        assertEquals(-1, graph.vertexId("missing"));
+    }
+
+    @Test
+    public void collidingElementsAreFoundAfterRemovals() {
+        OffHeapDigraph<String> graph = new OffHeapDigraph<>();
+        String[] labels = {"Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB"};    //equal hash codes in pairs and quadruples
+        graph.insertVertices(Arrays.asList(labels));
+        graph.removeVertex(graph.vertex(graph.vertexId("Aa")));
+        graph.removeVertex(graph.vertex(graph.vertexId("AaBB")));
+
+        assertEquals(-1, graph.vertexId("Aa"));
+        assertEquals(-1, graph.vertexId("AaBB"));
+        for (String label : new String[]{"BB", "AaAa", "BBAa", "BBBB"}) {
+            assertEquals(label, graph.vertex(graph.vertexId(label)).element());
+        }
+        graph.insertVertex("AaBB");
+        assertEquals("AaBB", graph.vertex(graph.vertexId("AaBB")).element());
+        assertEquals(5, graph.numVertices());
+    }
+
+    @Test
+    public void removedEdgesAreRejected() {
+        OffHeapDigraph<String> graph = new OffHeapDigraph<>();
+        graph.insertVertices(Arrays.asList("a", "b"));
+        Edge<Integer, String> e = graph.insertEdge("a", "b", 3);
+        assertEquals(3, graph.setWeight(e, 4));
+        assertEquals(4, graph.weight(e));
+        assertEquals(Integer.valueOf(4), graph.removeEdge(e));
+        graph.insertEdge("b", "a", 5);
+        try {
+            graph.weight(e);
+            fail("The edge was removed.");
+        } catch (InvalidEdgeException expected) {
+        }
+    }
+
+    @Test
+    public void failedBulkInsertLeavesTheGraphUnchanged() {
+        OffHeapDigraph<String> graph = new OffHeapDigraph<>();
+        graph.insertVertices(Arrays.asList("a", "b", "c"));
+        graph.insertEdge("b", "c", 1);
+        try {
+            graph.insertEdges(Arrays.asList("a", "a", "b"), Arrays.asList("b", "c", "c"), Arrays.asList(1, 2, 3));
+            fail("The edge from b to c exists.");
+        } catch (InvalidEdgeException expected) {
+        }
+        assertEquals(Arrays.asList("b>c:1"), TestGraphs.edges(graph));
+
+        graph.clear();
+        assertEquals(0, graph.numVertices());
+        assertEquals(-1, graph.vertexId("a"));
+        graph.insertVertex("a");
+        assertEquals(1, graph.numVertices());
+    }
+}
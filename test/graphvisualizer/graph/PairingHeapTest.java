@@ -0,0 +1,124 @@
+package graphvisualizer.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PairingHeapTest {
+
+    @Test
+    public void behavesLikeAMapOfKeys() {
+        TestQueues.assertAdaptsLikeModel(new PairingHeap<>(), 1, 60000, 400, 1000);
+        TestQueues.assertAdaptsLikeModel(new PairingHeap<>(), 2, 20000, 100, 3);
+    }
+
+    @Test
+    public void theArrayHeapBehavesLikeAMapOfKeysToo() {
+        TestQueues.assertAdaptsLikeModel(new HeapAdaptablePriorityQueue<>(), 1, 60000, 400, 1000);
+        TestQueues.assertAdaptsLikeModel(new HeapAdaptablePriorityQueue<>(), 2, 20000, 100, 3);
+    }
+
+    @Test
+    public void removesInTheOrderOfTheArrayHeap() {
+        //the pattern of Dijkstra's algorithm on a dense graph: many decreases for each removal
+        PairingHeap<Long, Integer> pairing = new PairingHeap<>();
+        HeapAdaptablePriorityQueue<Long, Integer> array = new HeapAdaptablePriorityQueue<>();
+        int n = 3000;       //the keys end with the id, so they are distinct and the order is unique
+        List<Entry<Long, Integer>> pairingEntries = new ArrayList<>(), arrayEntries = new ArrayList<>();
+        for (int id = 0; id < n; id++) {
+            long key = ((id * 7919L) % 10007 + 100000) * n + id;
+            pairingEntries.add(pairing.insert(key, id));
+            arrayEntries.add(array.insert(key, id));
+        }
+        boolean[] removed = new boolean[n];
+        long previous = Long.MIN_VALUE;
+        for (int round = 0; round < n; round++) {
+            Entry<Long, Integer> a = pairing.removeMin(), b = array.removeMin();
+            assertEquals(b.getKey(), a.getKey());
+            assertEquals(b.getValue(), a.getValue());
+            assertTrue(previous < a.getKey());
+            previous = a.getKey();
+            removed[a.getValue()] = true;
+            for (int i = 1; i <= 10; i++) {
+                int id = (round * 31 + i * 977) % n;
+                long key = (previous / n + 1 + (id + i) % 50) * n + id;
+                if (removed[id] || pairingEntries.get(id).getKey() <= key) continue;
+                pairing.replaceKey(pairingEntries.get(id), key);
+                array.replaceKey(arrayEntries.get(id), key);
+            }
+        }
+        assertTrue(pairing.isEmpty());
+        assertNull(pairing.min());
+    }
+
+    @Test
+    public void removingANodeKeepsItsSubtree() {
+        PairingHeap<Integer, String> heap = new PairingHeap<>();
+        List<Entry<Integer, String>> entries = new ArrayList<>();
+        for (int key = 0; key < 50; key++) entries.add(heap.insert(key, "v" + key));
+        assertEquals(Integer.valueOf(0), heap.removeMin().getKey());   //pairs the other entries into a tree
+
+        for (int key = 10; key < 40; key += 3) heap.remove(entries.get(key));
+        heap.replaceKey(entries.get(45), -1);
+        heap.replaceKey(entries.get(1), 100);
+        List<Integer> order = new ArrayList<>();
+        while (!heap.isEmpty()) order.add(heap.removeMin().getKey());
+
+        List<Integer> expected = new ArrayList<>();
+        expected.add(-1);
+        for (int key = 2; key < 50; key++) {
+            if (key != 45 && (key < 10 || key >= 40 || (key - 10) % 3 != 0)) expected.add(key);
+        }
+        expected.add(100);
+        assertEquals(expected, order);
+    }
+
+    @Test
+    public void longRunsOfEqualAndSortedKeys() {
+        PairingHeap<Integer, Integer> heap = new PairingHeap<>();
+        for (int i = 0; i < 200000; i++) heap.insert(i < 100000 ? 7 : 200000 - i, i);
+        for (int expected = 1; expected <= 6; expected++) assertEquals(Integer.valueOf(expected), heap.removeMin().getKey());
+        int sevens = 0;
+        while (!heap.isEmpty() && heap.min().getKey() == 7) {
+            heap.removeMin();
+            sevens++;
+        }
+        assertEquals(100001, sevens);
+        assertEquals(Integer.valueOf(8), heap.min().getKey());
+    }
+
+    @Test
+    public void usesTheGivenComparator() {
+        PairingHeap<String, Integer> heap = new PairingHeap<>(Comparator.<String>reverseOrder());
+        heap.insertAll(Arrays.asList("b", "d", "a", "c"), Arrays.asList(2, 4, 1, 3));
+        assertEquals("d", heap.removeMin().getKey());
+        assertEquals("c", heap.removeMin().getKey());
+        assertEquals(2, heap.size());
+    }
+
+    @Test
+    public void rejectsEntriesOfOtherQueues() {
+        PairingHeap<Integer, String> heap = new PairingHeap<>(), other = new PairingHeap<>();
+        Entry<Integer, String> mine = heap.insert(1, "a"), foreign = other.insert(1, "b");
+        Entry<Integer, String> array = new HeapAdaptablePriorityQueue<Integer, String>().insert(1, "c");
+        for (Entry<Integer, String> invalid : Arrays.asList(foreign, array, null)) {
+            try {
+                heap.replaceKey(invalid, 0);
+                fail("The entry should be rejected.");
+            } catch (IllegalArgumentException e) {
+                assertSame(mine, heap.min());
+            }
+        }
+        heap.remove(mine);
+        try {
+            heap.remove(mine);
+            fail("A removed entry should be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, heap.size());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package graphvisualizer.graph;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PersistentIdArrayTest {
+
+    private static void assertSameElements(TreeMap<Integer, String> expected, PersistentIdArray<String> array, int idRange) {
+        assertEquals(expected.size(), array.size());
+        for (int id = -1; id <= idRange; id++) {
+            assertEquals("id " + id, expected.get(id), array.get(id));
+        }
+        List<String> iterated = new ArrayList<>();
+        for (String s : array) iterated.add(s);
+        assertEquals(new ArrayList<>(expected.values()), iterated);     //in the order of the ids
+    }
+
+    @Test
+    public void versionsBehaveLikeCopiesOfAMap() {
+        for (int idRange : new int[]{1, 40, 3000, 100000}) {
+            SplittableRandom random = new SplittableRandom(idRange);
+            List<PersistentIdArray<String>> versions = new ArrayList<>();
+            List<TreeMap<Integer, String>> models = new ArrayList<>();
+            PersistentIdArray<String> array = PersistentIdArray.empty();
+            TreeMap<Integer, String> model = new TreeMap<>();
+
+            for (int round = 0; round < 60; round++) {
+                PersistentIdArray.Editor<String> editor = array.edit();
+                int updates = round % 10 == 0 ? 2000 : random.nextInt(20);
+                for (int i = 0; i < updates; i++) {
+                    int id = random.nextInt(idRange);
+                    if (random.nextInt(3) == 0) {
+                        editor.set(id, null);
+                        model.remove(id);
+                    }
+                    else {
+                        String value = round + ":" + i;
+                        editor.set(id, value);
+                        model.put(id, value);
+                    }
+                    assertEquals(model.get(id), editor.get(id));
+                }
+                array = editor.build();
+                versions.add(array);
+                models.add(new TreeMap<>(model));
+            }
+            for (int v = 0; v < versions.size(); v++) {
+                assertSameElements(models.get(v), versions.get(v), idRange);
+            }
+        }
+    }
+
+    @Test
+    public void editingAfterBuildLeavesTheBuiltVersionUnchanged() {
+        PersistentIdArray.Editor<String> editor = PersistentIdArray.<String>empty().edit();
+        editor.set(3, "a");
+        editor.set(70, "b");
+        PersistentIdArray<String> first = editor.build();
+        editor.set(3, "c");
+        editor.set(70, null);
+        editor.set(5000, "d");
+        PersistentIdArray<String> second = editor.build();
+
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        expected.put(3, "a");
+        expected.put(70, "b");
+        assertSameElements(expected, first, 6000);
+        expected.put(3, "c");
+        expected.remove(70);
+        expected.put(5000, "d");
+        assertSameElements(expected, second, 6000);
+        assertEquals(0, PersistentIdArray.<String>empty().size());
+    }
+
+    @Test
+    public void removingAbsentIdsChangesNothing() {
+        PersistentIdArray.Editor<String> editor = PersistentIdArray.<String>empty().edit();
+        editor.set(40, null);
+        editor.set(1 << 20, null);
+        editor.set(2, "a");
+        editor.set(2, null);
+        PersistentIdArray<String> array = editor.build();
+        assertEquals(0, array.size());
+        Iterator<String> it = array.iterator();
+        assertFalse(it.hasNext());
+        try {
+            it.next();
+            fail("The iterator is exhausted.");
+        } catch (NoSuchElementException expected) {
+        }
+        try {
+            editor.set(-1, "x");
+            fail("A negative id should be rejected.");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package graphvisualizer.graph;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RandomGraphGeneratorTest {
+
+    /* assert that the edges have no self-loop or duplicate and weights in [1, 20], and return them as a set of "u>v:w" */
+    private static Set<String> assertSimple(EdgeList edges, int n) {
+        assertEquals(n, edges.labels().size());
+        Set<Long> pairs = new HashSet<>();
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < edges.numEdges(); i++) {
+            int u = edges.source(i), v = edges.target(i);
+            assertTrue(u >= 0 && u < n && v >= 0 && v < n);
+            assertTrue("self-loop", u != v);
+            assertTrue("duplicate", pairs.add((long) u << 32 | v));
+            assertTrue(edges.weight(i) >= 1 && edges.weight(i) <= 20);
+            result.add(u + ">" + v + ":" + edges.weight(i));
+        }
+        return result;
+    }
+
+    @Test
+    public void gnmHasExactlyMEdges() {
+        for (int m : new int[]{0, 1, 500, 4000, 9899, 9900}) {     //sparse, dense and complete
+            EdgeList edges = new RandomGraphGenerator(m).gnm(100, m);
+            assertEquals(m, edges.numEdges());
+            assertSimple(edges, 100);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void gnmRejectsTooManyEdges() {
+        new RandomGraphGenerator(1).gnm(10, 91);
+    }
+
+    @Test
+    public void sameSeedSameGraph() {
+        for (long seed = 0; seed < 3; seed++) {
+            RandomGraphGenerator a = new RandomGraphGenerator(seed), b = new RandomGraphGenerator(seed);
+            assertEquals(assertSimple(a.gnm(300, 3000), 300), assertSimple(b.gnm(300, 3000), 300));
+            assertEquals(assertSimple(a.gnp(2000, 0.05), 2000), assertSimple(b.gnp(2000, 0.05), 2000));
+            assertEquals(assertSimple(a.barabasiAlbert(500, 3), 500), assertSimple(b.barabasiAlbert(500, 3), 500));
+            assertEquals(assertSimple(a.rmat(10, 5000, 0.57, 0.19, 0.19), 1024),
+                    assertSimple(b.rmat(10, 5000, 0.57, 0.19, 0.19), 1024));
+        }
+        assertNotEquals(assertSimple(new RandomGraphGenerator(1).gnm(300, 3000), 300),
+                assertSimple(new RandomGraphGenerator(2).gnm(300, 3000), 300));
+    }
+
+    @Test
+    public void gnpEdgeCountIsNearItsExpectation() {
+        assertEquals(0, new RandomGraphGenerator(1).gnp(100, 0).numEdges());
+        assertEquals(9900, assertSimple(new RandomGraphGenerator(1).gnp(100, 1), 100).size());
+
+        int n = 3000;
+        double p = 0.02, mean = (double) n * (n - 1) * p, deviation = Math.sqrt(mean * (1 - p));
+        int m = assertSimple(new RandomGraphGenerator(3).gnp(n, p), n).size();
+        assertTrue("m = " + m, Math.abs(m - mean) < 6 * deviation);
+    }
+
+    @Test
+    public void barabasiAlbertLinksEachVertexToKOlderOnes() {
+        int n = 1000, k = 4;
+        EdgeList edges = new RandomGraphGenerator(5).barabasiAlbert(n, k);
+        assertSimple(edges, n);
+        assertEquals((n - k) * k + k * (k - 1) / 2, edges.numEdges());
+        int[] outDegree = new int[n];
+        for (int i = 0; i < edges.numEdges(); i++) {
+            assertTrue(edges.source(i) > edges.target(i));
+            outDegree[edges.source(i)]++;
+        }
+        for (int u = 0; u < n; u++) {
+            assertEquals(Math.min(u, k), outDegree[u]);
+        }
+    }
+
+    @Test
+    public void rmatHasExactlyMEdges() {
+        for (int m : new int[]{0, 100, 4000, 16000, 16256}) {
+            EdgeList edges = new RandomGraphGenerator(m).rmat(7, m, 0.57, 0.19, 0.19);
+            assertEquals(m, edges.numEdges());
+            assertSimple(edges, 128);
+        }
+    }
+
+    @Test
+    public void rmatOnlyUsesQuadrantsWithAProbability() {
+        int scale = 5, support = 243 - 1;       //3^5 pairs avoid the bottom right quadrant, one of them a self-loop
+        EdgeList edges = new RandomGraphGenerator(7).rmat(scale, support, 0.4, 0.3, 0.3);
+        assertSimple(edges, 32);
+        for (int i = 0; i < edges.numEdges(); i++) {
+            assertEquals(0, edges.source(i) & edges.target(i));
+        }
+        try {
+            new RandomGraphGenerator(7).rmat(scale, support + 1, 0.4, 0.3, 0.3);
+            fail("The quadrants cannot produce more edges.");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rmatRejectsEdgesOnTheDiagonalOnly() {
+        new RandomGraphGenerator(1).rmat(4, 1, 1, 0, 0);
+    }
+
+    @Test
+    public void generateRandomEdgeFillsTheGraph() {
+        AdjacencyMapDigraph<String, Integer> graph = TestGraphs.random(8, 12, 100);
+        graph.insertEdge("3", "3", 1);
+        SplittableRandom random = new SplittableRandom(8);
+        for (int i = 100; i < 12 * 11; i++) {
+            assertTrue(graph.generateRandomEdge(1, random).endsWith(" is generated.\n"));
+        }
+        assertEquals("Graph has maximum number of edges.\n", graph.generateRandomEdge(1, random));
+        assertEquals(12 * 11 + 1, graph.numEdges());
+    }
+}
@@ -0,0 +1,69 @@
+package graphvisualizer.graph;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SymbolTableTest {
+
+    @Test
+    public void internsEachLabelOnce() {
+        SymbolTable symbols = new SymbolTable();
+        assertEquals(0, symbols.intern("AU"));
+        assertEquals(1, symbols.intern("BE"));
+        assertEquals(0, symbols.intern("AU"));
+        assertEquals(2, symbols.intern(""));
+        assertEquals(3, symbols.size());
+        assertEquals("BE", symbols.symbol(1));
+        assertEquals("", symbols.symbol(2));
+        assertEquals(4, symbols.arenaBytes());
+    }
+
+    @Test
+    public void bytesAndStringsShareIds() {
+        SymbolTable symbols = new SymbolTable();
+        byte[] bytes = "x,Zürich,y".getBytes(StandardCharsets.UTF_8);
+        int id = symbols.intern(bytes, 2, bytes.length - 2);
+        assertEquals(id, symbols.intern("Zürich"));
+        assertEquals(id, symbols.find("Zürich"));
+        assertEquals("Zürich", symbols.symbol(id));
+        assertEquals(-1, symbols.find("Zurich"));
+        assertEquals(-1, symbols.find(bytes, 0, 1));
+    }
+
+    @Test
+    public void growsPastManyLabels() {
+        SymbolTable symbols = new SymbolTable();
+        for (int i = 0; i < 100000; i++) {
+            assertEquals(i, symbols.intern("v" + i));
+        }
+        for (int i = 0; i < 100000; i += 997) {
+            assertEquals(i, symbols.find("v" + i));
+            assertEquals("v" + i, symbols.symbol(i));
+        }
+        assertEquals(100000, symbols.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsUnknownId() {
+        new SymbolTable().symbol(0);
+    }
+
+    @Test
+    public void fullArenaThrowsAndKeepsTheTable() {
+        SymbolTable symbols = new SymbolTable(10);
+        symbols.intern("abcdef");
+        try {
+            symbols.intern("ghijk");
+            fail("The arena should be full.");
+        } catch (IllegalStateException e) {
+            assertEquals(1, symbols.size());
+            assertEquals(-1, symbols.find("ghijk"));
+        }
+        assertEquals(1, symbols.intern("ghij"));
+        assertEquals(0, symbols.intern("abcdef"));
+        assertEquals("ghij", symbols.symbol(1));
+        assertEquals(10, symbols.arenaBytes());
+    }
+}
@@ -0,0 +1,169 @@
+package graphvisualizer.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * Graphs and assertions shared by the tests of the graph implementations.
+ */
+final class TestGraphs {
+
+    private TestGraphs() {
+    }
+
+    /* return a graph with the vertices "0" to "n-1", inserted in order, and m random edges without self-loops */
+    static AdjacencyMapDigraph<String, Integer> random(long seed, int n, int m) {
+        AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+        new RandomGraphGenerator(seed).gnm(n, m).copyTo(graph);
+        return graph;
+    }
+
+    /* return the vertex of graph with this element */
+    static <V> Vertex<V> vertex(Graph<V, ?> graph, V element) {
+        Vertex<V> v = find(graph, element);
+        if (v == null) throw new AssertionError("No vertex " + element);
+        return v;
+    }
+
+    /* return the vertex of graph with this element, or null if there is none */
+    static <V> Vertex<V> find(Graph<V, ?> graph, V element) {
+        for (Vertex<V> v : graph.vertices()) {
+            if (v.element().equals(element)) return v;
+        }
+        return null;
+    }
+
+    /* return the vertices of graph as sorted elements */
+    static List<String> labels(Graph<String, ?> graph) {
+        List<String> result = new ArrayList<>();
+        for (Vertex<String> v : graph.vertices()) {
+            result.add(v.element());
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /* return the edges of graph as sorted "source>target:element" strings */
+    static List<String> edges(Graph<String, ?> graph) {
+        List<String> result = new ArrayList<>();
+        for (Edge<?, String> e : graph.edges()) {
+            result.add(e.vertices()[0].element() + ">" + e.vertices()[1].element() + ":" + e.element());
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /* assert that both graphs have the same vertex elements and the same edges between them */
+    static void assertSameGraph(Graph<String, ?> expected, Graph<String, ?> actual) {
+        assertEquals(expected.numVertices(), actual.numVertices());
+        assertEquals(expected.numEdges(), actual.numEdges());
+        assertEquals(labels(expected), labels(actual));
+        assertEquals(edges(expected), edges(actual));
+    }
+
+    /*
+    apply the same random insertions and removals of vertices "0" to "range-1" and their edges, self-loops
+    included, to every graph; the first graph decides which operations are valid
+     */
+    @SafeVarargs
+    static void mutate(long seed, int steps, int range, Graph<String, Integer>... graphs) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Graph<String, Integer> model = graphs[0];
+        for (int step = 0; step < steps; step++) {
+            int op = random.nextInt(10);
+            String a = String.valueOf(random.nextInt(range)), b = String.valueOf(random.nextInt(range));
+            Vertex<String> u = find(model, a), v = find(model, b);
+            if (op < 2) {
+                if (u != null) continue;
+                for (Graph<String, Integer> graph : graphs) graph.insertVertex(a);
+            }
+            else if (op < 7) {
+                if (u == null || v == null || model.getEdge(u, v) != null) continue;
+                int weight = random.nextInt(1, 21);
+                for (Graph<String, Integer> graph : graphs) graph.insertEdge(a, b, weight);
+            }
+            else if (op < 9) {
+                if (u == null || v == null || model.getEdge(u, v) == null) continue;
+                for (Graph<String, Integer> graph : graphs) graph.removeEdge(graph.getEdge(vertex(graph, a), vertex(graph, b)));
+            }
+            else {
+                if (u == null) continue;
+                for (Graph<String, Integer> graph : graphs) graph.removeVertex(vertex(graph, a));
+            }
+        }
+    }
+
+    /* return the successors of vertexId as sorted "id:weight" strings, read with forEachOutNeighbor */
+    static List<String> successors(IntDigraph graph, int vertexId) {
+        List<String> result = new ArrayList<>();
+        graph.forEachOutNeighbor(vertexId, (v, weight) -> result.add(v + ":" + weight));
+        Collections.sort(result);
+        return result;
+    }
+
+    /* return the predecessors of vertexId as sorted "id:weight" strings, read with forEachInNeighbor */
+    static List<String> predecessors(IntDigraph graph, int vertexId) {
+        List<String> result = new ArrayList<>();
+        graph.forEachInNeighbor(vertexId, (v, weight) -> result.add(v + ":" + weight));
+        Collections.sort(result);
+        return result;
+    }
+
+    /* return the neighbours of vertexId as sorted "id:weight" strings, read with a cursor */
+    static List<String> neighbors(IntDigraph.NeighborCursor cursor, int vertexId) {
+        List<String> result = new ArrayList<>();
+        cursor.reset(vertexId);
+        while (cursor.advance()) {
+            result.add(cursor.vertex() + ":" + cursor.weight());
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /* assert that both graphs have the same vertex ids and the same weighted edges between them */
+    static void assertSameAdjacency(IntDigraph expected, IntDigraph actual) {
+        int bound = Math.max(expected.vertexIdBound(), actual.vertexIdBound());
+        IntDigraph.NeighborCursor out = actual.outCursor(), in = actual.inCursor();
+        for (int u = 0; u < bound; u++) {
+            boolean exists = u < expected.vertexIdBound() && expected.containsVertex(u);
+            assertEquals("vertex " + u, exists, u < actual.vertexIdBound() && actual.containsVertex(u));
+            if (!exists) continue;
+            List<String> successors = successors(expected, u), predecessors = predecessors(expected, u);
+            assertEquals("successors of " + u, successors, successors(actual, u));
+            assertEquals("successors of " + u, successors, neighbors(out, u));
+            assertEquals("predecessors of " + u, predecessors, predecessors(actual, u));
+            assertEquals("predecessors of " + u, predecessors, neighbors(in, u));
+            assertEquals(successors.size(), actual.outDegree(u));
+            assertEquals(predecessors.size(), actual.inDegree(u));
+        }
+    }
+
+    /* assert that the IntDigraph view of graph agrees with its Graph methods */
+    static void assertConsistent(Graph<String, Integer> graph, IntDigraph view) {
+        int vertices = 0;
+        for (int u = 0; u < view.vertexIdBound(); u++) {
+            if (view.containsVertex(u)) vertices++;
+        }
+        assertEquals(graph.numVertices(), vertices);
+        int edges = 0;
+        for (Vertex<String> v : graph.vertices()) {
+            List<String> successors = new ArrayList<>(), predecessors = new ArrayList<>();
+            for (Edge<Integer, String> e : graph.outgoingEdges(v)) {
+                successors.add(e.vertices()[1].id() + ":" + e.element());
+            }
+            for (Edge<Integer, String> e : graph.incomingEdges(v)) {
+                predecessors.add(e.vertices()[0].id() + ":" + e.element());
+            }
+            Collections.sort(successors);
+            Collections.sort(predecessors);
+            assertEquals(successors, successors(view, v.id()));
+            assertEquals(predecessors, predecessors(view, v.id()));
+            edges += successors.size();
+        }
+        assertEquals(graph.numEdges(), edges);
+    }
+}
@@ -0,0 +1,163 @@
+package graphvisualizer.graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * Assertions shared by the tests of the priority queues.
+ */
+final class TestQueues {
+
+    private TestQueues() {
+    }
+
+    /*
+    apply the same random operations on ids below idRange to queue and to a map of the queued keys, and
+    compare them after each one. The keys are drawn up to spread above a floor: the last minimum removed
+    if the queue is monotone, -spread otherwise.
+     */
+    static void assertBehavesLikeModel(IndexedPriorityQueue queue, long seed, int steps, int idRange, long spread, boolean monotone) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Map<Integer, Long> model = new HashMap<>();
+        long floor = monotone ? 0 : -spread;
+
+        for (int step = 0; step < steps; step++) {
+            int op = random.nextInt(20), id = random.nextInt(idRange);
+            Long current = model.get(id);
+            long key = floor + random.nextLong(spread + 1);
+
+            if (op < 6) {
+                if (current != null) continue;
+                queue.insert(id, key);
+                model.put(id, key);
+            }
+            else if (op < 10) {
+                if (current == null) continue;
+                key = floor + random.nextLong(current - floor + 1);
+                queue.decreaseKey(id, key);
+                model.put(id, key);
+            }
+            else if (op < 12) {
+                if (current == null) continue;
+                queue.changeKey(id, key);
+                model.put(id, key);
+            }
+            else if (op < 14) {
+                boolean changes = current == null || key < current;
+                assertEquals(changes, queue.insertOrDecreaseKey(id, key));
+                if (changes) model.put(id, key);
+            }
+            else if (op < 15) {
+                assertEquals(current != null, queue.remove(id));
+                model.remove(id);
+            }
+            else if (op < 19) {
+                if (model.isEmpty()) continue;
+                long min = minimum(model);
+                assertEquals(min, queue.minKey());
+                int removed = queue.removeMinId();
+                assertEquals("key of " + removed, Long.valueOf(min), model.remove(removed));
+                if (monotone) floor = min;
+            }
+            else if (random.nextInt(50) == 0) {
+                queue.clear();
+                model.clear();
+            }
+            assertEquals(model.size(), queue.size());
+        }
+
+        for (int id = 0; id < idRange; id++) {
+            assertEquals("id " + id, model.containsKey(id), queue.contains(id));
+            if (model.containsKey(id)) assertEquals((long) model.get(id), queue.key(id));
+        }
+        long previous = Long.MIN_VALUE;
+        while (!queue.isEmpty()) {
+            long min = queue.minKey();
+            assertTrue(previous <= min);
+            assertEquals(Long.valueOf(min), model.remove(queue.removeMinId()));
+            previous = min;
+        }
+        assertTrue(model.isEmpty());
+    }
+
+    /*
+    apply the same random insertions, removals and key replacements, increases included, to queue and
+    to a map of the keys of its entries, whose value is a distinct id below idRange, and compare them
+    after each one
+     */
+    static void assertAdaptsLikeModel(AdaptablePriorityQueue<Long, Integer> queue, long seed, int steps, int idRange, long spread) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Map<Integer, Entry<Long, Integer>> entries = new HashMap<>();
+        Map<Integer, Long> model = new HashMap<>();
+        List<Entry<Long, Integer>> removed = new ArrayList<>();
+
+        for (int step = 0; step < steps; step++) {
+            int op = random.nextInt(10), id = random.nextInt(idRange);
+            Entry<Long, Integer> entry = entries.get(id);
+            long key = random.nextLong(spread + 1);
+
+            if (op < 4) {
+                if (entry != null) continue;
+                entry = queue.insert(key, id);
+                assertEquals(Integer.valueOf(id), entry.getValue());
+                entries.put(id, entry);
+                model.put(id, key);
+            }
+            else if (op < 6) {
+                if (entry == null) continue;
+                queue.replaceKey(entry, key);
+                model.put(id, key);
+            }
+            else if (op < 7) {
+                if (entry == null) continue;
+                queue.remove(entry);
+                removed.add(entries.remove(id));
+                model.remove(id);
+            }
+            else {
+                Entry<Long, Integer> min = queue.removeMin();
+                if (model.isEmpty()) {
+                    assertNull(min);
+                    continue;
+                }
+                assertEquals(Long.valueOf(minimum(model)), min.getKey());
+                assertEquals(min.getKey(), model.remove(min.getValue()));
+                removed.add(entries.remove(min.getValue()));
+            }
+            assertEquals(model.size(), queue.size());
+            assertEquals(model.isEmpty(), queue.isEmpty());
+            if (!model.isEmpty()) assertEquals(Long.valueOf(minimum(model)), queue.min().getKey());
+        }
+
+        for (Map.Entry<Integer, Long> expected : model.entrySet()) {
+            assertEquals(expected.getValue(), entries.get(expected.getKey()).getKey());
+        }
+        for (int i = Math.max(0, removed.size() - 20); i < removed.size(); i++) {
+            try {
+                queue.remove(removed.get(i));
+                fail("A removed entry should be rejected.");
+            } catch (IllegalArgumentException e) {
+                assertEquals(model.size(), queue.size());
+            }
+        }
+        long previous = Long.MIN_VALUE;
+        while (!queue.isEmpty()) {
+            Entry<Long, Integer> min = queue.removeMin();
+            assertTrue(previous <= min.getKey());
+            assertEquals(min.getKey(), model.remove(min.getValue()));
+            previous = min.getKey();
+        }
+        assertTrue(model.isEmpty());
+    }
+
+    private static long minimum(Map<Integer, Long> keys) {
+        long min = Long.MAX_VALUE;
+        for (long key : keys.values()) min = Math.min(min, key);
+        return min;
+    }
+}
@@ -0,0 +1,79 @@
+package graphvisualizer.graphalgorithms;
+
+import graphvisualizer.graph.AdjacencyMapDigraph;
+import graphvisualizer.graph.CSRDigraph;
+import graphvisualizer.graph.RandomGraphGenerator;
+import java.util.Arrays;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CycleDetectionTest {
+
+    /* return which vertices each vertex reaches through at least one edge, by transitive closure */
+    static boolean[][] closure(CSRDigraph<String> graph) {
+        int n = graph.numVertices();
+        boolean[][] reaches = new boolean[n][n];
+        for (int u = 0; u < n; u++) {
+            for (int i = graph.outStart(u); i < graph.outEnd(u); i++) {
+                reaches[u][graph.outTarget(i)] = true;
+            }
+        }
+        for (int k = 0; k < n; k++) {
+            for (int u = 0; u < n; u++) {
+                if (!reaches[u][k]) continue;
+                for (int v = 0; v < n; v++) {
+                    if (reaches[k][v]) reaches[u][v] = true;
+                }
+            }
+        }
+        return reaches;
+    }
+
+    @Test
+    public void matchesTransitiveClosure() {
+        for (long seed = 0; seed < 40; seed++) {
+            CSRDigraph<String> graph = new RandomGraphGenerator(seed).gnm(30, 25 + (int) seed).toCSR();
+            boolean[][] reaches = closure(graph);
+            boolean cycle = false;
+            for (int u = 0; u < graph.numVertices(); u++) {
+                cycle |= reaches[u][u];
+            }
+            assertEquals("seed " + seed, cycle, CycleDetection.hasCycle(graph));
+        }
+    }
+
+    @Test
+    public void deepPathDoesNotOverflowTheStack() {
+        int n = 200000;
+        String[] labels = new String[n];
+        int[] sources = new int[n], targets = new int[n], weights = new int[n];
+        for (int i = 0; i < n; i++) {
+            labels[i] = "v" + i;
+            sources[i] = i;
+            targets[i] = i + 1;
+            weights[i] = 1;
+        }
+        CSRDigraph<String> path = CSRDigraph.fromEdges(Arrays.asList(labels), sources, targets, weights, n - 1);
+        assertFalse(CycleDetection.hasCycle(path));
+        targets[n - 1] = 0;
+        assertTrue(CycleDetection.hasCycle(CSRDigraph.fromEdges(Arrays.asList(labels), sources, targets, weights, n)));
+    }
+
+    @Test
+    public void selfLoopIsACycle() {
+        assertTrue(CycleDetection.hasCycle(CSRDigraph.fromEdges(Arrays.asList("a"),
+                new int[]{0}, new int[]{0}, new int[]{1}, 1)));
+    }
+
+    @Test
+    public void viewsOfTheGraphAgreeWithItsSnapshot() {
+        for (long seed = 0; seed < 20; seed++) {
+            AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+            new RandomGraphGenerator(seed).gnm(40, 30 + (int) seed).copyTo(graph);
+            boolean expected = CycleDetection.hasCycle(graph.freeze(Integer::intValue));
+            assertEquals(expected, CycleDetection.hasCycle(graph.asIntDigraph(Integer::intValue)));
+            assertEquals(expected, CycleDetection.hasCycle(graph.snapshot().asIntDigraph(Integer::intValue)));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package graphvisualizer.graphalgorithms;
+
+import graphvisualizer.graph.AdaptablePriorityQueue;
+import graphvisualizer.graph.AdjacencyMapDigraph;
+import graphvisualizer.graph.CSRDigraph;
+import graphvisualizer.graph.DigraphSnapshot;
+import graphvisualizer.graph.HeapAdaptablePriorityQueue;
+import graphvisualizer.graph.IntDigraph;
+import graphvisualizer.graph.PairingHeap;
+import graphvisualizer.graph.RandomGraphGenerator;
+import graphvisualizer.graph.Vertex;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ShortestPathTest {
+
+    /* Bellman-Ford over the IntDigraph surface, indexed by vertex id */
+    private static int[] bellmanFord(IntDigraph graph, int source) {
+        int[] d = new int[graph.vertexIdBound()];
+        Arrays.fill(d, Integer.MAX_VALUE);
+        d[source] = 0;
+        boolean[] changed = {true};
+        while (changed[0]) {
+            changed[0] = false;
+            for (int u = 0; u < graph.vertexIdBound(); u++) {
+                if (!graph.containsVertex(u) || d[u] == Integer.MAX_VALUE) continue;
+                int du = d[u];
+                graph.forEachOutNeighbor(u, (v, weight) -> {
+                    if (du + weight < d[v]) {
+                        d[v] = du + weight;
+                        changed[0] = true;
+                    }
+                });
+            }
+        }
+        return d;
+    }
+
+    /* run the private Dijkstra of the demo on snapshot, return whether end was reached and fill d and weight */
+    private static boolean dijkstra(DigraphSnapshot<String, Integer> snapshot, Vertex<String> start, Vertex<String> end,
+                                    LinkedHashMap<Vertex<String>, Integer> d, int[] weight,
+                                    Supplier<? extends AdaptablePriorityQueue<Integer, Vertex<String>>> heaps, boolean lazy) throws Exception {
+        Method dijkstra = ShortestPath.class.getDeclaredMethod("dijkstra", DigraphSnapshot.class, Vertex.class, Vertex.class,
+                LinkedHashMap.class, int[].class, Supplier.class, boolean.class);
+        dijkstra.setAccessible(true);
+        try {
+            return (Boolean) dijkstra.invoke(null, snapshot, start, end, d, weight, heaps, lazy);
+        } catch (InvocationTargetException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    /* return a random graph where every vertex whose id is a multiple of 4 was removed, so the ids have holes */
+    private static AdjacencyMapDigraph<String, Integer> graphWithHoles(long seed, int n, int m) {
+        AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+        new RandomGraphGenerator(seed).gnm(n, m).copyTo(graph);
+        for (Vertex<String> v : graph.vertices()) {
+            if (v.id() % 4 == 0) graph.removeVertex(v);
+        }
+        return graph;
+    }
+
+    @Test
+    public void distancesMatchBellmanFord() {
+        for (long seed = 0; seed < 5; seed++) {
+            CSRDigraph<String> graph = new RandomGraphGenerator(seed).gnm(200, 600).toCSR();
+            for (int source : new int[]{0, 99, 199}) {
+                assertArrayEquals(bellmanFord(graph, source), ShortestPath.distances(graph, source));
+            }
+        }
+    }
+
+    @Test
+    public void unreachableVerticesStayAtMaxValue() {
+        CSRDigraph<String> graph = CSRDigraph.fromEdges(Arrays.asList("a", "b", "c"),
+                new int[]{0}, new int[]{1}, new int[]{4}, 1);
+        assertArrayEquals(new int[]{0, 4, Integer.MAX_VALUE}, ShortestPath.distances(graph, 0));
+        assertArrayEquals(new int[]{Integer.MAX_VALUE, 0, Integer.MAX_VALUE}, ShortestPath.distances(graph, 1));
+    }
+
+    @Test
+    public void everyQueueAgreesOnEveryView() {
+        for (long seed = 0; seed < 4; seed++) {
+            AdjacencyMapDigraph<String, Integer> graph = graphWithHoles(seed, 300, 1200);
+            DigraphSnapshot<String, Integer> snapshot = graph.snapshot();
+            List<IntDigraph> views = Arrays.asList(graph.asIntDigraph(Integer::intValue), snapshot.asIntDigraph(Integer::intValue));
+            for (Vertex<String> source : snapshot.vertices()) {
+                if (source.id() % 25 != 1) continue;
+                int[] expected = bellmanFord(views.get(0), source.id());
+                for (IntDigraph view : views) {
+                    assertArrayEquals(expected, ShortestPath.distances(view, source.id()));
+                    assertArrayEquals(expected, ShortestPath.distances(view, source.id(), 20));
+                    assertArrayEquals(expected, ShortestPath.distances(view, source.id(), ShortestPath.BUCKET_QUEUE_MAX_WEIGHT));
+                    assertArrayEquals(expected, ShortestPath.distances(view, source.id(), ShortestPath.BUCKET_QUEUE_MAX_WEIGHT + 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void largeWeightsUseTheRadixHeap() {
+        for (long seed = 0; seed < 3; seed++) {
+            CSRDigraph<String> graph = new RandomGraphGenerator(seed, 0, 1000000).gnm(400, 3000).toCSR();
+            for (int source : new int[]{0, 200, 399}) {
+                int[] expected = bellmanFord(graph, source);
+                assertArrayEquals(expected, ShortestPath.distances(graph, source));
+                assertArrayEquals(expected, ShortestPath.distances(graph, source, 1000000));
+            }
+        }
+    }
+
+    @Test
+    public void zeroWeightsAndTheTightestBucketQueue() {
+        CSRDigraph<String> zeros = new RandomGraphGenerator(4, 0, 0).gnm(100, 300).toCSR();
+        assertArrayEquals(bellmanFord(zeros, 0), ShortestPath.distances(zeros, 0, 0));
+
+        CSRDigraph<String> graph = new RandomGraphGenerator(5, 0, 3).gnm(200, 800).toCSR();
+        assertArrayEquals(bellmanFord(graph, 7), ShortestPath.distances(graph, 7, 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bucketQueueRejectsWeightsAboveTheBound() {
+        CSRDigraph<String> graph = new RandomGraphGenerator(6, 10, 20).gnm(50, 200).toCSR();
+        ShortestPath.distances(graph, 0, 5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeMaxWeightIsRejected() {
+        ShortestPath.distances(new RandomGraphGenerator(6).gnm(5, 5).toCSR(), 0, -1);
+    }
+
+    @Test
+    public void lazyAndEagerDijkstraAgree() throws Exception {
+        List<Supplier<? extends AdaptablePriorityQueue<Integer, Vertex<String>>>> heaps =
+                Arrays.<Supplier<? extends AdaptablePriorityQueue<Integer, Vertex<String>>>>asList(HeapAdaptablePriorityQueue::new, PairingHeap::new);
+        for (long seed = 0; seed < 3; seed++) {
+            AdjacencyMapDigraph<String, Integer> graph = graphWithHoles(seed, 120, 200);     //sparse, with unreachable vertices
+            DigraphSnapshot<String, Integer> snapshot = graph.snapshot();
+            for (Vertex<String> start : snapshot.vertices()) {
+                if (start.id() % 10 != 1) continue;
+                int[] expected = bellmanFord(snapshot.asIntDigraph(Integer::intValue), start.id());
+
+                for (Vertex<String> end : snapshot.vertices()) {
+                    if (end.id() % 7 != 2) continue;
+                    for (Supplier<? extends AdaptablePriorityQueue<Integer, Vertex<String>>> heap : heaps) {
+                        for (boolean lazy : new boolean[]{false, true}) {
+                            LinkedHashMap<Vertex<String>, Integer> d = new LinkedHashMap<>();
+                            d.put(end, -1);                         //the distances of an earlier run are dropped
+                            int[] weight = {-1};
+                            boolean reached = dijkstra(snapshot, start, end, d, weight, heap, lazy);
+
+                            String mode = (lazy ? "lazy" : "eager") + " from " + start + " to " + end;
+                            assertEquals(mode, expected[end.id()] != Integer.MAX_VALUE, reached);
+                            assertEquals(mode, expected[end.id()], weight[0]);
+                            for (Vertex<String> v : snapshot.vertices()) {
+                                Integer distance = d.get(v);
+                                if (lazy && expected[v.id()] == Integer.MAX_VALUE) assertNull(mode, distance);
+                                else assertEquals(mode, Integer.valueOf(expected[v.id()]), distance);
+                            }
+                            assertEquals(0, (int) d.get(start));
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
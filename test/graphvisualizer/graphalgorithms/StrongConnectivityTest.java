@@ -0,0 +1,67 @@
+package graphvisualizer.graphalgorithms;
+
+import graphvisualizer.graph.AdjacencyMapDigraph;
+import graphvisualizer.graph.CSRDigraph;
+import graphvisualizer.graph.RandomGraphGenerator;
+import graphvisualizer.graph.Vertex;
+import java.util.Arrays;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StrongConnectivityTest {
+
+    @Test
+    public void componentsMatchMutualReachability() {
+        for (long seed = 0; seed < 40; seed++) {
+            CSRDigraph<String> graph = new RandomGraphGenerator(seed).gnm(30, 20 + 2 * (int) seed).toCSR();
+            boolean[][] reaches = CycleDetectionTest.closure(graph);
+            int[] component = StrongConnectivity.componentIds(graph);
+            boolean connected = true;
+            for (int u = 0; u < graph.numVertices(); u++) {
+                for (int v = 0; v < graph.numVertices(); v++) {
+                    boolean mutual = u == v || reaches[u][v] && reaches[v][u];
+                    assertEquals("seed " + seed, mutual, component[u] == component[v]);
+                    connected &= mutual;
+                }
+            }
+            assertEquals(connected, StrongConnectivity.isStronglyConnected(graph));
+        }
+    }
+
+    @Test
+    public void cycleIsStronglyConnected() {
+        int n = 100000;
+        String[] labels = new String[n];
+        int[] sources = new int[n], targets = new int[n], weights = new int[n];
+        for (int i = 0; i < n; i++) {
+            labels[i] = "v" + i;
+            sources[i] = i;
+            targets[i] = (i + 1) % n;
+        }
+        assertTrue(StrongConnectivity.isStronglyConnected(CSRDigraph.fromEdges(Arrays.asList(labels), sources, targets, weights, n)));
+        assertFalse(StrongConnectivity.isStronglyConnected(CSRDigraph.fromEdges(Arrays.asList(labels), sources, targets, weights, n - 1)));
+    }
+
+    @Test
+    public void vertexIdsWithHoles() {
+        AdjacencyMapDigraph<String, Integer> graph = new AdjacencyMapDigraph<>();
+        new RandomGraphGenerator(9).gnm(40, 70).copyTo(graph);
+        for (Vertex<String> v : graph.vertices()) {
+            if (v.id() % 3 == 0) graph.removeVertex(v);
+        }
+        CSRDigraph<String> csr = graph.freeze(Integer::intValue);
+        int[] expected = StrongConnectivity.componentIds(csr);
+        int[] actual = StrongConnectivity.componentIds(graph.asIntDigraph(Integer::intValue));
+
+        for (Vertex<String> u : graph.vertices()) {
+            for (Vertex<String> v : graph.vertices()) {
+                assertEquals(expected[csr.indexOf(u.element())] == expected[csr.indexOf(v.element())],
+                        actual[u.id()] == actual[v.id()]);
+            }
+        }
+        for (int id = 0; id < graph.vertexIdBound(); id += 3) {
+            assertEquals(-1, actual[id]);
+        }
+    }
+}